@@ -268,6 +268,11 @@ public class ControlTerminal extends Frame implements IAutoPilotController
         return( data );
     }
 
+    public PacketQueue getPacketQueue( )
+    {
+        return( packetContainer );
+    }
+
     public int[] getMaximumValues( )
     {
         int[] values = { meterRoll     .getMaximum( ),
@@ -518,6 +523,8 @@ public class ControlTerminal extends Frame implements IAutoPilotController
     private static final String PROP_RELAY_PORT                 = "relay.port";
     private static final String PROP_CONTROL_SERVICE_PORT       = "control.service.port";
     private static final String EXTERNAL_AUTOPILOT              = "external.autopilot";
+    private static final String PROP_PACKET_QUEUE_CAPACITY      = "packet.queue.capacity";
+    private static final String PROP_PACKET_QUEUE_OVERFLOW      = "packet.queue.overflow";
     
     private static final String SHOW_3D_WINDOW                  = "show.3d.window";
 
@@ -575,6 +582,20 @@ public class ControlTerminal extends Frame implements IAutoPilotController
         
         controlServicePort = Integer.parseInt (props.getProperty(PROP_CONTROL_SERVICE_PORT, "7001"));
         externalAutopilot = Boolean.parseBoolean (props.getProperty (EXTERNAL_AUTOPILOT, "false"));
+
+        String overflowName = props.getProperty (PROP_PACKET_QUEUE_OVERFLOW, PacketQueue.Overflow.DROP_OLDEST.name ());
+        PacketQueue.Overflow overflow;
+        try {
+            overflow = PacketQueue.Overflow.valueOf (overflowName.trim ().toUpperCase ());
+        } catch (IllegalArgumentException e) {
+            System.err.println ("ControlTerminal.loadConfiguration: invalid value '" + overflowName + "' of property "
+                + PROP_PACKET_QUEUE_OVERFLOW + ", using " + PacketQueue.Overflow.DROP_OLDEST.name ());
+            overflow = PacketQueue.Overflow.DROP_OLDEST;
+        }
+
+        packetContainer = new PacketQueue (
+            Integer.parseInt (props.getProperty (PROP_PACKET_QUEUE_CAPACITY, Integer.toString (PacketQueue.DEFAULT_CAPACITY))),
+            overflow);
         
         return( true );
 
@@ -624,6 +645,8 @@ public class ControlTerminal extends Frame implements IAutoPilotController
         
         props.setProperty (PROP_CONTROL_SERVICE_PORT, Integer.toString(controlServicePort));
         props.setProperty (EXTERNAL_AUTOPILOT, Boolean.toString(externalAutopilot));
+        props.setProperty (PROP_PACKET_QUEUE_CAPACITY, Integer.toString(packetContainer.getCapacity()));
+        props.setProperty (PROP_PACKET_QUEUE_OVERFLOW, packetContainer.getOverflow().name());
 
         try {
 			props.store(new FileOutputStream(fileName), null);
@@ -33,11 +33,15 @@ import java.awt.Color;
 import java.awt.Point;
 import java.awt.GraphicsEnvironment;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.KeyEvent;
 
+import javax.swing.Timer;
+
 /*****************************************************************************/
 /*                                                                           */
 /*   Class InfoDialog                                                        */
@@ -120,8 +124,16 @@ public class InfoDialog extends Dialog
         ControlTerminal.NIL
     };
 
+    private static final int QUEUE_REFRESH_PERIOD = 1000; /* ms */
+
     private static InfoDialog Instance = null;
 
+    private PacketQueue queue         = null;
+    private Label       queueDepth    = null;
+    private Label       queueDrops    = null;
+    private Label       queueCommands = null;
+    private Timer       queueTimer    = null;
+
     private InfoDialog( ControlTerminal parent, String title, byte type )
     {
         super( parent, title, false );
@@ -134,7 +146,7 @@ public class InfoDialog extends Dialog
         }
         else if( type == TYPE_ABOUT_TERMINAL )
         {
-            makeAboutTerminal( );
+            makeAboutTerminal( parent.getPacketQueue( ) );
         }
 
         pack( );
@@ -176,6 +188,11 @@ public class InfoDialog extends Dialog
 
     private void closeDialog( )
     {
+        if( queueTimer != null )
+        {
+            queueTimer.stop( );
+        }
+
         dispose( );
         Instance = null;
     }
@@ -213,16 +230,51 @@ public class InfoDialog extends Dialog
         add( southPanel, BorderLayout.SOUTH );
     }
 
-    private void makeAboutTerminal( )
+    private void makeAboutTerminal( PacketQueue packetQueue )
     {
         int items = ABOUT_STRINGS.length;
 
-        setLayout( new GridLayout( items, 1 ) );
+        Panel aboutPanel = new Panel( new GridLayout( items, 1 ) );
 
         for( int i = 0; i < items; ++i )
         {
-            add( new Label( ABOUT_STRINGS[i], Label.CENTER ) );
+            aboutPanel.add( new Label( ABOUT_STRINGS[i], Label.CENTER ) );
         }
+
+        queue         = packetQueue;
+        queueDepth    = new Label( ControlTerminal.NIL, Label.CENTER );
+        queueDrops    = new Label( ControlTerminal.NIL, Label.CENTER );
+        queueCommands = new Label( ControlTerminal.NIL, Label.CENTER );
+
+        Panel queuePanel = new Panel( new GridLayout( 4, 1 ) );
+        queuePanel.add( new Label( "Packet Queue", Label.CENTER ) );
+        queuePanel.add( queueDepth );
+        queuePanel.add( queueDrops );
+        queuePanel.add( queueCommands );
+
+        updateQueueStatistics( );
+
+        queueTimer = new Timer( QUEUE_REFRESH_PERIOD, new ActionListener( )
+        {
+            public void actionPerformed( ActionEvent ae )
+            {
+                updateQueueStatistics( );
+            }
+        } );
+        queueTimer.start( );
+
+        setLayout( new BorderLayout( ) );
+        add( aboutPanel, BorderLayout.NORTH );
+        add( queuePanel, BorderLayout.SOUTH );
+    }
+
+    private void updateQueueStatistics( )
+    {
+        queueDepth.setText( "Depth: " + queue.getDepth( ) + " of " + queue.getCapacity( )
+            + ", maximum " + queue.getMaximumDepth( ) );
+        queueDrops.setText( "Dropped: " + queue.getDropped( )
+            + " (" + queue.getOverflow( ).name( ).toLowerCase( ).replace( '_', ' ' ) + ")" );
+        queueCommands.setText( "Pending commands: " + queue.getPendingCommands( ) );
     }
 }
 
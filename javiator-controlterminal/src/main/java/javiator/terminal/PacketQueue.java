@@ -21,21 +21,164 @@
 package javiator.terminal;
 
 import java.util.NoSuchElementException;
-import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import javiator.util.IPacketContainer;
 import javiator.util.Packet;
+import javiator.util.PacketType;
 
+/**
+ * This class implements a bounded <code>IPacketContainer</code> as a lock
+ * free ring buffer. Several threads may add and remove packets concurrently.
+ * Each slot carries a sequence number that tells producers and consumers
+ * whether the slot is free or occupied, so that neither side ever needs a
+ * lock or shifts elements.
+ * <p>
+ * If the ring is full, the configured <code>Overflow</code> policy decides
+ * whether the new packet or the oldest queued packet is dropped. Dropped
+ * packets are counted.
+ * <p>
+ * Command packets bypass the ring. They are kept in a separate unbounded
+ * lane, like in the former <code>Vector</code> based container, and are
+ * delivered before any other packet. Adding a command therefore neither
+ * blocks the producer, usually the AWT event thread, nor drops a pilot
+ * action if the link to the JAviator stalls.
+ * 
+ * @author Clemens Krainer
+ */
 public class PacketQueue implements IPacketContainer {
 
-	private Vector<Packet> packetContainer = new Vector<Packet> ();
+	/**
+	 * The policies applicable if a packet is added to a full queue.
+	 */
+	public enum Overflow {
+		/** Drop the packet to be added. */
+		DROP_NEWEST,
+		/** Drop the oldest packet in the queue to make room for the new one. */
+		DROP_OLDEST
+	}
+
+	/**
+	 * The default capacity of the queue.
+	 */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	/**
+	 * The ring of packets.
+	 */
+	private final AtomicReferenceArray<Packet> slots;
+
+	/**
+	 * The sequence numbers of the slots. A slot is free for the producer
+	 * having ticket <code>t</code> if its sequence equals <code>t</code>, and
+	 * occupied for the consumer having ticket <code>t</code> if its sequence
+	 * equals <code>t+1</code>.
+	 */
+	private final AtomicLongArray sequences;
+
+	/**
+	 * The capacity minus one. The capacity is a power of two.
+	 */
+	private final int mask;
+
+	/**
+	 * The next producer ticket.
+	 */
+	private final AtomicLong tail = new AtomicLong (0);
+
+	/**
+	 * The next consumer ticket.
+	 */
+	private final AtomicLong head = new AtomicLong (0);
+
+	/**
+	 * The number of dropped packets.
+	 */
+	private final AtomicLong dropped = new AtomicLong (0);
+
+	/**
+	 * The maximum depth observed so far.
+	 */
+	private volatile int maximumDepth = 0;
+
+	/**
+	 * The current overflow policy.
+	 */
+	private volatile Overflow overflow;
+
+	/**
+	 * The lane of pending command packets.
+	 */
+	private final ConcurrentLinkedQueue<Packet> commands = new ConcurrentLinkedQueue<Packet> ();
+
+	/**
+	 * The number of pending command packets.
+	 */
+	private final AtomicInteger pendingCommands = new AtomicInteger (0);
+
+	/**
+	 * Construct a <code>PacketQueue</code> of default capacity that drops the
+	 * oldest packets on overflow.
+	 */
+	public PacketQueue ()
+	{
+		this (DEFAULT_CAPACITY, Overflow.DROP_OLDEST);
+	}
+
+	/**
+	 * Construct a <code>PacketQueue</code>.
+	 * 
+	 * @param capacity the minimum number of packets the queue can hold. The
+	 *        capacity is rounded up to the next power of two, but at least
+	 *        two, because a single slot could not tell a free sequence from
+	 *        an occupied one.
+	 * @param overflow the policy applicable if the queue is full. A null
+	 *        value selects <code>Overflow.DROP_OLDEST</code>.
+	 */
+	public PacketQueue (int capacity, Overflow overflow)
+	{
+		if (capacity < 1 || capacity > (1 << 30))
+			throw new IllegalArgumentException ("The capacity must be in the range from 1 to " + (1 << 30) + ", but is " + capacity);
+
+		int size = Integer.highestOneBit (capacity);
+		if (size < capacity || size < 2)
+			size <<= 1;
+
+		slots = new AtomicReferenceArray<Packet> (size);
+		sequences = new AtomicLongArray (size);
+		for (int k=0; k < size; k++)
+			sequences.set (k, k);
+		mask = size - 1;
+		this.overflow = overflow == null ? Overflow.DROP_OLDEST : overflow;
+	}
 
 	/* (non-Javadoc)
 	 * @see javiator.util.IPacketContainer#add(javiator.util.Packet)
 	 */
 	public void add(Packet packet)
 	{
-		packetContainer.add (packet);
+		if (isCommand (packet)) {
+			commands.add (packet);
+			pendingCommands.incrementAndGet ();
+			return;
+		}
+
+		while (!offer (packet)) {
+			if (overflow == Overflow.DROP_NEWEST) {
+				dropped.incrementAndGet ();
+				return;
+			}
+			if (poll () != null)
+				dropped.incrementAndGet ();
+		}
+
+		int depth = getDepth ();
+		if (depth > maximumDepth)
+			maximumDepth = depth;
 	}
 
 	/* (non-Javadoc)
@@ -43,8 +186,7 @@ public class PacketQueue implements IPacketContainer {
 	 */
 	public void add(byte packetType, byte[] packetPayload)
 	{
-		Packet packet = new Packet (packetType, packetPayload);
-		packetContainer.add (packet);
+		add (new Packet (packetType, packetPayload));
 	}
 
 	/* (non-Javadoc)
@@ -52,7 +194,7 @@ public class PacketQueue implements IPacketContainer {
 	 */
 	public boolean hasMoreElements()
 	{
-		return packetContainer.size() != 0;
+		return pendingCommands.get () != 0 || getDepth () != 0;
 	}
 
 	/* (non-Javadoc)
@@ -60,11 +202,148 @@ public class PacketQueue implements IPacketContainer {
 	 */
 	public Packet nextElement()
 	{
-		if (packetContainer.size() == 0)
+		Packet packet = commands.poll ();
+		if (packet != null) {
+			pendingCommands.decrementAndGet ();
+			return packet;
+		}
+
+		packet = poll ();
+		if (packet == null)
 			throw new NoSuchElementException ();
-		
-		Packet packet = packetContainer.firstElement();
-		packetContainer.remove(0);
 		return packet;
-	}	
+	}
+
+	/**
+	 * Insert a packet into the ring if the ring is not full. This method does not
+	 * distinguish command packets.
+	 * 
+	 * @param packet the packet to be inserted.
+	 * @return true if the packet has been inserted, false if the queue is full.
+	 */
+	public boolean offer (Packet packet)
+	{
+		while (true) {
+			long ticket = tail.get ();
+			int index = (int) ticket & mask;
+			long diff = sequences.get (index) - ticket;
+
+			if (diff == 0) {
+				if (tail.compareAndSet (ticket, ticket + 1)) {
+					slots.set (index, packet);
+					sequences.set (index, ticket + 1);
+					return true;
+				}
+			} else if (diff < 0) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Remove the oldest packet from the ring.
+	 * 
+	 * @return the oldest packet or null if the ring is empty.
+	 */
+	public Packet poll ()
+	{
+		while (true) {
+			long ticket = head.get ();
+			int index = (int) ticket & mask;
+			long diff = sequences.get (index) - (ticket + 1);
+
+			if (diff == 0) {
+				if (head.compareAndSet (ticket, ticket + 1)) {
+					Packet packet = slots.get (index);
+					slots.set (index, null);
+					sequences.set (index, ticket + mask + 1);
+					return packet;
+				}
+			} else if (diff < 0) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Check whether a packet is a command to the JAviator. Commands are never
+	 * dropped, because losing one would silently ignore a pilot action.
+	 * 
+	 * @param packet the packet to be checked.
+	 * @return true if the packet is a command packet.
+	 */
+	static boolean isCommand (Packet packet)
+	{
+		if (packet == null)
+			return false;
+
+		switch (packet.type) {
+			case PacketType.COMM_COMMAND_DATA:
+			case PacketType.COMM_SWITCH_MODE:
+			case PacketType.COMM_TEST_MODE:
+			case PacketType.COMM_SHUT_DOWN:
+			case PacketType.COMM_EN_SENSORS:
+			case PacketType.COMM_PILOT_DATA:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * @return the current number of packets in the ring.
+	 */
+	public int getDepth ()
+	{
+		long depth = tail.get () - head.get ();
+		return depth < 0 ? 0 : (int) Math.min (depth, mask + 1);
+	}
+
+	/**
+	 * @return the number of pending command packets.
+	 */
+	public int getPendingCommands ()
+	{
+		return pendingCommands.get ();
+	}
+
+	/**
+	 * @return the maximum number of packets in the ring observed so far.
+	 */
+	public int getMaximumDepth ()
+	{
+		return maximumDepth;
+	}
+
+	/**
+	 * @return the number of packets the ring can hold.
+	 */
+	public int getCapacity ()
+	{
+		return mask + 1;
+	}
+
+	/**
+	 * @return the number of packets dropped because the queue was full.
+	 */
+	public long getDropped ()
+	{
+		return dropped.get ();
+	}
+
+	/**
+	 * @return the current overflow policy.
+	 */
+	public Overflow getOverflow ()
+	{
+		return overflow;
+	}
+
+	/**
+	 * @param overflow the new overflow policy.
+	 */
+	public void setOverflow (Overflow overflow)
+	{
+		this.overflow = overflow;
+	}
 }
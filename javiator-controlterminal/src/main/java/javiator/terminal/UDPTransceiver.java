@@ -9,6 +9,7 @@ import java.net.SocketException;
 
 import javiator.util.LeanPacket;
 import javiator.util.Packet;
+import javiator.util.PacketParser;
 import javiator.util.PacketType;
 
 /**
@@ -86,9 +87,10 @@ public class UDPTransceiver extends Transceiver
 	public void receive()
 	{
 		
+		byte[] buffer = new byte[PacketParser.MAXIMUM_FRAME_LENGTH];
+		DatagramPacket recvPacket = new DatagramPacket(buffer, 0, buffer.length);
+		long checksumErrors = parser.getChecksumErrors();
 		while (isConnected() && !isHalt()) {  	
-			byte[] buffer = new byte[Packet.MAX_SIZE];
-			DatagramPacket recvPacket = new DatagramPacket(buffer, 0, buffer.length);
 			try {
 				if (!haveTraffic) {
 					System.err.println("Waiting for messages from control application");
@@ -96,31 +98,28 @@ public class UDPTransceiver extends Transceiver
 				if (DEBUG) {
 					System.err.println("Trying to receive");
 				}
+				recvPacket.setLength(buffer.length);
 				sendSocket.receive(recvPacket);
 				if (!haveTraffic) {
 					System.err.println("First message received from control application");
 					haveTraffic = true;
 				}
-				arrived();
-				
-				if (!LeanPacket.checksOut(buffer)) {
-					throw new IOException("Corrupt packet received");
-				}
-				
 				if (DEBUG) {
-					System.err.println("Processing packet: " + LeanPacket.dumpPacket(buffer, 0, buffer.length));
+					System.err.println("Processing packet: " + LeanPacket.dumpPacket(buffer, 0, recvPacket.getLength()));
+				}
+				/* a datagram carries complete frames only, so never join it with a previous one */
+				parser.clear();
+				parser.append(buffer, 0, recvPacket.getLength());
+				dispatch();
+				if (parser.getChecksumErrors() != checksumErrors) {
+					checksumErrors = parser.getChecksumErrors();
+					System.err.println("Corrupt packet received: " + LeanPacket.dumpPacket(buffer, 0, recvPacket.getLength()));
 				}
-				Packet thePacket = new Packet(buffer[2], buffer[3]);
-				if (thePacket.size > 0)
-					System.arraycopy(buffer,LeanPacket.PAYLOAD_OFFSET, thePacket.payload, 0, buffer[3]);
-				processPacket(thePacket);
 				if (DEBUG) {
 					System.err.println("Processing complete");
 				}
-				lastPacket = thePacket;
 			} catch (IOException e) {
 				e.printStackTrace();
-				System.err.println(LeanPacket.dumpPacket(buffer, 0, buffer.length));
 				disconnect();
 				if (!isHalt()) {
 					connect();
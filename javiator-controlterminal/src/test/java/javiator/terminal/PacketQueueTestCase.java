@@ -0,0 +1,223 @@
+/*
+ * @(#) PacketQueueTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2008  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package javiator.terminal;
+
+import java.util.NoSuchElementException;
+
+import javiator.util.Packet;
+import javiator.util.PacketType;
+import junit.framework.TestCase;
+
+/**
+ * This test verifies the implementation of the <code>PacketQueue</code> class.
+ * 
+ * @author Clemens Krainer
+ */
+public class PacketQueueTestCase extends TestCase {
+
+	/**
+	 * Create a telemetry packet carrying a sequence number.
+	 */
+	private static Packet stream (int number) {
+		return new Packet (PacketType.COMM_STREAM, new byte[] { (byte) number });
+	}
+
+	/**
+	 * Create a command packet carrying a sequence number.
+	 */
+	private static Packet command (int number) {
+		return new Packet (PacketType.COMM_PILOT_DATA, new byte[] { (byte) number });
+	}
+
+	/**
+	 * Verify the defaults and the rounding of the capacity.
+	 */
+	public void testCase01 () {
+		PacketQueue queue = new PacketQueue ();
+		assertEquals (PacketQueue.DEFAULT_CAPACITY, queue.getCapacity ());
+		assertEquals (PacketQueue.Overflow.DROP_OLDEST, queue.getOverflow ());
+		assertFalse (queue.hasMoreElements ());
+
+		queue = new PacketQueue (1, PacketQueue.Overflow.DROP_NEWEST);
+		assertEquals (2, queue.getCapacity ());
+
+		queue = new PacketQueue (5, null);
+		assertEquals (8, queue.getCapacity ());
+		assertEquals (PacketQueue.Overflow.DROP_OLDEST, queue.getOverflow ());
+
+		try {
+			new PacketQueue (0, PacketQueue.Overflow.DROP_NEWEST);
+			fail ();
+		} catch (IllegalArgumentException e) {
+			assertNotNull (e.getMessage ());
+		}
+	}
+
+	/**
+	 * Verify the FIFO order and the depth statistics.
+	 */
+	public void testCase02 () {
+		PacketQueue queue = new PacketQueue (4, PacketQueue.Overflow.DROP_NEWEST);
+		for (int k=0; k < 3; k++)
+			queue.add (stream (k));
+
+		assertEquals (3, queue.getDepth ());
+		for (int k=0; k < 3; k++) {
+			assertTrue (queue.hasMoreElements ());
+			assertEquals (k, queue.nextElement ().payload[0]);
+		}
+		assertFalse (queue.hasMoreElements ());
+		assertEquals (3, queue.getMaximumDepth ());
+		assertEquals (0, queue.getDropped ());
+
+		try {
+			queue.nextElement ();
+			fail ();
+		} catch (NoSuchElementException e) {
+			assertEquals (0, queue.getDepth ());
+		}
+	}
+
+	/**
+	 * Verify that the <code>DROP_NEWEST</code> policy drops telemetry packets
+	 * added to a full queue.
+	 */
+	public void testCase03 () {
+		PacketQueue queue = new PacketQueue (2, PacketQueue.Overflow.DROP_NEWEST);
+		for (int k=0; k < 4; k++)
+			queue.add (stream (k));
+
+		assertEquals (2, queue.getDropped ());
+		assertEquals (0, queue.nextElement ().payload[0]);
+		assertEquals (1, queue.nextElement ().payload[0]);
+		assertFalse (queue.hasMoreElements ());
+	}
+
+	/**
+	 * Verify that the <code>DROP_OLDEST</code> policy evicts the oldest
+	 * telemetry packets.
+	 */
+	public void testCase04 () {
+		PacketQueue queue = new PacketQueue (2, PacketQueue.Overflow.DROP_OLDEST);
+		for (int k=0; k < 4; k++)
+			queue.add (stream (k));
+
+		assertEquals (2, queue.getDropped ());
+		assertEquals (2, queue.nextElement ().payload[0]);
+		assertEquals (3, queue.nextElement ().payload[0]);
+		assertFalse (queue.hasMoreElements ());
+	}
+
+	/**
+	 * Fill the ring without any consumer and verify that adding command
+	 * packets neither blocks nor drops them under every policy, and that the
+	 * commands are delivered first.
+	 * 
+	 * @throws InterruptedException thrown in case of errors.
+	 */
+	public void testCase05 () throws InterruptedException {
+		PacketQueue.Overflow[] policies = PacketQueue.Overflow.values ();
+		for (int p=0; p < policies.length; p++) {
+			final PacketQueue queue = new PacketQueue (2, policies[p]);
+			final int count = 100;
+
+			Thread producer = new Thread () {
+				public void run () {
+					for (int k=0; k < 4; k++)
+						queue.add (stream (k));
+					for (int k=0; k < count; k++)
+						queue.add (command (k));
+				}
+			};
+			producer.setDaemon (true);
+			producer.start ();
+			producer.join (2000);
+			assertFalse (policies[p].name (), producer.isAlive ());
+
+			assertEquals (policies[p].name (), 2, queue.getDropped ());
+			assertEquals (policies[p].name (), 2, queue.getDepth ());
+			assertEquals (policies[p].name (), count, queue.getPendingCommands ());
+
+			for (int k=0; k < count; k++) {
+				Packet packet = queue.nextElement ();
+				assertEquals (PacketType.COMM_PILOT_DATA, packet.type);
+				assertEquals ((byte) k, packet.payload[0]);
+			}
+			assertEquals (0, queue.getPendingCommands ());
+
+			assertEquals (PacketType.COMM_STREAM, queue.nextElement ().type);
+			assertEquals (PacketType.COMM_STREAM, queue.nextElement ().type);
+			assertFalse (queue.hasMoreElements ());
+		}
+	}
+
+	/**
+	 * Verify the classification of command packets.
+	 */
+	public void testCase06 () {
+		assertTrue (PacketQueue.isCommand (command (0)));
+		assertTrue (PacketQueue.isCommand (new Packet (PacketType.COMM_SWITCH_MODE, new byte[0])));
+		assertTrue (PacketQueue.isCommand (new Packet (PacketType.COMM_SHUT_DOWN, new byte[0])));
+		assertFalse (PacketQueue.isCommand (stream (0)));
+		assertFalse (PacketQueue.isCommand (null));
+	}
+
+	/**
+	 * Verify that concurrent producers and a consumer neither lose nor
+	 * duplicate packets: every telemetry packet is either received or
+	 * counted as dropped, and every command is received.
+	 * 
+	 * @throws InterruptedException thrown in case of errors.
+	 */
+	public void testCase07 () throws InterruptedException {
+		final PacketQueue queue = new PacketQueue (4, PacketQueue.Overflow.DROP_NEWEST);
+		final int producers = 4;
+		final int count = 2000;
+		Thread[] threads = new Thread[producers];
+
+		for (int t=0; t < producers; t++) {
+			threads[t] = new Thread () {
+				public void run () {
+					for (int k=0; k < count; k++)
+						queue.add ((k & 1) == 0 ? stream (k) : command (k));
+				}
+			};
+			threads[t].setDaemon (true);
+			threads[t].start ();
+		}
+
+		for (int t=0; t < producers; t++)
+			threads[t].join (5000);
+
+		int streams = 0;
+		int commands = 0;
+		while (queue.hasMoreElements ()) {
+			if (queue.nextElement ().type == PacketType.COMM_PILOT_DATA)
+				++commands;
+			else
+				++streams;
+		}
+
+		assertEquals (producers * count / 2, commands);
+		assertEquals (producers * count / 2, streams + queue.getDropped ());
+		assertTrue (queue.getMaximumDepth () <= queue.getCapacity ());
+	}
+}
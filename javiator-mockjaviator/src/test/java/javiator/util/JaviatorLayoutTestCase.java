@@ -0,0 +1,142 @@
+/*
+ * @(#) JaviatorLayoutTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package javiator.util;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import junit.framework.TestCase;
+import at.uni_salzburg.cs.ckgroup.communication.schema.LayoutGenerator;
+import at.uni_salzburg.cs.ckgroup.communication.schema.WireField;
+import at.uni_salzburg.cs.ckgroup.communication.schema.WireLayout;
+import at.uni_salzburg.cs.ckgroup.communication.schema.WireSchema;
+
+/**
+ * This test verifies that the data transfer objects of package
+ * <code>javiator.util</code> decode and encode their payloads according to
+ * the generated layout classes of package <code>javiator.util.layout</code>,
+ * and that these layout classes are up to date.
+ *
+ * @author Clemens Krainer
+ */
+public class JaviatorLayoutTestCase extends TestCase {
+	
+	/**
+	 * The source directory of module <code>javiator-util</code>, relative to
+	 * the directory of this module.
+	 */
+	private static final File SOURCE_DIRECTORY = new File ("../javiator-util/src/main/java");
+	
+	private WireSchema schema;
+	
+	public void setUp () throws Exception {
+		super.setUp ();
+		schema = WireSchema.load ();
+	}
+	
+	/**
+	 * Create an empty data transfer object.
+	 */
+	private static Object createObject (Class<?> dtoClass) throws Exception {
+		if (dtoClass == StateAndMode.class)
+			return new StateAndMode ((byte) 0, (byte) 0);
+		return dtoClass.getDeclaredConstructor ().newInstance ();
+	}
+	
+	/**
+	 * Verify for each data transfer object that the schema matches its packet
+	 * size, its decoding of the public fields and its encoding at an offset.
+	 */
+	public void testCase01 () throws Exception {
+		int count = 0;
+		for (WireLayout layout : schema.getLayouts ()) {
+			if (!"javiator".equals (layout.getTarget ().getName ()))
+				continue;
+			
+			Packet packet = new Packet (layout.getPayloadLength ());
+			for (int k=0; k < packet.payload.length; k++)
+				packet.payload[k] = (byte) (k * 37 + 11);
+			ByteBuffer buf = ByteBuffer.wrap (packet.payload);
+			
+			for (String className : layout.getDtoClassNames ()) {
+				Class<?> dtoClass = Class.forName (className);
+				assertEquals (className + ".PACKET_SIZE", layout.getPayloadLength (), dtoClass.getField ("PACKET_SIZE").getInt (null));
+				
+				Object dto = createObject (dtoClass);
+				Method decode = dtoClass.getMethod ("decode", Packet.class, int.class);
+				Method encode = dtoClass.getMethod ("encode", Packet.class, int.class);
+				decode.invoke (dto, packet, Integer.valueOf (0));
+				
+				for (WireField f : layout.getFields ()) {
+					if (!f.isPrimitive ())
+						continue;
+					Field field = dtoClass.getField (f.getName ());
+					Object value = field.get (dto);
+					double actual = value instanceof Character ? ((Character) value).charValue () : ((Number) value).doubleValue ();
+					assertEquals (className + "." + f.getName (), f.getRaw (buf, 0), actual, 0);
+				}
+				
+				Packet encoded = new Packet (packet.payload.length + 3);
+				encode.invoke (dto, encoded, Integer.valueOf (3));
+				for (int k=0; k < packet.payload.length; k++)
+					assertEquals (className + " byte [" + k + "]", packet.payload[k], encoded.payload[k + 3]);
+				++count;
+			}
+		}
+		assertEquals ("Number of verified classes", 9, count);
+	}
+	
+	/**
+	 * Verify the nested data transfer objects of <code>ReportToGround</code>.
+	 */
+	public void testCase02 () {
+		ReportToGround report = new ReportToGround ();
+		report.sensorData.battery = 1234;
+		report.motorSignals.front = -900;
+		report.motorSignals.id = 65000;
+		report.commandData.z = 4711;
+		report.stateAndMode.mode = 3;
+		
+		Packet packet = report.toPacket ((byte) 1);
+		assertEquals (ReportToGround.PACKET_SIZE, packet.payload.length);
+		
+		ReportToGround copy = new ReportToGround ();
+		copy.fromPacket (packet);
+		assertEquals (1234, copy.sensorData.battery);
+		assertEquals (-900, copy.motorSignals.front);
+		assertEquals (65000, copy.motorSignals.id);
+		assertEquals (4711, copy.commandData.z);
+		assertEquals (3, copy.stateAndMode.mode);
+	}
+	
+	/**
+	 * Verify that the generated layout classes of module
+	 * <code>javiator-util</code> are up to date.
+	 */
+	public void testCase03 () throws Exception {
+		assertTrue ("Missing source directory " + SOURCE_DIRECTORY.getAbsolutePath (), SOURCE_DIRECTORY.isDirectory ());
+		List<File> outdated = LayoutGenerator.findOutdated (schema, "javiator", SOURCE_DIRECTORY);
+		assertTrue ("Outdated layout classes " + outdated + ", run the LayoutGenerator", outdated.isEmpty ());
+	}
+}
@@ -0,0 +1,274 @@
+/*
+ * @(#) PacketParserTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package javiator.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * This test verifies the implementation of the <code>PacketParser</code> class.
+ * 
+ * @author Clemens Krainer
+ */
+public class PacketParserTestCase extends TestCase {
+	
+	/**
+	 * Serialize a <code>Packet</code> to a frame of the JAviator wire protocol.
+	 * 
+	 * @param type the packet type.
+	 * @param payload the payload.
+	 * @return the frame.
+	 */
+	private static byte[] frame (byte type, byte[] payload) {
+		Packet packet = new Packet (type, payload);
+		byte[] frame = new byte[PacketParser.HEADER_LENGTH + payload.length + PacketParser.CHECKSUM_LENGTH];
+		frame[0] = PacketType.COMM_PACKET_MARK;
+		frame[1] = PacketType.COMM_PACKET_MARK;
+		frame[2] = type;
+		frame[3] = (byte) payload.length;
+		System.arraycopy (payload, 0, frame, PacketParser.HEADER_LENGTH, payload.length);
+		frame[frame.length - 2] = (byte) (packet.checksum >> 8);
+		frame[frame.length - 1] = (byte) packet.checksum;
+		return frame;
+	}
+	
+	/**
+	 * Concatenate byte arrays.
+	 */
+	private static byte[] concat (byte[]... parts) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream ();
+		for (byte[] p : parts)
+			out.write (p);
+		return out.toByteArray ();
+	}
+	
+	/**
+	 * Verify that a decoded packet equals the given type and payload.
+	 */
+	private static void assertPacket (byte type, byte[] payload, Packet packet) {
+		assertNotNull (packet);
+		assertEquals ("type", type, packet.type);
+		assertEquals ("size", payload.length, packet.size);
+		for (int k=0; k < payload.length; k++)
+			assertEquals ("payload [" + k + "]", payload[k], packet.payload[k]);
+		assertEquals ("checksum", new Packet (type, payload).checksum, packet.checksum);
+	}
+	
+	/**
+	 * Verify that the capacity of the read buffer is checked.
+	 */
+	public void testCase01 () {
+		try {
+			new PacketParser (PacketParser.MAXIMUM_FRAME_LENGTH - 1);
+			fail ();
+		} catch (IllegalArgumentException e) {
+			assertEquals ("The capacity must be at least 133 bytes, but is 132", e.getMessage ());
+		}
+		new PacketParser (PacketParser.MAXIMUM_FRAME_LENGTH);
+	}
+	
+	/**
+	 * Read two frames preceded by garbage from an <code>InputStream</code>
+	 * and verify that both are decoded and the garbage is counted.
+	 */
+	public void testCase02 () throws EndOfStreamException, IOException {
+		byte[] p1 = {1,2,3,4,5,6,7,8,9,10};
+		byte[] p2 = {-1,-1,-1};
+		byte[] stream = concat (new byte[] {7, -1, 3}, frame (PacketType.COMM_MOTOR_SIGNALS, p1), frame (PacketType.COMM_COMMAND_DATA, p2));
+		
+		PacketParser parser = new PacketParser ();
+		assertNull (parser.next ());
+		assertEquals (stream.length, parser.read (new ByteArrayInputStream (stream)));
+		
+		assertPacket (PacketType.COMM_MOTOR_SIGNALS, p1, parser.next ());
+		assertPacket (PacketType.COMM_COMMAND_DATA, p2, parser.next ());
+		assertNull (parser.next ());
+		assertEquals (2, parser.getPackets ());
+		assertEquals (3, parser.getDiscardedBytes ());
+		assertEquals (0, parser.getChecksumErrors ());
+	}
+	
+	/**
+	 * Verify that a frame split into several chunks is decoded after its last
+	 * chunk has arrived.
+	 */
+	public void testCase03 () {
+		byte[] p1 = {1,2,3,4,5,6,7,8};
+		byte[] f1 = frame (PacketType.COMM_MOTOR_OFFSETS, p1);
+		
+		PacketParser parser = new PacketParser ();
+		for (int k=0; k < f1.length - 1; k++) {
+			parser.append (f1, k, 1);
+			assertNull ("chunk " + k, parser.next ());
+		}
+		parser.append (f1, f1.length - 1, 1);
+		assertPacket (PacketType.COMM_MOTOR_OFFSETS, p1, parser.next ());
+		assertNull (parser.next ());
+		assertEquals (0, parser.getDiscardedBytes ());
+	}
+	
+	/**
+	 * Verify that frames having a checksum error are counted and dropped and
+	 * that the parser resynchronizes to the following frame.
+	 */
+	public void testCase04 () throws IOException {
+		byte[] p1 = {1,2,3,4};
+		byte[] p2 = {5,6,7,8};
+		byte[] bad = frame (PacketType.COMM_MOTOR_OFFSETS, p1);
+		bad[5] = 9;
+		byte[] data = concat (bad, frame (PacketType.COMM_STATE_MODE, p2));
+		
+		PacketParser parser = new PacketParser ();
+		parser.append (data, 0, data.length);
+		assertPacket (PacketType.COMM_STATE_MODE, p2, parser.next ());
+		assertNull (parser.next ());
+		assertEquals (1, parser.getChecksumErrors ());
+		assertEquals (bad.length, parser.getDiscardedBytes ());
+		assertEquals (1, parser.getPackets ());
+	}
+	
+	/**
+	 * Verify that headers having an invalid type or a negative size are
+	 * skipped.
+	 */
+	public void testCase05 () throws IOException {
+		byte[] p1 = {1,2};
+		byte[] invalidType = {-1, -1, (byte) (PacketType.COMM_PACKET_LIMIT + 1), 2};
+		byte[] zeroType = {-1, -1, 0, 2};
+		byte[] negativeSize = {-1, -1, PacketType.COMM_SWITCH_MODE, -3};
+		byte[] data = concat (invalidType, zeroType, negativeSize, frame (PacketType.COMM_SWITCH_MODE, p1));
+		
+		PacketParser parser = new PacketParser ();
+		parser.append (data, 0, data.length);
+		assertPacket (PacketType.COMM_SWITCH_MODE, p1, parser.next ());
+		assertNull (parser.next ());
+		assertEquals (12, parser.getDiscardedBytes ());
+		assertEquals (0, parser.getChecksumErrors ());
+	}
+	
+	/**
+	 * Verify that packets without payload are decoded.
+	 */
+	public void testCase06 () {
+		byte[] f1 = frame (PacketType.COMM_SHUT_DOWN, new byte[0]);
+		
+		PacketParser parser = new PacketParser ();
+		parser.append (f1, 0, f1.length);
+		Packet packet = parser.next ();
+		assertNotNull (packet);
+		assertEquals (PacketType.COMM_SHUT_DOWN, packet.type);
+		assertEquals (0, packet.size);
+		assertNull (packet.payload);
+		assertEquals (new Packet (PacketType.COMM_SHUT_DOWN, new byte[0]).checksum, packet.checksum);
+	}
+	
+	/**
+	 * Read frames from a <code>ReadableByteChannel</code> and verify that the
+	 * end of the channel is reported by an <code>EndOfStreamException</code>.
+	 */
+	public void testCase07 () throws EndOfStreamException, IOException {
+		byte[] p1 = {1,2,3};
+		byte[] data = concat (frame (PacketType.COMM_COMMAND_DATA, p1), frame (PacketType.COMM_COMMAND_DATA, p1));
+		ReadableByteChannel channel = Channels.newChannel (new ByteArrayInputStream (data));
+		
+		PacketParser parser = new PacketParser ();
+		int n = 0;
+		try {
+			while (true)
+				n += parser.read (channel);
+		} catch (EndOfStreamException e) {
+			assertEquals (data.length, n);
+		}
+		assertPacket (PacketType.COMM_COMMAND_DATA, p1, parser.next ());
+		assertPacket (PacketType.COMM_COMMAND_DATA, p1, parser.next ());
+		assertNull (parser.next ());
+		
+		try {
+			parser.read (new ByteArrayInputStream (new byte[0]));
+			fail ();
+		} catch (EndOfStreamException e) {
+			assertNull (parser.next ());
+		}
+	}
+	
+	/**
+	 * Verify that <code>dispatch()</code> forwards all complete packets to the
+	 * listener and keeps an incomplete frame for the next chunk.
+	 */
+	public void testCase08 () throws IOException {
+		byte[] p1 = {1,2,3,4};
+		byte[] f1 = frame (PacketType.COMM_MOTOR_OFFSETS, p1);
+		byte[] data = concat (f1, f1, f1);
+		
+		final List<Packet> received = new ArrayList<Packet> ();
+		IPacketListener listener = new IPacketListener () {
+			public boolean receive (Packet packet) {
+				received.add (packet);
+				return true;
+			}
+		};
+		
+		PacketParser parser = new PacketParser ();
+		parser.append (data, 0, data.length - 3);
+		assertEquals (2, parser.dispatch (listener));
+		assertEquals (2, received.size ());
+		
+		parser.append (data, data.length - 3, 3);
+		assertEquals (1, parser.dispatch (listener));
+		assertEquals (3, received.size ());
+		for (Packet packet : received)
+			assertPacket (PacketType.COMM_MOTOR_OFFSETS, p1, packet);
+	}
+	
+	/**
+	 * Verify that appending more data than the read buffer holds discards the
+	 * oldest unparsed bytes, and that <code>clear()</code> discards all
+	 * pending data.
+	 */
+	public void testCase09 () throws IOException {
+		byte[] p1 = {1,2,3,4};
+		byte[] f1 = frame (PacketType.COMM_MOTOR_OFFSETS, p1);
+		int capacity = PacketParser.MAXIMUM_FRAME_LENGTH;
+		byte[] garbage = new byte[capacity];
+		
+		PacketParser parser = new PacketParser (capacity);
+		parser.append (garbage, 0, garbage.length);
+		parser.append (f1, 0, f1.length);
+		assertPacket (PacketType.COMM_MOTOR_OFFSETS, p1, parser.next ());
+		assertEquals (garbage.length, parser.getDiscardedBytes ());
+		
+		parser.append (f1, 0, f1.length - 1);
+		parser.clear ();
+		assertEquals (garbage.length + f1.length - 1, parser.getDiscardedBytes ());
+		parser.append (f1, f1.length - 1, 1);
+		assertNull (parser.next ());
+		parser.append (f1, 0, f1.length);
+		assertPacket (PacketType.COMM_MOTOR_OFFSETS, p1, parser.next ());
+		assertEquals (2, parser.getPackets ());
+	}
+}
@@ -21,13 +21,17 @@
 
 package javiator.util;
 
+import java.nio.ByteBuffer;
+
+import javiator.util.layout.CommandDataLayout;
+
 /**
  * Represents the navigation data
  * @author hroeck 
  */
 public class CommandData extends NumeratedSendable
 {
-	public static final int PACKET_SIZE = 8;
+	public static final int PACKET_SIZE = CommandDataLayout.PAYLOAD_LENGTH;
 	
 	public CommandData( )
     {
@@ -68,14 +72,11 @@ public class CommandData extends NumeratedSendable
 
     public void encode( Packet packet, int offset )
 	{
-		packet.payload[ offset + 0 ] = (byte)( roll >> 8 );
-		packet.payload[ offset + 1 ] = (byte)( roll );
-		packet.payload[ offset + 2 ] = (byte)( pitch >> 8 );
-		packet.payload[ offset + 3 ] = (byte)( pitch );
-		packet.payload[ offset + 4 ] = (byte)( yaw >> 8 );
-		packet.payload[ offset + 5 ] = (byte)( yaw );
-		packet.payload[ offset + 6 ] = (byte)( z >> 8 );
-		packet.payload[ offset + 7 ] = (byte)( z );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		CommandDataLayout.putRoll( buf, offset, roll );
+		CommandDataLayout.putPitch( buf, offset, pitch );
+		CommandDataLayout.putYaw( buf, offset, yaw );
+		CommandDataLayout.putZ( buf, offset, z );
 	}
 
     public synchronized Packet toPacket( byte type )
@@ -94,10 +95,11 @@ public class CommandData extends NumeratedSendable
 
 	public void decode( Packet packet, int offset )
 	{
-		roll  = (short)( (packet.payload[ offset + 0 ] << 8) | (packet.payload[ offset + 1 ] & 0xFF) );
-		pitch = (short)( (packet.payload[ offset + 2 ] << 8) | (packet.payload[ offset + 3 ] & 0xFF) );
-		yaw   = (short)( (packet.payload[ offset + 4 ] << 8) | (packet.payload[ offset + 5 ] & 0xFF) );
-		z     = (short)( (packet.payload[ offset + 6 ] << 8) | (packet.payload[ offset + 7 ] & 0xFF) );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		roll = CommandDataLayout.getRoll( buf, offset );
+		pitch = CommandDataLayout.getPitch( buf, offset );
+		yaw = CommandDataLayout.getYaw( buf, offset );
+		z = CommandDataLayout.getZ( buf, offset );
 	}
 
     public synchronized Object clone( )
@@ -21,6 +21,10 @@
 
 package javiator.util;
 
+import java.nio.ByteBuffer;
+
+import javiator.util.layout.ControlParamsLayout;
+
 /**
  * Represents the actuator data
  * 
@@ -28,7 +32,7 @@ package javiator.util;
  */
 public class ControlParams extends NumeratedSendable
 {
-	public static final int PACKET_SIZE = 8;
+	public static final int PACKET_SIZE = ControlParamsLayout.PAYLOAD_LENGTH;
 
     public ControlParams( )
     {
@@ -72,14 +76,11 @@ public class ControlParams extends NumeratedSendable
 
 	public void encode( Packet packet, int offset )
 	{
-		packet.payload[ offset + 0 ] = (byte)( kp >> 8 );
-		packet.payload[ offset + 1 ] = (byte)( kp );
-		packet.payload[ offset + 2 ] = (byte)( ki >> 8 );
-		packet.payload[ offset + 3 ] = (byte)( ki );
-		packet.payload[ offset + 4 ] = (byte)( kd >> 8 );
-		packet.payload[ offset + 5 ] = (byte)( kd );
-		packet.payload[ offset + 6 ] = (byte)( kdd >> 8 );
-		packet.payload[ offset + 7 ] = (byte)( kdd );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		ControlParamsLayout.putKp( buf, offset, kp );
+		ControlParamsLayout.putKi( buf, offset, ki );
+		ControlParamsLayout.putKd( buf, offset, kd );
+		ControlParamsLayout.putKdd( buf, offset, kdd );
 	}
 
 	public synchronized Packet toPacket( byte type )
@@ -98,10 +99,11 @@ public class ControlParams extends NumeratedSendable
 
 	public synchronized void decode( Packet packet, int offset )
 	{
-		kp  = (short)( (packet.payload[ offset + 0 ] << 8) | (packet.payload[ offset + 1 ] & 0xFF) );
-		ki  = (short)( (packet.payload[ offset + 2 ] << 8) | (packet.payload[ offset + 3 ] & 0xFF) );
-		kd  = (short)( (packet.payload[ offset + 4 ] << 8) | (packet.payload[ offset + 5 ] & 0xFF) );
-		kdd = (short)( (packet.payload[ offset + 6 ] << 8) | (packet.payload[ offset + 7 ] & 0xFF) );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		kp = ControlParamsLayout.getKp( buf, offset );
+		ki = ControlParamsLayout.getKi( buf, offset );
+		kd = ControlParamsLayout.getKd( buf, offset );
+		kdd = ControlParamsLayout.getKdd( buf, offset );
 	}
 
 	public synchronized Object clone( ) 
@@ -1,12 +1,16 @@
 package javiator.util;
 
+import java.nio.ByteBuffer;
+
+import javiator.util.layout.MotorOffsetsLayout;
+
 /**
  *  Represents the actuator data
  * @author hroeck
  */
 public class MotorOffsets extends NumeratedSendable
 {
-	public static final int PACKET_SIZE = 8;
+	public static final int PACKET_SIZE = MotorOffsetsLayout.PAYLOAD_LENGTH;
 		
     public MotorOffsets( )
     {
@@ -50,14 +54,11 @@ public class MotorOffsets extends NumeratedSendable
 
 	public void encode( Packet packet, int offset )
 	{
-		packet.payload[ offset + 0 ] = (byte)( roll >> 8 );
-		packet.payload[ offset + 1 ] = (byte)( roll );
-		packet.payload[ offset + 2 ] = (byte)( pitch >> 8 );
-		packet.payload[ offset + 3 ] = (byte)( pitch );
-		packet.payload[ offset + 4 ] = (byte)( yaw >> 8 );
-		packet.payload[ offset + 5 ] = (byte)( yaw );
-		packet.payload[ offset + 6 ] = (byte)( z >> 8 );
-		packet.payload[ offset + 7 ] = (byte)( z );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		MotorOffsetsLayout.putRoll( buf, offset, roll );
+		MotorOffsetsLayout.putPitch( buf, offset, pitch );
+		MotorOffsetsLayout.putYaw( buf, offset, yaw );
+		MotorOffsetsLayout.putZ( buf, offset, z );
 	}
 
     public synchronized Packet toPacket( byte type )
@@ -76,10 +77,11 @@ public class MotorOffsets extends NumeratedSendable
     
     public synchronized void decode( Packet packet, int offset )
     {
-        roll  = (short)( (packet.payload[ offset + 0 ] << 8) | (packet.payload[ offset + 1 ] & 0xFF) );
-        pitch = (short)( (packet.payload[ offset + 2 ] << 8) | (packet.payload[ offset + 3 ] & 0xFF) );
-        yaw   = (short)( (packet.payload[ offset + 4 ] << 8) | (packet.payload[ offset + 5 ] & 0xFF) );
-        z     = (short)( (packet.payload[ offset + 6 ] << 8) | (packet.payload[ offset + 7 ] & 0xFF) );
+        ByteBuffer buf = packet.getPayloadBuffer( );
+        roll = MotorOffsetsLayout.getRoll( buf, offset );
+        pitch = MotorOffsetsLayout.getPitch( buf, offset );
+        yaw = MotorOffsetsLayout.getYaw( buf, offset );
+        z = MotorOffsetsLayout.getZ( buf, offset );
     }
 
     public synchronized Object clone( )
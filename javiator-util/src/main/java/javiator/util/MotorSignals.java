@@ -1,12 +1,16 @@
 package javiator.util;
 
+import java.nio.ByteBuffer;
+
+import javiator.util.layout.MotorSignalsLayout;
+
 /**
  *  Represents the actuator data
  * @author hroeck
  */
 public class MotorSignals extends NumeratedSendable
 {
-	public static final int PACKET_SIZE = 10;
+	public static final int PACKET_SIZE = MotorSignalsLayout.PAYLOAD_LENGTH;
 		
     public MotorSignals( )
     {
@@ -43,7 +47,7 @@ public class MotorSignals extends NumeratedSendable
         id    = data.id;
     }
 
-    public synchronized Packet toPacket( )
+    public Packet toPacket( )
     {
         Packet packet = new Packet( PACKET_SIZE );
         encode( packet, 0 );
@@ -53,19 +57,15 @@ public class MotorSignals extends NumeratedSendable
 
 	public void encode( Packet packet, int offset )
 	{
-		packet.payload[ offset + 0 ] = (byte)( front >> 8 );
-		packet.payload[ offset + 1 ] = (byte)( front );
-		packet.payload[ offset + 2 ] = (byte)( right >> 8 );
-		packet.payload[ offset + 3 ] = (byte)( right );
-		packet.payload[ offset + 4 ] = (byte)( rear >> 8 );
-		packet.payload[ offset + 5 ] = (byte)( rear );
-		packet.payload[ offset + 6 ] = (byte)( left >> 8 );
-		packet.payload[ offset + 7 ] = (byte)( left );
-		packet.payload[ offset + 8 ] = (byte)( id >> 8 );
-		packet.payload[ offset + 9 ] = (byte)( id );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		MotorSignalsLayout.putFront( buf, offset, front );
+		MotorSignalsLayout.putRight( buf, offset, right );
+		MotorSignalsLayout.putRear( buf, offset, rear );
+		MotorSignalsLayout.putLeft( buf, offset, left );
+		MotorSignalsLayout.putId( buf, offset, id );
 	}
 
-    public synchronized Packet toPacket( byte type )
+    public Packet toPacket( byte type )
     {
         Packet packet = toPacket( );
         packet.type   = type;
@@ -74,18 +74,19 @@ public class MotorSignals extends NumeratedSendable
         return( packet );
     }
 
-    public synchronized void fromPacket( Packet packet )
+    public void fromPacket( Packet packet )
     {
     	decode( packet, 0 );
     }
     
-    public synchronized void decode( Packet packet, int offset )
+    public void decode( Packet packet, int offset )
     {
-        front = (short)( (packet.payload[ offset + 0 ] << 8) | (packet.payload[ offset + 1 ] & 0xFF) );
-        right = (short)( (packet.payload[ offset + 2 ] << 8) | (packet.payload[ offset + 3 ] & 0xFF) );
-        rear  = (short)( (packet.payload[ offset + 4 ] << 8) | (packet.payload[ offset + 5 ] & 0xFF) );
-        left  = (short)( (packet.payload[ offset + 6 ] << 8) | (packet.payload[ offset + 7 ] & 0xFF) );
-        id    = (char) ( (packet.payload[ offset + 8 ] << 8) | (packet.payload[ offset + 9 ] & 0xFF) );
+        ByteBuffer buf = packet.getPayloadBuffer( );
+        front = MotorSignalsLayout.getFront( buf, offset );
+        right = MotorSignalsLayout.getRight( buf, offset );
+        rear = MotorSignalsLayout.getRear( buf, offset );
+        left = MotorSignalsLayout.getLeft( buf, offset );
+        id = (char) MotorSignalsLayout.getId( buf, offset );
     }
 
     public synchronized Object clone( )
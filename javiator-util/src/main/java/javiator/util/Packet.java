@@ -21,6 +21,7 @@
 
 package javiator.util;
 
+import java.nio.ByteBuffer;
 
 /**
  * Represents a packet in our system that is send and received
@@ -91,6 +92,26 @@ public class Packet
     calcChecksum();
   }
   
+  /**
+   * returns the payload wrapped in a ByteBuffer for the layout classes
+   * of package javiator.util.layout. The buffer is created once per
+   * payload array, so that decoding and encoding a packet does not
+   * allocate memory. The layout classes use absolute operations only,
+   * so the position of the buffer is irrelevant.
+   * 
+   * @return the buffer wrapping the payload
+   */
+  public ByteBuffer getPayloadBuffer( )
+  {
+    ByteBuffer buf = buffer;
+    if( buf == null || buf.array( ) != payload )
+    {
+      buf = ByteBuffer.wrap( payload );
+      buffer = buf;
+    }
+    return buf;
+  }
+
   /**
    * calculates, sets and returns the checksum over type, size, and
    * payload
@@ -124,4 +145,9 @@ public class Packet
    * payload types
    */
   public int    checksum;
+
+  /**
+   * the ByteBuffer wrapping the payload, see getPayloadBuffer
+   */
+  private ByteBuffer buffer;
 }
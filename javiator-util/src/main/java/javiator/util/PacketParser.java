@@ -0,0 +1,307 @@
+/*
+ * @(#) PacketParser.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package javiator.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * This class decodes serialized packets of the JAviator wire protocol out of a
+ * <code>ByteBuffer</code>. Data read from an <code>InputStream</code>, a
+ * <code>ReadableByteChannel</code> or a received datagram is appended to the
+ * buffer in chunks and all complete frames are converted to
+ * <code>Packet</code> objects at once. Frames having an invalid type or size
+ * are skipped, frames having a checksum error are counted and dropped.
+ * <p>
+ * A <code>PacketParser</code> is not thread safe. It is intended to be used
+ * by the receiver thread of a single connection only.
+ * 
+ * @author Clemens Krainer
+ */
+public class PacketParser {
+
+	/**
+	 * The length of the frame header, i.e. two marks, the type and the size.
+	 */
+	public static final int HEADER_LENGTH = 4;
+
+	/**
+	 * The length of the checksum trailing the payload.
+	 */
+	public static final int CHECKSUM_LENGTH = 2;
+
+	/**
+	 * The maximum length of a frame.
+	 */
+	public static final int MAXIMUM_FRAME_LENGTH = HEADER_LENGTH + Byte.MAX_VALUE + CHECKSUM_LENGTH;
+
+	/**
+	 * The default capacity of the read buffer.
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	/**
+	 * The read buffer. Valid data lies between <code>readPosition</code> and
+	 * the position of the buffer.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * The array backing the read buffer.
+	 */
+	private byte[] data;
+
+	/**
+	 * The position of the first byte not yet parsed.
+	 */
+	private int readPosition = 0;
+
+	/**
+	 * The number of frames dropped because of checksum errors.
+	 */
+	private long checksumErrors = 0;
+
+	/**
+	 * The number of bytes skipped while searching for frame headers.
+	 */
+	private long discardedBytes = 0;
+
+	/**
+	 * The number of frames decoded successfully.
+	 */
+	private long packets = 0;
+
+	/**
+	 * Construct a <code>PacketParser</code> having a read buffer of the
+	 * default capacity.
+	 */
+	public PacketParser() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Construct a <code>PacketParser</code>.
+	 * 
+	 * @param capacity
+	 *            the capacity of the read buffer in bytes.
+	 */
+	public PacketParser(int capacity) {
+		if (capacity < MAXIMUM_FRAME_LENGTH)
+			throw new IllegalArgumentException("The capacity must be at least "
+					+ MAXIMUM_FRAME_LENGTH + " bytes, but is " + capacity);
+
+		buffer = ByteBuffer.allocate(capacity);
+		data = buffer.array();
+	}
+
+	/**
+	 * Read the available data from an <code>InputStream</code> into the read
+	 * buffer. This method blocks until at least one byte is available.
+	 * 
+	 * @param inputStream
+	 *            the <code>InputStream</code> to read from.
+	 * @return the number of bytes read.
+	 * @throws EndOfStreamException
+	 *             thrown if the <code>InputStream</code> has ended.
+	 * @throws IOException
+	 *             thrown in case of I/O errors.
+	 */
+	public int read(InputStream inputStream) throws EndOfStreamException, IOException {
+		compact();
+		int n = inputStream.read(data, buffer.position(), buffer.remaining());
+
+		if (n == -1)
+			throw new EndOfStreamException();
+
+		buffer.position(buffer.position() + n);
+		return n;
+	}
+
+	/**
+	 * Read the available data from a <code>ReadableByteChannel</code> into
+	 * the read buffer.
+	 * 
+	 * @param channel
+	 *            the channel to read from.
+	 * @return the number of bytes read, possibly zero for non-blocking
+	 *         channels.
+	 * @throws EndOfStreamException
+	 *             thrown if the channel has reached end of stream.
+	 * @throws IOException
+	 *             thrown in case of I/O errors.
+	 */
+	public int read(ReadableByteChannel channel) throws EndOfStreamException, IOException {
+		compact();
+		int n = channel.read(buffer);
+
+		if (n == -1)
+			throw new EndOfStreamException();
+
+		return n;
+	}
+
+	/**
+	 * Append data to the read buffer, e.g. the content of a received datagram.
+	 * If the data does not fit into the buffer, the oldest unparsed bytes are
+	 * discarded.
+	 * 
+	 * @param src
+	 *            the source array.
+	 * @param offset
+	 *            the offset of the first byte to append.
+	 * @param length
+	 *            the number of bytes to append.
+	 */
+	public void append(byte[] src, int offset, int length) {
+		while (length > 0) {
+			compact();
+			if (!buffer.hasRemaining()) {
+				int skip = Math.min(length, buffer.position());
+				discardedBytes += skip;
+				readPosition = skip;
+				compact();
+			}
+			int n = Math.min(length, buffer.remaining());
+			buffer.put(src, offset, n);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	/**
+	 * Decode the next complete frame out of the read buffer.
+	 * 
+	 * @return the decoded <code>Packet</code> or null if the read buffer does
+	 *         not contain another complete frame.
+	 */
+	public Packet next() {
+		int limit = buffer.position();
+
+		while (limit - readPosition >= HEADER_LENGTH) {
+			if (data[readPosition] != PacketType.COMM_PACKET_MARK
+					|| data[readPosition + 1] != PacketType.COMM_PACKET_MARK) {
+				++readPosition;
+				++discardedBytes;
+				continue;
+			}
+
+			byte type = data[readPosition + 2];
+			byte size = data[readPosition + 3];
+
+			if (type < 1 || type > PacketType.COMM_PACKET_LIMIT || size < 0) {
+				++readPosition;
+				++discardedBytes;
+				continue;
+			}
+
+			int length = HEADER_LENGTH + size + CHECKSUM_LENGTH;
+			if (limit - readPosition < length)
+				return null;
+
+			int payloadOffset = readPosition + HEADER_LENGTH;
+			int checksum = (data[payloadOffset + size] & 0xFF) << 8
+					| (data[payloadOffset + size + 1] & 0xFF);
+
+			if (checksum != Checksum.calc(type, size, data, payloadOffset)) {
+				++checksumErrors;
+				++readPosition;
+				++discardedBytes;
+				continue;
+			}
+
+			Packet packet = new Packet(type, size);
+			if (size > 0)
+				System.arraycopy(data, payloadOffset, packet.payload, 0, size);
+			packet.checksum = checksum;
+
+			readPosition += length;
+			++packets;
+			return packet;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Decode all complete frames out of the read buffer and forward them to
+	 * an <code>IPacketListener</code>.
+	 * 
+	 * @param listener
+	 *            the listener to receive the decoded packets.
+	 * @return the number of packets forwarded.
+	 */
+	public int dispatch(IPacketListener listener) {
+		int count = 0;
+		Packet packet;
+
+		while ((packet = next()) != null) {
+			listener.receive(packet);
+			++count;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Discard all data in the read buffer.
+	 */
+	public void clear() {
+		discardedBytes += buffer.position() - readPosition;
+		buffer.clear();
+		readPosition = 0;
+	}
+
+	/**
+	 * @return the number of frames dropped because of checksum errors.
+	 */
+	public long getChecksumErrors() {
+		return checksumErrors;
+	}
+
+	/**
+	 * @return the number of bytes skipped while searching for frame headers.
+	 */
+	public long getDiscardedBytes() {
+		return discardedBytes;
+	}
+
+	/**
+	 * @return the number of frames decoded successfully.
+	 */
+	public long getPackets() {
+		return packets;
+	}
+
+	/**
+	 * Move the unparsed bytes to the beginning of the read buffer.
+	 */
+	private void compact() {
+		if (readPosition == 0)
+			return;
+
+		int remaining = buffer.position() - readPosition;
+		System.arraycopy(data, readPosition, data, 0, remaining);
+		buffer.position(remaining);
+		readPosition = 0;
+	}
+}
@@ -62,99 +62,49 @@ public class PacketReceiver extends Thread {
 
 	/**
 	 * Receive serialized packets from an <code>InputStream</code> and forward
-	 * them to the given <code>IPacketListener</code>. Quit running if errors
+	 * them to the given <code>IPacketListener</code>. The data is read in
+	 * chunks and decoded by a <code>PacketParser</code>. Quit running if errors
 	 * occur.
 	 * 
 	 * @see java.lang.Thread#run()
 	 */
 	public void run() {
 		boolean running = true;
+		PacketParser parser = new PacketParser();
+		long checksumErrors = 0;
 
 		try {
 			while (running) {
-				Packet packet = receive();
-				if (packet != null)
-					packetListener.receive(packet);
+				parser.read(inputStream);
+				parser.dispatch(packetListener);
+
+				if (parser.getChecksumErrors() != checksumErrors) {
+					System.err.println("PacketReceiver receive Checksum ERROR: "
+							+ (parser.getChecksumErrors() - checksumErrors)
+							+ " packet(s) dropped");
+					checksumErrors = parser.getChecksumErrors();
+				}
 			}
+		} catch (EndOfStreamException e) {
+			running = false;
+			close();
+			System.err.println("PacketReceiver: InputStream ended.");
 		} catch (IOException e) {
 			running = false;
-			try {
-				inputStream.close();
-			} catch (IOException e1) {
-				; // Intentionally empty
-			}
+			close();
 			e.printStackTrace();
 		}
 	}
 
 	/**
-	 * Receive one packet from the given <code>InputStream</code>.
-	 * 
-	 * @return the packet received or null in case of content errors.
-	 * @throws IOException
-	 *             thrown in case of I/O errors.
+	 * Close the <code>InputStream</code>.
 	 */
-	private Packet receive() throws IOException {
-
-		byte data = ~PacketType.COMM_PACKET_MARK;
-		while (data != PacketType.COMM_PACKET_MARK) {
-			data = readByte();
-			if (data != PacketType.COMM_PACKET_MARK)
-				continue;
-			data = readByte();
-		}
-
-		byte type = readByte();
-
-		/* check for valid type */
-		if (type < 1 || type > PacketType.COMM_PACKET_LIMIT)
-			return null;
-
-		byte size = (byte) readByte();
-
-		/* check for allowed size */
-		if (size < 0)
-			return null;
-
-		Packet packet = new Packet(type, size);
-		for (int i = 0; i < size; ++i) {
-			packet.payload[i] = readByte();
-		}
-
-		int checksum = readByte() & 0xFF;
-		checksum = (checksum << 8) | (readByte() & 0xFF);
-
-		if (checksum == packet.calcChecksum()) {
-			return packet;
-		} else {
-			System.err.println("PacketReceiver receive Checksum ERROR: "
-					+ checksum + " != " + packet.calcChecksum());
-
-			System.err.print(" " + packet.type + " " + packet.size + " ");
-			for (int i = 0; i < packet.size; ++i)
-				System.err.print(" " + (((int) packet.payload[i]) & 0xFF));
-			System.out.println();
+	private void close() {
+		try {
+			inputStream.close();
+		} catch (IOException e1) {
+			; // Intentionally empty
 		}
-
-		return null;
-	}
-
-	/**
-	 * Read one byte from the given <code>InputStream</code>.
-	 * 
-	 * @return the byte read.
-	 * @throws IOException
-	 *             thrown in case of I/O errors or the end of the
-	 *             <code>InputStream</code>.
-	 */
-	private byte readByte() throws IOException {
-
-		int b = inputStream.read();
-
-		if (b == -1)
-			throw new IOException("InputStream ended.");
-
-		return (byte) b;
 	}
 
 }
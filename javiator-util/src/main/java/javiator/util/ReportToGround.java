@@ -7,6 +7,7 @@ import javiator.util.MotorSignals;
 import javiator.util.CommandData;
 import javiator.util.StateAndMode;
 import javiator.util.Packet;
+import javiator.util.layout.ReportToGroundLayout;
 
 /**
  * Represents data sent to the ground station ("terminal") by the control.
@@ -18,11 +19,7 @@ public class ReportToGround extends NumeratedSendable
     public final CommandData  commandData;
     public final StateAndMode stateAndMode;
 
-    public final static int PACKET_SIZE =
-	    SensorData   .PACKET_SIZE +
-	    MotorSignals .PACKET_SIZE +
-	    CommandData  .PACKET_SIZE +
-	    StateAndMode .PACKET_SIZE;
+    public final static int PACKET_SIZE = ReportToGroundLayout.PAYLOAD_LENGTH;
   
     public ReportToGround( )
     {
@@ -70,14 +67,15 @@ public class ReportToGround extends NumeratedSendable
 
 	public void fromPacket( Packet packet )
 	{
-        int offset = 0;
-		sensorData.decode( packet, offset );
-		offset += SensorData.PACKET_SIZE;
-		motorSignals.decode( packet, offset );
-		offset += MotorSignals.PACKET_SIZE;
-		commandData.decode( packet, offset );
-		offset += CommandData.PACKET_SIZE;
-		stateAndMode.decode( packet, offset );
+		decode( packet, 0 );
+	}
+
+	public void decode( Packet packet, int offset )
+	{
+		sensorData.decode( packet, offset + ReportToGroundLayout.SENSOR_DATA );
+		motorSignals.decode( packet, offset + ReportToGroundLayout.MOTOR_SIGNALS );
+		commandData.decode( packet, offset + ReportToGroundLayout.COMMAND_DATA );
+		stateAndMode.decode( packet, offset + ReportToGroundLayout.STATE_AND_MODE );
 	}
 
 	public void reset( )
@@ -102,13 +100,10 @@ public class ReportToGround extends NumeratedSendable
 
 	public void encode( Packet packet, int offset )
 	{
-		sensorData.encode( packet, offset );
-		offset += SensorData.PACKET_SIZE;
-		motorSignals.encode( packet, offset );
-		offset += MotorSignals.PACKET_SIZE;
-		commandData.encode( packet, offset );
-		offset += CommandData.PACKET_SIZE;
-		stateAndMode.encode( packet, offset );
+		sensorData.encode( packet, offset + ReportToGroundLayout.SENSOR_DATA );
+		motorSignals.encode( packet, offset + ReportToGroundLayout.MOTOR_SIGNALS );
+		commandData.encode( packet, offset + ReportToGroundLayout.COMMAND_DATA );
+		stateAndMode.encode( packet, offset + ReportToGroundLayout.STATE_AND_MODE );
 	}
 
 	public Packet toPacket( byte type )
@@ -21,6 +21,10 @@
 
 package javiator.util;
 
+import java.nio.ByteBuffer;
+
+import javiator.util.layout.RevvingParamsLayout;
+
 /**
  * Represents the actuator data
  * 
@@ -28,7 +32,7 @@ package javiator.util;
  */
 public class RevvingParams extends NumeratedSendable
 {
-	public static final int PACKET_SIZE = 8;
+	public static final int PACKET_SIZE = RevvingParamsLayout.PAYLOAD_LENGTH;
 
     public RevvingParams( )
     {
@@ -72,14 +76,11 @@ public class RevvingParams extends NumeratedSendable
 
 	public void encode( Packet packet, int offset )
 	{
-		packet.payload[ offset + 0 ] = (byte)( idleLimit >> 8 );
-		packet.payload[ offset + 1 ] = (byte)( idleLimit );
-		packet.payload[ offset + 2 ] = (byte)( revUpStep >> 8 );
-		packet.payload[ offset + 3 ] = (byte)( revUpStep );
-		packet.payload[ offset + 4 ] = (byte)( revDnStep >> 8 );
-		packet.payload[ offset + 5 ] = (byte)( revDnStep );
-		packet.payload[ offset + 6 ] = (byte)( intDnStep >> 8 );
-		packet.payload[ offset + 7 ] = (byte)( intDnStep );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		RevvingParamsLayout.putIdleLimit( buf, offset, idleLimit );
+		RevvingParamsLayout.putRevUpStep( buf, offset, revUpStep );
+		RevvingParamsLayout.putRevDnStep( buf, offset, revDnStep );
+		RevvingParamsLayout.putIntDnStep( buf, offset, intDnStep );
 	}
 
 	public synchronized Packet toPacket( byte type )
@@ -98,10 +99,11 @@ public class RevvingParams extends NumeratedSendable
 
 	public synchronized void decode( Packet packet, int offset )
 	{
-		idleLimit = (short)( (packet.payload[ offset + 0 ] << 8) | (packet.payload[ offset + 1 ] & 0xFF) );
-		revUpStep = (short)( (packet.payload[ offset + 2 ] << 8) | (packet.payload[ offset + 3 ] & 0xFF) );
-		revDnStep = (short)( (packet.payload[ offset + 4 ] << 8) | (packet.payload[ offset + 5 ] & 0xFF) );
-		intDnStep = (short)( (packet.payload[ offset + 6 ] << 8) | (packet.payload[ offset + 7 ] & 0xFF) );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		idleLimit = RevvingParamsLayout.getIdleLimit( buf, offset );
+		revUpStep = RevvingParamsLayout.getRevUpStep( buf, offset );
+		revDnStep = RevvingParamsLayout.getRevDnStep( buf, offset );
+		intDnStep = RevvingParamsLayout.getIntDnStep( buf, offset );
 	}
 
 	public synchronized Object clone( ) 
@@ -21,6 +21,10 @@
 
 package javiator.util;
 
+import java.nio.ByteBuffer;
+
+import javiator.util.layout.SensorDataLayout;
+
 /**
  * Represents the sensor data
  * 
@@ -28,7 +32,7 @@ package javiator.util;
  */
 public class SensorData extends NumeratedSendable
 {
-	public static final int PACKET_SIZE = 38;
+	public static final int PACKET_SIZE = SensorDataLayout.PAYLOAD_LENGTH;
 
 	public SensorData()
 	{
@@ -84,7 +88,7 @@ public class SensorData extends NumeratedSendable
 		return( result );
 	}
 
-	public synchronized Packet toPacket( )
+	public Packet toPacket( )
 	{
 		Packet packet = new Packet( PACKET_SIZE );
 		encode( packet, 0 );
@@ -92,49 +96,31 @@ public class SensorData extends NumeratedSendable
 		return( packet );
 	}
 	
-	public synchronized void encode( Packet packet, int offset )
+	public void encode( Packet packet, int offset )
 	{
-		packet.payload[ offset + 0 ]  = (byte)( roll >> 8 );
-		packet.payload[ offset + 1 ]  = (byte)( roll );
-		packet.payload[ offset + 2 ]  = (byte)( pitch >> 8 );
-		packet.payload[ offset + 3 ]  = (byte)( pitch );
-		packet.payload[ offset + 4 ]  = (byte)( yaw >> 8 );
-		packet.payload[ offset + 5 ]  = (byte)( yaw );
-		packet.payload[ offset + 6 ]  = (byte)( droll >> 8 );
-		packet.payload[ offset + 7 ]  = (byte)( droll );
-		packet.payload[ offset + 8 ]  = (byte)( dpitch >> 8 );
-		packet.payload[ offset + 9 ]  = (byte)( dpitch );
-		packet.payload[ offset + 10 ] = (byte)( dyaw >> 8 );
-		packet.payload[ offset + 11 ] = (byte)( dyaw );
-		packet.payload[ offset + 12 ] = (byte)( ddroll >> 8 );
-		packet.payload[ offset + 13 ] = (byte)( ddroll );
-		packet.payload[ offset + 14 ] = (byte)( ddpitch >> 8 );
-		packet.payload[ offset + 15 ] = (byte)( ddpitch );
-		packet.payload[ offset + 16 ] = (byte)( ddyaw >> 8 );
-		packet.payload[ offset + 17 ] = (byte)( ddyaw );
-		packet.payload[ offset + 18 ] = (byte)( x >> 8 );
-		packet.payload[ offset + 19 ] = (byte)( x );
-		packet.payload[ offset + 20 ] = (byte)( y >> 8 );
-		packet.payload[ offset + 21 ] = (byte)( y );
-		packet.payload[ offset + 22 ] = (byte)( z >> 8 );
-		packet.payload[ offset + 23 ] = (byte)( z );
-		packet.payload[ offset + 24 ] = (byte)( dx >> 8 );
-		packet.payload[ offset + 25 ] = (byte)( dx );
-		packet.payload[ offset + 26 ] = (byte)( dy >> 8 );
-		packet.payload[ offset + 27 ] = (byte)( dy );
-		packet.payload[ offset + 28 ] = (byte)( dz >> 8 );
-		packet.payload[ offset + 29 ] = (byte)( dz );
-		packet.payload[ offset + 30 ] = (byte)( ddx >> 8 );
-		packet.payload[ offset + 31 ] = (byte)( ddx );
-		packet.payload[ offset + 32 ] = (byte)( ddy >> 8 );
-		packet.payload[ offset + 33 ] = (byte)( ddy );
-		packet.payload[ offset + 34 ] = (byte)( ddz >> 8 );
-		packet.payload[ offset + 35 ] = (byte)( ddz );
-		packet.payload[ offset + 36 ] = (byte)( battery >> 8 );
-		packet.payload[ offset + 37 ] = (byte)( battery );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		SensorDataLayout.putRoll( buf, offset, roll );
+		SensorDataLayout.putPitch( buf, offset, pitch );
+		SensorDataLayout.putYaw( buf, offset, yaw );
+		SensorDataLayout.putDroll( buf, offset, droll );
+		SensorDataLayout.putDpitch( buf, offset, dpitch );
+		SensorDataLayout.putDyaw( buf, offset, dyaw );
+		SensorDataLayout.putDdroll( buf, offset, ddroll );
+		SensorDataLayout.putDdpitch( buf, offset, ddpitch );
+		SensorDataLayout.putDdyaw( buf, offset, ddyaw );
+		SensorDataLayout.putX( buf, offset, x );
+		SensorDataLayout.putY( buf, offset, y );
+		SensorDataLayout.putZ( buf, offset, z );
+		SensorDataLayout.putDx( buf, offset, dx );
+		SensorDataLayout.putDy( buf, offset, dy );
+		SensorDataLayout.putDz( buf, offset, dz );
+		SensorDataLayout.putDdx( buf, offset, ddx );
+		SensorDataLayout.putDdy( buf, offset, ddy );
+		SensorDataLayout.putDdz( buf, offset, ddz );
+		SensorDataLayout.putBattery( buf, offset, battery );
 	}
 
-	public synchronized Packet toPacket( byte type )
+	public Packet toPacket( byte type )
 	{	
 		Packet packet = toPacket( );
 		packet.type   = type;
@@ -143,32 +129,33 @@ public class SensorData extends NumeratedSendable
 		return( packet );
 	}
 
-	public synchronized void fromPacket( Packet packet )
+	public void fromPacket( Packet packet )
 	{
 		decode( packet, 0 );
 	}
 	
-	public synchronized void decode( Packet packet, int offset )
+	public void decode( Packet packet, int offset )
 	{
-		roll    = (short)( (packet.payload[ offset + 0 ]  << 8) | (packet.payload[ offset + 1 ]  & 0xFF) );
-		pitch   = (short)( (packet.payload[ offset + 2 ]  << 8) | (packet.payload[ offset + 3 ]  & 0xFF) );
-		yaw     = (short)( (packet.payload[ offset + 4 ]  << 8) | (packet.payload[ offset + 5 ]  & 0xFF) );
-		droll   = (short)( (packet.payload[ offset + 6 ]  << 8) | (packet.payload[ offset + 7 ]  & 0xFF) );
-		dpitch  = (short)( (packet.payload[ offset + 8 ]  << 8) | (packet.payload[ offset + 9 ]  & 0xFF) );
-		dyaw    = (short)( (packet.payload[ offset + 10 ] << 8) | (packet.payload[ offset + 11 ] & 0xFF) );
-		ddroll  = (short)( (packet.payload[ offset + 12 ] << 8) | (packet.payload[ offset + 13 ] & 0xFF) );
-		ddpitch = (short)( (packet.payload[ offset + 14 ] << 8) | (packet.payload[ offset + 15 ] & 0xFF) );
-		ddyaw   = (short)( (packet.payload[ offset + 16 ] << 8) | (packet.payload[ offset + 17 ] & 0xFF) );
-		x       = (short)( (packet.payload[ offset + 18 ] << 8) | (packet.payload[ offset + 19 ] & 0xFF) );
-		y       = (short)( (packet.payload[ offset + 20 ] << 8) | (packet.payload[ offset + 21 ] & 0xFF) );
-		z       = (short)( (packet.payload[ offset + 22 ] << 8) | (packet.payload[ offset + 23 ] & 0xFF) );
-		dx      = (short)( (packet.payload[ offset + 24 ] << 8) | (packet.payload[ offset + 25 ] & 0xFF) );
-		dy      = (short)( (packet.payload[ offset + 26 ] << 8) | (packet.payload[ offset + 27 ] & 0xFF) );
-		dz      = (short)( (packet.payload[ offset + 28 ] << 8) | (packet.payload[ offset + 29 ] & 0xFF) );
-		ddx     = (short)( (packet.payload[ offset + 30 ] << 8) | (packet.payload[ offset + 31 ] & 0xFF) );
-		ddy     = (short)( (packet.payload[ offset + 32 ] << 8) | (packet.payload[ offset + 33 ] & 0xFF) );
-		ddz     = (short)( (packet.payload[ offset + 34 ] << 8) | (packet.payload[ offset + 35 ] & 0xFF) );
-		battery = (short)( (packet.payload[ offset + 36 ] << 8) | (packet.payload[ offset + 37 ] & 0xFF) );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		roll = SensorDataLayout.getRoll( buf, offset );
+		pitch = SensorDataLayout.getPitch( buf, offset );
+		yaw = SensorDataLayout.getYaw( buf, offset );
+		droll = SensorDataLayout.getDroll( buf, offset );
+		dpitch = SensorDataLayout.getDpitch( buf, offset );
+		dyaw = SensorDataLayout.getDyaw( buf, offset );
+		ddroll = SensorDataLayout.getDdroll( buf, offset );
+		ddpitch = SensorDataLayout.getDdpitch( buf, offset );
+		ddyaw = SensorDataLayout.getDdyaw( buf, offset );
+		x = SensorDataLayout.getX( buf, offset );
+		y = SensorDataLayout.getY( buf, offset );
+		z = SensorDataLayout.getZ( buf, offset );
+		dx = SensorDataLayout.getDx( buf, offset );
+		dy = SensorDataLayout.getDy( buf, offset );
+		dz = SensorDataLayout.getDz( buf, offset );
+		ddx = SensorDataLayout.getDdx( buf, offset );
+		ddy = SensorDataLayout.getDdy( buf, offset );
+		ddz = SensorDataLayout.getDdz( buf, offset );
+		battery = SensorDataLayout.getBattery( buf, offset );
 	}
 
 	public synchronized Object clone( )
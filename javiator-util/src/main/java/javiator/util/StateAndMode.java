@@ -1,8 +1,12 @@
 package javiator.util;
 
+import java.nio.ByteBuffer;
+
+import javiator.util.layout.StateAndModeLayout;
+
 public class StateAndMode extends NumeratedSendable
 {
-	public static final int PACKET_SIZE = 2;
+	public static final int PACKET_SIZE = StateAndModeLayout.PAYLOAD_LENGTH;
 
     public StateAndMode( byte state, byte mode )
     {
@@ -26,8 +30,9 @@ public class StateAndMode extends NumeratedSendable
 
 	public void encode( Packet packet, int offset )
 	{
-		packet.payload[ offset + 0 ] = state;
-		packet.payload[ offset + 1 ] = mode;
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		StateAndModeLayout.putState( buf, offset, state );
+		StateAndModeLayout.putMode( buf, offset, mode );
 	}
 
     public synchronized Packet toPacket( byte type )
@@ -46,8 +51,9 @@ public class StateAndMode extends NumeratedSendable
 
 	public void decode( Packet packet, int offset )
 	{
-		state = (byte)( packet.payload[ offset + 0 ] & 0xFF );
-		mode  = (byte)( packet.payload[ offset + 1 ] & 0xFF );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		state = StateAndModeLayout.getState( buf, offset );
+		mode = StateAndModeLayout.getMode( buf, offset );
 	}
 
     public synchronized Object clone( )
@@ -21,6 +21,10 @@
 
 package javiator.util;
 
+import java.nio.ByteBuffer;
+
+import javiator.util.layout.TraceDataLayout;
+
 /**
  * Represents the sensor data
  * 
@@ -28,7 +32,7 @@ package javiator.util;
  */
 public class TraceData extends NumeratedSendable
 {
-	public static final int PACKET_SIZE = 32;
+	public static final int PACKET_SIZE = TraceDataLayout.PAYLOAD_LENGTH;
 
 	public TraceData()
 	{
@@ -78,7 +82,7 @@ public class TraceData extends NumeratedSendable
 		return( result );
 	}
 
-	public synchronized Packet toPacket( )
+	public Packet toPacket( )
 	{
 		Packet packet = new Packet( PACKET_SIZE );
 		encode( packet, 0 );
@@ -86,43 +90,28 @@ public class TraceData extends NumeratedSendable
 		return( packet );
 	}
 	
-	public synchronized void encode( Packet packet, int offset )
+	public void encode( Packet packet, int offset )
 	{
-		packet.payload[ offset + 0 ]  = (byte)( value_1 >> 8 );
-		packet.payload[ offset + 1 ]  = (byte)( value_1 );
-		packet.payload[ offset + 2 ]  = (byte)( value_2 >> 8 );
-		packet.payload[ offset + 3 ]  = (byte)( value_2 );
-		packet.payload[ offset + 4 ]  = (byte)( value_3 >> 8 );
-		packet.payload[ offset + 5 ]  = (byte)( value_3 );
-		packet.payload[ offset + 6 ]  = (byte)( value_4 >> 8 );
-		packet.payload[ offset + 7 ]  = (byte)( value_4 );
-		packet.payload[ offset + 8 ]  = (byte)( value_5 >> 8 );
-		packet.payload[ offset + 9 ]  = (byte)( value_5 );
-		packet.payload[ offset + 10 ] = (byte)( value_6 >> 8 );
-		packet.payload[ offset + 11 ] = (byte)( value_6 );
-		packet.payload[ offset + 12 ] = (byte)( value_7 >> 8 );
-		packet.payload[ offset + 13 ] = (byte)( value_7 );
-		packet.payload[ offset + 14 ] = (byte)( value_8 >> 8 );
-		packet.payload[ offset + 15 ] = (byte)( value_8 );
-		packet.payload[ offset + 16 ] = (byte)( value_9 >> 8 );
-		packet.payload[ offset + 17 ] = (byte)( value_9 );
-		packet.payload[ offset + 18 ] = (byte)( value_10 >> 8 );
-		packet.payload[ offset + 19 ] = (byte)( value_10 );
-		packet.payload[ offset + 20 ] = (byte)( value_11 >> 8 );
-		packet.payload[ offset + 21 ] = (byte)( value_11 );
-		packet.payload[ offset + 22 ] = (byte)( value_12 >> 8 );
-		packet.payload[ offset + 23 ] = (byte)( value_12 );
-		packet.payload[ offset + 24 ] = (byte)( value_13 >> 8 );
-		packet.payload[ offset + 25 ] = (byte)( value_13 );
-		packet.payload[ offset + 26 ] = (byte)( value_14 >> 8 );
-		packet.payload[ offset + 27 ] = (byte)( value_14 );
-		packet.payload[ offset + 28 ] = (byte)( value_15 >> 8 );
-		packet.payload[ offset + 29 ] = (byte)( value_15 );
-		packet.payload[ offset + 30 ] = (byte)( value_16 >> 8 );
-		packet.payload[ offset + 31 ] = (byte)( value_16 );
+		ByteBuffer buf = packet.getPayloadBuffer( );
+		TraceDataLayout.putValue_1( buf, offset, value_1 );
+		TraceDataLayout.putValue_2( buf, offset, value_2 );
+		TraceDataLayout.putValue_3( buf, offset, value_3 );
+		TraceDataLayout.putValue_4( buf, offset, value_4 );
+		TraceDataLayout.putValue_5( buf, offset, value_5 );
+		TraceDataLayout.putValue_6( buf, offset, value_6 );
+		TraceDataLayout.putValue_7( buf, offset, value_7 );
+		TraceDataLayout.putValue_8( buf, offset, value_8 );
+		TraceDataLayout.putValue_9( buf, offset, value_9 );
+		TraceDataLayout.putValue_10( buf, offset, value_10 );
+		TraceDataLayout.putValue_11( buf, offset, value_11 );
+		TraceDataLayout.putValue_12( buf, offset, value_12 );
+		TraceDataLayout.putValue_13( buf, offset, value_13 );
+		TraceDataLayout.putValue_14( buf, offset, value_14 );
+		TraceDataLayout.putValue_15( buf, offset, value_15 );
+		TraceDataLayout.putValue_16( buf, offset, value_16 );
 	}
 
-	public synchronized Packet toPacket( byte type )
+	public Packet toPacket( byte type )
 	{	
 		Packet packet = toPacket( );
 		packet.type   = type;
@@ -131,29 +120,30 @@ public class TraceData extends NumeratedSendable
 		return( packet );
 	}
 
-	public synchronized void fromPacket( Packet packet )
+	public void fromPacket( Packet packet )
 	{
 		decode( packet, 0 );
 	}
 	
-	public synchronized void decode( Packet packet, int offset )
+	public void decode( Packet packet, int offset )
 	{
-        value_1  = (short)( (packet.payload[ offset + 0 ]  << 8) | (packet.payload[ offset + 1 ]  & 0xFF) );
-        value_2  = (short)( (packet.payload[ offset + 2 ]  << 8) | (packet.payload[ offset + 3 ]  & 0xFF) );
-        value_3  = (short)( (packet.payload[ offset + 4 ]  << 8) | (packet.payload[ offset + 5 ]  & 0xFF) );
-        value_4  = (short)( (packet.payload[ offset + 6 ]  << 8) | (packet.payload[ offset + 7 ]  & 0xFF) );
-        value_5  = (short)( (packet.payload[ offset + 8 ]  << 8) | (packet.payload[ offset + 9 ]  & 0xFF) );
-        value_6  = (short)( (packet.payload[ offset + 10 ] << 8) | (packet.payload[ offset + 11 ] & 0xFF) );
-        value_7  = (short)( (packet.payload[ offset + 12 ] << 8) | (packet.payload[ offset + 13 ] & 0xFF) );
-        value_8  = (short)( (packet.payload[ offset + 14 ] << 8) | (packet.payload[ offset + 15 ] & 0xFF) );
-        value_9  = (short)( (packet.payload[ offset + 16 ] << 8) | (packet.payload[ offset + 17 ] & 0xFF) );
-        value_10 = (short)( (packet.payload[ offset + 18 ] << 8) | (packet.payload[ offset + 19 ] & 0xFF) );
-        value_11 = (short)( (packet.payload[ offset + 20 ] << 8) | (packet.payload[ offset + 21 ] & 0xFF) );
-        value_12 = (short)( (packet.payload[ offset + 22 ] << 8) | (packet.payload[ offset + 23 ] & 0xFF) );
-        value_13 = (short)( (packet.payload[ offset + 24 ] << 8) | (packet.payload[ offset + 25 ] & 0xFF) );
-        value_14 = (short)( (packet.payload[ offset + 26 ] << 8) | (packet.payload[ offset + 27 ] & 0xFF) );
-        value_15 = (short)( (packet.payload[ offset + 28 ] << 8) | (packet.payload[ offset + 29 ] & 0xFF) );
-        value_16 = (short)( (packet.payload[ offset + 30 ] << 8) | (packet.payload[ offset + 31 ] & 0xFF) );
+        ByteBuffer buf = packet.getPayloadBuffer( );
+        value_1 = TraceDataLayout.getValue_1( buf, offset );
+        value_2 = TraceDataLayout.getValue_2( buf, offset );
+        value_3 = TraceDataLayout.getValue_3( buf, offset );
+        value_4 = TraceDataLayout.getValue_4( buf, offset );
+        value_5 = TraceDataLayout.getValue_5( buf, offset );
+        value_6 = TraceDataLayout.getValue_6( buf, offset );
+        value_7 = TraceDataLayout.getValue_7( buf, offset );
+        value_8 = TraceDataLayout.getValue_8( buf, offset );
+        value_9 = TraceDataLayout.getValue_9( buf, offset );
+        value_10 = TraceDataLayout.getValue_10( buf, offset );
+        value_11 = TraceDataLayout.getValue_11( buf, offset );
+        value_12 = TraceDataLayout.getValue_12( buf, offset );
+        value_13 = TraceDataLayout.getValue_13( buf, offset );
+        value_14 = TraceDataLayout.getValue_14( buf, offset );
+        value_15 = TraceDataLayout.getValue_15( buf, offset );
+        value_16 = TraceDataLayout.getValue_16( buf, offset );
 	}
 
 	public synchronized Object clone( )
@@ -98,7 +98,8 @@ public abstract class Transceiver implements Runnable, Port
     }
     
     /**
-     * sends a packet using transmitByte
+     * sends a packet as one frame. The frame is assembled in a buffer and
+     * written to the output with a single call.
      * @param packet
      *            The packet to send to the output
      */
@@ -106,20 +107,27 @@ public abstract class Transceiver implements Runnable, Port
     {    	
         try
         {
-            transmitByte( new byte[] {
-                PacketType.COMM_PACKET_MARK,
-            	PacketType.COMM_PACKET_MARK,
-                packet.type,
-                packet.size
-            } );
-
-            if( packet.payload != null && packet.payload.length > 0 )
+            int size = packet.size;
+
+            frame[0] = PacketType.COMM_PACKET_MARK;
+            frame[1] = PacketType.COMM_PACKET_MARK;
+            frame[2] = packet.type;
+            frame[3] = packet.size;
+
+            if( packet.payload != null && size > 0 )
             {
-                transmitByte( packet.payload );
+                System.arraycopy( packet.payload, 0, frame, PacketParser.HEADER_LENGTH, size );
             }
 
-            transmitByte( (byte)( packet.checksum >> 8 ) );
-            transmitByte( (byte)( packet.checksum ) );
+            frame[PacketParser.HEADER_LENGTH + size]     = (byte)( packet.checksum >> 8 );
+            frame[PacketParser.HEADER_LENGTH + size + 1] = (byte)( packet.checksum );
+
+            if( output == null )
+            {
+                throw new IOException( "output is null" );
+            }
+
+            output.write( frame, 0, PacketParser.HEADER_LENGTH + size + PacketParser.CHECKSUM_LENGTH );
             flush( );
         }
         catch( java.io.IOException e )
@@ -158,98 +166,34 @@ public abstract class Transceiver implements Runnable, Port
      */
     public abstract void disconnect( );
 
-    protected byte readByte( ) throws EndOfStreamException, IOException
-    {
-        int t;
-
-        if( input == null )
-        {
-            throw new IOException( "no input source" );
-        }
-
-        t = input.read( );
-      
-        if( t == -1 )
-        {
-            throw new EndOfStreamException( );
-        }
-
-        return( (byte) t );
-    }
-
     /**
      * Polls the input stream Input for new data. The run method calls this
      * function when the connection was successfully established. Polls the
-     * input until terminate is called and generates packets from the input data
-     * and hands them over to processPacket
+     * input until terminate is called, reads the available data in chunks,
+     * decodes all complete packets by means of the parser and hands them over
+     * to processPacket
      */
     protected void receive( )
     {
-        byte data, type, size;
-        int  checksum;
+        long checksumErrors = parser.getChecksumErrors( );
 
         while( isConnected( ) && !isHalt( ) )
         {        	
             try
-            {            	
-                do
-                {
-                    data = readByte( );
-                }
-                while( data != PacketType.COMM_PACKET_MARK );
-
-                arrived( );
-                data = readByte( );
-
-                if( data != PacketType.COMM_PACKET_MARK )
-                {
-                    continue;
-                }
-
-                type = readByte( );
-
-                /* check for valid type */
-                if( type < 0x01 || type > PacketType.COMM_PACKET_LIMIT )
-                {
-                    continue;
-                }
-
-                size = readByte( );
-
-                /* check for allowed size */
-                if( size < 0 )
-                {
-                    continue;
-                }
-
-                Packet packet = new Packet( (byte) type, size );
-
-                for( int i = 0; i < size; ++i )
+            {
+                if( input == null )
                 {
-                    packet.payload[i] = readByte( );
+                    throw new IOException( "no input source" );
                 }
 
-                checksum = readByte( ) & 0xFF;
-                checksum = (checksum << 8) | (readByte( ) & 0xFF);
+                parser.read( input );
+                dispatch( );
 
-                if( checksum == packet.calcChecksum( ) )
-                {
-                    processPacket( packet );
-                    lastPacket = packet;
-                }
-                else
+                if( parser.getChecksumErrors( ) != checksumErrors )
                 {
                     System.err.println( name + " receive Checksum ERROR: "
-                        + checksum + " != " + packet.calcChecksum( ) );
-
-                    System.err.print( " " + packet.type + " " + packet.size + " " );
-
-                    for( int i = 0; i < packet.size; ++i )
-                    {
-                        System.err.print( " " + ( (int) packet.payload[i] & 0xFF ) );
-                    }
-
-                    System.out.println( " " );
+                        + ( parser.getChecksumErrors( ) - checksumErrors ) + " packet(s) dropped" );
+                    checksumErrors = parser.getChecksumErrors( );
                 }
             }
             catch( EndOfStreamException e )
@@ -257,6 +201,7 @@ public abstract class Transceiver implements Runnable, Port
                 System.err.println( name + " reached end of input " + e.getMessage( ) );
                 e.printStackTrace( );
                 disconnect( );
+                parser.clear( );
 
                 if( !isHalt( ) )
                 {
@@ -269,6 +214,7 @@ public abstract class Transceiver implements Runnable, Port
                 System.err.println( name + " receive ERROR: " + e.getMessage( ) );
                 e.printStackTrace( );
                 disconnect( );
+                parser.clear( );
 
                 if( !isHalt( ) )
                 {
@@ -292,33 +238,29 @@ public abstract class Transceiver implements Runnable, Port
     }
 
     /**
-     * Override in subclasses to track packet arrivals
+     * hands all complete packets in the parser over to processPacket
      */
-    protected void arrived( )
-	{
-	}
+    protected void dispatch( )
+    {
+        Packet packet;
 
-	/**
-     * writes one byte to Output
-     * @param b the byte to write to the output stream
-     */
-    protected void transmitByte( final int b ) throws IOException
-    {        
-        if( output == null )
+        while( ( packet = parser.next( ) ) != null )
         {
-            throw new IOException( "output is null" );
+            arrived( );
+            processPacket( packet );
+            lastPacket = packet;
         }
-
-        output.write( b & 0xFF );
     }
 
-    protected void transmitByte( final byte[] b ) throws IOException
-    {
-        for( int i = 0; i < b.length; ++i )
-        {
-            transmitByte( b[i] );
-        }
-    }
+    /**
+     * Override in subclasses to track packet arrivals. This method is called
+     * once per valid packet, i.e. after the parser has verified its checksum
+     * and before processPacket. Bytes skipped while searching for a frame
+     * header and packets having a checksum error do not count as arrivals.
+     */
+    protected void arrived( )
+	{
+	}
 
     /**
      * dummy function that forwards all known packets to the relay Transceiver.
@@ -371,6 +313,12 @@ public abstract class Transceiver implements Runnable, Port
     /** output to where we send the data */
     protected OutputStream      output      = null;
 
+    /** the parser decoding the received data */
+    protected PacketParser      parser      = new PacketParser( );
+
+    /** buffer to assemble outgoing frames */
+    private byte[]              frame       = new byte[PacketParser.MAXIMUM_FRAME_LENGTH];
+
     /** last raw packet processed */
     protected Packet            lastPacket  = null;
 
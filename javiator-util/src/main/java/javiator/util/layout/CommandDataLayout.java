@@ -0,0 +1,138 @@
+/*
+ * @(#) CommandDataLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package javiator.util.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>CommandData</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class CommandDataLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 8;
+	
+	/**
+	 * The offset of the field <code>roll</code>.
+	 */
+	public static final int ROLL = 0;
+	
+	/**
+	 * The offset of the field <code>pitch</code>.
+	 */
+	public static final int PITCH = 2;
+	
+	/**
+	 * The offset of the field <code>yaw</code>.
+	 */
+	public static final int YAW = 4;
+	
+	/**
+	 * The offset of the field <code>z</code>.
+	 */
+	public static final int Z = 6;
+	
+	private CommandDataLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>roll</code>.
+	 */
+	public static short getRoll (ByteBuffer buf, int base) {
+		return buf.getShort (base + ROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>roll</code>.
+	 */
+	public static void putRoll (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + ROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>pitch</code>.
+	 */
+	public static short getPitch (ByteBuffer buf, int base) {
+		return buf.getShort (base + PITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>pitch</code>.
+	 */
+	public static void putPitch (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + PITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>yaw</code>.
+	 */
+	public static short getYaw (ByteBuffer buf, int base) {
+		return buf.getShort (base + YAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>yaw</code>.
+	 */
+	public static void putYaw (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + YAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>z</code>.
+	 */
+	public static short getZ (ByteBuffer buf, int base) {
+		return buf.getShort (base + Z);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>z</code>.
+	 */
+	public static void putZ (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + Z, value);
+	}
+}
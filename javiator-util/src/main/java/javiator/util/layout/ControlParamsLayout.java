@@ -0,0 +1,138 @@
+/*
+ * @(#) ControlParamsLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package javiator.util.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>ControlParams</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class ControlParamsLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 8;
+	
+	/**
+	 * The offset of the field <code>kp</code>.
+	 */
+	public static final int KP = 0;
+	
+	/**
+	 * The offset of the field <code>ki</code>.
+	 */
+	public static final int KI = 2;
+	
+	/**
+	 * The offset of the field <code>kd</code>.
+	 */
+	public static final int KD = 4;
+	
+	/**
+	 * The offset of the field <code>kdd</code>.
+	 */
+	public static final int KDD = 6;
+	
+	private ControlParamsLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>kp</code>.
+	 */
+	public static short getKp (ByteBuffer buf, int base) {
+		return buf.getShort (base + KP);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>kp</code>.
+	 */
+	public static void putKp (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + KP, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ki</code>.
+	 */
+	public static short getKi (ByteBuffer buf, int base) {
+		return buf.getShort (base + KI);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ki</code>.
+	 */
+	public static void putKi (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + KI, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>kd</code>.
+	 */
+	public static short getKd (ByteBuffer buf, int base) {
+		return buf.getShort (base + KD);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>kd</code>.
+	 */
+	public static void putKd (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + KD, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>kdd</code>.
+	 */
+	public static short getKdd (ByteBuffer buf, int base) {
+		return buf.getShort (base + KDD);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>kdd</code>.
+	 */
+	public static void putKdd (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + KDD, value);
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * @(#) ReportToGroundLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package javiator.util.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>ReportToGround</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class ReportToGroundLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 58;
+	
+	/**
+	 * The offset of the nested <code>SensorData</code> payload.
+	 */
+	public static final int SENSOR_DATA = 0;
+	
+	/**
+	 * The offset of the nested <code>MotorSignals</code> payload.
+	 */
+	public static final int MOTOR_SIGNALS = 38;
+	
+	/**
+	 * The offset of the nested <code>CommandData</code> payload.
+	 */
+	public static final int COMMAND_DATA = 48;
+	
+	/**
+	 * The offset of the nested <code>StateAndMode</code> payload.
+	 */
+	public static final int STATE_AND_MODE = 56;
+	
+	private ReportToGroundLayout () {
+		// Intentionally empty.
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * @(#) RevvingParamsLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package javiator.util.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>RevvingParams</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class RevvingParamsLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 8;
+	
+	/**
+	 * The offset of the field <code>idleLimit</code>.
+	 */
+	public static final int IDLE_LIMIT = 0;
+	
+	/**
+	 * The offset of the field <code>revUpStep</code>.
+	 */
+	public static final int REV_UP_STEP = 2;
+	
+	/**
+	 * The offset of the field <code>revDnStep</code>.
+	 */
+	public static final int REV_DN_STEP = 4;
+	
+	/**
+	 * The offset of the field <code>intDnStep</code>.
+	 */
+	public static final int INT_DN_STEP = 6;
+	
+	private RevvingParamsLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>idleLimit</code>.
+	 */
+	public static short getIdleLimit (ByteBuffer buf, int base) {
+		return buf.getShort (base + IDLE_LIMIT);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>idleLimit</code>.
+	 */
+	public static void putIdleLimit (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + IDLE_LIMIT, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>revUpStep</code>.
+	 */
+	public static short getRevUpStep (ByteBuffer buf, int base) {
+		return buf.getShort (base + REV_UP_STEP);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>revUpStep</code>.
+	 */
+	public static void putRevUpStep (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + REV_UP_STEP, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>revDnStep</code>.
+	 */
+	public static short getRevDnStep (ByteBuffer buf, int base) {
+		return buf.getShort (base + REV_DN_STEP);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>revDnStep</code>.
+	 */
+	public static void putRevDnStep (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + REV_DN_STEP, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>intDnStep</code>.
+	 */
+	public static short getIntDnStep (ByteBuffer buf, int base) {
+		return buf.getShort (base + INT_DN_STEP);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>intDnStep</code>.
+	 */
+	public static void putIntDnStep (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + INT_DN_STEP, value);
+	}
+}
@@ -0,0 +1,483 @@
+/*
+ * @(#) SensorDataLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package javiator.util.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>SensorData</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class SensorDataLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 38;
+	
+	/**
+	 * The offset of the field <code>roll</code>.
+	 */
+	public static final int ROLL = 0;
+	
+	/**
+	 * The offset of the field <code>pitch</code>.
+	 */
+	public static final int PITCH = 2;
+	
+	/**
+	 * The offset of the field <code>yaw</code>.
+	 */
+	public static final int YAW = 4;
+	
+	/**
+	 * The offset of the field <code>droll</code>.
+	 */
+	public static final int DROLL = 6;
+	
+	/**
+	 * The offset of the field <code>dpitch</code>.
+	 */
+	public static final int DPITCH = 8;
+	
+	/**
+	 * The offset of the field <code>dyaw</code>.
+	 */
+	public static final int DYAW = 10;
+	
+	/**
+	 * The offset of the field <code>ddroll</code>.
+	 */
+	public static final int DDROLL = 12;
+	
+	/**
+	 * The offset of the field <code>ddpitch</code>.
+	 */
+	public static final int DDPITCH = 14;
+	
+	/**
+	 * The offset of the field <code>ddyaw</code>.
+	 */
+	public static final int DDYAW = 16;
+	
+	/**
+	 * The offset of the field <code>x</code>.
+	 */
+	public static final int X = 18;
+	
+	/**
+	 * The offset of the field <code>y</code>.
+	 */
+	public static final int Y = 20;
+	
+	/**
+	 * The offset of the field <code>z</code>.
+	 */
+	public static final int Z = 22;
+	
+	/**
+	 * The offset of the field <code>dx</code>.
+	 */
+	public static final int DX = 24;
+	
+	/**
+	 * The offset of the field <code>dy</code>.
+	 */
+	public static final int DY = 26;
+	
+	/**
+	 * The offset of the field <code>dz</code>.
+	 */
+	public static final int DZ = 28;
+	
+	/**
+	 * The offset of the field <code>ddx</code>.
+	 */
+	public static final int DDX = 30;
+	
+	/**
+	 * The offset of the field <code>ddy</code>.
+	 */
+	public static final int DDY = 32;
+	
+	/**
+	 * The offset of the field <code>ddz</code>.
+	 */
+	public static final int DDZ = 34;
+	
+	/**
+	 * The offset of the field <code>battery</code>.
+	 */
+	public static final int BATTERY = 36;
+	
+	private SensorDataLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>roll</code>.
+	 */
+	public static short getRoll (ByteBuffer buf, int base) {
+		return buf.getShort (base + ROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>roll</code>.
+	 */
+	public static void putRoll (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + ROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>pitch</code>.
+	 */
+	public static short getPitch (ByteBuffer buf, int base) {
+		return buf.getShort (base + PITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>pitch</code>.
+	 */
+	public static void putPitch (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + PITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>yaw</code>.
+	 */
+	public static short getYaw (ByteBuffer buf, int base) {
+		return buf.getShort (base + YAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>yaw</code>.
+	 */
+	public static void putYaw (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + YAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>droll</code>.
+	 */
+	public static short getDroll (ByteBuffer buf, int base) {
+		return buf.getShort (base + DROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>droll</code>.
+	 */
+	public static void putDroll (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dpitch</code>.
+	 */
+	public static short getDpitch (ByteBuffer buf, int base) {
+		return buf.getShort (base + DPITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dpitch</code>.
+	 */
+	public static void putDpitch (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DPITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dyaw</code>.
+	 */
+	public static short getDyaw (ByteBuffer buf, int base) {
+		return buf.getShort (base + DYAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dyaw</code>.
+	 */
+	public static void putDyaw (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DYAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddroll</code>.
+	 */
+	public static short getDdroll (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddroll</code>.
+	 */
+	public static void putDdroll (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddpitch</code>.
+	 */
+	public static short getDdpitch (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDPITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddpitch</code>.
+	 */
+	public static void putDdpitch (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDPITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddyaw</code>.
+	 */
+	public static short getDdyaw (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDYAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddyaw</code>.
+	 */
+	public static void putDdyaw (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDYAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>x</code>.
+	 */
+	public static short getX (ByteBuffer buf, int base) {
+		return buf.getShort (base + X);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>x</code>.
+	 */
+	public static void putX (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + X, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>y</code>.
+	 */
+	public static short getY (ByteBuffer buf, int base) {
+		return buf.getShort (base + Y);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>y</code>.
+	 */
+	public static void putY (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + Y, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>z</code>.
+	 */
+	public static short getZ (ByteBuffer buf, int base) {
+		return buf.getShort (base + Z);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>z</code>.
+	 */
+	public static void putZ (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + Z, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dx</code>.
+	 */
+	public static short getDx (ByteBuffer buf, int base) {
+		return buf.getShort (base + DX);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dx</code>.
+	 */
+	public static void putDx (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DX, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dy</code>.
+	 */
+	public static short getDy (ByteBuffer buf, int base) {
+		return buf.getShort (base + DY);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dy</code>.
+	 */
+	public static void putDy (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DY, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dz</code>.
+	 */
+	public static short getDz (ByteBuffer buf, int base) {
+		return buf.getShort (base + DZ);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dz</code>.
+	 */
+	public static void putDz (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DZ, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddx</code>.
+	 */
+	public static short getDdx (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDX);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddx</code>.
+	 */
+	public static void putDdx (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDX, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddy</code>.
+	 */
+	public static short getDdy (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDY);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddy</code>.
+	 */
+	public static void putDdy (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDY, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddz</code>.
+	 */
+	public static short getDdz (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDZ);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddz</code>.
+	 */
+	public static void putDdz (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDZ, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>battery</code>.
+	 */
+	public static short getBattery (ByteBuffer buf, int base) {
+		return buf.getShort (base + BATTERY);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>battery</code>.
+	 */
+	public static void putBattery (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + BATTERY, value);
+	}
+}
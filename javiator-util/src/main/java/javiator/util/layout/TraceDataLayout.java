@@ -0,0 +1,414 @@
+/*
+ * @(#) TraceDataLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package javiator.util.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>TraceData</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class TraceDataLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 32;
+	
+	/**
+	 * The offset of the field <code>value_1</code>.
+	 */
+	public static final int VALUE_1 = 0;
+	
+	/**
+	 * The offset of the field <code>value_2</code>.
+	 */
+	public static final int VALUE_2 = 2;
+	
+	/**
+	 * The offset of the field <code>value_3</code>.
+	 */
+	public static final int VALUE_3 = 4;
+	
+	/**
+	 * The offset of the field <code>value_4</code>.
+	 */
+	public static final int VALUE_4 = 6;
+	
+	/**
+	 * The offset of the field <code>value_5</code>.
+	 */
+	public static final int VALUE_5 = 8;
+	
+	/**
+	 * The offset of the field <code>value_6</code>.
+	 */
+	public static final int VALUE_6 = 10;
+	
+	/**
+	 * The offset of the field <code>value_7</code>.
+	 */
+	public static final int VALUE_7 = 12;
+	
+	/**
+	 * The offset of the field <code>value_8</code>.
+	 */
+	public static final int VALUE_8 = 14;
+	
+	/**
+	 * The offset of the field <code>value_9</code>.
+	 */
+	public static final int VALUE_9 = 16;
+	
+	/**
+	 * The offset of the field <code>value_10</code>.
+	 */
+	public static final int VALUE_10 = 18;
+	
+	/**
+	 * The offset of the field <code>value_11</code>.
+	 */
+	public static final int VALUE_11 = 20;
+	
+	/**
+	 * The offset of the field <code>value_12</code>.
+	 */
+	public static final int VALUE_12 = 22;
+	
+	/**
+	 * The offset of the field <code>value_13</code>.
+	 */
+	public static final int VALUE_13 = 24;
+	
+	/**
+	 * The offset of the field <code>value_14</code>.
+	 */
+	public static final int VALUE_14 = 26;
+	
+	/**
+	 * The offset of the field <code>value_15</code>.
+	 */
+	public static final int VALUE_15 = 28;
+	
+	/**
+	 * The offset of the field <code>value_16</code>.
+	 */
+	public static final int VALUE_16 = 30;
+	
+	private TraceDataLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_1</code>.
+	 */
+	public static short getValue_1 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_1);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_1</code>.
+	 */
+	public static void putValue_1 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_1, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_2</code>.
+	 */
+	public static short getValue_2 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_2);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_2</code>.
+	 */
+	public static void putValue_2 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_2, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_3</code>.
+	 */
+	public static short getValue_3 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_3);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_3</code>.
+	 */
+	public static void putValue_3 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_3, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_4</code>.
+	 */
+	public static short getValue_4 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_4);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_4</code>.
+	 */
+	public static void putValue_4 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_4, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_5</code>.
+	 */
+	public static short getValue_5 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_5);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_5</code>.
+	 */
+	public static void putValue_5 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_5, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_6</code>.
+	 */
+	public static short getValue_6 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_6);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_6</code>.
+	 */
+	public static void putValue_6 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_6, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_7</code>.
+	 */
+	public static short getValue_7 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_7);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_7</code>.
+	 */
+	public static void putValue_7 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_7, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_8</code>.
+	 */
+	public static short getValue_8 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_8);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_8</code>.
+	 */
+	public static void putValue_8 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_8, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_9</code>.
+	 */
+	public static short getValue_9 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_9);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_9</code>.
+	 */
+	public static void putValue_9 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_9, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_10</code>.
+	 */
+	public static short getValue_10 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_10);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_10</code>.
+	 */
+	public static void putValue_10 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_10, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_11</code>.
+	 */
+	public static short getValue_11 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_11);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_11</code>.
+	 */
+	public static void putValue_11 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_11, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_12</code>.
+	 */
+	public static short getValue_12 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_12);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_12</code>.
+	 */
+	public static void putValue_12 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_12, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_13</code>.
+	 */
+	public static short getValue_13 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_13);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_13</code>.
+	 */
+	public static void putValue_13 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_13, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_14</code>.
+	 */
+	public static short getValue_14 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_14);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_14</code>.
+	 */
+	public static void putValue_14 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_14, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_15</code>.
+	 */
+	public static short getValue_15 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_15);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_15</code>.
+	 */
+	public static void putValue_15 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_15, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>value_16</code>.
+	 */
+	public static short getValue_16 (ByteBuffer buf, int base) {
+		return buf.getShort (base + VALUE_16);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>value_16</code>.
+	 */
+	public static void putValue_16 (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + VALUE_16, value);
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * @(#) AsynchronousListener.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class decouples a <code>IDataTransferObjectListener</code> from the
+ * thread that dispatches the messages. Received messages are stored in a
+ * bounded ring buffer and a dedicated worker thread delivers them to the
+ * listener. If the ring buffer is full the configured <code>Policy</code>
+ * decides whether the dispatching thread waits, the oldest message is dropped,
+ * or messages of the same type are replaced by the latest one.
+ * <p>
+ * Instances are created by the <code>Dispatcher</code>, see
+ * <code>Dispatcher.setAsynchronous()</code>.
+ * 
+ * @author Clemens Krainer
+ */
+public class AsynchronousListener implements IDataTransferObjectListener, Runnable {
+	
+	/**
+	 * The behaviour of a full ring buffer.
+	 */
+	public enum Policy {
+		/**
+		 * The dispatching thread waits until the listener has consumed a message.
+		 */
+		BLOCK,
+		/**
+		 * The oldest pending message is dropped.
+		 */
+		DROP_OLDEST,
+		/**
+		 * A pending message of the same class is replaced by the new one. If
+		 * there is no such message the oldest pending message is dropped.
+		 */
+		COALESCE
+	}
+	
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger (AsynchronousListener.class);
+	
+	/**
+	 * The listener to be notified.
+	 */
+	private IDataTransferObjectListener listener;
+	
+	/**
+	 * The policy to apply if the ring buffer is full.
+	 */
+	private Policy policy;
+	
+	/**
+	 * The ring buffer.
+	 */
+	private IDataTransferObject[] ring;
+	
+	/**
+	 * The sequence number of the next message to be delivered.
+	 */
+	private long head = 0;
+	
+	/**
+	 * The sequence number of the next message to be stored.
+	 */
+	private long tail = 0;
+	
+	/**
+	 * The sequence number of the latest pending message per class. Only
+	 * maintained for the <code>COALESCE</code> policy.
+	 */
+	private Map<Class<?>,Long> latest;
+	
+	/**
+	 * This lock guards the ring buffer.
+	 */
+	private ReentrantLock lock = new ReentrantLock ();
+	
+	/**
+	 * Signalled when the ring buffer is not empty anymore.
+	 */
+	private Condition notEmpty = lock.newCondition ();
+	
+	/**
+	 * Signalled when the ring buffer is not full anymore.
+	 */
+	private Condition notFull = lock.newCondition ();
+	
+	/**
+	 * The number of dropped or replaced messages.
+	 */
+	private volatile long droppedMessages = 0;
+	
+	/**
+	 * The number of messages the listener failed to process.
+	 */
+	private volatile long failedMessages = 0;
+	
+	/**
+	 * True as long as the worker thread should deliver messages.
+	 */
+	private volatile boolean running = true;
+	
+	/**
+	 * The worker thread.
+	 */
+	private Thread worker;
+	
+	/**
+	 * Construct an <code>AsynchronousListener</code> and start its worker thread.
+	 * 
+	 * @param listener the listener to be notified.
+	 * @param policy the policy to apply if the ring buffer is full.
+	 * @param capacity the capacity of the ring buffer.
+	 */
+	public AsynchronousListener (IDataTransferObjectListener listener, Policy policy, int capacity) {
+		if (listener == null || policy == null)
+			throw new NullPointerException ();
+		if (capacity <= 0)
+			throw new IllegalArgumentException ("Capacity must be greater than zero, but is " + capacity);
+		
+		this.listener = listener;
+		this.policy = policy;
+		ring = new IDataTransferObject[capacity];
+		if (policy == Policy.COALESCE)
+			latest = new IdentityHashMap<Class<?>,Long> ();
+		
+		worker = new Thread (this, "AsynchronousListener " + listener.getClass().getSimpleName());
+		worker.setDaemon (true);
+		worker.start ();
+	}
+	
+	/**
+	 * @return the decoupled listener.
+	 */
+	public IDataTransferObjectListener getListener () {
+		return listener;
+	}
+	
+	/**
+	 * @return the policy to apply if the ring buffer is full.
+	 */
+	public Policy getPolicy () {
+		return policy;
+	}
+	
+	/**
+	 * @return the number of pending messages.
+	 */
+	public int getDepth () {
+		lock.lock ();
+		try {
+			return (int) (tail - head);
+		} finally {
+			lock.unlock ();
+		}
+	}
+	
+	/**
+	 * @return the number of dropped or replaced messages.
+	 */
+	public long getDroppedMessages () {
+		return droppedMessages;
+	}
+	
+	/**
+	 * @return the number of messages the listener failed to process.
+	 */
+	public long getFailedMessages () {
+		return failedMessages;
+	}
+
+	/**
+	 * Store a message in the ring buffer for later delivery.
+	 * 
+	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectListener#receive(at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject)
+	 */
+	public void receive (IDataTransferObject dto) throws IOException {
+		lock.lock ();
+		try {
+			if (!running)
+				return;
+			
+			if (latest != null) {
+				Long seq = latest.get (dto.getClass ());
+				if (seq != null && seq.longValue () >= head) {
+					ring[(int) (seq.longValue () % ring.length)] = dto;
+					++droppedMessages;
+					return;
+				}
+			}
+			
+			while (tail - head == ring.length) {
+				if (policy != Policy.BLOCK) {
+					ring[(int) (head % ring.length)] = null;
+					++head;
+					++droppedMessages;
+					break;
+				}
+				try {
+					notFull.await ();
+				} catch (InterruptedException e) {
+					throw new CommunicationException ("Interrupted while waiting for " + listener.getClass().getName(), e);
+				}
+				if (!running)
+					return;
+			}
+			
+			if (latest != null)
+				latest.put (dto.getClass (), Long.valueOf (tail));
+			ring[(int) (tail % ring.length)] = dto;
+			++tail;
+			notEmpty.signal ();
+		} finally {
+			lock.unlock ();
+		}
+	}
+	
+	/**
+	 * Deliver the stored messages to the listener.
+	 * 
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run () {
+		while (running) {
+			IDataTransferObject dto;
+			lock.lock ();
+			try {
+				while (running && head == tail)
+					notEmpty.await ();
+				if (!running)
+					break;
+				int index = (int) (head % ring.length);
+				dto = ring[index];
+				ring[index] = null;
+				++head;
+				notFull.signal ();
+			} catch (InterruptedException e) {
+				break;
+			} finally {
+				lock.unlock ();
+			}
+			
+			try {
+				listener.receive (dto);
+			} catch (Throwable e) {
+				++failedMessages;
+				LOG.error ("Listener " + listener.getClass().getName() + " failed to process " + dto.getClass().getName(), e);
+			}
+		}
+	}
+	
+	/**
+	 * Stop the worker thread. Pending messages are discarded.
+	 */
+	public void terminate () {
+		lock.lock ();
+		try {
+			running = false;
+			notEmpty.signalAll ();
+			notFull.signalAll ();
+		} finally {
+			lock.unlock ();
+		}
+	}
+	
+	/**
+	 * Wait for the worker thread to finish.
+	 * 
+	 * @param millis the maximum time to wait in milliseconds.
+	 * @throws InterruptedException thrown if the current thread is interrupted.
+	 */
+	public void join (long millis) throws InterruptedException {
+		worker.join (millis);
+	}
+}
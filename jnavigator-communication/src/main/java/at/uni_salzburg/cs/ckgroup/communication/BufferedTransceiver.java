@@ -21,7 +21,9 @@
 package at.uni_salzburg.cs.ckgroup.communication;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
 import at.uni_salzburg.cs.ckgroup.ConfigurationException;
 import at.uni_salzburg.cs.ckgroup.io.IConnection;
@@ -32,9 +34,13 @@ import at.uni_salzburg.cs.ckgroup.io.IConnection;
  * receiving <code>Packet</code> objects without bothering about the low level
  * details of the accessed resource.
  * 
- * This transceiver uses a ring buffer of configurable size to cache messages.
- * In a separate <class>Thread</class> it forwards the messages to an underlying
- * <code>Transceiver>/code>.
+ * This transceiver uses a lock-free queue of configurable size to cache
+ * messages. In a separate <class>Thread</class> it forwards the messages to an
+ * underlying <code>Transceiver>/code>. All messages pending at a wake-up of the
+ * thread are written in one operation. If the queue is full,
+ * <code>send()</code> waits up to the configured send timeout for room and
+ * then fails with an <code>IOException</code>, so that no message, especially
+ * no command, gets lost silently.
  * 
  * @author Clemens Krainer
  */
@@ -46,22 +52,29 @@ public class BufferedTransceiver implements ITransceiver {
 	public static final String PROP_SEND_BUFFER_LENGTH = "send.buffer.length";
 	
 	/**
-	 * The send ring buffer.
-	 * @see PROP_SEND_BUFFER_LENGTH
+	 * The property key of the maximum time in milliseconds <code>send()</code>
+	 * waits for room in a full send queue.
 	 */
-	private Packet[] sendBuffer;
+	public static final String PROP_SEND_TIMEOUT = "send.timeout";
 	
 	/**
-	 * The send buffer write index.
-	 * @see sendBuffer
+	 * The number of maximum length <code>LEGACY</code> frames the batch buffer
+	 * holds. The buffer holds at least one frame of maximum length of the
+	 * framing of the underlying <code>Transceiver</code>.
 	 */
-	private int sendBufferWriteIndex = 0;
-
+	private static final int BATCH_BUFFER_FRAMES = 16;
+	
+	/**
+	 * The maximum time in milliseconds the <code>Writer</code> waits for new
+	 * messages before it checks for termination.
+	 */
+	private static final long WRITER_IDLE_TIMEOUT = 1000;
+	
 	/**
-	 * The send buffer read index.
-	 * @see sendBuffer
+	 * The send queue.
+	 * @see PROP_SEND_BUFFER_LENGTH
 	 */
-	private int sendBufferReadIndex = 0;
+	private PacketSendQueue sendQueue;
 	
 	/**
 	 * The <code>Writer</code> thread forwards the messages from the
@@ -80,16 +93,27 @@ public class BufferedTransceiver implements ITransceiver {
 	 */
 	private long reconnectionTimeOut;
 	
+	/**
+	 * The send timeout in milliseconds.
+	 * @see PROP_SEND_TIMEOUT
+	 */
+	private long sendTimeOut;
+	
 	/**
 	 * The <code>Properties</code> to be used for the construction of the
 	 * <code>BufferedTransceiver</code> and all subcomponents.
 	 */
 	private Properties props;
 	
+	/**
+	 * The number of messages dropped because they could not be encoded.
+	 */
+	private AtomicLong encodingErrors = new AtomicLong (0);
+	
 	/**
 	 * This variable indicates a running <code>Writer</code> <code>Thread</code>. 
 	 */
-	private boolean running = false;
+	private volatile boolean running = false;
 	
 	/**
 	 * This variable indicates that the <code>BufferedTransceiver</code> is
@@ -119,7 +143,7 @@ public class BufferedTransceiver implements ITransceiver {
 	 */
 	public BufferedTransceiver (Properties props, IConnection connection) throws IOException, ConfigurationException {
 		this.props = props;
-		this.transceiver = new Transceiver (connection); 
+		this.transceiver = new Transceiver (connection, PacketFormat.valueOf (props));
 		init (props);
 		reConnectingAllowed = false;
 	}
@@ -131,26 +155,58 @@ public class BufferedTransceiver implements ITransceiver {
 	 */
 	public void init (Properties props) {
 		reconnectionTimeOut = Long.parseLong (props.getProperty (Transceiver.PROP_RECONNECTION_TIMEOUT, "1000"));
-		int sendBufferLength = Integer.parseInt (props.getProperty ("send.buffer.length","10"));
-		sendBuffer = new Packet[sendBufferLength];
+		int sendBufferLength = Integer.parseInt (props.getProperty (PROP_SEND_BUFFER_LENGTH,"10"));
+		sendTimeOut = Long.parseLong (props.getProperty (PROP_SEND_TIMEOUT, "100"));
+		sendQueue = new PacketSendQueue (sendBufferLength);
+		running = true;
 		writer = new Writer ();
 		writer.start ();
 	}
 	
-	/* (non-Javadoc)
+	/**
+	 * Queue a packet for sending. If the send queue is full, wait up to the
+	 * send timeout for the <code>Writer</code> to make room.
+	 * 
+	 * @param packet the packet to be sent.
+	 * @throws IOException thrown if the packet exceeds the framing of the
+	 *         underlying transceiver or if the send queue stays full.
 	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#send(at.uni_salzburg.cs.ckgroup.communication.Packet)
 	 */
 	public void send (Packet packet) throws IOException {
-		if (packet == null)
-			throw new NullPointerException ("Got null packet.");
-		sendBuffer[sendBufferWriteIndex] = packet;
-		if (sendBufferWriteIndex < sendBuffer.length-1) {
-			++sendBufferWriteIndex;
-		} else {
-			sendBufferWriteIndex = 0;
-		}
-		if (writer.notActive)
-			writer.interrupt();
+		if (packet != null)
+			packet.checkPayloadLength (transceiver.getFormat ());
+		if (!sendQueue.offer (packet, sendTimeOut))
+			throw new CommunicationException ("Send queue full, can not send packet of type " + packet.getType ()
+				+ " within " + sendTimeOut + "ms.");
+	}
+	
+	/**
+	 * @return the framing of the underlying transceiver.
+	 */
+	public PacketFormat getFormat () {
+		return transceiver.getFormat ();
+	}
+	
+	/**
+	 * @return the number of messages waiting to be sent.
+	 */
+	public int getQueueDepth () {
+		return sendQueue.size ();
+	}
+	
+	/**
+	 * @return the number of messages refused because the send queue stayed
+	 *         full.
+	 */
+	public long getDroppedPackets () {
+		return sendQueue.getDroppedPackets ();
+	}
+	
+	/**
+	 * @return the number of messages dropped because they could not be encoded.
+	 */
+	public long getEncodingErrors () {
+		return encodingErrors.get ();
 	}
 	
 	/* (non-Javadoc)
@@ -173,33 +229,42 @@ public class BufferedTransceiver implements ITransceiver {
 	
 	/**
 	 * The <code>Writer</code> thread forwards the messages from the
-	 * <code>sendBuffer</code> to the underlying <code>Transceiver</code>. 
+	 * <code>sendQueue</code> to the underlying <code>Transceiver</code>. 
 	 * 
 	 * @author Clemens Krainer
 	 */
 	class Writer extends Thread {
+		
 		/**
-		 * This variable indicates that the <code>Writer</code> thread is
-		 * waiting for messages to send to the underlying
-		 * <code>Transceiver</code>.
+		 * The buffer collecting the encoded messages of one write operation.
 		 */
-		public boolean notActive = false;
+		private ByteBuffer batch = ByteBuffer.allocate (Math.max (BATCH_BUFFER_FRAMES * PacketCodec.MAXIMUM_FRAME_LENGTH,
+			transceiver.getFormat ().getMaximumFrameLength ()));
+		
+		/**
+		 * A message taken from the queue that did not fit into the batch buffer.
+		 */
+		private Packet carry = null;
 		
 		/* (non-Javadoc)
 		 * @see java.lang.Thread#run()
 		 */
 		public void run () {
-			running = true;
 			while (running) {
-				notActive = false;
-				while (sendBufferWriteIndex != sendBufferReadIndex) {
-					Packet p = sendBuffer[sendBufferReadIndex];
+				if (carry == null && sendQueue.isEmpty ()) {
+					sendQueue.await (WRITER_IDLE_TIMEOUT);
+					continue;
+				}
+				
+				fillBatch ();
+				if (batch.position () == 0)
+					continue;
+				
+				boolean sent = false;
+				while (!sent && running) {
 					try {
-						transceiver.send (p);
-						if (sendBufferReadIndex < sendBuffer.length-1)
-							++sendBufferReadIndex;
-						else
-							sendBufferReadIndex = 0;
+						transceiver.send (batch.array(), 0, batch.position());
+						sent = true;
 					} catch (IOException e) {
 						e.printStackTrace();
 						if (!reConnectingAllowed) {
@@ -212,10 +277,35 @@ public class BufferedTransceiver implements ITransceiver {
 						} catch (Exception e1) { }
 					}
 				}
-				notActive = true;
+			}
+		}
+		
+		/**
+		 * Encode the pending messages into the batch buffer until either the
+		 * queue is empty or the buffer is full. A message that can not be
+		 * encoded is reported and dropped, the messages encoded so far are
+		 * kept.
+		 */
+		private void fillBatch () {
+			PacketFormat format = transceiver.getFormat ();
+			batch.clear ();
+			Packet p = carry != null ? carry : sendQueue.poll ();
+			carry = null;
+			while (p != null) {
+				int length = p.getPayload() == null ? 0 : p.getPayload().length;
+				if (batch.position () > 0 && batch.remaining() < length + format.getFrameOverhead ()) {
+					carry = p;
+					return;
+				}
+				int position = batch.position ();
 				try {
-					Thread.sleep (500);
-				} catch (InterruptedException e) { }
+					PacketCodec.encode (format, p, batch);
+				} catch (IOException e) {
+					batch.position (position);
+					encodingErrors.incrementAndGet ();
+					System.err.println ("BufferedTransceiver: Dropping packet of type " + p.getType () + ": " + e.getMessage ());
+				}
+				p = sendQueue.poll ();
 			}
 		}
 	}
@@ -225,6 +315,7 @@ public class BufferedTransceiver implements ITransceiver {
 	 */
 	public void terminate () {
 		running = false;
+		sendQueue.wakeup ();
 	}
 
 	/* (non-Javadoc)
@@ -0,0 +1,117 @@
+/*
+ * @(#) Crc16.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class implements the CRC-16/CCITT checksum, i.e. polynomial 0x1021,
+ * initial value 0xFFFF, no reflection and no final XOR. The calculation uses
+ * a precomputed table and processes one byte per table lookup. In contrast to
+ * an additive checksum it detects swapped bytes and all burst errors up to
+ * 16 bits.
+ * 
+ * @author Clemens Krainer
+ */
+public final class Crc16 {
+	
+	/**
+	 * The initial value of the checksum.
+	 */
+	public static final int INITIAL_VALUE = 0xFFFF;
+	
+	/**
+	 * The generator polynomial.
+	 */
+	private static final int POLYNOMIAL = 0x1021;
+	
+	/**
+	 * The checksums of all single bytes.
+	 */
+	private static final char[] TABLE = new char[256];
+	
+	static {
+		for (int k=0; k < TABLE.length; k++) {
+			int crc = k << 8;
+			for (int i=0; i < 8; i++)
+				crc = (crc & 0x8000) != 0 ? (crc << 1) ^ POLYNOMIAL : crc << 1;
+			TABLE[k] = (char) crc;
+		}
+	}
+	
+	private Crc16 () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * Update a checksum by one byte.
+	 * 
+	 * @param crc the current checksum.
+	 * @param b the byte.
+	 * @return the new checksum.
+	 */
+	public static int update (int crc, byte b) {
+		return ((crc << 8) ^ TABLE[((crc >> 8) ^ b) & 0xFF]) & 0xFFFF;
+	}
+	
+	/**
+	 * Update a checksum by a range of bytes.
+	 * 
+	 * @param crc the current checksum.
+	 * @param data the array containing the bytes.
+	 * @param offset the offset of the first byte.
+	 * @param length the number of bytes.
+	 * @return the new checksum.
+	 */
+	public static int update (int crc, byte[] data, int offset, int length) {
+		for (int k = offset, end = offset + length; k < end; k++)
+			crc = ((crc << 8) ^ TABLE[((crc >> 8) ^ data[k]) & 0xFF]) & 0xFFFF;
+		return crc;
+	}
+	
+	/**
+	 * Update a checksum by a range of bytes of a buffer. The position of the
+	 * buffer remains unchanged.
+	 * 
+	 * @param crc the current checksum.
+	 * @param buf the buffer containing the bytes.
+	 * @param offset the absolute index of the first byte.
+	 * @param length the number of bytes.
+	 * @return the new checksum.
+	 */
+	public static int update (int crc, ByteBuffer buf, int offset, int length) {
+		for (int k = offset, end = offset + length; k < end; k++)
+			crc = ((crc << 8) ^ TABLE[((crc >> 8) ^ buf.get (k)) & 0xFF]) & 0xFFFF;
+		return crc;
+	}
+	
+	/**
+	 * Calculate the checksum of a range of bytes.
+	 * 
+	 * @param data the array containing the bytes.
+	 * @param offset the offset of the first byte.
+	 * @param length the number of bytes.
+	 * @return the checksum.
+	 */
+	public static int checksum (byte[] data, int offset, int length) {
+		return update (INITIAL_VALUE, data, offset, length);
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * @(#) DataTransferObjectMapping.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This class implements the mapping of <code>Packet</code> types to
+ * <code>IDataTransferObject</code> classes and vice versa, as configured by
+ * the <code>mapping.*</code> properties described in
+ * <code>TransceiverAdapter</code>.
+ * <p>
+ * Received packets are converted by factories held in an array indexed by the
+ * packet type. The factories call the <code>byte[]</code> constructor of the
+ * configured classes directly, i.e. without reflection or boxing of the packet
+ * type per packet.
+ *
+ * @author Clemens Krainer
+ */
+public class DataTransferObjectMapping {
+
+	/**
+	 * The number of possible packet types.
+	 */
+	public static final int NUMBER_OF_PACKET_TYPES = 256;
+	
+	/**
+	 * This array maps a packet type to a <code>IDataTransferObject</code> class.
+	 */
+	private Class<?>[] packetTypeToDto = new Class<?>[NUMBER_OF_PACKET_TYPES];
+
+	/**
+	 * This variable maps a <code>IDataTransferObject</code> class to a packet type.
+	 */
+	private Map<Class<?>,Integer> dtoToPacketTypeMap = new HashMap<Class<?>,Integer>();
+
+	/**
+	 * This array maps a packet type to the factory that creates the
+	 * <code>IDataTransferObject</code> from a packet payload.
+	 */
+	private IDataTransferObjectFactory[] packetTypeToFactory = new IDataTransferObjectFactory[NUMBER_OF_PACKET_TYPES];
+
+	/**
+	 * This variable maps a <code>IDataTransferObject</code> class to a boolean value that
+	 * indicates whether the class should be registered with the associated
+	 * dispatcher.
+	 */
+	private Map<Class<?>, Boolean> classToRegisterMap = new HashMap<Class<?>, Boolean>();
+	
+	/**
+	 * This array indicates per packet type whether only the latest value
+	 * needs to be transmitted.
+	 */
+	private boolean[] coalescing = new boolean[NUMBER_OF_PACKET_TYPES];
+	
+	/**
+	 * This variable indicates that at least one packet type is coalescing.
+	 */
+	private boolean anyCoalescing = false;
+
+	/**
+	 * Construct a <code>DataTransferObjectMapping</code>.
+	 *
+	 * @param props the properties containing the mapping configuration.
+	 * @throws ConfigurationException thrown in case of configuration or initialization errors.
+	 */
+	public DataTransferObjectMapping (Properties props) throws ConfigurationException {
+		String mappingListString = props.getProperty (TransceiverAdapter.PROP_MAPPING_LIST);
+		if (mappingListString == null || "".equals(mappingListString))
+			throw new ConfigurationException ("Property " + TransceiverAdapter.PROP_MAPPING_LIST + " not configured.");
+
+		String[] mappingList = mappingListString.trim().split ("\\s*,\\s*");
+		for (int k=0; k < mappingList.length; k++) {
+			String prefix = TransceiverAdapter.PROP_MAPPING_PREFIX + mappingList[k];
+
+			String typePropString = prefix + TransceiverAdapter.PROP_MAPPING_TYPE_SUFFIX;
+			String typeString = props.getProperty (typePropString);
+			if (typeString == null || "".equals(typeString))
+				throw new ConfigurationException ("Property " + typePropString + " not configured.");
+
+			String regPropString = prefix + TransceiverAdapter.PROP_MAPPING_REGISTER_SUFFIX;
+			String regString = props.getProperty (regPropString, "false");
+			Boolean register = Boolean.valueOf (regString);
+
+			String coalescePropString = prefix + TransceiverAdapter.PROP_MAPPING_COALESCE_SUFFIX;
+			boolean coalesce = Boolean.parseBoolean (props.getProperty (coalescePropString, "false"));
+
+			String classPropString = prefix + TransceiverAdapter.PROP_MAPPING_CLASS_NAME_SUFFIX;
+			String className = props.getProperty (classPropString);
+			if (className == null || "".equals(className))
+				throw new ConfigurationException ("Property " + classPropString + " not configured.");
+
+			try {
+				Class<?> classInstance = Class.forName (className);
+				Class<?>[] interfaces = classInstance.getInterfaces();
+
+				boolean isADTO = false;
+				for (int j=0; j < interfaces.length; j++)
+					if (interfaces[j] == IDataTransferObject.class)
+						isADTO = true;
+
+				if (!isADTO) {
+					interfaces = classInstance.getSuperclass().getInterfaces();
+					for (int j=0; j < interfaces.length; j++)
+						if (interfaces[j] == IDataTransferObject.class)
+							isADTO = true;
+				}
+
+				if (!isADTO)
+					throw new ConfigurationException ("Class " + className + " at " + classPropString +
+							" is no derivative of " + IDataTransferObject.class.getName());
+
+	            Constructor<?> ctor = classInstance.getConstructor (byte[].class);
+
+				Integer typeIndex = Integer.valueOf (typeString);
+				if (typeIndex.intValue() <= 0)
+					throw new ConfigurationException ("Property " + typePropString +
+							" has not been assigned a number > 0.");
+				
+				if (typeIndex.intValue() >= NUMBER_OF_PACKET_TYPES)
+					throw new ConfigurationException ("Property " + typePropString +
+							" has been assigned a number > " + (NUMBER_OF_PACKET_TYPES - 1) + ".");
+
+				packetTypeToDto[typeIndex.intValue()] = classInstance;
+				dtoToPacketTypeMap.put (classInstance, typeIndex);
+				packetTypeToFactory[typeIndex.intValue()] = createFactory (ctor);
+				classToRegisterMap.put(classInstance, register);
+				coalescing[typeIndex.intValue()] = coalesce;
+				anyCoalescing |= coalesce;
+			} catch (Exception e) {
+				throw new ConfigurationException (e);
+			}
+		}
+	}
+
+	/**
+	 * Create a factory that calls the given constructor. The factory is bound
+	 * to the constructor by means of the <code>LambdaMetafactory</code>. If
+	 * this is not possible, e.g. because the class is not accessible, the
+	 * factory uses reflection instead.
+	 *
+	 * @param ctor the constructor taking a byte array as parameter.
+	 * @return the factory.
+	 */
+	private static IDataTransferObjectFactory createFactory (final Constructor<?> ctor) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup ();
+			MethodHandle handle = lookup.unreflectConstructor (ctor);
+			CallSite site = LambdaMetafactory.metafactory (lookup, "create",
+				MethodType.methodType (IDataTransferObjectFactory.class),
+				MethodType.methodType (IDataTransferObject.class, byte[].class),
+				handle, handle.type ());
+			return (IDataTransferObjectFactory) site.getTarget ().invoke ();
+		} catch (Throwable e) {
+			return new IDataTransferObjectFactory () {
+				public IDataTransferObject create (byte[] payload) throws IOException {
+					try {
+						return (IDataTransferObject) ctor.newInstance (payload);
+					} catch (InvocationTargetException e) {
+						throw new CommunicationException (e.getCause ().getMessage (), e.getCause ());
+					} catch (Exception e) {
+						throw new CommunicationException (e.getMessage (), e);
+					}
+				}
+			};
+		}
+	}
+
+	/**
+	 * Register a listener with a dispatcher for all configured
+	 * <code>IDataTransferObject</code> classes having the register flag set.
+	 *
+	 * @param dtoProvider the dispatcher.
+	 * @param listener the listener to be registered.
+	 */
+	public void register (IDataTransferObjectProvider dtoProvider, IDataTransferObjectListener listener) {
+		Iterator<Class<?>> i = dtoToPacketTypeMap.keySet().iterator();
+		while (i.hasNext()) {
+			Class<?> classInstance = i.next();
+			if (isRegistered (classInstance))
+				dtoProvider.addDataTransferObjectListener (listener, classInstance);
+		}
+	}
+
+	/**
+	 * @param dtoClass the class of a <code>IDataTransferObject</code>.
+	 * @return true if the class is configured to be registered with the dispatcher.
+	 */
+	public boolean isRegistered (Class<?> dtoClass) {
+		Boolean register = classToRegisterMap.get (dtoClass);
+		return register != null && register.booleanValue();
+	}
+
+	/**
+	 * @param type the packet type.
+	 * @return true if only the latest value of this packet type needs to be
+	 *         transmitted.
+	 */
+	public boolean isCoalescing (int type) {
+		return type >= 0 && type < NUMBER_OF_PACKET_TYPES && coalescing[type];
+	}
+	
+	/**
+	 * @return true if at least one packet type is coalescing.
+	 */
+	public boolean hasCoalescingTypes () {
+		return anyCoalescing;
+	}
+
+	/**
+	 * @param type the packet type.
+	 * @return the mapped <code>IDataTransferObject</code> class or null if
+	 *         there is no mapping.
+	 */
+	public Class<?> getDtoClass (int type) {
+		return type < 0 || type >= NUMBER_OF_PACKET_TYPES ? null : packetTypeToDto[type];
+	}
+
+	/**
+	 * @param dtoClass the class of a <code>IDataTransferObject</code>.
+	 * @return the mapped packet type or -1 if there is no mapping.
+	 */
+	public int getPacketType (Class<?> dtoClass) {
+		Integer typeIndex = dtoToPacketTypeMap.get (dtoClass);
+		return typeIndex == null ? -1 : typeIndex.intValue();
+	}
+
+	/**
+	 * Create a <code>IDataTransferObject</code> from a packet payload.
+	 *
+	 * @param type the packet type.
+	 * @param payload the packet payload.
+	 * @return the new <code>IDataTransferObject</code>.
+	 * @throws ConfigurationException thrown if there is no mapping for the packet type.
+	 * @throws CommunicationException thrown if the payload can not be converted.
+	 */
+	public IDataTransferObject createDto (int type, byte[] payload) throws ConfigurationException, CommunicationException {
+		IDataTransferObjectFactory factory = type < 0 || type >= NUMBER_OF_PACKET_TYPES ? null : packetTypeToFactory[type];
+		if (factory == null)
+			throw new ConfigurationException ("No mapping found for packet type " + type + " (" + Thread.currentThread().getName() + ")");
+
+		try {
+			return factory.create (payload);
+		} catch (Exception e) {
+			throw new CommunicationException ("Can not convert packet type " + type, e);
+		}
+	}
+}
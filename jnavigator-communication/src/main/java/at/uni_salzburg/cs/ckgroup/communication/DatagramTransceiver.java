@@ -80,7 +80,7 @@ public class DatagramTransceiver implements ITransceiver {
 	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#send(at.uni_salzburg.cs.ckgroup.communication.Packet)
 	 */
 	public void send(Packet packet) throws IOException {
-		byte[] ba = packet.toByteArray();
+		byte[] ba = packet.toByteArray (PacketFormat.LEGACY);
 		DatagramPacket datagramPacket = new DatagramPacket(ba, ba.length, serverAddress);
 		synchronized (this) {
 			clientSocket.send(datagramPacket);
@@ -0,0 +1,559 @@
+/*
+ * @(#) DeltaTransceiver.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+import at.uni_salzburg.cs.ckgroup.util.ObjectFactory;
+
+/**
+ * This class compresses the packets of selected packet types, e.g. telemetry
+ * like <code>SensorData</code>, before forwarding them to an underlying
+ * <code>ITransceiver</code>. Successive payloads of the same packet type are
+ * interpreted as big endian 16 bit words, and only the differences to the
+ * previous payload are transmitted as zig-zag encoded variable length
+ * integers. Words changing by less than 64 units occupy a single byte.
+ * <p>
+ * Every <code>delta.key.interval</code> frames, and whenever a delta frame
+ * would not be shorter than the payload, a key frame carrying the complete
+ * payload is sent. Each frame carries a sequence number per packet type. A
+ * receiver that misses a frame drops the following delta frames and asks the
+ * sender for a key frame.
+ * <p>
+ * All frames use the single packet type <code>delta.packet.type</code>. The
+ * first byte of the payload distinguishes the following frames:
+ * <pre>
+ *   HELLO        kind version
+ *   HELLO_ACK    kind version
+ *   KEY_REQUEST  kind type
+ *   KEY_FRAME    kind type sequence payload...
+ *   DELTA_FRAME  kind type sequence varint...
+ * </pre>
+ * If <code>delta.negotiate</code> is true, compression is negotiated per
+ * link. The transceiver sends <code>HELLO</code> frames and transmits
+ * uncompressed packets until the peer answers. A peer not supporting
+ * compression ignores the <code>HELLO</code> frames, so that the link stays
+ * uncompressed. Note that negotiation requires that both ends receive
+ * packets.
+ * <p>
+ * The underlying transceiver is configured by the properties having the
+ * prefix <code>transceiver.</code>.
+ * 
+ * @author Clemens Krainer
+ */
+public class DeltaTransceiver implements ITransceiver {
+	
+	/**
+	 * The property key prefix for the configuration of the underlying transceiver.
+	 */
+	public static final String PROP_TRANSCEIVER_PREFIX = "transceiver.";
+	
+	/**
+	 * The property key of the comma separated list of packet types to be compressed.
+	 */
+	public static final String PROP_TYPES = "delta.types";
+	
+	/**
+	 * The property key of the packet type of the compressed frames.
+	 */
+	public static final String PROP_PACKET_TYPE = "delta.packet.type";
+	
+	/**
+	 * The property key of the number of frames per packet type after which a
+	 * key frame is sent.
+	 */
+	public static final String PROP_KEY_INTERVAL = "delta.key.interval";
+	
+	/**
+	 * The property key of the negotiation flag.
+	 */
+	public static final String PROP_NEGOTIATE = "delta.negotiate";
+	
+	/**
+	 * The version of the compressed framing.
+	 */
+	public static final int VERSION = 1;
+	
+	/**
+	 * The kinds of frames.
+	 */
+	static final byte HELLO = 1;
+	static final byte HELLO_ACK = 2;
+	static final byte KEY_REQUEST = 3;
+	static final byte KEY_FRAME = 4;
+	static final byte DELTA_FRAME = 5;
+	
+	/**
+	 * The length of the frame header of key and delta frames.
+	 */
+	private static final int HEADER_LENGTH = 3;
+	
+	/**
+	 * The maximum length of a packet payload.
+	 */
+	private static final int MAXIMUM_PAYLOAD_LENGTH = 255;
+	
+	/**
+	 * The maximum number of <code>HELLO</code> frames sent to a silent peer.
+	 */
+	private static final int MAXIMUM_HELLOS = 5;
+	
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger (DeltaTransceiver.class);
+	
+	/**
+	 * The underlying transceiver.
+	 */
+	private ITransceiver transceiver;
+	
+	/**
+	 * The packet type of the compressed frames.
+	 */
+	private byte packetType;
+	
+	/**
+	 * The number of frames per packet type after which a key frame is sent.
+	 */
+	private int keyInterval;
+	
+	/**
+	 * This array indicates per packet type whether the packets are compressed.
+	 */
+	private boolean[] compressed = new boolean[DataTransferObjectMapping.NUMBER_OF_PACKET_TYPES];
+	
+	/**
+	 * This variable indicates that the peer is able to decode compressed frames.
+	 */
+	private volatile boolean peerCapable;
+	
+	/**
+	 * The number of <code>HELLO</code> frames sent so far.
+	 */
+	private int hellos = 0;
+	
+	/**
+	 * The number of packets sent since the last <code>HELLO</code> frame.
+	 */
+	private int sendsSinceHello = 0;
+	
+	/**
+	 * The previously sent payload per packet type.
+	 */
+	private byte[][] sentPayload = new byte[DataTransferObjectMapping.NUMBER_OF_PACKET_TYPES][];
+	
+	/**
+	 * The sequence number of the previously sent frame per packet type.
+	 */
+	private int[] sentSequence = new int[DataTransferObjectMapping.NUMBER_OF_PACKET_TYPES];
+	
+	/**
+	 * The number of frames sent since the last key frame per packet type.
+	 */
+	private int[] sinceKeyFrame = new int[DataTransferObjectMapping.NUMBER_OF_PACKET_TYPES];
+	
+	/**
+	 * The previously received payload per packet type, null if the receiver
+	 * waits for a key frame.
+	 */
+	private byte[][] receivedPayload = new byte[DataTransferObjectMapping.NUMBER_OF_PACKET_TYPES][];
+	
+	/**
+	 * The sequence number of the previously received frame per packet type.
+	 */
+	private int[] receivedSequence = new int[DataTransferObjectMapping.NUMBER_OF_PACKET_TYPES];
+	
+	/**
+	 * This array indicates per packet type that a key frame has been requested from the peer.
+	 */
+	private boolean[] keyRequested = new boolean[DataTransferObjectMapping.NUMBER_OF_PACKET_TYPES];
+	
+	/**
+	 * The buffer for encoding delta frames.
+	 */
+	private byte[] encodeBuffer = new byte[MAXIMUM_PAYLOAD_LENGTH];
+	
+	/**
+	 * The number of payload bytes of the compressed packet types before compression.
+	 */
+	private volatile long uncompressedBytes = 0;
+	
+	/**
+	 * The number of payload bytes of the compressed packet types after compression.
+	 */
+	private volatile long compressedBytes = 0;
+	
+	/**
+	 * The number of sent key frames.
+	 */
+	private volatile long keyFrames = 0;
+	
+	/**
+	 * The number of sent delta frames.
+	 */
+	private volatile long deltaFrames = 0;
+	
+	/**
+	 * The number of received frames that could not be decoded.
+	 */
+	private volatile long droppedFrames = 0;
+	
+	/**
+	 * Construct a <code>DeltaTransceiver</code> and create the underlying transceiver.
+	 * 
+	 * @param props the properties to be used for construction.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 */
+	public DeltaTransceiver (Properties props) throws ConfigurationException {
+		this (props, (ITransceiver) ObjectFactory.getInstance().instantiateObject (
+				PROP_TRANSCEIVER_PREFIX, ITransceiver.class, props));
+	}
+	
+	/**
+	 * Construct a <code>DeltaTransceiver</code> and use the provided underlying transceiver.
+	 * 
+	 * @param props the properties to be used for construction.
+	 * @param transceiver the underlying transceiver.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 */
+	public DeltaTransceiver (Properties props, ITransceiver transceiver) throws ConfigurationException {
+		if (transceiver == null)
+			throw new ConfigurationException ("The transceiver must not be null.");
+		this.transceiver = transceiver;
+		
+		int type = parseType (PROP_PACKET_TYPE, props.getProperty (PROP_PACKET_TYPE, "250"));
+		packetType = (byte) type;
+		
+		String types = props.getProperty (PROP_TYPES, "").trim ();
+		if (!"".equals (types))
+			for (String t : types.split ("\\s*,\\s*")) {
+				int k = parseType (PROP_TYPES, t);
+				if (k == type)
+					throw new ConfigurationException ("Property " + PROP_TYPES + " must not contain the value of " + PROP_PACKET_TYPE + ".");
+				compressed[k] = true;
+			}
+		
+		keyInterval = Integer.parseInt (props.getProperty (PROP_KEY_INTERVAL, "20"));
+		if (keyInterval <= 0)
+			throw new ConfigurationException ("Property " + PROP_KEY_INTERVAL + " must be greater than zero.");
+		
+		peerCapable = !Boolean.parseBoolean (props.getProperty (PROP_NEGOTIATE, "true"));
+	}
+	
+	/**
+	 * Parse a packet type.
+	 * 
+	 * @param key the property key.
+	 * @param value the value to be parsed.
+	 * @return the packet type.
+	 * @throws ConfigurationException thrown if the value is not a valid packet type.
+	 */
+	private static int parseType (String key, String value) throws ConfigurationException {
+		try {
+			int type = Integer.parseInt (value.trim ());
+			if (type > 0 && type < DataTransferObjectMapping.NUMBER_OF_PACKET_TYPES)
+				return type;
+		} catch (NumberFormatException e) {
+			// handled below
+		}
+		throw new ConfigurationException ("Property " + key + " has invalid packet type " + value);
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#send(at.uni_salzburg.cs.ckgroup.communication.Packet)
+	 */
+	public synchronized void send (Packet packet) throws IOException {
+		int type = packet.getType () & 0xFF;
+		byte[] payload = packet.getPayload ();
+		
+		if (!compressed[type] || payload == null || payload.length + HEADER_LENGTH > MAXIMUM_PAYLOAD_LENGTH) {
+			transceiver.send (packet);
+			return;
+		}
+		
+		if (!peerCapable) {
+			if (hellos < MAXIMUM_HELLOS && (hellos == 0 || ++sendsSinceHello >= keyInterval)) {
+				sendControl (HELLO, VERSION);
+				++hellos;
+				sendsSinceHello = 0;
+			}
+			transceiver.send (packet);
+			return;
+		}
+		
+		int sequence = (sentSequence[type] + 1) & 0xFF;
+		byte[] previous = sentPayload[type];
+		int length = 0;
+		
+		if (previous != null && previous.length == payload.length && sinceKeyFrame[type] < keyInterval)
+			length = encodeDelta (previous, payload, encodeBuffer, HEADER_LENGTH);
+		
+		byte[] frame;
+		if (length > 0 && length < payload.length + HEADER_LENGTH) {
+			frame = Arrays.copyOf (encodeBuffer, length);
+			frame[0] = DELTA_FRAME;
+			++sinceKeyFrame[type];
+			++deltaFrames;
+		} else {
+			frame = new byte[payload.length + HEADER_LENGTH];
+			frame[0] = KEY_FRAME;
+			System.arraycopy (payload, 0, frame, HEADER_LENGTH, payload.length);
+			sinceKeyFrame[type] = 1;
+			++keyFrames;
+		}
+		frame[1] = (byte) type;
+		frame[2] = (byte) sequence;
+		
+		try {
+			transceiver.send (new Packet (packetType, frame));
+		} catch (IOException e) {
+			sentPayload[type] = null;
+			throw e;
+		}
+		
+		sentPayload[type] = payload;
+		sentSequence[type] = sequence;
+		uncompressedBytes += payload.length;
+		compressedBytes += frame.length;
+	}
+	
+	/**
+	 * Send a control frame to the peer.
+	 * 
+	 * @param kind the kind of the frame.
+	 * @param value the parameter of the frame.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	private synchronized void sendControl (byte kind, int value) throws IOException {
+		transceiver.send (new Packet (packetType, new byte[] { kind, (byte) value }));
+	}
+	
+	/**
+	 * Force a key frame for the next packet of the given type.
+	 * 
+	 * @param type the packet type.
+	 */
+	private synchronized void forceKeyFrame (int type) {
+		sentPayload[type] = null;
+	}
+	
+	/**
+	 * Force key frames for all packet types and mark the peer as capable.
+	 */
+	private synchronized void peerRestarted () {
+		Arrays.fill (sentPayload, null);
+		peerCapable = true;
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#receive()
+	 */
+	public Packet receive () throws IOException {
+		while (true) {
+			Packet packet = transceiver.receive ();
+			if (packet.getType () != packetType)
+				return packet;
+			
+			byte[] frame = packet.getPayload ();
+			if (frame == null || frame.length < 2) {
+				++droppedFrames;
+				continue;
+			}
+			
+			int type = frame[1] & 0xFF;
+			switch (frame[0]) {
+				case HELLO:
+					peerRestarted ();
+					sendControl (HELLO_ACK, VERSION);
+					continue;
+				case HELLO_ACK:
+					peerCapable = true;
+					continue;
+				case KEY_REQUEST:
+					forceKeyFrame (type);
+					continue;
+				default:
+					break;
+			}
+			
+			byte[] payload = frame.length < HEADER_LENGTH ? null : decode (frame, type);
+			if (payload != null)
+				return new Packet ((byte) type, payload);
+			
+			++droppedFrames;
+			if (!keyRequested[type]) {
+				LOG.debug ("Requesting key frame for packet type " + type);
+				keyRequested[type] = true;
+				sendControl (KEY_REQUEST, type);
+			}
+		}
+	}
+	
+	/**
+	 * Decode a key or delta frame.
+	 * 
+	 * @param frame the frame.
+	 * @param type the packet type of the contained payload.
+	 * @return the decoded payload or null if the frame can not be decoded.
+	 */
+	private byte[] decode (byte[] frame, int type) {
+		int sequence = frame[2] & 0xFF;
+		byte[] payload;
+		
+		if (frame[0] == KEY_FRAME) {
+			payload = Arrays.copyOfRange (frame, HEADER_LENGTH, frame.length);
+			keyRequested[type] = false;
+		} else if (frame[0] == DELTA_FRAME) {
+			byte[] previous = receivedPayload[type];
+			if (previous == null || sequence != ((receivedSequence[type] + 1) & 0xFF))
+				return null;
+			payload = new byte[previous.length];
+			if (!decodeDelta (previous, frame, HEADER_LENGTH, payload))
+				return null;
+		} else
+			return null;
+		
+		receivedPayload[type] = payload;
+		receivedSequence[type] = sequence;
+		return payload;
+	}
+	
+	/**
+	 * Encode the differences of two payloads of equal length as zig-zag
+	 * variable length integers, one per 16 bit word.
+	 * 
+	 * @param previous the previous payload.
+	 * @param current the current payload.
+	 * @param buffer the target buffer.
+	 * @param offset the offset of the first encoded byte in the target buffer.
+	 * @return the offset after the last encoded byte or zero if the buffer is too small.
+	 */
+	static int encodeDelta (byte[] previous, byte[] current, byte[] buffer, int offset) {
+		int k = offset;
+		for (int i=0; i < current.length; i += 2) {
+			int delta = (short) (word (current, i) - word (previous, i));
+			int value = (delta << 1) ^ (delta >> 31);
+			do {
+				if (k >= buffer.length)
+					return 0;
+				buffer[k++] = (byte) (value > 0x7F ? (value & 0x7F) | 0x80 : value);
+				value >>>= 7;
+			} while (value != 0);
+		}
+		return k;
+	}
+	
+	/**
+	 * Decode the differences encoded by <code>encodeDelta()</code>.
+	 * 
+	 * @param previous the previous payload.
+	 * @param frame the buffer containing the encoded differences.
+	 * @param offset the offset of the first encoded byte.
+	 * @param current the buffer for the decoded payload.
+	 * @return true if the encoded differences match the payload length.
+	 */
+	static boolean decodeDelta (byte[] previous, byte[] frame, int offset, byte[] current) {
+		int k = offset;
+		for (int i=0; i < current.length; i += 2) {
+			int value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				if (k >= frame.length || shift > 14)
+					return false;
+				b = frame[k++];
+				value |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			int delta = (value >>> 1) ^ -(value & 1);
+			int w = word (previous, i) + delta;
+			current[i] = (byte) (w >> 8);
+			if (i + 1 < current.length)
+				current[i+1] = (byte) w;
+		}
+		return k == frame.length;
+	}
+	
+	/**
+	 * @param data the payload.
+	 * @param index the index of the word.
+	 * @return the big endian 16 bit word at the given index. A trailing single byte is the high byte.
+	 */
+	private static int word (byte[] data, int index) {
+		return ((data[index] & 0xFF) << 8) | (index + 1 < data.length ? data[index+1] & 0xFF : 0);
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#close()
+	 */
+	public void close () {
+		transceiver.close ();
+	}
+	
+	/**
+	 * @return true if the packets of the configured types are sent compressed.
+	 */
+	public boolean isCompressing () {
+		return peerCapable;
+	}
+	
+	/**
+	 * @return the number of payload bytes of the compressed packet types before compression.
+	 */
+	public long getUncompressedBytes () {
+		return uncompressedBytes;
+	}
+	
+	/**
+	 * @return the number of payload bytes of the compressed packet types after compression.
+	 */
+	public long getCompressedBytes () {
+		return compressedBytes;
+	}
+	
+	/**
+	 * @return the number of sent key frames.
+	 */
+	public long getKeyFrames () {
+		return keyFrames;
+	}
+	
+	/**
+	 * @return the number of sent delta frames.
+	 */
+	public long getDeltaFrames () {
+		return deltaFrames;
+	}
+	
+	/**
+	 * @return the number of received frames that could not be decoded.
+	 */
+	public long getDroppedFrames () {
+		return droppedFrames;
+	}
+}
@@ -21,43 +21,101 @@
 package at.uni_salzburg.cs.ckgroup.communication;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Vector;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 
 /**
  * This class notifies registered listeners of incoming <code>IDataTransferObject</code>
  * messages.
+ * <p>
+ * Registrations are rare and dispatching is frequent. Therefore the
+ * <code>dispatch()</code> method works on an immutable snapshot of the
+ * subscriptions that maps each registered <code>IDataTransferObject</code>
+ * class to a precomputed array of listeners, including the listeners
+ * registered for all types. Adding or removing a listener builds a new
+ * snapshot and replaces the old one in a single volatile write, so that
+ * <code>dispatch()</code> needs neither locks nor more than one map lookup.
+ * <p>
+ * By default listeners are notified in the thread calling
+ * <code>dispatch()</code>. Slow listeners can be decoupled by means of
+ * <code>setAsynchronous()</code>, so that they can not delay the other
+ * listeners. See <code>AsynchronousListener</code> for details.
  * 
  * @author Clemens Krainer
  */
 public class Dispatcher implements IDataTransferObjectProvider {
 	
+	/**
+	 * An empty listener array.
+	 */
+	private static final IDataTransferObjectListener[] NO_LISTENERS = new IDataTransferObjectListener[0];
+	
 	/**
 	 * This variable maps a class derivative of an <code>IDataTransferObject</code> to a
-	 * vector of listeners.
+	 * list of listeners. Access is guarded by <code>this</code>.
+	 */
+	private Map<Class<?>,List<IDataTransferObjectListener>> dtoTypeMap = new LinkedHashMap<> ();
+	
+	/**
+	 * This variable maps a listener to a list of registered
+	 * <code>IDataTransferObject</code> classes. Access is guarded by <code>this</code>.
 	 */
-	private HashMap<Class<?>,Vector<IDataTransferObjectListener>> dtoTypeMap = new HashMap<> ();
+	private Map<IDataTransferObjectListener, List<Class<?>>> listenerMap = new HashMap<> ();
 	
 	/**
-	 * This variable maps a listener to a vector of registered
-	 * <code>IDataTransferObject</code> classes.
+	 * This variable maps a listener to its asynchronous decoupling. Access is
+	 * guarded by <code>this</code>.
 	 */
-	private HashMap<IDataTransferObjectListener, Vector<Class<?>>> listenerMap = new HashMap<> ();
+	private Map<IDataTransferObjectListener, AsynchronousListener> asyncMap = new HashMap<> ();
+	
+	/**
+	 * This variable maps each class derivative of an
+	 * <code>IDataTransferObject</code> to the listeners to be notified,
+	 * i.e. the listeners of the class followed by the listeners of all types.
+	 * The entry for <code>IDataTransferObject</code> itself holds the
+	 * listeners of all types and serves classes without registrations. The map
+	 * is never modified after publication.
+	 */
+	private volatile Map<Class<?>,Route> dispatchTable = new HashMap<> ();
+	
+	/**
+	 * The listeners to be notified of a <code>IDataTransferObject</code> class.
+	 */
+	private static final class Route {
+		/**
+		 * The registered listeners, used to suppress delivery to the sender.
+		 */
+		final IDataTransferObjectListener[] listeners;
+		/**
+		 * The receivers of the messages, i.e. the registered listeners or
+		 * their asynchronous decouplings.
+		 */
+		final IDataTransferObjectListener[] receivers;
+		
+		Route (IDataTransferObjectListener[] listeners, IDataTransferObjectListener[] receivers) {
+			this.listeners = listeners;
+			this.receivers = receivers;
+		}
+	}
 	
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectProvider#addIDataTransferObjectListener(at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectListener, java.lang.Class)
 	 */
-	public void addDataTransferObjectListener (IDataTransferObjectListener listener, Class<?> dtoType) {
+	public synchronized void addDataTransferObjectListener (IDataTransferObjectListener listener, Class<?> dtoType) {
 		
-		Vector<IDataTransferObjectListener> typeListeners;
-		Vector<Class<?>> classes = listenerMap.get (listener);
+		List<IDataTransferObjectListener> typeListeners;
+		List<Class<?>> classes = listenerMap.get (listener);
 		
 		if (classes != null && classes.contains (IDataTransferObject.class))
 			return;
 			
 		if (classes == null) {
-			classes = new Vector<> ();
+			classes = new ArrayList<> ();
 			listenerMap.put (listener, classes);
 		}
 		
@@ -69,34 +127,146 @@ public class Dispatcher implements IDataTransferObjectProvider {
 			classes.clear ();
 		}
 
-		classes.add (dtoType);
+		if (!classes.contains (dtoType))
+			classes.add (dtoType);
 
 		typeListeners = dtoTypeMap.get (dtoType);
 
 		if (typeListeners == null) {
-			typeListeners = new Vector<> ();
+			typeListeners = new ArrayList<> ();
 			dtoTypeMap.put (dtoType, typeListeners);
 		}
 		
 		if (!typeListeners.contains (listener))
 			typeListeners.add (listener);
+		
+		publish ();
 	}
 
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectProvider#removeIDataTransferObjectListener(at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectListener, java.lang.Class)
 	 */
-	public void removeIDataTransferObjectListener (IDataTransferObjectListener listener) {
+	public synchronized void removeIDataTransferObjectListener (IDataTransferObjectListener listener) {
 		
-		Vector<Class<?>> classes = listenerMap.get (listener);
+		List<Class<?>> classes = listenerMap.get (listener);
 		if (classes == null)
 			return;
 		
 		for (int k=0; k < classes.size (); k++) {
-			Vector<IDataTransferObjectListener> listeners = dtoTypeMap.get (classes.get (k));
+			List<IDataTransferObjectListener> listeners = dtoTypeMap.get (classes.get (k));
 			listeners.remove (listener);
 		}
 		
 		listenerMap.remove (listener);
+		
+		AsynchronousListener async = asyncMap.remove (listener);
+		if (async != null)
+			async.terminate ();
+		
+		publish ();
+	}
+	
+	/**
+	 * Notify a listener asynchronously. The messages for the listener are
+	 * stored in a bounded ring buffer and a dedicated worker thread delivers
+	 * them. An existing decoupling of the listener is terminated and pending
+	 * messages are discarded.
+	 * 
+	 * @param listener the listener to be decoupled.
+	 * @param policy the policy to apply if the ring buffer is full.
+	 * @param capacity the capacity of the ring buffer.
+	 * @return the decoupling of the listener, e.g. to query its metrics.
+	 */
+	public synchronized AsynchronousListener setAsynchronous (IDataTransferObjectListener listener, AsynchronousListener.Policy policy, int capacity) {
+		AsynchronousListener async = new AsynchronousListener (listener, policy, capacity);
+		AsynchronousListener old = asyncMap.put (listener, async);
+		if (old != null)
+			old.terminate ();
+		publish ();
+		return async;
+	}
+	
+	/**
+	 * Notify a listener synchronously again, i.e. in the thread that calls
+	 * <code>dispatch()</code>.
+	 * 
+	 * @param listener the listener concerned.
+	 */
+	public synchronized void setSynchronous (IDataTransferObjectListener listener) {
+		AsynchronousListener async = asyncMap.remove (listener);
+		if (async == null)
+			return;
+		publish ();
+		async.terminate ();
+	}
+	
+	/**
+	 * Terminate the worker threads of all asynchronously notified listeners.
+	 * The listeners will be notified synchronously afterwards.
+	 */
+	public synchronized void terminate () {
+		for (AsynchronousListener async : asyncMap.values())
+			async.terminate ();
+		asyncMap.clear ();
+		publish ();
+	}
+	
+	/**
+	 * Build a new dispatch table from the current registrations and publish
+	 * it. The caller must hold the lock on <code>this</code>.
+	 */
+	private void publish () {
+		IDataTransferObjectListener[] wildcard = toArray (dtoTypeMap.get (IDataTransferObject.class), NO_LISTENERS);
+		Map<Class<?>,Route> table = new HashMap<> ();
+		
+		for (Entry<Class<?>,List<IDataTransferObjectListener>> entry : dtoTypeMap.entrySet()) {
+			if (entry.getKey() == IDataTransferObject.class || entry.getValue().isEmpty())
+				continue;
+			table.put (entry.getKey(), createRoute (toArray (entry.getValue(), wildcard)));
+		}
+		
+		if (wildcard.length > 0)
+			table.put (IDataTransferObject.class, createRoute (wildcard));
+		
+		dispatchTable = table;
+	}
+	
+	/**
+	 * Create a route by replacing asynchronously notified listeners by their
+	 * decouplings. The caller must hold the lock on <code>this</code>.
+	 * 
+	 * @param listeners the listeners to be notified.
+	 * @return the new route.
+	 */
+	private Route createRoute (IDataTransferObjectListener[] listeners) {
+		if (asyncMap.isEmpty())
+			return new Route (listeners, listeners);
+		
+		IDataTransferObjectListener[] receivers = new IDataTransferObjectListener[listeners.length];
+		for (int k=0; k < listeners.length; k++) {
+			AsynchronousListener async = asyncMap.get (listeners[k]);
+			receivers[k] = async != null ? async : listeners[k];
+		}
+		return new Route (listeners, receivers);
+	}
+	
+	/**
+	 * Concatenate a list of listeners and an array of listeners.
+	 * 
+	 * @param listeners the list of listeners or null.
+	 * @param tail the listeners to be appended.
+	 * @return the new array.
+	 */
+	private static IDataTransferObjectListener[] toArray (List<IDataTransferObjectListener> listeners, IDataTransferObjectListener[] tail) {
+		int size = listeners == null ? 0 : listeners.size();
+		if (size == 0 && tail.length == 0)
+			return NO_LISTENERS;
+		
+		IDataTransferObjectListener[] result = new IDataTransferObjectListener[size + tail.length];
+		for (int k=0; k < size; k++)
+			result[k] = listeners.get (k);
+		System.arraycopy (tail, 0, result, size, tail.length);
+		return result;
 	}
 
 	/**
@@ -112,22 +282,18 @@ public class Dispatcher implements IDataTransferObjectProvider {
 		
 		IDataTransferObjectListener s = sender instanceof IDataTransferObjectListener ? (IDataTransferObjectListener) sender : null;
 
-		Vector<IDataTransferObjectListener> listeners = dtoTypeMap.get (dto.getClass());
-		if (listeners != null) {
-			for (int k=0; k < listeners.size(); k++) {
-				IDataTransferObjectListener listener = (IDataTransferObjectListener) listeners.get (k);
-				if (listener != s)
-					listener.receive (dto);
-			}
-		}
-
-		listeners = dtoTypeMap.get (IDataTransferObject.class);
-		if (listeners != null) {
-			for (int k=0; k < listeners.size(); k++) {
-				IDataTransferObjectListener listener = (IDataTransferObjectListener) listeners.get (k);
-				if (listener != s)
-					listener.receive (dto);
-			}
+		Map<Class<?>,Route> table = dispatchTable;
+		Route route = table.get (dto.getClass());
+		if (route == null)
+			route = table.get (IDataTransferObject.class);
+		if (route == null)
+			return;
+		
+		IDataTransferObjectListener[] listeners = route.listeners;
+		IDataTransferObjectListener[] receivers = route.receivers;
+		for (int k=0; k < listeners.length; k++) {
+			if (listeners[k] != s)
+				receivers[k].receive (dto);
 		}
 	}
 
@@ -0,0 +1,221 @@
+/*
+ * @(#) FlightRecordPlayer.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Properties;
+import java.util.concurrent.locks.LockSupport;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This class replays a recording of a <code>FlightRecorder</code> to a
+ * <code>IDataTransferObjectProvider</code>, e.g. a <code>Dispatcher</code>.
+ * The replay speed is a multiple of the original speed. A speed of zero
+ * replays the records as fast as possible.
+ * 
+ * @author Clemens Krainer
+ */
+public class FlightRecordPlayer implements Runnable, ISender {
+	
+	/**
+	 * The property key of the replay speed. The default value is 1, i.e. the
+	 * original speed.
+	 */
+	public static final String PROP_SPEED = "speed";
+	
+	/**
+	 * The directory of the segment files.
+	 */
+	private File directory;
+	
+	/**
+	 * The file name prefix of the segment files.
+	 */
+	private String filePrefix;
+	
+	/**
+	 * The replay speed.
+	 */
+	private double speed;
+	
+	/**
+	 * The mapping of packet types to <code>IDataTransferObject</code> classes.
+	 */
+	private DataTransferObjectMapping mapping;
+	
+	/**
+	 * The associated dispatcher.
+	 */
+	private IDataTransferObjectProvider dtoProvider;
+	
+	/**
+	 * This variable indicates a running replay.
+	 */
+	private volatile boolean running = false;
+	
+	/**
+	 * The number of replayed messages.
+	 */
+	private volatile long replayedMessages = 0;
+	
+	/**
+	 * The exception that aborted the last replay started by <code>run()</code>,
+	 * or null.
+	 */
+	private volatile Exception failure = null;
+	
+	/**
+	 * Construct a <code>FlightRecordPlayer</code>.
+	 * 
+	 * @param props the properties to be used for construction. The properties
+	 *        <code>directory</code>, <code>file.prefix</code> and
+	 *        <code>mapping.*</code> are the same as for the
+	 *        <code>FlightRecorder</code>.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 */
+	public FlightRecordPlayer (Properties props) throws ConfigurationException {
+		String dir = props.getProperty (FlightRecorder.PROP_DIRECTORY);
+		if (dir == null || "".equals (dir))
+			throw new ConfigurationException ("Property " + FlightRecorder.PROP_DIRECTORY + " not configured.");
+		
+		directory = new File (dir);
+		filePrefix = props.getProperty (FlightRecorder.PROP_FILE_PREFIX, FlightRecorder.DEFAULT_FILE_PREFIX);
+		speed = Double.parseDouble (props.getProperty (PROP_SPEED, "1"));
+		if (speed < 0)
+			throw new ConfigurationException ("Property " + PROP_SPEED + " must not be negative.");
+		
+		mapping = new DataTransferObjectMapping (props);
+	}
+	
+	/**
+	 * Set the dispatcher the recorded messages are replayed to.
+	 * 
+	 * @param dtoProvider the dispatcher.
+	 */
+	public void setDtoProvider (IDataTransferObjectProvider dtoProvider) {
+		this.dtoProvider = dtoProvider;
+	}
+	
+	/**
+	 * Set the replay speed.
+	 * 
+	 * @param speed the multiple of the original speed or zero for maximum speed.
+	 */
+	public void setSpeed (double speed) {
+		if (speed < 0)
+			throw new IllegalArgumentException ("Speed must not be negative.");
+		this.speed = speed;
+	}
+	
+	/**
+	 * Replay all segments of the recording in the current thread.
+	 * 
+	 * @return the number of replayed messages.
+	 * @throws IOException thrown in case of I/O errors.
+	 * @throws ConfigurationException thrown if a recorded packet type is not mapped.
+	 */
+	public long replay () throws IOException, ConfigurationException {
+		running = true;
+		replayedMessages = 0;
+		long firstTimestamp = 0;
+		long start = 0;
+		
+		for (int k=0; running; k++) {
+			File file = FlightRecorder.segmentFile (directory, filePrefix, k);
+			if (!file.exists ())
+				break;
+			
+			ByteBuffer segment = FlightRecorder.openSegment (file);
+			while (running && segment.remaining () >= FlightRecorder.RECORD_HEADER_LENGTH) {
+				int type = segment.get () & 0xFF;
+				if (type == 0)
+					break;
+				int length = segment.getShort () & 0xFFFF;
+				long timestamp = segment.getLong ();
+				if (segment.remaining () < length)
+					throw new IOException ("Truncated record in file " + file.getName ());
+				byte[] payload = new byte[length];
+				segment.get (payload);
+				
+				if (replayedMessages == 0) {
+					firstTimestamp = timestamp;
+					start = System.nanoTime ();
+				} else if (speed > 0) {
+					long due = start + (long) ((timestamp - firstTimestamp) / speed);
+					long delay;
+					while (running && (delay = due - System.nanoTime ()) > 0)
+						LockSupport.parkNanos (delay);
+				}
+				
+				IDataTransferObject dto = mapping.createDto (type, payload);
+				if (dtoProvider != null)
+					dtoProvider.dispatch (this, dto);
+				++replayedMessages;
+			}
+		}
+		
+		running = false;
+		return replayedMessages;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run () {
+		failure = null;
+		try {
+			replay ();
+		} catch (IOException e) {
+			failure = e;
+			System.err.println ("FlightRecordPlayer: Replay aborted: " + e.getMessage ());
+		} catch (ConfigurationException e) {
+			failure = e;
+			System.err.println ("FlightRecordPlayer: Replay aborted: " + e.getMessage ());
+		} finally {
+			running = false;
+		}
+	}
+	
+	/**
+	 * Stop a running replay.
+	 */
+	public void terminate () {
+		running = false;
+	}
+	
+	/**
+	 * @return the number of replayed messages.
+	 */
+	public long getReplayedMessages () {
+		return replayedMessages;
+	}
+	
+	/**
+	 * @return the exception that aborted the last replay started by
+	 *         <code>run()</code>, or null if it completed.
+	 */
+	public Exception getFailure () {
+		return failure;
+	}
+}
@@ -0,0 +1,477 @@
+/*
+ * @(#) FlightRecorder.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This class implements a listener for <code>IDataTransferObject</code>
+ * derivatives that records the received messages in binary form. The
+ * recording consists of memory mapped segment files of a fixed size. If a
+ * segment is full, the recorder continues with the next one.
+ * <p>
+ * Each segment starts with a header of <code>MAGIC</code> and
+ * <code>VERSION</code>. Each record consists of the packet type (1 byte), the
+ * payload length (2 bytes), the value of <code>System.nanoTime()</code> at
+ * reception (8 bytes) and the payload as returned by
+ * <code>IDataTransferObject.toByteArray()</code>. The packet types are taken
+ * from the <code>mapping.*</code> properties, see
+ * <code>TransceiverAdapter</code>. A packet type of zero terminates the
+ * records of a segment.
+ * <p>
+ * A new recording deletes the segment files of a previous recording with the
+ * same file name prefix. A background thread maps the next segment file in
+ * advance and flushes full segments to disk, so that <code>receive()</code>
+ * does not block on file system operations.
+ * <p>
+ * Use <code>FlightRecordPlayer</code> to replay a recording.
+ * 
+ * @author Clemens Krainer
+ */
+public class FlightRecorder implements IDataTransferObjectListener {
+	
+	/**
+	 * The property key of the directory the segment files are written to.
+	 */
+	public static final String PROP_DIRECTORY = "directory";
+	
+	/**
+	 * The property key of the file name prefix of the segment files.
+	 */
+	public static final String PROP_FILE_PREFIX = "file.prefix";
+	
+	/**
+	 * The property key of the segment size in bytes.
+	 */
+	public static final String PROP_SEGMENT_SIZE = "segment.size";
+	
+	/**
+	 * The default file name prefix of the segment files.
+	 */
+	public static final String DEFAULT_FILE_PREFIX = "flight";
+	
+	/**
+	 * The default segment size in bytes.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+	
+	/**
+	 * The file name suffix of the segment files.
+	 */
+	public static final String FILE_SUFFIX = ".rec";
+	
+	/**
+	 * The magic number at the beginning of each segment.
+	 */
+	public static final int MAGIC = 0x4A4E4652;
+	
+	/**
+	 * The version of the recording format.
+	 */
+	public static final int VERSION = 1;
+	
+	/**
+	 * The length of the segment header in bytes.
+	 */
+	public static final int SEGMENT_HEADER_LENGTH = 8;
+	
+	/**
+	 * The length of the record header in bytes.
+	 */
+	public static final int RECORD_HEADER_LENGTH = 11;
+	
+	/**
+	 * The directory of the segment files.
+	 */
+	private File directory;
+	
+	/**
+	 * The file name prefix of the segment files.
+	 */
+	private String filePrefix;
+	
+	/**
+	 * The segment size in bytes.
+	 */
+	private int segmentSize;
+	
+	/**
+	 * The mapping of <code>IDataTransferObject</code> classes to packet types.
+	 */
+	private DataTransferObjectMapping mapping;
+	
+	/**
+	 * The thread preparing and flushing the segment files.
+	 */
+	private SegmentWriter writer;
+	
+	/**
+	 * The memory mapped buffer of the current segment.
+	 */
+	private MappedByteBuffer segment = null;
+	
+	/**
+	 * The number of recorded messages.
+	 */
+	private long recordedMessages = 0;
+	
+	/**
+	 * The number of messages that have not been recorded, because there is no
+	 * mapping for their class or they are too big.
+	 */
+	private long skippedMessages = 0;
+	
+	/**
+	 * Construct a <code>FlightRecorder</code> and create the first segment file.
+	 * 
+	 * @param props the properties to be used for construction.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 * @throws IOException thrown if the first segment file can not be created.
+	 */
+	public FlightRecorder (Properties props) throws ConfigurationException, IOException {
+		String dir = props.getProperty (PROP_DIRECTORY);
+		if (dir == null || "".equals (dir))
+			throw new ConfigurationException ("Property " + PROP_DIRECTORY + " not configured.");
+		
+		directory = new File (dir);
+		if (!directory.isDirectory () && !directory.mkdirs ())
+			throw new ConfigurationException ("Can not create directory " + directory.getAbsolutePath ());
+		
+		filePrefix = props.getProperty (PROP_FILE_PREFIX, DEFAULT_FILE_PREFIX);
+		segmentSize = Integer.parseInt (props.getProperty (PROP_SEGMENT_SIZE, Integer.toString (DEFAULT_SEGMENT_SIZE)));
+		if (segmentSize < SEGMENT_HEADER_LENGTH + RECORD_HEADER_LENGTH + 65535 + 1)
+			throw new ConfigurationException ("Property " + PROP_SEGMENT_SIZE + " must be at least " +
+				(SEGMENT_HEADER_LENGTH + RECORD_HEADER_LENGTH + 65535 + 1) + " bytes.");
+		
+		mapping = new DataTransferObjectMapping (props);
+		deleteStaleSegments ();
+		writer = new SegmentWriter ();
+		writer.start ();
+		segment = writer.takeSpare ();
+	}
+	
+	/**
+	 * Return the file of a segment.
+	 * 
+	 * @param directory the directory of the segment files.
+	 * @param filePrefix the file name prefix of the segment files.
+	 * @param number the number of the segment.
+	 * @return the segment file.
+	 */
+	static File segmentFile (File directory, String filePrefix, int number) {
+		return new File (directory, String.format ("%s-%05d%s", filePrefix, number, FILE_SUFFIX));
+	}
+	
+	/**
+	 * Delete the segment files of a previous recording. Otherwise a
+	 * <code>FlightRecordPlayer</code> would continue with the stale segments of
+	 * a longer recording after the last segment of this one.
+	 * 
+	 * @throws IOException thrown if a segment file can not be deleted.
+	 */
+	private void deleteStaleSegments () throws IOException {
+		Pattern pattern = Pattern.compile (Pattern.quote (filePrefix) + "-\\d{5}" + Pattern.quote (FILE_SUFFIX));
+		File[] files = directory.listFiles ();
+		if (files == null)
+			return;
+		for (int k=0; k < files.length; k++)
+			if (pattern.matcher (files[k].getName ()).matches () && !files[k].delete ())
+				throw new IOException ("Can not delete stale segment file " + files[k].getAbsolutePath ());
+	}
+	
+	/**
+	 * Create and map a segment file and write its header.
+	 * 
+	 * @param number the number of the segment.
+	 * @return the segment positioned after the header.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	private MappedByteBuffer createSegment (int number) throws IOException {
+		MappedByteBuffer buffer;
+		RandomAccessFile file = new RandomAccessFile (segmentFile (directory, filePrefix, number), "rw");
+		try {
+			file.setLength (0);
+			buffer = file.getChannel ().map (FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		} finally {
+			file.close ();
+		}
+		buffer.putInt (MAGIC);
+		buffer.putInt (VERSION);
+		return buffer;
+	}
+	
+	/**
+	 * Terminate the records of the current segment, hand it over to the
+	 * <code>SegmentWriter</code> for flushing and continue with the next one.
+	 * 
+	 * @throws IOException thrown if the next segment can not be created.
+	 */
+	private void nextSegment () throws IOException {
+		closeSegment ();
+		segment = writer.takeSpare ();
+	}
+	
+	/**
+	 * Terminate the records of the current segment and hand it over to the
+	 * <code>SegmentWriter</code> for flushing.
+	 */
+	private void closeSegment () {
+		if (segment == null)
+			return;
+		if (segment.remaining () > 0)
+			segment.put ((byte) 0);
+		writer.retire (segment);
+		segment = null;
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectListener#receive(at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject)
+	 */
+	public void receive (IDataTransferObject dto) throws IOException {
+		long timestamp = System.nanoTime ();
+		int type = mapping.getPacketType (dto.getClass ());
+		byte[] payload = dto.toByteArray ();
+		
+		synchronized (this) {
+			if (segment == null)
+				throw new IOException ("FlightRecorder is closed.");
+			
+			if (type <= 0 || payload.length > 65535) {
+				++skippedMessages;
+				return;
+			}
+			
+			// Keep one byte for the terminating packet type.
+			if (segment.remaining () < RECORD_HEADER_LENGTH + payload.length + 1)
+				nextSegment ();
+			
+			segment.put ((byte) type);
+			segment.putShort ((short) payload.length);
+			segment.putLong (timestamp);
+			segment.put (payload);
+			++recordedMessages;
+		}
+	}
+	
+	/**
+	 * Terminate the recording and flush the current segment to disk. This
+	 * method waits until all segments are flushed and deletes the segment
+	 * file prepared in advance.
+	 */
+	public void close () {
+		synchronized (this) {
+			if (segment == null)
+				return;
+			closeSegment ();
+		}
+		writer.terminate ();
+		try {
+			writer.join ();
+		} catch (InterruptedException e) {
+			Thread.currentThread ().interrupt ();
+		}
+		writer.deleteSpare ();
+	}
+	
+	/**
+	 * @return the number of recorded messages.
+	 */
+	public synchronized long getRecordedMessages () {
+		return recordedMessages;
+	}
+	
+	/**
+	 * @return the number of messages that have not been recorded.
+	 */
+	public synchronized long getSkippedMessages () {
+		return skippedMessages;
+	}
+	
+	/**
+	 * Read the records of a segment.
+	 * 
+	 * @param file the segment file.
+	 * @return the segment positioned at the first record.
+	 * @throws IOException thrown in case of I/O errors or an invalid segment header.
+	 */
+	static ByteBuffer openSegment (File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile (file, "r");
+		ByteBuffer buffer;
+		try {
+			buffer = raf.getChannel ().map (FileChannel.MapMode.READ_ONLY, 0, raf.length ());
+		} finally {
+			raf.close ();
+		}
+		if (buffer.remaining () < SEGMENT_HEADER_LENGTH || buffer.getInt () != MAGIC)
+			throw new IOException ("File " + file.getName () + " is not a flight recording.");
+		int version = buffer.getInt ();
+		if (version != VERSION)
+			throw new IOException ("File " + file.getName () + " has unsupported version " + version);
+		return buffer;
+	}
+	
+	/**
+	 * The <code>SegmentWriter</code> thread maps the next segment file before it
+	 * is needed and flushes full segments to disk.
+	 * 
+	 * @author Clemens Krainer
+	 */
+	class SegmentWriter extends Thread {
+		
+		/**
+		 * The number of the next segment to be created.
+		 */
+		private int nextNumber = 0;
+		
+		/**
+		 * The segment prepared in advance or null.
+		 */
+		private MappedByteBuffer spare = null;
+		
+		/**
+		 * The full segments to be flushed to disk.
+		 */
+		private ArrayDeque<MappedByteBuffer> retired = new ArrayDeque<MappedByteBuffer> ();
+		
+		/**
+		 * The exception that prevented the creation of the next segment, or null.
+		 */
+		private IOException failure = null;
+		
+		/**
+		 * This variable indicates a running <code>SegmentWriter</code> thread.
+		 */
+		private boolean active = true;
+		
+		/**
+		 * Construct a <code>SegmentWriter</code>.
+		 */
+		SegmentWriter () {
+			super ("FlightRecorder.SegmentWriter");
+			setDaemon (true);
+		}
+		
+		/**
+		 * Take the segment prepared in advance. This method waits only if the
+		 * background thread has not finished mapping it yet.
+		 * 
+		 * @return the next segment positioned after the header.
+		 * @throws IOException thrown if the segment can not be created or the
+		 *         <code>SegmentWriter</code> has been terminated.
+		 */
+		synchronized MappedByteBuffer takeSpare () throws IOException {
+			while (spare == null && failure == null && active)
+				try { wait (); } catch (InterruptedException e) { }
+			if (spare == null) {
+				if (failure == null)
+					throw new IOException ("FlightRecorder is closed.");
+				IOException e = new IOException ("Can not create segment file: " + failure.getMessage ());
+				e.initCause (failure);
+				throw e;
+			}
+			MappedByteBuffer buffer = spare;
+			spare = null;
+			notifyAll ();
+			return buffer;
+		}
+		
+		/**
+		 * Hand over a full segment for flushing to disk.
+		 * 
+		 * @param buffer the segment.
+		 */
+		synchronized void retire (MappedByteBuffer buffer) {
+			retired.add (buffer);
+			notifyAll ();
+		}
+		
+		/**
+		 * Terminate the <code>SegmentWriter</code> thread after flushing all
+		 * retired segments.
+		 */
+		synchronized void terminate () {
+			active = false;
+			notifyAll ();
+		}
+		
+		/**
+		 * Delete the unused segment file prepared in advance. This method is
+		 * to be called after the thread has terminated.
+		 */
+		synchronized void deleteSpare () {
+			if (spare == null)
+				return;
+			spare = null;
+			File file = segmentFile (directory, filePrefix, nextNumber - 1);
+			if (!file.delete ())
+				System.err.println ("FlightRecorder: Can not delete unused segment file " + file.getAbsolutePath ());
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Thread#run()
+		 */
+		public void run () {
+			while (true) {
+				MappedByteBuffer buffer = null;
+				boolean create;
+				synchronized (this) {
+					while (active && retired.isEmpty () && (spare != null || failure != null))
+						try { wait (); } catch (InterruptedException e) { }
+					create = active && spare == null && failure == null;
+					if (!create) {
+						buffer = retired.poll ();
+						if (buffer == null)
+							break;
+					}
+				}
+				
+				if (buffer != null) {
+					buffer.force ();
+					continue;
+				}
+				
+				try {
+					buffer = createSegment (nextNumber);
+					synchronized (this) {
+						++nextNumber;
+						spare = buffer;
+						notifyAll ();
+					}
+				} catch (IOException e) {
+					synchronized (this) {
+						failure = e;
+						notifyAll ();
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * @(#) IDataTransferObjectFactory.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+
+/**
+ * A factory that creates <code>IDataTransferObject</code> instances from
+ * packet payloads implements this interface.
+ * 
+ * @author Clemens Krainer
+ */
+public interface IDataTransferObjectFactory {
+
+	/**
+	 * Create a <code>IDataTransferObject</code> from a packet payload.
+	 * 
+	 * @param payload
+	 *            the packet payload.
+	 * @return the new <code>IDataTransferObject</code>.
+	 * @throws IOException
+	 *             thrown if the payload can not be converted.
+	 */
+	public IDataTransferObject create (byte[] payload) throws IOException;
+}
@@ -0,0 +1,259 @@
+/*
+ * @(#) MulticastPublisher.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.nio.ByteBuffer;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This class publishes data transfer objects to a UDP multicast group. Each
+ * object is encoded only once and sent as a single datagram, independent of
+ * the number of subscribers. A <code>MulticastSubscriber</code> receives the
+ * datagrams and dispatches the contained objects to a local
+ * <code>Dispatcher</code>.
+ * <p>
+ * The published objects are configured by the <code>mapping.*</code>
+ * properties described in <code>TransceiverAdapter</code>. Only classes
+ * having the register flag set are published. Objects received by this
+ * class are never dispatched to the associated provider, because the
+ * publisher does not listen to the multicast group.
+ *
+ * @author Clemens Krainer
+ */
+public class MulticastPublisher implements IDataTransferObjectForwarder, IDataTransferObjectListener {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger (MulticastPublisher.class);
+
+	/**
+	 * The property key of the multicast group address.
+	 */
+	public static final String PROP_GROUP = "multicast.group";
+
+	/**
+	 * The property key of the UDP port number.
+	 */
+	public static final String PROP_PORT = "multicast.port";
+
+	/**
+	 * The property key of the time to live of the datagrams.
+	 */
+	public static final String PROP_TIME_TO_LIVE = "multicast.ttl";
+
+	/**
+	 * The property key of the name of the network interface to be used, e.g.
+	 * <code>eth0</code>. If not set, the system default is used.
+	 */
+	public static final String PROP_INTERFACE = "multicast.interface";
+
+	/**
+	 * The mapping of packet types to <code>IDataTransferObject</code> classes.
+	 */
+	private DataTransferObjectMapping mapping;
+
+	/**
+	 * The packet format of the datagrams.
+	 */
+	private PacketFormat format;
+
+	/**
+	 * Objects to be published are provided by this provider.
+	 */
+	private IDataTransferObjectProvider dtoProvider;
+
+	/**
+	 * The socket sending the datagrams.
+	 */
+	private MulticastSocket socket;
+
+	/**
+	 * The buffer the objects are encoded into.
+	 */
+	private ByteBuffer sendBuffer;
+
+	/**
+	 * The datagram wrapping the send buffer.
+	 */
+	private DatagramPacket datagram;
+
+	/**
+	 * The number of published objects.
+	 */
+	private long publishedObjects = 0;
+
+	/**
+	 * This variable indicates that <code>terminate()</code> has not been
+	 * called yet.
+	 */
+	private boolean running = true;
+
+	/**
+	 * Construct a <code>MulticastPublisher</code>.
+	 *
+	 * @param props the properties to be used for construction.
+	 * @throws IOException thrown in case of I/O errors.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 */
+	public MulticastPublisher (Properties props) throws IOException, ConfigurationException {
+		InetSocketAddress group = getGroup (props);
+		mapping = new DataTransferObjectMapping (props);
+		format = PacketFormat.valueOf (props);
+
+		socket = new MulticastSocket ();
+		socket.setTimeToLive (Integer.parseInt (props.getProperty (PROP_TIME_TO_LIVE, "1")));
+		NetworkInterface networkInterface = getInterface (props);
+		if (networkInterface != null)
+			socket.setNetworkInterface (networkInterface);
+
+		byte[] buffer = new byte[format.getMaximumFrameLength ()];
+		sendBuffer = ByteBuffer.wrap (buffer);
+		datagram = new DatagramPacket (buffer, buffer.length, group);
+	}
+
+	/**
+	 * Read the multicast group address and port number from the properties.
+	 *
+	 * @param props the properties.
+	 * @return the socket address of the group.
+	 * @throws ConfigurationException thrown in case of missing or invalid properties.
+	 */
+	static InetSocketAddress getGroup (Properties props) throws ConfigurationException {
+		String groupString = props.getProperty (PROP_GROUP);
+		if (groupString == null || "".equals (groupString))
+			throw new ConfigurationException ("Property " + PROP_GROUP + " is not set.");
+
+		String portString = props.getProperty (PROP_PORT);
+		if (portString == null || "".equals (portString))
+			throw new ConfigurationException ("Property " + PROP_PORT + " is not set.");
+
+		InetAddress address;
+		try {
+			address = InetAddress.getByName (groupString);
+		} catch (IOException e) {
+			throw new ConfigurationException (e);
+		}
+
+		if (!address.isMulticastAddress ())
+			throw new ConfigurationException ("Property " + PROP_GROUP + " is no multicast address: " + groupString);
+
+		return new InetSocketAddress (address, Integer.parseInt (portString));
+	}
+
+	/**
+	 * Read the network interface from the properties.
+	 *
+	 * @param props the properties.
+	 * @return the network interface or null if not configured.
+	 * @throws IOException thrown in case of I/O errors.
+	 * @throws ConfigurationException thrown if the network interface does not exist.
+	 */
+	static NetworkInterface getInterface (Properties props) throws IOException, ConfigurationException {
+		String name = props.getProperty (PROP_INTERFACE);
+		if (name == null || "".equals (name))
+			return null;
+
+		NetworkInterface networkInterface = NetworkInterface.getByName (name);
+		if (networkInterface == null)
+			throw new ConfigurationException ("Property " + PROP_INTERFACE + " refers to an unknown network interface: " + name);
+
+		return networkInterface;
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectForwarder#setDtoProvider(at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectProvider)
+	 */
+	public void setDtoProvider (IDataTransferObjectProvider dispatcher) {
+		this.dtoProvider = dispatcher;
+		mapping.register (dtoProvider, this);
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectListener#receive(at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject)
+	 */
+	public void receive (IDataTransferObject dto) throws IOException {
+		int type = mapping.getPacketType (dto.getClass ());
+		if (type < 0)
+			throw new IOException ("No mapping found for IDataTransferObject: " + dto.getClass ().toString ());
+
+		byte[] payload = dto.toByteArray ();
+		synchronized (this) {
+			if (!running)
+				return;
+			sendBuffer.clear ();
+			PacketCodec.encode (format, (byte) type, payload, 0, payload.length, sendBuffer);
+			datagram.setLength (sendBuffer.position ());
+			socket.send (datagram);
+			++publishedObjects;
+		}
+	}
+
+	/**
+	 * The publisher sends datagrams in the threads dispatching the objects.
+	 * This method only waits for <code>terminate()</code> and releases the
+	 * resources afterwards.
+	 *
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run () {
+		synchronized (this) {
+			while (running) {
+				try {
+					wait ();
+				} catch (InterruptedException e) {
+					LOG.info ("Publisher interrupted.");
+					running = false;
+				}
+			}
+		}
+
+		if (dtoProvider != null)
+			dtoProvider.removeIDataTransferObjectListener (this);
+		socket.close ();
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectForwarder#terminate()
+	 */
+	public synchronized void terminate () {
+		running = false;
+		notifyAll ();
+	}
+
+	/**
+	 * @return the number of published objects.
+	 */
+	public synchronized long getPublishedObjects () {
+		return publishedObjects;
+	}
+}
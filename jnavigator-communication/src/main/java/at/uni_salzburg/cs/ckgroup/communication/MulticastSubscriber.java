@@ -0,0 +1,212 @@
+/*
+ * @(#) MulticastSubscriber.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.nio.ByteBuffer;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This class joins a UDP multicast group, decodes the datagrams sent by a
+ * <code>MulticastPublisher</code> and dispatches the contained data transfer
+ * objects to the associated <code>IDataTransferObjectProvider</code>, usually
+ * a local <code>Dispatcher</code>. It uses the same <code>multicast.*</code>,
+ * <code>mapping.*</code> and <code>packet.format</code> properties as the
+ * publisher.
+ *
+ * @author Clemens Krainer
+ */
+public class MulticastSubscriber implements IDataTransferObjectForwarder, ISender {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger (MulticastSubscriber.class);
+
+	/**
+	 * The mapping of packet types to <code>IDataTransferObject</code> classes.
+	 */
+	private DataTransferObjectMapping mapping;
+
+	/**
+	 * Received objects are dispatched to this provider.
+	 */
+	private IDataTransferObjectProvider dtoProvider;
+
+	/**
+	 * The socket receiving the datagrams.
+	 */
+	private MulticastSocket socket;
+
+	/**
+	 * The multicast group.
+	 */
+	private InetSocketAddress group;
+
+	/**
+	 * The network interface to receive the datagrams from or null to use the
+	 * default interface of the socket.
+	 */
+	private NetworkInterface networkInterface;
+
+	/**
+	 * The codec decoding the received datagrams.
+	 */
+	private PacketCodec codec;
+
+	/**
+	 * The buffer receiving the datagrams.
+	 */
+	private byte[] receiveBuffer;
+
+	/**
+	 * The number of dispatched objects.
+	 */
+	private volatile long receivedObjects = 0;
+
+	/**
+	 * The number of frames dropped because of checksum or mapping errors.
+	 */
+	private volatile long droppedFrames = 0;
+
+	/**
+	 * This variable indicates a running receive loop.
+	 */
+	private volatile boolean running = true;
+
+	/**
+	 * Construct a <code>MulticastSubscriber</code> and join the multicast
+	 * group.
+	 *
+	 * @param props the properties to be used for construction.
+	 * @throws IOException thrown in case of I/O errors.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 */
+	public MulticastSubscriber (Properties props) throws IOException, ConfigurationException {
+		group = MulticastPublisher.getGroup (props);
+		networkInterface = MulticastPublisher.getInterface (props);
+		mapping = new DataTransferObjectMapping (props);
+		PacketFormat format = PacketFormat.valueOf (props);
+
+		socket = new MulticastSocket (group.getPort ());
+		socket.joinGroup (group, networkInterface);
+
+		receiveBuffer = new byte[format.getMaximumFrameLength ()];
+		codec = new PacketCodec (format);
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectForwarder#setDtoProvider(at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectProvider)
+	 */
+	public void setDtoProvider (IDataTransferObjectProvider dispatcher) {
+		this.dtoProvider = dispatcher;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run () {
+		DatagramPacket datagram = new DatagramPacket (receiveBuffer, receiveBuffer.length);
+		ByteBuffer buf = ByteBuffer.wrap (receiveBuffer);
+
+		while (running) {
+			try {
+				datagram.setLength (receiveBuffer.length);
+				socket.receive (datagram);
+				buf.limit (datagram.getLength ()).position (0);
+				handleDatagram (buf);
+			} catch (IOException e) {
+				if (running)
+					LOG.error ("Can not receive datagram.", e);
+			}
+		}
+
+		try {
+			socket.leaveGroup (group, networkInterface);
+		} catch (IOException e) {
+			// Intentionally empty, the socket might be closed already.
+		}
+		socket.close ();
+	}
+
+	/**
+	 * Decode all frames of a datagram and dispatch the contained objects.
+	 *
+	 * @param buf the datagram in read mode.
+	 */
+	private void handleDatagram (ByteBuffer buf) {
+		while (buf.hasRemaining ()) {
+			try {
+				if (!codec.decode (buf))
+					return;
+			} catch (CommunicationException e) {
+				++droppedFrames;
+				LOG.warn (e.getMessage ());
+				continue;
+			}
+
+			int type = codec.getType () & 0xFF;
+			try {
+				IDataTransferObject dto = mapping.createDto (type, codec.getPayload ());
+				++receivedObjects;
+				if (dtoProvider != null)
+					dtoProvider.dispatch (this, dto);
+			} catch (ConfigurationException e) {
+				++droppedFrames;
+				LOG.warn (e.getMessage ());
+			} catch (IOException e) {
+				++droppedFrames;
+				LOG.warn ("Can not dispatch packet of type " + type + ".", e);
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectForwarder#terminate()
+	 */
+	public void terminate () {
+		running = false;
+		socket.close ();
+	}
+
+	/**
+	 * @return the number of dispatched objects.
+	 */
+	public long getReceivedObjects () {
+		return receivedObjects;
+	}
+
+	/**
+	 * @return the number of frames dropped because of checksum or mapping errors.
+	 */
+	public long getDroppedFrames () {
+		return droppedFrames;
+	}
+}
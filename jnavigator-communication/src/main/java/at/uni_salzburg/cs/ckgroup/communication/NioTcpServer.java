@@ -0,0 +1,486 @@
+/*
+ * @(#) NioTcpServer.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This class implements a TCP server that multiplexes all connected clients
+ * on a single thread by means of a NIO <code>Selector</code>. It is a drop-in
+ * replacement for <code>TcpServer</code> and uses the same
+ * <code>server.port</code> and <code>mapping.*</code> properties.
+ * <p>
+ * Received frames are decoded incrementally from the non-blocking channels
+ * and dispatched to the associated <code>IDataTransferObjectProvider</code>.
+ * Data transfer objects from the provider are encoded only once and then
+ * queued for every connected client. Each client has a bounded write queue.
+ * If a client does not keep pace and its queue overflows, the client is
+ * disconnected, so that a slow client never blocks the dispatching thread.
+ * Discarding queued frames instead would silently lose commands, e.g.
+ * <code>SwitchMode</code>, <code>ShutdownEvent</code> or parameter updates.
+ * A disconnected client notices the loss and may reconnect.
+ *
+ * @author Clemens Krainer
+ */
+public class NioTcpServer implements IDataTransferObjectForwarder, IDataTransferObjectListener, ISender {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger (NioTcpServer.class);
+
+	/**
+	 * The property key of the server port number.
+	 */
+	public static final String PROP_SERVER_PORT = "server.port";
+
+	/**
+	 * The property key of the maximum number of frames queued per client.
+	 */
+	public static final String PROP_CLIENT_QUEUE_LENGTH = "client.queue.length";
+
+	/**
+	 * The capacity of the per-client write buffer in bytes.
+	 */
+	private static final int WRITE_BUFFER_CAPACITY = 8 * PacketCodec.MAXIMUM_FRAME_LENGTH;
+
+	/**
+	 * The mapping of packet types to <code>IDataTransferObject</code> classes.
+	 */
+	private DataTransferObjectMapping mapping;
+
+	/**
+	 * Forward received objects to this provider.
+	 */
+	private IDataTransferObjectProvider dtoProvider;
+
+	/**
+	 * The selector multiplexing the server and all client channels.
+	 */
+	private Selector selector;
+
+	/**
+	 * The channel accepting new connections.
+	 */
+	private ServerSocketChannel serverChannel;
+
+	/**
+	 * The TCP/IP port number of this server.
+	 */
+	private int port;
+
+	/**
+	 * The maximum number of frames queued per client.
+	 */
+	private int clientQueueLength;
+
+	/**
+	 * The currently connected clients.
+	 */
+	private List<Client> clients = new CopyOnWriteArrayList<Client> ();
+
+	/**
+	 * This variable indicates that a wake up of the selector is pending. It
+	 * avoids waking up the selector for every queued frame.
+	 */
+	private AtomicBoolean wakeupPending = new AtomicBoolean (false);
+
+	/**
+	 * The number of frames not delivered because of full client queues.
+	 */
+	private AtomicLong droppedFrames = new AtomicLong (0);
+
+	/**
+	 * This variable indicates a running selector loop.
+	 */
+	private volatile boolean running = false;
+
+	/**
+	 * Construct a <code>NioTcpServer</code>.
+	 *
+	 * @param props the properties to be used for construction.
+	 * @throws IOException thrown in case of I/O errors.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 */
+	public NioTcpServer (Properties props) throws IOException, ConfigurationException {
+		String portString = props.getProperty (PROP_SERVER_PORT);
+		if (portString == null || "".equals(portString))
+			throw new IOException ("Property " + PROP_SERVER_PORT + " is not set.");
+
+		port = Integer.parseInt (portString);
+		clientQueueLength = Integer.parseInt (props.getProperty (PROP_CLIENT_QUEUE_LENGTH, "100"));
+		mapping = new DataTransferObjectMapping (props);
+
+		selector = Selector.open ();
+		serverChannel = ServerSocketChannel.open ();
+		serverChannel.socket ().setReuseAddress (true);
+		serverChannel.socket ().bind (new InetSocketAddress (port));
+		serverChannel.configureBlocking (false);
+		serverChannel.register (selector, SelectionKey.OP_ACCEPT);
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectForwarder#setDtoProvider(at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectProvider)
+	 */
+	public void setDtoProvider (IDataTransferObjectProvider dispatcher) {
+		this.dtoProvider = dispatcher;
+		mapping.register (dtoProvider, this);
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectListener#receive(at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject)
+	 */
+	public void receive (IDataTransferObject dto) throws IOException {
+		int type = mapping.getPacketType (dto.getClass());
+		if (type < 0)
+			throw new IOException ("No mapping found for IDataTransferObject: " + dto.getClass().toString());
+
+		if (clients.isEmpty ())
+			return;
+
+		byte[] frame = new Packet ((byte) type, dto.toByteArray ()).toByteArray ();
+		fanOut (frame, null);
+	}
+
+	/**
+	 * Queue a frame for all connected clients but one. Overflowing clients
+	 * are closed by the selector thread.
+	 *
+	 * @param frame the encoded frame.
+	 * @param exclude the client not to receive the frame or null.
+	 */
+	private void fanOut (byte[] frame, Client exclude) {
+		boolean queued = false;
+		for (Client client : clients) {
+			if (client != exclude) {
+				client.enqueue (frame);
+				queued = true;
+			}
+		}
+
+		if (queued && wakeupPending.compareAndSet (false, true))
+			selector.wakeup ();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run () {
+		running = true;
+		try {
+			while (running) {
+				selector.select ();
+				wakeupPending.set (false);
+
+				Iterator<SelectionKey> i = selector.selectedKeys ().iterator ();
+				while (i.hasNext ()) {
+					SelectionKey key = i.next ();
+					i.remove ();
+
+					if (!key.isValid ())
+						continue;
+
+					if (key.isAcceptable ()) {
+						accept ();
+						continue;
+					}
+
+					Client client = (Client) key.attachment ();
+					try {
+						if (key.isReadable ())
+							client.read ();
+						if (key.isValid () && key.isWritable ())
+							client.flush ();
+					} catch (IOException e) {
+						LOG.info ("Client " + client + " disconnected: " + e.getMessage ());
+						client.close ();
+					}
+				}
+
+				for (Client client : clients) {
+					if (client.overflow) {
+						LOG.warn ("Client " + client + " disconnected, because it does not keep pace. Its queue of " +
+							clientQueueLength + " frames is full.");
+						client.close ();
+						continue;
+					}
+					if (client.hasPendingData ()) {
+						try {
+							client.flush ();
+						} catch (IOException e) {
+							LOG.info ("Client " + client + " disconnected: " + e.getMessage ());
+							client.close ();
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			LOG.error ("Selector loop aborted.", e);
+		} finally {
+			for (Client client : clients)
+				client.close ();
+			try {
+				serverChannel.close ();
+				selector.close ();
+			} catch (IOException e) {
+				LOG.error ("Can not close server channel.", e);
+			}
+			if (dtoProvider != null)
+				dtoProvider.removeIDataTransferObjectListener (this);
+		}
+	}
+
+	/**
+	 * Accept a new client connection.
+	 *
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	private void accept () throws IOException {
+		SocketChannel channel = serverChannel.accept ();
+		if (channel == null)
+			return;
+
+		channel.configureBlocking (false);
+		channel.socket ().setTcpNoDelay (true);
+		Client client = new Client (channel);
+		client.key = channel.register (selector, SelectionKey.OP_READ, client);
+		clients.add (client);
+		LOG.info ("Client " + client + " connected.");
+	}
+
+	/**
+	 * Handle a frame received from a client.
+	 *
+	 * @param client the client having sent the frame.
+	 * @param codec the codec containing the decoded frame.
+	 */
+	private void handleFrame (Client client, PacketCodec codec) {
+		int type = codec.getType () & 0xFF;
+		byte[] payload = codec.getPayload ();
+		try {
+			IDataTransferObject dto = mapping.createDto (type, payload);
+			if (dtoProvider != null)
+				dtoProvider.dispatch (this, dto);
+
+			if (clients.size () > 1 && mapping.isRegistered (dto.getClass ()))
+				fanOut (new Packet ((byte) type, payload).toByteArray (), client);
+
+		} catch (ConfigurationException e) {
+			LOG.warn (e.getMessage ());
+		} catch (IOException e) {
+			LOG.warn ("Can not forward packet of type " + type + " from client " + client + ".", e);
+		}
+	}
+
+	/**
+	 * Terminate the selector loop and close all connections.
+	 */
+	public void terminate () {
+		running = false;
+		selector.wakeup ();
+	}
+
+	/**
+	 * @return the number of currently connected clients.
+	 */
+	public int getClientCount () {
+		return clients.size ();
+	}
+
+	/**
+	 * @return the number of frames not delivered because of full client queues.
+	 */
+	public long getDroppedFrames () {
+		return droppedFrames.get ();
+	}
+
+	/**
+	 * This class holds the state of a connected client.
+	 */
+	private class Client {
+
+		/**
+		 * The non-blocking channel to the client.
+		 */
+		private SocketChannel channel;
+
+		/**
+		 * The selection key of the channel.
+		 */
+		private SelectionKey key;
+
+		/**
+		 * The codec decoding the frames received from the client.
+		 */
+		private PacketCodec codec = new PacketCodec ();
+
+		/**
+		 * The frames waiting to be sent to the client.
+		 */
+		private ArrayBlockingQueue<byte[]> queue = new ArrayBlockingQueue<byte[]> (clientQueueLength);
+
+		/**
+		 * This variable indicates that the queue overflowed and the client has
+		 * to be disconnected.
+		 */
+		private volatile boolean overflow = false;
+
+		/**
+		 * A frame taken from the queue that did not fit into the write buffer.
+		 */
+		private byte[] pendingFrame = null;
+
+		/**
+		 * The write buffer gathering queued frames for one write operation.
+		 * Between two flushes this buffer is in read mode.
+		 */
+		private ByteBuffer writeBuffer = ByteBuffer.allocateDirect (WRITE_BUFFER_CAPACITY);
+
+		/**
+		 * The name of the client for logging.
+		 */
+		private String name;
+
+		/**
+		 * Construct a <code>Client</code>.
+		 *
+		 * @param channel the channel to the client.
+		 */
+		Client (SocketChannel channel) {
+			this.channel = channel;
+			this.name = String.valueOf (channel.socket ().getRemoteSocketAddress ());
+			writeBuffer.flip ();
+		}
+
+		/**
+		 * Queue a frame for sending. If the queue is full, the frame is
+		 * dropped and the client is marked for disconnection. Queued frames
+		 * are never discarded, because they may contain commands.
+		 *
+		 * @param frame the frame to be sent.
+		 */
+		void enqueue (byte[] frame) {
+			if (overflow || !queue.offer (frame)) {
+				overflow = true;
+				droppedFrames.incrementAndGet ();
+			}
+		}
+
+		/**
+		 * @return true if there are frames waiting to be sent.
+		 */
+		boolean hasPendingData () {
+			return writeBuffer.hasRemaining () || pendingFrame != null || !queue.isEmpty ();
+		}
+
+		/**
+		 * Read the available data from the channel and dispatch all complete
+		 * frames.
+		 *
+		 * @throws IOException thrown in case of I/O errors or a closed connection.
+		 */
+		void read () throws IOException {
+			if (channel.read (codec.getReadBuffer ()) < 0)
+				throw new IOException ("End of stream.");
+
+			while (true) {
+				try {
+					if (!codec.next ())
+						break;
+					handleFrame (this, codec);
+				} catch (CommunicationException e) {
+					LOG.warn ("Client " + name + ": " + e.getMessage ());
+				}
+			}
+		}
+
+		/**
+		 * Write as many queued frames as the channel accepts without blocking.
+		 * The selector watches the channel for writability as long as data
+		 * remains unsent.
+		 *
+		 * @throws IOException thrown in case of I/O errors.
+		 */
+		void flush () throws IOException {
+			do {
+				if (!writeBuffer.hasRemaining ()) {
+					writeBuffer.clear ();
+					if (pendingFrame != null) {
+						writeBuffer.put (pendingFrame);
+						pendingFrame = null;
+					}
+					byte[] frame;
+					while ((frame = queue.poll ()) != null) {
+						if (frame.length > writeBuffer.remaining ()) {
+							pendingFrame = frame;
+							break;
+						}
+						writeBuffer.put (frame);
+					}
+					writeBuffer.flip ();
+				}
+				channel.write (writeBuffer);
+			} while (!writeBuffer.hasRemaining () && (pendingFrame != null || !queue.isEmpty ()));
+
+			int ops = writeBuffer.hasRemaining () ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+			if (key.interestOps () != ops)
+				key.interestOps (ops);
+		}
+
+		/**
+		 * Close the connection to the client.
+		 */
+		void close () {
+			clients.remove (this);
+			key.cancel ();
+			try {
+				channel.close ();
+			} catch (IOException e) {
+				LOG.error ("Can not close connection to client " + name, e);
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		public String toString () {
+			return name;
+		}
+	}
+}
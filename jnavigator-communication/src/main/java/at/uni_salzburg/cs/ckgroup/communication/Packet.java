@@ -22,6 +22,7 @@ package at.uni_salzburg.cs.ckgroup.communication;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Represents a packet in our system that is employed as the data transfer
@@ -35,6 +36,9 @@ import java.io.InputStream;
  *    byte -2     -1      0      1      2     (size+2)      (size+4)
  *</pre>
  * 
+ * This is the <code>LEGACY</code> framing. See <code>PacketFormat</code> for
+ * the <code>EXTENDED</code> framing, which allows payloads up to 65535 bytes.
+ * 
  * @author Clemens Krainer
  */
 public class Packet {
@@ -44,6 +48,21 @@ public class Packet {
 	 */
 	static final byte[] HEADER = { (byte) 0xFF, (byte) 0xFF };
 	
+	/**
+	 * The header of the <code>EXTENDED</code> framing.
+	 */
+	static final byte[] EXTENDED_HEADER = { (byte) 0xFF, (byte) 0xFE };
+	
+	/**
+	 * The maximum payload length of the <code>LEGACY</code> framing.
+	 */
+	public static final int MAXIMUM_LEGACY_PAYLOAD_LENGTH = 255;
+	
+	/**
+	 * The maximum payload length of a <code>Packet</code>.
+	 */
+	public static final int MAXIMUM_PAYLOAD_LENGTH = 65535;
+	
 	/**
 	 * The length of the packet checksum.
 	 */
@@ -70,21 +89,51 @@ public class Packet {
 	 * @throws IOException 
 	 */
 	public Packet (byte type, byte[] payload) throws IOException {
+		this (type, payload, PacketFormat.LEGACY);
+	}
+	
+	/**
+	 * Construct a <code>Packet</code> whose payload fits into the given
+	 * framing.
+	 * 
+	 * @param type the type of the new packet.
+	 * @param payload the byte array used as payload.
+	 * @param format the framing the packet is intended for.
+	 * @throws IOException thrown if the payload is too long for the given framing.
+	 */
+	public Packet (byte type, byte[] payload, PacketFormat format) throws IOException {
 		this.type = type;
 		this.payload = payload;
-		if (payload != null && payload.length > 255)
-			throw new IOException("Message too long. Only lengths up to 255 bytes are supported. Requested lenght is " + payload.length + ".");
+		checkPayloadLength (format);
 	}
 	
 	/**
-	 * Construct a <code>Packet</code> from an <code>InputStream</code>.
+	 * Construct a <code>Packet</code> from an <code>InputStream</code> using
+	 * the <code>LEGACY</code> framing.
 	 * 
 	 * @param in the <code>InputStream</code>
 	 * @throws IOException thrown in case of IO errors, a premature end of the <code>InputStream</code> or checksum errors.
 	 */
 	public Packet (InputStream in) throws IOException {
+		this (in, PacketFormat.LEGACY);
+	}
+	
+	/**
+	 * Construct a <code>Packet</code> from an <code>InputStream</code>.
+	 * 
+	 * @param in the <code>InputStream</code>
+	 * @param format the framing of the <code>InputStream</code>.
+	 * @throws IOException thrown in case of IO errors, a premature end of the
+	 *         <code>InputStream</code>, unsupported versions or checksum errors.
+	 */
+	public Packet (InputStream in, PacketFormat format) throws IOException {
 		
-		synchronize (in);
+		if (format == PacketFormat.EXTENDED) {
+			readExtended (in);
+			return;
+		}
+		
+		synchronize (in, HEADER);
 
 		int ch;
 		ch = in.read();
@@ -105,41 +154,85 @@ public class Packet {
 			payload[k] = (byte) ch;
 		}
 		
-		byte[] sentCheckSum = new byte[CHECKSUM_LENGTH];
+		int sentCheckSum = 0;
 		for (int k=0; k < CHECKSUM_LENGTH; k++) {
 			ch = in.read();
 			if (ch < 0)
 				throw new IOException ("Premature end of InputStream at reading the checksum.");
-			sentCheckSum[k] = (byte) ch;
+			sentCheckSum = (sentCheckSum << 8) | ch;
 		}
 	
-		byte[] checkSum = calculateCheckSum (type, payload);
-		for (int k=0; k < checkSum.length; k++)
-			if (sentCheckSum[k] != checkSum[k])
-				throw new IOException ("Checksum Error.");
+		if (sentCheckSum != checkSum (type, payload))
+			throw new IOException ("Checksum Error.");
+	}
+	
+	/**
+	 * Read a packet in <code>EXTENDED</code> framing.
+	 * 
+	 * @param in the <code>InputStream</code>
+	 * @throws IOException thrown in case of IO errors, a premature end of the
+	 *         <code>InputStream</code>, unsupported versions or checksum errors.
+	 */
+	private void readExtended (InputStream in) throws IOException {
+		
+		synchronize (in, EXTENDED_HEADER);
+		
+		byte[] head = new byte[4];
+		readFully (in, head, "the frame header");
+		if (head[0] != PacketFormat.EXTENDED_VERSION)
+			throw new IOException ("Unsupported frame version " + (head[0] & 0xFF) + ".");
+		
+		type = head[1];
+		payload = new byte[(head[2] & 0xFF) << 8 | head[3] & 0xFF];
+		readFully (in, payload, "the payload");
+		
+		byte[] sum = new byte[CHECKSUM_LENGTH];
+		readFully (in, sum, "the checksum");
+		
+		int crc = Crc16.update (Crc16.checksum (head, 0, head.length), payload, 0, payload.length);
+		if (crc != ((sum[0] & 0xFF) << 8 | sum[1] & 0xFF))
+			throw new IOException ("Checksum Error.");
 	}
 	
 	/**
-	 * Synchronize to the <code>InputStream</code>.
+	 * Read a given number of bytes from an <code>InputStream</code>.
+	 * 
+	 * @param in the <code>InputStream</code>
+	 * @param b the buffer to be filled completely.
+	 * @param what the description of the data for error messages.
+	 * @throws IOException thrown in case of a premature end of the <code>InputStream</code>.
+	 */
+	private static void readFully (InputStream in, byte[] b, String what) throws IOException {
+		int k = 0;
+		while (k < b.length) {
+			int n = in.read (b, k, b.length - k);
+			if (n < 0)
+				throw new IOException ("Premature end of InputStream at reading " + what + ".");
+			k += n;
+		}
+	}
+	
+	/**
+	 * Synchronize to the <code>InputStream</code>, i.e. skip all bytes up to
+	 * and including the next frame header.
 	 * 
 	 * @param in the given <code>InputStream</code>
+	 * @param header the frame header.
 	 * @throws IOException thrown in case of a premature end of the <code>InputStream</code>.
 	 */
-	private void synchronize (InputStream in) throws IOException {
+	private static void synchronize (InputStream in, byte[] header) throws IOException {
 
 		int ch;
 		int k = 0;
 		
-		while (k < HEADER.length) {
+		while (k < header.length) {
 			ch = in.read();
 			if (ch < 0)
 				throw new IOException ("Premature end of InputStream at reading the packet header.");
-			if (HEADER[k] == (byte)ch)
+			if (header[k] == (byte)ch)
 				k++;
-			else {
-				k=0;
-				System.out.println ("Packet.synchronize(): k=" + HEADER[k] + ", char=" + ch);
-			}
+			else
+				k = header[0] == (byte)ch ? 1 : 0;
 		}
 	}
 
@@ -151,6 +244,19 @@ public class Packet {
 	 * @return the calculated checksum
 	 */
 	public static byte[] calculateCheckSum (byte type, byte[] data) {
+		int sum = checkSum (type, data);
+		return new byte[] { (byte) ((sum >> 8) & 0xFF), (byte)(sum & 0xFF)};
+	}
+	
+	/**
+	 * Calculate the checksum of a given packet as an unsigned 16 bit number
+	 * without allocating memory.
+	 * 
+	 * @param type the packet type
+	 * @param data the packet's payload
+	 * @return the calculated checksum
+	 */
+	static int checkSum (byte type, byte[] data) {
 		int sum = type;
 		
 		if (data != null) {
@@ -158,16 +264,38 @@ public class Packet {
 			for (int i = 0; i < data.length; ++i)
 				sum += ((int) data[i]) & 0xFF;
 		}
+		
+		return sum & 0xFFFF;
+	}
 
-		return new byte[] { (byte) ((sum >> 8) & 0xFF), (byte)(sum & 0xFF)};
+	/**
+	 * Verify that the payload of this packet fits into a given framing.
+	 * 
+	 * @param format the framing.
+	 * @throws CommunicationException thrown if the payload is too long for the given framing.
+	 */
+	public void checkPayloadLength (PacketFormat format) throws CommunicationException {
+		if (payload != null && payload.length > format.getMaximumPayloadLength ())
+			throw new CommunicationException ("Message too long. Only lengths up to " + format.getMaximumPayloadLength () +
+				" bytes are supported. Requested lenght is " + payload.length + ".");
 	}
 
 	/**
-	 * Convert the packet to an array of bytes
+	 * Convert the packet to an array of bytes using the <code>LEGACY</code>
+	 * framing. Packets constructed for the <code>EXTENDED</code> framing
+	 * require <code>toByteArray(PacketFormat)</code>.
 	 * 
 	 * @return the packet as an array of bytes.
+	 * @throws IllegalStateException thrown if the payload does not fit into
+	 *         the one byte length field of the <code>LEGACY</code> framing.
 	 */
 	public byte[] toByteArray() {
+		try {
+			checkPayloadLength (PacketFormat.LEGACY);
+		} catch (CommunicationException e) {
+			throw new IllegalStateException (e.getMessage (), e);
+		}
+		
 		byte[] packet = new byte[HEADER.length + 2 + (payload!=null?payload.length:0) + CHECKSUM_LENGTH];
 		
 		int i=0;
@@ -177,22 +305,45 @@ public class Packet {
 		packet[i++] = type;
 		packet[i++] = (byte) (payload!=null?payload.length:0);
 			
-		if (payload != null)
-			for (int k=0; k < payload.length; k++)
-				packet[i++] = payload[k];
+		if (payload != null) {
+			System.arraycopy (payload, 0, packet, i, payload.length);
+			i += payload.length;
+		}
 		
-		byte[] checkSum = calculateCheckSum (type, payload);
-		for (int k=0; k < checkSum.length; k++)
-			packet[i++] = checkSum[k];
+		int checkSum = checkSum (type, payload);
+		packet[i++] = (byte) (checkSum >> 8);
+		packet[i++] = (byte) checkSum;
 		
 		return packet;
 	}
 	
+	/**
+	 * Convert the packet to an array of bytes.
+	 * 
+	 * @param format the framing to be used.
+	 * @return the packet as an array of bytes.
+	 * @throws CommunicationException thrown if the payload is too long for the given framing.
+	 */
+	public byte[] toByteArray (PacketFormat format) throws CommunicationException {
+		checkPayloadLength (format);
+		if (format == PacketFormat.LEGACY)
+			return toByteArray ();
+		
+		byte[] frame = new byte[(payload != null ? payload.length : 0) + format.getFrameOverhead ()];
+		PacketCodec.encode (format, this, ByteBuffer.wrap (frame));
+		return frame;
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
 	public String toString () {
-		byte[] p = toByteArray();
+		byte[] p;
+		try {
+			p = toByteArray (payload != null && payload.length > MAXIMUM_LEGACY_PAYLOAD_LENGTH ? PacketFormat.EXTENDED : PacketFormat.LEGACY);
+		} catch (CommunicationException e) {
+			return e.getMessage ();
+		}
 		StringBuffer b = new StringBuffer ();
 		b.append("[");
 		for (int k=0; k < p.length; k++) {
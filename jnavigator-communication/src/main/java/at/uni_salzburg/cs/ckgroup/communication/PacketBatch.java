@@ -0,0 +1,168 @@
+/*
+ * @(#) PacketBatch.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class combines several <code>Packet</code> objects to one batch
+ * <code>Packet</code> of type <code>TYPE</code>, so that they share the
+ * frame overhead. The payload of a batch consists of one entry per packet:
+ * 
+ * <pre>
+ *    +------+------+------+---...---+
+ *    | type |     size    | payload |
+ *    +------+------+------+---...---+
+ * </pre>
+ * 
+ * The packet type <code>TYPE</code> is reserved for batches, i.e. it must not
+ * be used by mappings. The maximum length of a batch payload has to be chosen
+ * according to the framing of the link, see <code>PacketFormat</code>.
+ * 
+ * @author Clemens Krainer
+ */
+public class PacketBatch {
+	
+	/**
+	 * The packet type of batches.
+	 */
+	public static final byte TYPE = 0;
+	
+	/**
+	 * The number of bytes an entry requires in addition to the packet payload.
+	 */
+	public static final int ENTRY_OVERHEAD = 3;
+	
+	/**
+	 * The buffer containing the entries.
+	 */
+	private byte[] buffer;
+	
+	/**
+	 * The length of the entries in the buffer.
+	 */
+	private int length = 0;
+	
+	/**
+	 * The number of entries in the buffer.
+	 */
+	private int size = 0;
+	
+	/**
+	 * Construct a <code>PacketBatch</code>.
+	 * 
+	 * @param maximumLength the maximum payload length of the batch <code>Packet</code>.
+	 */
+	public PacketBatch (int maximumLength) {
+		if (maximumLength <= ENTRY_OVERHEAD || maximumLength > Packet.MAXIMUM_PAYLOAD_LENGTH)
+			throw new IllegalArgumentException ("The maximum length must be in the range from " + (ENTRY_OVERHEAD + 1) +
+				" to " + Packet.MAXIMUM_PAYLOAD_LENGTH + ", but is " + maximumLength);
+		buffer = new byte[maximumLength];
+	}
+	
+	/**
+	 * Add a packet to the batch.
+	 * 
+	 * @param packet the packet to be added.
+	 * @return true if the packet has been added, false if the remaining space
+	 *         of the batch is insufficient.
+	 */
+	public boolean add (Packet packet) {
+		byte[] payload = packet.getPayload ();
+		int payloadLength = payload == null ? 0 : payload.length;
+		if (length + ENTRY_OVERHEAD + payloadLength > buffer.length)
+			return false;
+		
+		buffer[length++] = packet.getType ();
+		buffer[length++] = (byte) (payloadLength >> 8);
+		buffer[length++] = (byte) payloadLength;
+		if (payloadLength > 0)
+			System.arraycopy (payload, 0, buffer, length, payloadLength);
+		length += payloadLength;
+		++size;
+		return true;
+	}
+	
+	/**
+	 * @return the number of packets in the batch.
+	 */
+	public int size () {
+		return size;
+	}
+	
+	/**
+	 * Convert the batch to a <code>Packet</code> and clear the batch.
+	 * 
+	 * @return the batch <code>Packet</code>.
+	 * @throws IOException never thrown, because the payload length is limited.
+	 */
+	public Packet toPacket () throws IOException {
+		byte[] payload = new byte[length];
+		System.arraycopy (buffer, 0, payload, 0, length);
+		clear ();
+		return new Packet (TYPE, payload, PacketFormat.EXTENDED);
+	}
+	
+	/**
+	 * Remove all packets from the batch.
+	 */
+	public void clear () {
+		length = 0;
+		size = 0;
+	}
+	
+	/**
+	 * Split a batch <code>Packet</code> into the contained packets.
+	 * 
+	 * @param batch the batch <code>Packet</code>.
+	 * @return the contained packets.
+	 * @throws CommunicationException thrown if the packet is no batch or it is corrupted.
+	 */
+	public static List<Packet> split (Packet batch) throws CommunicationException {
+		if (batch.getType () != TYPE)
+			throw new CommunicationException ("Packet type " + (batch.getType () & 0xFF) + " is no batch.");
+		
+		List<Packet> packets = new ArrayList<Packet> ();
+		byte[] data = batch.getPayload ();
+		int k = 0;
+		int end = data == null ? 0 : data.length;
+		while (k < end) {
+			if (end - k < ENTRY_OVERHEAD)
+				throw new CommunicationException ("Truncated batch entry at offset " + k + ".");
+			byte type = data[k];
+			int payloadLength = (data[k+1] & 0xFF) << 8 | data[k+2] & 0xFF;
+			k += ENTRY_OVERHEAD;
+			if (end - k < payloadLength)
+				throw new CommunicationException ("Truncated batch entry at offset " + (k - ENTRY_OVERHEAD) + ".");
+			byte[] payload = new byte[payloadLength];
+			System.arraycopy (data, k, payload, 0, payloadLength);
+			k += payloadLength;
+			try {
+				packets.add (new Packet (type, payload, PacketFormat.EXTENDED));
+			} catch (IOException e) {
+				throw new CommunicationException (e.getMessage (), e);
+			}
+		}
+		return packets;
+	}
+}
@@ -0,0 +1,671 @@
+/*
+ * @(#) PacketCodec.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.nio.ByteBuffer;
+
+import at.uni_salzburg.cs.ckgroup.communication.data.SensorData;
+
+/**
+ * This class implements a <code>ByteBuffer</code> based codec for the frames
+ * described in <code>Packet</code> and <code>PacketFormat</code>. In contrast to <code>Packet</code> it
+ * decodes frames in place, i.e., directly out of a reusable read buffer, and
+ * encodes frames into caller supplied buffers. Neither decoding nor encoding
+ * allocates memory, which keeps the garbage collector out of the control loop.
+ * <p>
+ * A typical stream oriented usage looks like this:
+ *
+ * <pre>
+ *    PacketCodec codec = new PacketCodec (1024, true);
+ *    ...
+ *    channel.read (codec.getReadBuffer ());
+ *    while (codec.next ()) {
+ *        if (codec.getType () == SENSOR_DATA_TYPE)
+ *            codec.decode (sensorData);
+ *        ...
+ *    }
+ * </pre>
+ *
+ * The static <code>encode()</code> methods lacking a <code>PacketFormat</code>
+ * parameter and the constructors lacking one use the <code>LEGACY</code>
+ * framing. All buffers are expected to use the default big endian byte order.
+ * An instance of this class is not thread safe.
+ *
+ * @author Clemens Krainer
+ */
+public class PacketCodec {
+
+	/**
+	 * The maximum length of a payload in bytes of the <code>LEGACY</code> framing.
+	 */
+	public static final int MAXIMUM_PAYLOAD_LENGTH = Packet.MAXIMUM_LEGACY_PAYLOAD_LENGTH;
+
+	/**
+	 * The number of bytes a frame requires in addition to its payload, i.e.,
+	 * header, type, size and checksum.
+	 */
+	public static final int FRAME_OVERHEAD = Packet.HEADER.length + 2 + Packet.CHECKSUM_LENGTH;
+
+	/**
+	 * The maximum length of a frame in bytes.
+	 */
+	public static final int MAXIMUM_FRAME_LENGTH = MAXIMUM_PAYLOAD_LENGTH + FRAME_OVERHEAD;
+
+	/**
+	 * The default capacity of the read buffer in bytes.
+	 */
+	public static final int DEFAULT_READ_BUFFER_CAPACITY = 4 * MAXIMUM_FRAME_LENGTH;
+
+	/**
+	 * The reusable read buffer. Between two invocations of <code>next()</code>
+	 * this buffer is in "fill mode", i.e., its position marks the end of the
+	 * received data. Codecs decoding caller supplied buffers only have no
+	 * read buffer.
+	 */
+	private ByteBuffer readBuffer;
+
+	/**
+	 * The framing of the decoded frames.
+	 */
+	private PacketFormat format;
+
+	/**
+	 * The maximum payload length of the decoded frames. Frames announcing a
+	 * longer payload are considered as corrupted headers.
+	 */
+	private int maximumPayloadLength;
+
+	/**
+	 * The index of the first unread byte in the read buffer.
+	 */
+	private int readIndex = 0;
+
+	/**
+	 * The buffer containing the most recently decoded frame.
+	 */
+	private ByteBuffer frameBuffer;
+
+	/**
+	 * The absolute index of the most recently parsed frame header in
+	 * <code>frameBuffer</code>.
+	 */
+	private int frameStart;
+
+	/**
+	 * The type of the most recently decoded frame.
+	 */
+	private byte type;
+
+	/**
+	 * The absolute index of the payload of the most recently decoded frame in
+	 * <code>frameBuffer</code>.
+	 */
+	private int payloadIndex;
+
+	/**
+	 * The payload length of the most recently decoded frame.
+	 */
+	private int payloadLength;
+
+	/**
+	 * The number of bytes skipped while synchronizing to a frame header.
+	 */
+	private long discardedBytes = 0;
+
+	/**
+	 * The number of frames having a wrong checksum.
+	 */
+	private long checksumErrors = 0;
+
+	/**
+	 * Construct a <code>PacketCodec</code> having a heap read buffer of
+	 * default capacity.
+	 */
+	public PacketCodec () {
+		this (DEFAULT_READ_BUFFER_CAPACITY, false);
+	}
+
+	/**
+	 * Construct a <code>PacketCodec</code>.
+	 *
+	 * @param capacity the capacity of the read buffer in bytes. The capacity
+	 *        must be able to hold at least one frame of maximum length.
+	 * @param direct true for a direct read buffer, false for a heap buffer.
+	 */
+	public PacketCodec (int capacity, boolean direct) {
+		this (capacity, direct, PacketFormat.LEGACY);
+	}
+
+	/**
+	 * Construct a <code>PacketCodec</code>.
+	 *
+	 * @param capacity the capacity of the read buffer in bytes. The capacity
+	 *        must be able to hold at least one frame of maximum
+	 *        <code>LEGACY</code> length. For the <code>EXTENDED</code> framing
+	 *        the capacity limits the payload length of the decoded frames.
+	 * @param direct true for a direct read buffer, false for a heap buffer.
+	 * @param format the framing of the decoded frames.
+	 */
+	public PacketCodec (int capacity, boolean direct, PacketFormat format) {
+		if (capacity < MAXIMUM_FRAME_LENGTH)
+			throw new IllegalArgumentException ("The read buffer capacity must be at least " + MAXIMUM_FRAME_LENGTH + " bytes.");
+		readBuffer = direct ? ByteBuffer.allocateDirect (capacity) : ByteBuffer.allocate (capacity);
+		this.format = format;
+		maximumPayloadLength = Math.min (format.getMaximumPayloadLength (), capacity - format.getFrameOverhead ());
+	}
+
+	/**
+	 * Construct a <code>PacketCodec</code> without read buffer. Such a codec
+	 * decodes caller supplied buffers by means of
+	 * <code>decode(ByteBuffer)</code> only, e.g. received datagrams.
+	 *
+	 * @param format the framing of the decoded frames.
+	 */
+	public PacketCodec (PacketFormat format) {
+		readBuffer = null;
+		this.format = format;
+		maximumPayloadLength = format.getMaximumPayloadLength ();
+	}
+
+	/**
+	 * @return the framing of the decoded frames.
+	 */
+	public PacketFormat getFormat () {
+		return format;
+	}
+
+	/**
+	 * Return the read buffer to be filled by the caller, e.g., by means of
+	 * <code>ReadableByteChannel.read()</code>. The caller must not modify the
+	 * buffer in any other way than appending data.
+	 *
+	 * @return the read buffer in fill mode or null if this codec has no read
+	 *         buffer.
+	 */
+	public ByteBuffer getReadBuffer () {
+		return readBuffer;
+	}
+
+	/**
+	 * Append bytes to the read buffer.
+	 *
+	 * @param data the data to be appended.
+	 * @param offset the offset of the first byte in <code>data</code>.
+	 * @param length the number of bytes to be appended.
+	 * @return the number of bytes actually appended.
+	 * @throws IllegalStateException thrown if this codec has no read buffer.
+	 */
+	public int append (byte[] data, int offset, int length) {
+		checkReadBuffer ();
+		if (readBuffer.remaining () < length)
+			compact ();
+		int n = Math.min (length, readBuffer.remaining ());
+		readBuffer.put (data, offset, n);
+		return n;
+	}
+
+	/**
+	 * Decode the next frame in the read buffer.
+	 *
+	 * @return true if a complete frame has been decoded, false if the read
+	 *         buffer needs more data.
+	 * @throws CommunicationException thrown in case of a checksum error. The
+	 *         corrupted frame is skipped so that the next invocation continues
+	 *         with the following data.
+	 * @throws IllegalStateException thrown if this codec has no read buffer.
+	 */
+	public boolean next () throws CommunicationException {
+		checkReadBuffer ();
+		int end = readBuffer.position ();
+		int frameLength;
+		try {
+			frameLength = parse (readBuffer, readIndex, end);
+		} catch (CommunicationException e) {
+			readIndex = frameStart + 1;
+			throw e;
+		}
+
+		if (frameLength > 0) {
+			readIndex = frameStart + frameLength;
+			return true;
+		}
+
+		readIndex = -frameLength;
+		compact ();
+		return false;
+	}
+
+	/**
+	 * Verify that this codec has a read buffer.
+	 */
+	private void checkReadBuffer () {
+		if (readBuffer == null)
+			throw new IllegalStateException ("This codec has no read buffer.");
+	}
+
+	/**
+	 * Decode the next frame from a buffer in read mode, e.g., a received
+	 * datagram. On success the position of the buffer is advanced beyond the
+	 * decoded frame. Otherwise the position is advanced to the first byte of
+	 * a potential frame header.
+	 *
+	 * @param src the buffer to be decoded.
+	 * @return true if a complete frame has been decoded, false if the buffer
+	 *         does not contain a complete frame.
+	 * @throws CommunicationException thrown in case of a checksum error.
+	 */
+	public boolean decode (ByteBuffer src) throws CommunicationException {
+		int frameLength;
+		try {
+			frameLength = parse (src, src.position (), src.limit ());
+		} catch (CommunicationException e) {
+			src.position (frameStart + 1);
+			throw e;
+		}
+
+		if (frameLength > 0) {
+			src.position (frameStart + frameLength);
+			return true;
+		}
+
+		src.position (-frameLength);
+		return false;
+	}
+
+	/**
+	 * Parse a frame in the given buffer region.
+	 *
+	 * @param buf the buffer.
+	 * @param start the absolute index of the first byte to be parsed.
+	 * @param end the absolute index of the first byte beyond the region.
+	 * @return the length of the decoded frame if positive. Otherwise the
+	 *         negated index of the first byte that has to be kept for the next
+	 *         try.
+	 * @throws CommunicationException thrown in case of a checksum error.
+	 */
+	private int parse (ByteBuffer buf, int start, int end) throws CommunicationException {
+
+		if (format == PacketFormat.EXTENDED)
+			return parseExtended (buf, start, end);
+
+		int k = findHeader (buf, start, end, Packet.HEADER);
+
+		if (end - k < Packet.HEADER.length + 2)
+			return -k;
+
+		int size = buf.get (k + Packet.HEADER.length + 1) & 0xFF;
+		int frameLength = size + FRAME_OVERHEAD;
+		if (end - k < frameLength)
+			return -k;
+
+		frameStart = k;
+		type = buf.get (k + Packet.HEADER.length);
+		payloadIndex = k + Packet.HEADER.length + 2;
+		payloadLength = size;
+		frameBuffer = buf;
+
+		int sum = checkSum (type, buf, payloadIndex, payloadLength);
+		return verify (sum, size, frameLength);
+	}
+
+	/**
+	 * Parse a frame of the <code>EXTENDED</code> framing in the given buffer
+	 * region. Headers of unsupported versions or announcing too long payloads
+	 * are skipped.
+	 *
+	 * @param buf the buffer.
+	 * @param start the absolute index of the first byte to be parsed.
+	 * @param end the absolute index of the first byte beyond the region.
+	 * @return the length of the decoded frame if positive. Otherwise the
+	 *         negated index of the first byte that has to be kept for the next
+	 *         try.
+	 * @throws CommunicationException thrown in case of a checksum error.
+	 */
+	private int parseExtended (ByteBuffer buf, int start, int end) throws CommunicationException {
+
+		int headerLength = Packet.EXTENDED_HEADER.length + 4;
+		int k = start;
+		int size;
+		while (true) {
+			k = findHeader (buf, k, end, Packet.EXTENDED_HEADER);
+			if (end - k < headerLength)
+				return -k;
+
+			size = (buf.get (k + 4) & 0xFF) << 8 | buf.get (k + 5) & 0xFF;
+			if (buf.get (k + 2) == PacketFormat.EXTENDED_VERSION && size <= maximumPayloadLength)
+				break;
+
+			++discardedBytes;
+			++k;
+		}
+
+		int frameLength = size + PacketFormat.EXTENDED.getFrameOverhead ();
+		if (end - k < frameLength)
+			return -k;
+
+		frameStart = k;
+		type = buf.get (k + 3);
+		payloadIndex = k + headerLength;
+		payloadLength = size;
+		frameBuffer = buf;
+
+		int sum = Crc16.update (Crc16.INITIAL_VALUE, buf, k + Packet.EXTENDED_HEADER.length, 4 + size);
+		return verify (sum, size, frameLength);
+	}
+
+	/**
+	 * Find the next frame header in the given buffer region. The skipped bytes
+	 * are counted as discarded.
+	 *
+	 * @param buf the buffer.
+	 * @param start the absolute index of the first byte to be searched.
+	 * @param end the absolute index of the first byte beyond the region.
+	 * @param header the frame header.
+	 * @return the absolute index of the header or of a partial header at the
+	 *         end of the region, or <code>end</code> if there is none.
+	 */
+	private int findHeader (ByteBuffer buf, int start, int end, byte[] header) {
+		int k = start;
+		while (k < end - 1 && !(buf.get (k) == header[0] && buf.get (k+1) == header[1]))
+			++k;
+
+		if (k == end - 1 && buf.get (k) != header[0])
+			++k;
+
+		discardedBytes += k - start;
+		return k;
+	}
+
+	/**
+	 * Compare the calculated checksum of the most recently parsed frame with
+	 * the transmitted one.
+	 *
+	 * @param sum the calculated checksum.
+	 * @param size the payload length of the frame.
+	 * @param frameLength the length of the frame.
+	 * @return the length of the frame.
+	 * @throws CommunicationException thrown in case of a checksum error.
+	 */
+	private int verify (int sum, int size, int frameLength) throws CommunicationException {
+		ByteBuffer buf = frameBuffer;
+		int sentSum = (buf.get (payloadIndex + size) & 0xFF) << 8 | buf.get (payloadIndex + size + 1) & 0xFF;
+		if (sum != sentSum) {
+			++checksumErrors;
+			payloadLength = 0;
+			throw new CommunicationException ("Checksum Error.");
+		}
+
+		return frameLength;
+	}
+
+	/**
+	 * Discard the consumed data of the read buffer.
+	 */
+	private void compact () {
+		if (readIndex == 0)
+			return;
+		int end = readBuffer.position ();
+		readBuffer.limit (end);
+		readBuffer.position (readIndex);
+		readBuffer.compact ();
+		readIndex = 0;
+	}
+
+	/**
+	 * @return the type of the most recently decoded frame.
+	 */
+	public byte getType () {
+		return type;
+	}
+
+	/**
+	 * @return the payload length of the most recently decoded frame.
+	 */
+	public int getPayloadLength () {
+		return payloadLength;
+	}
+
+	/**
+	 * Copy the payload of the most recently decoded frame into a byte array.
+	 *
+	 * @param dst the destination array.
+	 * @param offset the offset in the destination array.
+	 */
+	public void getPayload (byte[] dst, int offset) {
+		for (int k=0; k < payloadLength; k++)
+			dst[offset + k] = frameBuffer.get (payloadIndex + k);
+	}
+
+	/**
+	 * Return a copy of the payload of the most recently decoded frame. Please
+	 * note that this method allocates memory.
+	 *
+	 * @return the payload as a new array of bytes.
+	 */
+	public byte[] getPayload () {
+		byte[] payload = new byte[payloadLength];
+		getPayload (payload, 0);
+		return payload;
+	}
+
+	/**
+	 * Convert the most recently decoded frame to a <code>Packet</code>. Please
+	 * note that this method allocates memory.
+	 *
+	 * @return the new <code>Packet</code>.
+	 * @throws CommunicationException never thrown, because the payload length
+	 *         is limited by the frame format.
+	 */
+	public Packet toPacket () throws CommunicationException {
+		try {
+			return new Packet (type, getPayload (), PacketFormat.EXTENDED);
+		} catch (java.io.IOException e) {
+			throw new CommunicationException (e.getMessage (), e);
+		}
+	}
+
+	/**
+	 * Decode the payload of the most recently decoded frame into an existing
+	 * <code>SensorData</code> object without allocating memory.
+	 *
+	 * @param sensorData the <code>SensorData</code> object to be updated.
+	 * @throws CommunicationException thrown in case of an insufficient payload length.
+	 */
+	public void decode (SensorData sensorData) throws CommunicationException {
+		if (payloadLength < SensorData.payloadLength)
+			throw new CommunicationException ("Input data length of " + payloadLength +
+				" is smaller than the expected length of " + SensorData.payloadLength + " bytes");
+
+		int position = frameBuffer.position ();
+		frameBuffer.position (payloadIndex);
+		sensorData.decodeFrom (frameBuffer);
+		frameBuffer.position (position);
+	}
+
+	/**
+	 * @return the number of bytes skipped while synchronizing to frame headers.
+	 */
+	public long getDiscardedBytes () {
+		return discardedBytes;
+	}
+
+	/**
+	 * @return the number of frames having a wrong checksum.
+	 */
+	public long getChecksumErrors () {
+		return checksumErrors;
+	}
+
+	/**
+	 * Encode a frame into a buffer.
+	 *
+	 * @param type the type of the frame.
+	 * @param payload the payload or null for an empty frame.
+	 * @param dst the destination buffer in fill mode.
+	 * @throws CommunicationException thrown if the payload is too long or the
+	 *         destination buffer has insufficient space left.
+	 */
+	public static void encode (byte type, byte[] payload, ByteBuffer dst) throws CommunicationException {
+		encode (type, payload, 0, payload == null ? 0 : payload.length, dst);
+	}
+
+	/**
+	 * Encode a frame into a buffer.
+	 *
+	 * @param type the type of the frame.
+	 * @param payload the array containing the payload.
+	 * @param offset the offset of the payload in the array.
+	 * @param length the length of the payload.
+	 * @param dst the destination buffer in fill mode.
+	 * @throws CommunicationException thrown if the payload is too long or the
+	 *         destination buffer has insufficient space left.
+	 */
+	public static void encode (byte type, byte[] payload, int offset, int length, ByteBuffer dst) throws CommunicationException {
+		checkCapacity (length, dst);
+		int start = dst.position ();
+		dst.put (Packet.HEADER).put (type).put ((byte) length);
+		if (length > 0)
+			dst.put (payload, offset, length);
+		dst.putShort ((short) checkSum (type, dst, start + Packet.HEADER.length + 2, length));
+	}
+
+	/**
+	 * Encode a <code>Packet</code> into a buffer.
+	 *
+	 * @param packet the <code>Packet</code> to be encoded.
+	 * @param dst the destination buffer in fill mode.
+	 * @throws CommunicationException thrown if the destination buffer has
+	 *         insufficient space left.
+	 */
+	public static void encode (Packet packet, ByteBuffer dst) throws CommunicationException {
+		encode (packet.getType (), packet.getPayload (), dst);
+	}
+
+	/**
+	 * Encode a frame into a buffer.
+	 *
+	 * @param format the framing to be used.
+	 * @param type the type of the frame.
+	 * @param payload the array containing the payload.
+	 * @param offset the offset of the payload in the array.
+	 * @param length the length of the payload.
+	 * @param dst the destination buffer in fill mode.
+	 * @throws CommunicationException thrown if the payload is too long or the
+	 *         destination buffer has insufficient space left.
+	 */
+	public static void encode (PacketFormat format, byte type, byte[] payload, int offset, int length, ByteBuffer dst) throws CommunicationException {
+		if (format == PacketFormat.LEGACY) {
+			encode (type, payload, offset, length, dst);
+			return;
+		}
+
+		checkCapacity (format, length, dst);
+		int start = dst.position ();
+		dst.put (Packet.EXTENDED_HEADER).put ((byte) PacketFormat.EXTENDED_VERSION).put (type).putShort ((short) length);
+		if (length > 0)
+			dst.put (payload, offset, length);
+		int headerLength = Packet.EXTENDED_HEADER.length;
+		dst.putShort ((short) Crc16.update (Crc16.INITIAL_VALUE, dst, start + headerLength, dst.position () - start - headerLength));
+	}
+
+	/**
+	 * Encode a <code>Packet</code> into a buffer.
+	 *
+	 * @param format the framing to be used.
+	 * @param packet the <code>Packet</code> to be encoded.
+	 * @param dst the destination buffer in fill mode.
+	 * @throws CommunicationException thrown if the payload is too long or the
+	 *         destination buffer has insufficient space left.
+	 */
+	public static void encode (PacketFormat format, Packet packet, ByteBuffer dst) throws CommunicationException {
+		byte[] payload = packet.getPayload ();
+		encode (format, packet.getType (), payload, 0, payload == null ? 0 : payload.length, dst);
+	}
+
+	/**
+	 * Encode a <code>SensorData</code> object as a frame into a buffer without
+	 * allocating memory.
+	 *
+	 * @param type the type of the frame.
+	 * @param sensorData the <code>SensorData</code> object to be encoded.
+	 * @param dst the destination buffer in fill mode.
+	 * @throws CommunicationException thrown if the destination buffer has
+	 *         insufficient space left.
+	 */
+	public static void encode (byte type, SensorData sensorData, ByteBuffer dst) throws CommunicationException {
+		int length = SensorData.payloadLength;
+		checkCapacity (length, dst);
+		int start = dst.position ();
+		dst.put (Packet.HEADER).put (type).put ((byte) length);
+		sensorData.encodeTo (dst);
+		dst.putShort ((short) checkSum (type, dst, start + Packet.HEADER.length + 2, length));
+	}
+
+	/**
+	 * Verify that a frame fits into the destination buffer.
+	 *
+	 * @param length the payload length of the frame.
+	 * @param dst the destination buffer.
+	 * @throws CommunicationException thrown if the payload is too long or the
+	 *         destination buffer has insufficient space left.
+	 */
+	private static void checkCapacity (int length, ByteBuffer dst) throws CommunicationException {
+		checkCapacity (PacketFormat.LEGACY, length, dst);
+	}
+
+	/**
+	 * Verify that a frame fits into the destination buffer.
+	 *
+	 * @param format the framing to be used.
+	 * @param length the payload length of the frame.
+	 * @param dst the destination buffer.
+	 * @throws CommunicationException thrown if the payload is too long or the
+	 *         destination buffer has insufficient space left.
+	 */
+	private static void checkCapacity (PacketFormat format, int length, ByteBuffer dst) throws CommunicationException {
+		if (length > format.getMaximumPayloadLength ())
+			throw new CommunicationException ("Message too long. Only lengths up to " + format.getMaximumPayloadLength () +
+				" bytes are supported. Requested lenght is " + length + ".");
+
+		int frameLength = length + format.getFrameOverhead ();
+		if (dst.remaining () < frameLength)
+			throw new CommunicationException ("Insufficient buffer space. Required are " + frameLength +
+				" bytes, but only " + dst.remaining () + " bytes are left.");
+	}
+
+	/**
+	 * Calculate the checksum of a frame. The result equals the value of
+	 * <code>Packet.calculateCheckSum()</code> interpreted as an unsigned
+	 * 16 bit number.
+	 *
+	 * @param type the frame type.
+	 * @param buf the buffer containing the payload.
+	 * @param offset the absolute index of the payload in the buffer.
+	 * @param length the length of the payload.
+	 * @return the checksum.
+	 */
+	public static int checkSum (byte type, ByteBuffer buf, int offset, int length) {
+		int sum = type + length;
+		for (int k = offset, end = offset + length; k < end; k++)
+			sum += buf.get (k) & 0xFF;
+		return sum & 0xFFFF;
+	}
+}
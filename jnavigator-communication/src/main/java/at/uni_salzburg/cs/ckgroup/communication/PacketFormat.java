@@ -0,0 +1,128 @@
+/*
+ * @(#) PacketFormat.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.util.Properties;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This enumeration lists the supported framings of <code>Packet</code>
+ * objects on stream oriented links.
+ * <p>
+ * The <code>LEGACY</code> framing is described in <code>Packet</code>. It
+ * limits payloads to 255 bytes and employs an additive checksum.
+ * <p>
+ * The <code>EXTENDED</code> framing carries a version number, a 16 bit
+ * payload length and a CRC-16/CCITT checksum, see <code>Crc16</code>. The
+ * checksum covers all bytes from the version to the end of the payload.
+ * 
+ * <pre>
+ *    +------+------+---------+------+------+------+---...---+------+------+
+ *    | 0xFF | 0xFE | version | type |     size    | payload |    CRC-16   |
+ *    +------+------+---------+------+------+------+---...---+------+------+
+ * </pre>
+ * 
+ * Both ends of a link must use the same framing.
+ * 
+ * @author Clemens Krainer
+ */
+public enum PacketFormat {
+	
+	/**
+	 * The original framing having an 8 bit payload length.
+	 */
+	LEGACY (Packet.HEADER.length + 2 + Packet.CHECKSUM_LENGTH, Packet.MAXIMUM_LEGACY_PAYLOAD_LENGTH),
+	
+	/**
+	 * The versioned framing having a 16 bit payload length and a CRC-16.
+	 */
+	EXTENDED (Packet.EXTENDED_HEADER.length + 4 + Packet.CHECKSUM_LENGTH, Packet.MAXIMUM_PAYLOAD_LENGTH);
+	
+	/**
+	 * The property key of the framing, i.e. <code>legacy</code> or
+	 * <code>extended</code>. The default value is <code>legacy</code>.
+	 */
+	public static final String PROP_PACKET_FORMAT = "packet.format";
+	
+	/**
+	 * The version of the <code>EXTENDED</code> framing.
+	 */
+	public static final int EXTENDED_VERSION = 1;
+	
+	/**
+	 * The number of bytes a frame requires in addition to its payload.
+	 */
+	private final int frameOverhead;
+	
+	/**
+	 * The maximum length of a payload in bytes.
+	 */
+	private final int maximumPayloadLength;
+	
+	/**
+	 * Construct a <code>PacketFormat</code>.
+	 * 
+	 * @param frameOverhead the number of bytes a frame requires in addition to its payload.
+	 * @param maximumPayloadLength the maximum length of a payload in bytes.
+	 */
+	private PacketFormat (int frameOverhead, int maximumPayloadLength) {
+		this.frameOverhead = frameOverhead;
+		this.maximumPayloadLength = maximumPayloadLength;
+	}
+	
+	/**
+	 * Determine the framing configured by the <code>packet.format</code> property.
+	 * 
+	 * @param props the properties.
+	 * @return the configured framing.
+	 * @throws ConfigurationException thrown in case of an unknown framing.
+	 */
+	public static PacketFormat valueOf (Properties props) throws ConfigurationException {
+		String format = props.getProperty (PROP_PACKET_FORMAT, "legacy");
+		try {
+			return valueOf (format.trim ().toUpperCase ());
+		} catch (IllegalArgumentException e) {
+			throw new ConfigurationException ("Property " + PROP_PACKET_FORMAT + " has invalid value " + format);
+		}
+	}
+	
+	/**
+	 * @return the number of bytes a frame requires in addition to its payload.
+	 */
+	public int getFrameOverhead () {
+		return frameOverhead;
+	}
+	
+	/**
+	 * @return the maximum length of a payload in bytes.
+	 */
+	public int getMaximumPayloadLength () {
+		return maximumPayloadLength;
+	}
+	
+	/**
+	 * @return the maximum length of a frame in bytes.
+	 */
+	public int getMaximumFrameLength () {
+		return maximumPayloadLength + frameOverhead;
+	}
+}
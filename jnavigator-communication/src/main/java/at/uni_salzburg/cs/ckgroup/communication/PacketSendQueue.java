@@ -0,0 +1,227 @@
+/*
+ * @(#) PacketSendQueue.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class implements a bounded, lock-free queue of <code>Packet</code>
+ * objects for many producers and one consumer. Producers claim a slot by
+ * advancing the tail index atomically. Packets arriving at a full queue are
+ * rejected and counted, i.e. already queued packets are never overwritten.
+ * Producers may instead wait a bounded time for the consumer to make room.
+ * <p>
+ * The consumer thread parks if the queue is empty and the producers unpark it
+ * after they have added a packet. No interrupts or timed polling is involved
+ * on the consumer side.
+ * 
+ * @author Clemens Krainer
+ */
+public class PacketSendQueue {
+	
+	/**
+	 * The time in nanoseconds a producer waiting for room parks between two
+	 * attempts to add its packet.
+	 */
+	private static final long PRODUCER_BACKOFF_NANOS = 200000L;
+	
+	/**
+	 * The queue slots. An empty slot contains null.
+	 */
+	private AtomicReferenceArray<Packet> slots;
+	
+	/**
+	 * The capacity of the queue.
+	 */
+	private int capacity;
+	
+	/**
+	 * The sequence number of the next slot to be claimed by a producer.
+	 */
+	private AtomicLong tail = new AtomicLong (0);
+	
+	/**
+	 * The sequence number of the next slot to be consumed.
+	 */
+	private volatile long head = 0;
+	
+	/**
+	 * The number of rejected packets.
+	 */
+	private AtomicLong droppedPackets = new AtomicLong (0);
+	
+	/**
+	 * The consumer thread, set while it is about to park.
+	 */
+	private volatile Thread waiter = null;
+	
+	/**
+	 * Construct a <code>PacketSendQueue</code>.
+	 * 
+	 * @param capacity the maximum number of queued packets.
+	 */
+	public PacketSendQueue (int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException ("Capacity must be greater than zero, but is " + capacity);
+		this.capacity = capacity;
+		slots = new AtomicReferenceArray<Packet> (capacity);
+	}
+	
+	/**
+	 * Add a packet to the queue and wake up the consumer.
+	 * 
+	 * @param packet the packet to be added.
+	 * @return true if the packet has been added, false if the queue is full.
+	 */
+	public boolean offer (Packet packet) {
+		if (add (packet))
+			return true;
+		
+		droppedPackets.incrementAndGet ();
+		return false;
+	}
+	
+	/**
+	 * Add a packet to the queue and wake up the consumer. If the queue is
+	 * full, wait until the consumer has made room or the timeout elapses.
+	 * 
+	 * @param packet the packet to be added.
+	 * @param timeout the maximum waiting time in milliseconds.
+	 * @return true if the packet has been added, false if the queue stayed
+	 *         full until the timeout elapsed or the waiting thread has been
+	 *         interrupted.
+	 */
+	public boolean offer (Packet packet, long timeout) {
+		long deadline = System.nanoTime () + timeout * 1000000L;
+		while (!add (packet)) {
+			long remaining = deadline - System.nanoTime ();
+			if (remaining <= 0 || Thread.currentThread ().isInterrupted ()) {
+				droppedPackets.incrementAndGet ();
+				return false;
+			}
+			LockSupport.parkNanos (this, Math.min (remaining, PRODUCER_BACKOFF_NANOS));
+		}
+		return true;
+	}
+	
+	/**
+	 * Add a packet to the queue if it is not full and wake up the consumer.
+	 * 
+	 * @param packet the packet to be added.
+	 * @return true if the packet has been added, false if the queue is full.
+	 */
+	private boolean add (Packet packet) {
+		if (packet == null)
+			throw new NullPointerException ("Got null packet.");
+		
+		long t;
+		do {
+			t = tail.get ();
+			if (t - head >= capacity)
+				return false;
+		} while (!tail.compareAndSet (t, t+1));
+		
+		slots.set ((int) (t % capacity), packet);
+		
+		Thread w = waiter;
+		if (w != null) {
+			waiter = null;
+			LockSupport.unpark (w);
+		}
+		return true;
+	}
+	
+	/**
+	 * Remove the next packet from the queue. This method must only be called
+	 * by the consumer thread.
+	 * 
+	 * @return the next packet or null if the queue is empty.
+	 */
+	public Packet poll () {
+		long h = head;
+		int index = (int) (h % capacity);
+		Packet packet = slots.get (index);
+		if (packet == null)
+			return null;
+		slots.lazySet (index, null);
+		head = h + 1;
+		return packet;
+	}
+	
+	/**
+	 * Wait until the queue contains a packet, the timeout elapses, or
+	 * <code>wakeup()</code> is called. This method must only be called by the
+	 * consumer thread.
+	 * 
+	 * @param timeout the maximum waiting time in milliseconds.
+	 */
+	public void await (long timeout) {
+		waiter = Thread.currentThread ();
+		if (slots.get ((int) (head % capacity)) == null)
+			LockSupport.parkNanos (this, timeout * 1000000L);
+		waiter = null;
+	}
+	
+	/**
+	 * Wake up a consumer waiting in <code>await()</code>.
+	 */
+	public void wakeup () {
+		Thread w = waiter;
+		if (w != null)
+			LockSupport.unpark (w);
+	}
+	
+	/**
+	 * Check whether the consumer can take a packet. A producer may already
+	 * have claimed a slot without having published its packet yet, so a
+	 * <code>size()</code> greater than zero does not imply that
+	 * <code>poll()</code> returns a packet.
+	 * 
+	 * @return true if the next packet has not been published yet.
+	 */
+	public boolean isEmpty () {
+		return slots.get ((int) (head % capacity)) == null;
+	}
+	
+	/**
+	 * @return the number of queued packets.
+	 */
+	public int size () {
+		long size = tail.get () - head;
+		return size < 0 ? 0 : (int) size;
+	}
+	
+	/**
+	 * @return the maximum number of queued packets.
+	 */
+	public int getCapacity () {
+		return capacity;
+	}
+	
+	/**
+	 * @return the number of packets rejected because the queue was full.
+	 */
+	public long getDroppedPackets () {
+		return droppedPackets.get ();
+	}
+}
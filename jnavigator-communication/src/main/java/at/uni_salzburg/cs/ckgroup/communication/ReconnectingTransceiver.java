@@ -0,0 +1,473 @@
+/*
+ * @(#) ReconnectingTransceiver.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+import at.uni_salzburg.cs.ckgroup.util.ObjectFactory;
+import at.uni_salzburg.cs.ckgroup.util.PropertyUtils;
+
+/**
+ * This class manages the connection of an underlying <code>ITransceiver</code>.
+ * If sending or receiving fails, the underlying transceiver is closed and a
+ * single reconnection thread creates a new one. The delay between two attempts
+ * grows exponentially up to a maximum and is varied randomly, so that several
+ * clients do not reconnect in lock step.
+ * <p>
+ * The state of the connection is available via <code>getState()</code>.
+ * While the connection is not <code>CONNECTED</code>, <code>send()</code>
+ * behaves according to the configured <code>SendPolicy</code>, so that a
+ * control thread is not blocked by a broken link. <code>receive()</code>
+ * waits until the connection has been reestablished.
+ * <p>
+ * The underlying transceiver is configured by the properties having the
+ * prefix <code>transceiver.</code> and must not reconnect by itself, e.g. a
+ * <code>Transceiver</code> should have <code>maximum.reconnects</code> set to
+ * zero.
+ * 
+ * @author Clemens Krainer
+ */
+public class ReconnectingTransceiver implements ITransceiver {
+	
+	/**
+	 * The states of the connection.
+	 */
+	public enum State {
+		/**
+		 * The underlying transceiver is usable.
+		 */
+		CONNECTED,
+		/**
+		 * The connection is broken and the reconnection thread tries to
+		 * reestablish it.
+		 */
+		RECONNECTING,
+		/**
+		 * The maximum number of reconnection attempts has been exceeded or the
+		 * transceiver has been closed.
+		 */
+		FAILED
+	}
+	
+	/**
+	 * The behaviour of <code>send()</code> while the connection is not
+	 * established.
+	 */
+	public enum SendPolicy {
+		/**
+		 * Throw a <code>CommunicationException</code> immediately.
+		 */
+		FAIL,
+		/**
+		 * Drop the packet silently. The dropped packets are counted.
+		 */
+		DROP,
+		/**
+		 * Wait for the connection up to the configured timeout and throw a
+		 * <code>CommunicationException</code> afterwards.
+		 */
+		BLOCK
+	}
+	
+	/**
+	 * The property key prefix for the configuration of the underlying transceiver.
+	 */
+	public static final String PROP_TRANSCEIVER_PREFIX = "transceiver.";
+	
+	/**
+	 * The property key of the delay before the first reconnection attempt in milliseconds.
+	 */
+	public static final String PROP_INITIAL_DELAY = "reconnect.initial.delay";
+	
+	/**
+	 * The property key of the maximum delay between two reconnection attempts in milliseconds.
+	 */
+	public static final String PROP_MAXIMUM_DELAY = "reconnect.maximum.delay";
+	
+	/**
+	 * The property key of the jitter, i.e. the fraction by which the delays vary randomly.
+	 */
+	public static final String PROP_JITTER = "reconnect.jitter";
+	
+	/**
+	 * The property key of the maximum number of successive reconnection
+	 * attempts. Zero means infinitely many attempts.
+	 */
+	public static final String PROP_MAXIMUM_ATTEMPTS = "reconnect.maximum.attempts";
+	
+	/**
+	 * The property key of the send policy, i.e. <code>fail</code>,
+	 * <code>drop</code> or <code>block</code>.
+	 */
+	public static final String PROP_SEND_POLICY = "send.policy";
+	
+	/**
+	 * The property key of the maximum time in milliseconds <code>send()</code>
+	 * waits for the connection if the send policy is <code>block</code>.
+	 */
+	public static final String PROP_SEND_TIMEOUT = "send.timeout";
+	
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger (ReconnectingTransceiver.class);
+	
+	/**
+	 * The constructor of the underlying transceiver class.
+	 */
+	private Constructor<?> constructor;
+	
+	/**
+	 * The properties of the underlying transceiver.
+	 */
+	private Properties transceiverProps;
+	
+	/**
+	 * The current underlying transceiver, null while not connected.
+	 */
+	private volatile ITransceiver transceiver = null;
+	
+	/**
+	 * The current state of the connection.
+	 */
+	private volatile State state;
+	
+	/**
+	 * The delay before the first reconnection attempt in milliseconds.
+	 */
+	private long initialDelay;
+	
+	/**
+	 * The maximum delay between two reconnection attempts in milliseconds.
+	 */
+	private long maximumDelay;
+	
+	/**
+	 * The fraction by which the delays vary randomly.
+	 */
+	private double jitter;
+	
+	/**
+	 * The maximum number of successive reconnection attempts or zero.
+	 */
+	private int maximumAttempts;
+	
+	/**
+	 * The behaviour of <code>send()</code> while not connected.
+	 */
+	private SendPolicy sendPolicy;
+	
+	/**
+	 * The maximum waiting time of <code>send()</code> for the <code>BLOCK</code> policy.
+	 */
+	private long sendTimeout;
+	
+	/**
+	 * The number of successful reconnects.
+	 */
+	private volatile long reconnects = 0;
+	
+	/**
+	 * The number of packets dropped while not connected.
+	 */
+	private AtomicLong droppedPackets = new AtomicLong (0);
+	
+	/**
+	 * The thread reestablishing broken connections.
+	 */
+	private Thread reconnector;
+	
+	/**
+	 * Construct a <code>ReconnectingTransceiver</code> and try to connect the
+	 * underlying transceiver. If this fails, the reconnection thread takes
+	 * over.
+	 * 
+	 * @param props the properties to be used for construction.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 */
+	public ReconnectingTransceiver (Properties props) throws ConfigurationException {
+		transceiverProps = PropertyUtils.replaceFirst (PROP_TRANSCEIVER_PREFIX, "",
+				PropertyUtils.extract (PROP_TRANSCEIVER_PREFIX, props));
+		
+		String className = transceiverProps.getProperty (ObjectFactory.PROP_CLASS_NAME);
+		if (className == null || "".equals (className))
+			throw new ConfigurationException ("Property " + PROP_TRANSCEIVER_PREFIX + ObjectFactory.PROP_CLASS_NAME + " not configured.");
+		
+		try {
+			Class<?> transceiverClass = Class.forName (className);
+			if (!ITransceiver.class.isAssignableFrom (transceiverClass))
+				throw new ConfigurationException ("Class " + className + " is no derivative of " + ITransceiver.class.getName());
+			constructor = transceiverClass.getConstructor (Properties.class);
+		} catch (ClassNotFoundException e) {
+			throw new ConfigurationException ("Class " + className + " not found.");
+		} catch (NoSuchMethodException e) {
+			throw new ConfigurationException ("Class " + className + " has no constructor taking Properties.");
+		}
+		
+		initialDelay = Long.parseLong (props.getProperty (PROP_INITIAL_DELAY, "100"));
+		maximumDelay = Long.parseLong (props.getProperty (PROP_MAXIMUM_DELAY, "5000"));
+		jitter = Double.parseDouble (props.getProperty (PROP_JITTER, "0.2"));
+		maximumAttempts = Integer.parseInt (props.getProperty (PROP_MAXIMUM_ATTEMPTS, "0"));
+		sendTimeout = Long.parseLong (props.getProperty (PROP_SEND_TIMEOUT, "100"));
+		
+		String policy = props.getProperty (PROP_SEND_POLICY, "fail");
+		try {
+			sendPolicy = SendPolicy.valueOf (policy.trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new ConfigurationException ("Property " + PROP_SEND_POLICY + " has invalid value " + policy);
+		}
+		
+		if (initialDelay <= 0 || maximumDelay < initialDelay)
+			throw new ConfigurationException ("Property " + PROP_MAXIMUM_DELAY + " must not be less than " + PROP_INITIAL_DELAY + " and both must be positive.");
+		
+		if (jitter < 0 || jitter >= 1)
+			throw new ConfigurationException ("Property " + PROP_JITTER + " must be in the range from 0 to 1.");
+		
+		try {
+			transceiver = createTransceiver ();
+			state = State.CONNECTED;
+		} catch (IOException e) {
+			LOG.warn ("Can not connect: " + e.getMessage());
+			state = State.RECONNECTING;
+		}
+		
+		reconnector = new Thread (new Reconnector (), "ReconnectingTransceiver " + className);
+		reconnector.setDaemon (true);
+		reconnector.start ();
+	}
+	
+	/**
+	 * Create a new underlying transceiver.
+	 * 
+	 * @return the new transceiver.
+	 * @throws IOException thrown if the transceiver can not be created.
+	 */
+	private ITransceiver createTransceiver () throws IOException {
+		try {
+			return (ITransceiver) constructor.newInstance (transceiverProps);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause ();
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			throw new CommunicationException (String.valueOf (cause.getMessage ()), cause);
+		} catch (Exception e) {
+			throw new CommunicationException (String.valueOf (e.getMessage ()), e);
+		}
+	}
+	
+	/**
+	 * Mark the given transceiver as broken. If it is the current transceiver,
+	 * close it and wake up the reconnection thread.
+	 * 
+	 * @param broken the broken transceiver.
+	 * @param cause the cause of the failure.
+	 */
+	private synchronized void connectionLost (ITransceiver broken, IOException cause) {
+		if (broken != transceiver || state != State.CONNECTED)
+			return;
+		LOG.warn ("Connection lost: " + cause.getMessage());
+		transceiver = null;
+		state = State.RECONNECTING;
+		broken.close ();
+		notifyAll ();
+	}
+	
+	/**
+	 * Wait until the connection is established.
+	 * 
+	 * @param timeout the maximum waiting time in milliseconds or zero for no limit.
+	 * @return the current transceiver or null if the waiting time has elapsed.
+	 * @throws CommunicationException thrown if the connection has failed.
+	 */
+	private synchronized ITransceiver awaitConnection (long timeout) throws CommunicationException {
+		long end = System.currentTimeMillis () + timeout;
+		while (state == State.RECONNECTING) {
+			long wait = timeout == 0 ? 0 : end - System.currentTimeMillis ();
+			if (timeout != 0 && wait <= 0)
+				return null;
+			try {
+				wait (wait);
+			} catch (InterruptedException e) {
+				throw new CommunicationException ("Interrupted while waiting for the connection.", e);
+			}
+		}
+		if (state == State.FAILED)
+			throw new CommunicationException ("Connection failed.");
+		return transceiver;
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#send(at.uni_salzburg.cs.ckgroup.communication.Packet)
+	 */
+	public void send (Packet packet) throws IOException {
+		ITransceiver t = transceiver;
+		if (t == null) {
+			switch (sendPolicy) {
+			case DROP:
+				if (state == State.FAILED)
+					throw new CommunicationException ("Connection failed.");
+				droppedPackets.incrementAndGet ();
+				return;
+			case BLOCK:
+				t = awaitConnection (sendTimeout);
+				if (t != null)
+					break;
+				// fall through
+			default:
+				throw new CommunicationException ("Connection is " + state + ".");
+			}
+		}
+		
+		try {
+			t.send (packet);
+		} catch (IOException e) {
+			connectionLost (t, e);
+			throw e;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#receive()
+	 */
+	public Packet receive () throws IOException {
+		while (true) {
+			ITransceiver t = transceiver;
+			if (t == null)
+				t = awaitConnection (0);
+			if (t == null)
+				continue;
+			
+			try {
+				return t.receive ();
+			} catch (IOException e) {
+				connectionLost (t, e);
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#close()
+	 */
+	public void close () {
+		ITransceiver t;
+		synchronized (this) {
+			t = transceiver;
+			transceiver = null;
+			state = State.FAILED;
+			notifyAll ();
+		}
+		if (t != null)
+			t.close ();
+	}
+	
+	/**
+	 * @return the current state of the connection.
+	 */
+	public State getState () {
+		return state;
+	}
+	
+	/**
+	 * @return the number of successful reconnects.
+	 */
+	public long getReconnects () {
+		return reconnects;
+	}
+	
+	/**
+	 * @return the number of packets dropped while not connected.
+	 */
+	public long getDroppedPackets () {
+		return droppedPackets.get ();
+	}
+	
+	/**
+	 * Calculate the delay before the next reconnection attempt.
+	 * 
+	 * @param attempt the number of the attempt, starting at zero.
+	 * @return the delay in milliseconds.
+	 */
+	long backoffDelay (int attempt) {
+		long delay = attempt >= 30 ? maximumDelay : Math.min (maximumDelay, initialDelay << attempt);
+		double variation = jitter == 0 ? 0 : ThreadLocalRandom.current().nextDouble (-jitter, jitter);
+		return Math.max (1, (long) (delay * (1 + variation)));
+	}
+	
+	/**
+	 * The <code>Reconnector</code> reestablishes broken connections. It is the
+	 * only thread that creates underlying transceivers after construction.
+	 */
+	private class Reconnector implements Runnable {
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run () {
+			int attempt = 0;
+			while (true) {
+				synchronized (ReconnectingTransceiver.this) {
+					while (state == State.CONNECTED)
+						try { ReconnectingTransceiver.this.wait (); } catch (InterruptedException e) { }
+					if (state == State.FAILED)
+						return;
+				}
+				
+				try { Thread.sleep (backoffDelay (attempt)); } catch (InterruptedException e) { }
+				
+				ITransceiver t = null;
+				try {
+					t = createTransceiver ();
+				} catch (IOException e) {
+					LOG.info ("Reconnection attempt " + (attempt+1) + " failed: " + e.getMessage());
+				}
+				
+				synchronized (ReconnectingTransceiver.this) {
+					if (state == State.FAILED) {
+						if (t != null)
+							t.close ();
+						return;
+					}
+					
+					if (t != null) {
+						transceiver = t;
+						state = State.CONNECTED;
+						++reconnects;
+						attempt = 0;
+						LOG.info ("Connection reestablished.");
+					} else if (++attempt >= maximumAttempts && maximumAttempts > 0) {
+						state = State.FAILED;
+						LOG.error ("Giving up after " + attempt + " reconnection attempts.");
+					}
+					ReconnectingTransceiver.this.notifyAll ();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,363 @@
+/*
+ * @(#) SequencedDatagramTransceiver.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Properties;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This class implements a transceiver for a packet oriented link that is based
+ * on a <code>DatagramChannel</code>. All buffers are allocated at
+ * construction, so that sending and the frame based receiving of
+ * <code>receiveFrame()</code> do not allocate memory.
+ * <p>
+ * Each datagram starts with a header of <code>HEADER_MARKER</code> and a
+ * 32 bit sequence number, followed by one or more encoded packets. Packets
+ * added by <code>append()</code> are collected until <code>flush()</code> is
+ * called or the datagram is full. The receiver uses the sequence numbers to
+ * count lost datagrams and to drop stale datagrams, i.e. datagrams that
+ * arrive after a newer one. Both ends of a link must therefore use this
+ * transceiver.
+ * <p>
+ * If the property <code>host</code> is not set, the transceiver acts as a
+ * server on <code>local.port</code> and sends to the address of the latest
+ * received datagram.
+ * 
+ * @author Clemens Krainer
+ */
+public class SequencedDatagramTransceiver implements ITransceiver {
+	
+	/**
+	 * The property key of the remote host name.
+	 */
+	public static final String PROP_HOST = "host";
+	
+	/**
+	 * The property key of the remote port number.
+	 */
+	public static final String PROP_PORT = "port";
+	
+	/**
+	 * The property key of the local port number. If not set, an ephemeral port
+	 * is used.
+	 */
+	public static final String PROP_LOCAL_PORT = "local.port";
+	
+	/**
+	 * The property key of the maximum datagram length in bytes.
+	 */
+	public static final String PROP_MAXIMUM_DATAGRAM_LENGTH = "maximum.datagram.length";
+	
+	/**
+	 * The default maximum datagram length. It fits into the MTU of an
+	 * Ethernet or WLAN link.
+	 */
+	public static final int DEFAULT_MAXIMUM_DATAGRAM_LENGTH = 1400;
+	
+	/**
+	 * The first byte of each datagram.
+	 */
+	public static final byte HEADER_MARKER = (byte) 0xA5;
+	
+	/**
+	 * The length of the datagram header in bytes.
+	 */
+	public static final int HEADER_LENGTH = 5;
+	
+	/**
+	 * Sequence numbers lagging more than this value behind the expected one
+	 * indicate a restarted peer instead of a stale datagram.
+	 */
+	private static final int RESYNC_THRESHOLD = 1000;
+	
+	/**
+	 * The channel of this transceiver.
+	 */
+	private DatagramChannel channel;
+	
+	/**
+	 * The address of the remote end, null if not known yet.
+	 */
+	private volatile SocketAddress remoteAddress;
+	
+	/**
+	 * This variable indicates that the remote address is taken from the
+	 * received datagrams.
+	 */
+	private boolean server;
+	
+	/**
+	 * The buffer collecting the packets of the next datagram to be sent.
+	 */
+	private ByteBuffer sendBuffer;
+	
+	/**
+	 * The buffer of the latest received datagram, in read mode.
+	 */
+	private ByteBuffer receiveBuffer;
+	
+	/**
+	 * The codec decoding the packets of the received datagrams.
+	 */
+	private PacketCodec codec = new PacketCodec (PacketFormat.LEGACY);
+	
+	/**
+	 * The sequence number of the next datagram to be sent.
+	 */
+	private int sendSequence = 0;
+	
+	/**
+	 * The sequence number of the next datagram expected.
+	 */
+	private int expectedSequence = 0;
+	
+	/**
+	 * This variable indicates that a datagram has been received.
+	 */
+	private boolean synchronised = false;
+	
+	/**
+	 * The number of lost datagrams.
+	 */
+	private volatile long lostDatagrams = 0;
+	
+	/**
+	 * The number of dropped stale datagrams.
+	 */
+	private volatile long staleDatagrams = 0;
+	
+	/**
+	 * The number of dropped invalid datagrams or packets.
+	 */
+	private volatile long invalidDatagrams = 0;
+	
+	/**
+	 * Construct a <code>SequencedDatagramTransceiver</code>.
+	 * 
+	 * @param props the <code>Properties</code> to be used for construction.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	public SequencedDatagramTransceiver (Properties props) throws ConfigurationException, IOException {
+		String host = props.getProperty (PROP_HOST);
+		String localPortString = props.getProperty (PROP_LOCAL_PORT);
+		
+		if (host != null && !"".equals (host)) {
+			String portString = props.getProperty (PROP_PORT);
+			if (portString == null || "".equals (portString))
+				throw new ConfigurationException ("Property " + PROP_PORT + " is not set.");
+			remoteAddress = new InetSocketAddress (host, Integer.parseInt (portString));
+			server = false;
+		} else if (localPortString == null || "".equals (localPortString)) {
+			throw new ConfigurationException ("Either property " + PROP_HOST + " or " + PROP_LOCAL_PORT + " must be set.");
+		} else {
+			server = true;
+		}
+		
+		int length = Integer.parseInt (props.getProperty (PROP_MAXIMUM_DATAGRAM_LENGTH, Integer.toString (DEFAULT_MAXIMUM_DATAGRAM_LENGTH)));
+		if (length < HEADER_LENGTH + PacketCodec.MAXIMUM_FRAME_LENGTH)
+			throw new ConfigurationException ("Property " + PROP_MAXIMUM_DATAGRAM_LENGTH + " must be at least " +
+					(HEADER_LENGTH + PacketCodec.MAXIMUM_FRAME_LENGTH) + ".");
+		
+		sendBuffer = ByteBuffer.allocateDirect (length);
+		receiveBuffer = ByteBuffer.allocateDirect (length);
+		receiveBuffer.flip ();
+		
+		channel = DatagramChannel.open ();
+		if (localPortString != null && !"".equals (localPortString))
+			channel.socket ().bind (new InetSocketAddress (Integer.parseInt (localPortString)));
+		else
+			channel.socket ().bind (null);
+	}
+	
+	/**
+	 * Add a packet to the next datagram. If the packet does not fit, the
+	 * pending packets are sent first.
+	 * 
+	 * @param packet the packet to be added.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	public void append (Packet packet) throws IOException {
+		synchronized (sendBuffer) {
+			int length = (packet.getPayload () == null ? 0 : packet.getPayload ().length) + PacketCodec.FRAME_OVERHEAD;
+			if (sendBuffer.position () > 0 && sendBuffer.remaining () < length)
+				flushSendBuffer ();
+			if (sendBuffer.position () == 0) {
+				sendBuffer.put (HEADER_MARKER);
+				sendBuffer.putInt (0);
+			}
+			PacketCodec.encode (packet, sendBuffer);
+		}
+	}
+	
+	/**
+	 * Send the pending packets in one datagram.
+	 * 
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	public void flush () throws IOException {
+		synchronized (sendBuffer) {
+			if (sendBuffer.position () > 0)
+				flushSendBuffer ();
+		}
+	}
+	
+	/**
+	 * Send the contents of the send buffer. The caller must hold the lock on
+	 * the send buffer. The sequence number advances only if the datagram has
+	 * been sent, so that failed transmissions do not appear as losses at the
+	 * receiver.
+	 * 
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	private void flushSendBuffer () throws IOException {
+		sendBuffer.putInt (1, sendSequence);
+		sendBuffer.flip ();
+		try {
+			SocketAddress address = remoteAddress;
+			if (address == null)
+				throw new CommunicationException ("Remote address is not known yet.");
+			channel.send (sendBuffer, address);
+			++sendSequence;
+		} finally {
+			sendBuffer.clear ();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#send(at.uni_salzburg.cs.ckgroup.communication.Packet)
+	 */
+	public void send (Packet packet) throws IOException {
+		synchronized (sendBuffer) {
+			append (packet);
+			flushSendBuffer ();
+		}
+	}
+	
+	/**
+	 * Receive the next packet without allocating memory. The returned codec
+	 * provides the type and the payload of the packet until the next call of
+	 * this method.
+	 * 
+	 * @return the codec positioned at the received packet.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	public synchronized PacketCodec receiveFrame () throws IOException {
+		while (true) {
+			try {
+				if (receiveBuffer.hasRemaining () && codec.decode (receiveBuffer))
+					return codec;
+			} catch (CommunicationException e) {
+				++invalidDatagrams;
+				continue;
+			}
+			
+			receiveBuffer.clear ();
+			SocketAddress sender = channel.receive (receiveBuffer);
+			receiveBuffer.flip ();
+			if (server && sender != null && !sender.equals (remoteAddress))
+				remoteAddress = sender;
+			
+			if (!acceptDatagram ())
+				receiveBuffer.limit (0);
+		}
+	}
+	
+	/**
+	 * Check the header of the received datagram and update the loss
+	 * statistics.
+	 * 
+	 * @return true if the packets of the datagram should be processed.
+	 */
+	private boolean acceptDatagram () {
+		if (receiveBuffer.remaining () < HEADER_LENGTH || receiveBuffer.get () != HEADER_MARKER) {
+			++invalidDatagrams;
+			return false;
+		}
+		
+		int sequence = receiveBuffer.getInt ();
+		int delta = sequence - expectedSequence;
+		if (synchronised && delta < 0 && delta > -RESYNC_THRESHOLD) {
+			++staleDatagrams;
+			return false;
+		}
+		
+		if (synchronised && delta > 0)
+			lostDatagrams += delta;
+		
+		synchronised = true;
+		expectedSequence = sequence + 1;
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#receive()
+	 */
+	public Packet receive () throws IOException {
+		return receiveFrame ().toPacket ();
+	}
+	
+	/**
+	 * @return the local port number of this transceiver.
+	 */
+	public int getLocalPort () {
+		return channel.socket ().getLocalPort ();
+	}
+	
+	/**
+	 * @return the number of datagrams lost in transmission.
+	 */
+	public long getLostDatagrams () {
+		return lostDatagrams;
+	}
+	
+	/**
+	 * @return the number of datagrams dropped because a newer datagram had
+	 *         already arrived.
+	 */
+	public long getStaleDatagrams () {
+		return staleDatagrams;
+	}
+	
+	/**
+	 * @return the number of dropped invalid datagrams or packets.
+	 */
+	public long getInvalidDatagrams () {
+		return invalidDatagrams;
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#close()
+	 */
+	public void close () {
+		try {
+			channel.close ();
+		} catch (IOException e) {
+			e.printStackTrace ();
+		}
+	}
+}
@@ -0,0 +1,632 @@
+/*
+ * @(#) SharedMemoryTransceiver.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.Properties;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This class implements a transceiver for processes running on the same host.
+ * Instead of a TCP connection it uses a memory mapped file containing two ring
+ * buffers, one for each direction. Each ring buffer has exactly one producer
+ * and one consumer, i.e. side <code>a</code> sends via the first ring and
+ * receives via the second, side <code>b</code> vice versa. Hence, a packet is
+ * copied once into the mapped file by the sender and once out of it by the
+ * receiver, without any system calls and without the <code>Packet</code>
+ * framing.
+ * <p>
+ * The file starts with a header of <code>FILE_HEADER_LENGTH</code> bytes
+ * containing a magic number, the version and the capacity of the rings. Each
+ * ring starts with the producer position (tail) and the consumer position
+ * (head), both as <code>int</code> values in separate cache lines, followed
+ * by the data area. A record in the data area consists of the payload length
+ * as <code>int</code>, the packet type and the payload. The positions wrap
+ * around at 2^32, the offset in the data area is the position modulo the
+ * capacity. The positions are 32 bit values, because aligned 32 bit accesses
+ * are atomic on all platforms, whereas 64 bit accesses may tear on 32 bit
+ * platforms, e.g. ARM.
+ * <p>
+ * Whichever side opens the file first initializes it, the other side adopts
+ * the capacity found in the file. Packets left over from earlier sessions,
+ * and packets sent before the receiving side opened the file, are discarded.
+ * 
+ * @author Clemens Krainer
+ */
+public class SharedMemoryTransceiver implements ITransceiver {
+	
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOG = LoggerFactory.getLogger (SharedMemoryTransceiver.class);
+	
+	/**
+	 * The property key for the name of the memory mapped file.
+	 */
+	public static final String PROP_FILE = "shm.file";
+	
+	/**
+	 * The property key for the side of this transceiver, either
+	 * <code>SIDE_A</code> or <code>SIDE_B</code>.
+	 */
+	public static final String PROP_SIDE = "shm.side";
+	
+	/**
+	 * The property key for the capacity of each ring buffer in bytes. The
+	 * value is rounded up to the next power of two.
+	 */
+	public static final String PROP_CAPACITY = "shm.capacity";
+	
+	/**
+	 * The property key for the interval in microseconds an idle receiver, or
+	 * a sender waiting for space, pauses before looking at the ring again.
+	 */
+	public static final String PROP_POLL_INTERVAL = "shm.poll.interval";
+	
+	/**
+	 * The property key for the time in milliseconds a sender waits for space
+	 * in the ring before it gives up. A value of zero lets the sender wait
+	 * forever.
+	 */
+	public static final String PROP_SEND_TIMEOUT = "shm.send.timeout";
+	
+	/**
+	 * The side sending via the first and receiving via the second ring.
+	 */
+	public static final String SIDE_A = "a";
+	
+	/**
+	 * The side sending via the second and receiving via the first ring.
+	 */
+	public static final String SIDE_B = "b";
+	
+	/**
+	 * The default capacity of each ring buffer in bytes.
+	 */
+	public static final int DEFAULT_CAPACITY = 65536;
+	
+	/**
+	 * The minimum capacity of each ring buffer in bytes.
+	 */
+	public static final int MINIMUM_CAPACITY = 1024;
+	
+	/**
+	 * The maximum capacity of each ring buffer in bytes. The difference of
+	 * two positions must fit into an <code>int</code>.
+	 */
+	public static final int MAXIMUM_CAPACITY = 1 << 30;
+	
+	/**
+	 * The default poll interval in microseconds.
+	 */
+	public static final int DEFAULT_POLL_INTERVAL = 100;
+	
+	/**
+	 * The default send timeout in milliseconds.
+	 */
+	public static final int DEFAULT_SEND_TIMEOUT = 1000;
+	
+	/**
+	 * The magic number identifying an initialized file.
+	 */
+	public static final int MAGIC = 0x4A415652;
+	
+	/**
+	 * The version of the file layout.
+	 */
+	public static final int VERSION = 2;
+	
+	/**
+	 * The length of the file header in bytes.
+	 */
+	public static final int FILE_HEADER_LENGTH = 64;
+	
+	/**
+	 * The length of a ring header in bytes.
+	 */
+	public static final int RING_HEADER_LENGTH = 128;
+	
+	/**
+	 * The length of a record header in bytes, i.e. the payload length and the
+	 * packet type.
+	 */
+	public static final int RECORD_HEADER_LENGTH = 5;
+	
+	/**
+	 * The offsets of the header values in the file.
+	 */
+	private static final int MAGIC_OFFSET = 0;
+	private static final int VERSION_OFFSET = 4;
+	private static final int CAPACITY_OFFSET = 8;
+	
+	/**
+	 * The offsets of the producer and consumer positions in a ring header.
+	 */
+	private static final int TAIL_OFFSET = 0;
+	private static final int HEAD_OFFSET = 64;
+	
+	/**
+	 * The number of busy polls before an idle transceiver starts pausing.
+	 */
+	private static final int SPIN_COUNT = 100;
+	
+	/**
+	 * The <code>loadFence()</code> and <code>storeFence()</code> methods of
+	 * <code>sun.misc.Unsafe</code>, or null if they are not accessible.
+	 */
+	private static final MethodHandle LOAD_FENCE;
+	private static final MethodHandle STORE_FENCE;
+	
+	static {
+		MethodHandle load = null;
+		MethodHandle store = null;
+		try {
+			Class<?> unsafeClass = Class.forName ("sun.misc.Unsafe");
+			Field field = unsafeClass.getDeclaredField ("theUnsafe");
+			field.setAccessible (true);
+			Object unsafe = field.get (null);
+			MethodType type = MethodType.methodType (void.class);
+			load = MethodHandles.lookup ().findVirtual (unsafeClass, "loadFence", type).bindTo (unsafe);
+			store = MethodHandles.lookup ().findVirtual (unsafeClass, "storeFence", type).bindTo (unsafe);
+		} catch (Exception e) {
+			LOG.warn ("sun.misc.Unsafe fences are not available, falling back to volatile fences: " + e.getMessage ());
+			load = null;
+			store = null;
+		}
+		LOAD_FENCE = load;
+		STORE_FENCE = store;
+	}
+	
+	/**
+	 * The variable used by the fallback fence.
+	 */
+	private static volatile int fence;
+	
+	/**
+	 * The memory mapped file.
+	 */
+	private RandomAccessFile file;
+	
+	/**
+	 * The ring used for sending packets.
+	 */
+	private Ring txRing;
+	
+	/**
+	 * The ring used for receiving packets.
+	 */
+	private Ring rxRing;
+	
+	/**
+	 * The poll interval in nanoseconds.
+	 */
+	private long pollInterval;
+	
+	/**
+	 * The send timeout in nanoseconds or zero.
+	 */
+	private long sendTimeout;
+	
+	/**
+	 * This variable indicates that the transceiver has been closed.
+	 */
+	private volatile boolean closed = false;
+	
+	/**
+	 * Construct a <code>SharedMemoryTransceiver</code>.
+	 * 
+	 * @param props the properties to be used.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 * @throws IOException thrown in case the file can not be mapped.
+	 */
+	public SharedMemoryTransceiver (Properties props) throws ConfigurationException, IOException {
+		String fileName = props.getProperty (PROP_FILE);
+		if (fileName == null || "".equals (fileName))
+			throw new ConfigurationException ("Property " + PROP_FILE + " is not set.");
+		
+		String side = props.getProperty (PROP_SIDE);
+		if (side == null || "".equals (side))
+			throw new ConfigurationException ("Property " + PROP_SIDE + " is not set.");
+		
+		side = side.trim ().toLowerCase ();
+		if (!SIDE_A.equals (side) && !SIDE_B.equals (side))
+			throw new ConfigurationException ("Property " + PROP_SIDE + " must be either " + SIDE_A + " or " + SIDE_B + ".");
+		
+		int capacity = Integer.parseInt (props.getProperty (PROP_CAPACITY, Integer.toString (DEFAULT_CAPACITY)));
+		if (capacity > MAXIMUM_CAPACITY)
+			throw new ConfigurationException ("Property " + PROP_CAPACITY + " must be at most " + MAXIMUM_CAPACITY + ".");
+		capacity = Integer.highestOneBit (capacity - 1) << 1;
+		if (capacity < MINIMUM_CAPACITY)
+			throw new ConfigurationException ("Property " + PROP_CAPACITY + " must be at least " + MINIMUM_CAPACITY + ".");
+		
+		pollInterval = 1000L * Integer.parseInt (props.getProperty (PROP_POLL_INTERVAL, Integer.toString (DEFAULT_POLL_INTERVAL)));
+		sendTimeout = 1000000L * Integer.parseInt (props.getProperty (PROP_SEND_TIMEOUT, Integer.toString (DEFAULT_SEND_TIMEOUT)));
+		
+		file = new RandomAccessFile (new File (fileName), "rw");
+		MappedByteBuffer map;
+		try {
+			map = map (file.getChannel (), capacity);
+		} catch (IOException e) {
+			file.close ();
+			throw e;
+		}
+		
+		capacity = map.getInt (CAPACITY_OFFSET);
+		Ring first = new Ring (map, FILE_HEADER_LENGTH, capacity);
+		Ring second = new Ring (map, FILE_HEADER_LENGTH + RING_HEADER_LENGTH + capacity, capacity);
+		txRing = SIDE_A.equals (side) ? first : second;
+		rxRing = SIDE_A.equals (side) ? second : first;
+		rxRing.discard ();
+		LOG.info ("Side " + side + " attached to " + fileName + ", ring capacity is " + capacity + " bytes.");
+	}
+	
+	/**
+	 * Map the file and initialize it if necessary. The file is locked while
+	 * mapping, so that both sides agree on its layout.
+	 * 
+	 * @param channel the channel of the file.
+	 * @param capacity the capacity of each ring if the file gets initialized.
+	 * @return the mapped file.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	private static MappedByteBuffer map (FileChannel channel, int capacity) throws IOException {
+		FileLock lock = channel.lock ();
+		try {
+			if (channel.size () >= FILE_HEADER_LENGTH) {
+				ByteBuffer header = ByteBuffer.allocate (FILE_HEADER_LENGTH);
+				channel.read (header, 0);
+				int existing = header.getInt (CAPACITY_OFFSET);
+				if (header.getInt (MAGIC_OFFSET) == MAGIC && header.getInt (VERSION_OFFSET) == VERSION &&
+					existing >= MINIMUM_CAPACITY && existing <= MAXIMUM_CAPACITY && Integer.bitCount (existing) == 1 &&
+					channel.size () >= getFileLength (existing))
+				{
+					return channel.map (FileChannel.MapMode.READ_WRITE, 0, getFileLength (existing));
+				}
+			}
+			
+			MappedByteBuffer map = channel.map (FileChannel.MapMode.READ_WRITE, 0, getFileLength (capacity));
+			for (int k = 0; k < FILE_HEADER_LENGTH; k++)
+				map.put (k, (byte) 0);
+			for (int k = 0; k < RING_HEADER_LENGTH; k++) {
+				map.put (FILE_HEADER_LENGTH + k, (byte) 0);
+				map.put (FILE_HEADER_LENGTH + RING_HEADER_LENGTH + capacity + k, (byte) 0);
+			}
+			map.putInt (VERSION_OFFSET, VERSION);
+			map.putInt (CAPACITY_OFFSET, capacity);
+			map.putInt (MAGIC_OFFSET, MAGIC);
+			map.force ();
+			return map;
+		} finally {
+			lock.release ();
+		}
+	}
+	
+	/**
+	 * @param capacity the capacity of each ring.
+	 * @return the length of the file in bytes.
+	 */
+	private static long getFileLength (int capacity) {
+		return FILE_HEADER_LENGTH + 2L * (RING_HEADER_LENGTH + capacity);
+	}
+	
+	/**
+	 * Send a packet. If the ring is full, this method waits for the receiving
+	 * side to make room for at most the configured send timeout.
+	 * 
+	 * @param packet the packet to be sent.
+	 * @throws CommunicationException thrown if the packet does not fit into
+	 *         the ring, or if the receiving side, e.g. a dead process, does
+	 *         not make room within the send timeout.
+	 * @throws IOException thrown if the transceiver has been closed.
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#send(at.uni_salzburg.cs.ckgroup.communication.Packet)
+	 */
+	public void send (Packet packet) throws IOException {
+		byte[] payload = packet.getPayload ();
+		int length = payload == null ? 0 : payload.length;
+		
+		synchronized (txRing) {
+			if (RECORD_HEADER_LENGTH + length > txRing.capacity)
+				throw new CommunicationException ("Packet too long. The ring capacity is " + txRing.capacity +
+					" bytes, but " + (RECORD_HEADER_LENGTH + length) + " bytes are required.");
+			
+			if (txRing.offer (packet.getType (), payload, length))
+				return;
+			
+			int idle = 0;
+			long start = System.nanoTime ();
+			while (!txRing.offer (packet.getType (), payload, length)) {
+				if (sendTimeout > 0 && System.nanoTime () - start > sendTimeout)
+					throw new CommunicationException ("Send timeout. The receiving side did not make room for a packet of type " +
+						packet.getType () + " within " + (sendTimeout / 1000000) + "ms.");
+				idle = pause (idle);
+			}
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#receive()
+	 */
+	public Packet receive () throws IOException {
+		synchronized (rxRing) {
+			int idle = 0;
+			Packet packet;
+			while ((packet = rxRing.poll ()) == null)
+				idle = pause (idle);
+			return packet;
+		}
+	}
+	
+	/**
+	 * Wait for the other side. The first <code>SPIN_COUNT</code> calls return
+	 * immediately, later calls pause for the configured poll interval.
+	 * 
+	 * @param idle the number of unsuccessful attempts so far.
+	 * @return the new number of unsuccessful attempts.
+	 * @throws IOException thrown if the transceiver has been closed.
+	 */
+	private int pause (int idle) throws IOException {
+		if (closed)
+			throw new IOException ("Transceiver closed.");
+		
+		if (idle < SPIN_COUNT)
+			Thread.yield ();
+		else
+			LockSupport.parkNanos (pollInterval);
+		return idle + 1;
+	}
+	
+	/**
+	 * Prevent the reordering of loads before this call with loads and stores
+	 * after it.
+	 */
+	static void loadFence () {
+		if (LOAD_FENCE == null) {
+			volatileFence ();
+			return;
+		}
+		try {
+			LOAD_FENCE.invokeExact ();
+		} catch (Throwable e) {
+			throw new IllegalStateException (e);
+		}
+	}
+	
+	/**
+	 * Prevent the reordering of stores before this call with loads and stores
+	 * after it.
+	 */
+	static void storeFence () {
+		if (STORE_FENCE == null) {
+			volatileFence ();
+			return;
+		}
+		try {
+			STORE_FENCE.invokeExact ();
+		} catch (Throwable e) {
+			throw new IllegalStateException (e);
+		}
+	}
+	
+	/**
+	 * The fallback fence, a write followed by a read of a <code>volatile</code>
+	 * variable. The Java memory model does not cover the plain accesses to
+	 * the mapped file, but HotSpot emits a full barrier for this sequence.
+	 * Other virtual machines may not.
+	 */
+	private static void volatileFence () {
+		fence = 0;
+		if (fence != 0)
+			throw new IllegalStateException ();
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#close()
+	 */
+	public void close () {
+		closed = true;
+		try {
+			file.close ();
+		} catch (IOException e) {
+			LOG.error ("Can not close file.", e);
+		}
+	}
+	
+	/**
+	 * This class implements one ring buffer in the mapped file. The producer
+	 * calls <code>offer()</code> only and the consumer calls
+	 * <code>poll()</code> only.
+	 * <p>
+	 * Since the mapped file is accessed by plain reads and writes, the
+	 * positions are published with explicit fences. The producer writes the
+	 * data before a store fence and advances the tail after it. The consumer
+	 * reads the tail before a load fence and the data after it, and it reads
+	 * the data before a load fence and advances the head after it.
+	 */
+	private static class Ring {
+		
+		/**
+		 * The capacity of the data area in bytes, a power of two.
+		 */
+		final int capacity;
+		
+		/**
+		 * The mask to convert a position into an offset in the data area.
+		 */
+		private final int mask;
+		
+		/**
+		 * The mapped file.
+		 */
+		private final ByteBuffer map;
+		
+		/**
+		 * The offset of the ring header in the mapped file.
+		 */
+		private final int base;
+		
+		/**
+		 * The data area of this ring.
+		 */
+		private final ByteBuffer data;
+		
+		/**
+		 * A buffer for assembling and disassembling the record headers.
+		 */
+		private final byte[] header = new byte[RECORD_HEADER_LENGTH];
+		
+		/**
+		 * Construct a <code>Ring</code>.
+		 * 
+		 * @param map the mapped file.
+		 * @param base the offset of the ring header in the mapped file.
+		 * @param capacity the capacity of the data area in bytes.
+		 */
+		Ring (MappedByteBuffer map, int base, int capacity) {
+			this.map = map;
+			this.base = base;
+			this.capacity = capacity;
+			this.mask = capacity - 1;
+			ByteBuffer dup = map.duplicate ();
+			dup.position (base + RING_HEADER_LENGTH);
+			dup.limit (base + RING_HEADER_LENGTH + capacity);
+			data = dup.slice ();
+		}
+		
+		/**
+		 * Append a record to the ring.
+		 * 
+		 * @param type the packet type.
+		 * @param payload the packet payload, may be null if the length is zero.
+		 * @param length the payload length.
+		 * @return true if the record has been appended, false if the ring is
+		 *         too full to take the record.
+		 */
+		boolean offer (byte type, byte[] payload, int length) {
+			int tail = map.getInt (base + TAIL_OFFSET);
+			int head = map.getInt (base + HEAD_OFFSET);
+			loadFence ();
+			if (tail - head + RECORD_HEADER_LENGTH + length > capacity)
+				return false;
+			
+			header[0] = (byte) (length >> 24);
+			header[1] = (byte) (length >> 16);
+			header[2] = (byte) (length >> 8);
+			header[3] = (byte) length;
+			header[4] = type;
+			put (tail, header, RECORD_HEADER_LENGTH);
+			if (length > 0)
+				put (tail + RECORD_HEADER_LENGTH, payload, length);
+			
+			storeFence ();
+			map.putInt (base + TAIL_OFFSET, tail + RECORD_HEADER_LENGTH + length);
+			return true;
+		}
+		
+		/**
+		 * Remove a record from the ring.
+		 * 
+		 * @return the record as <code>Packet</code> or null if the ring is empty.
+		 * @throws IOException thrown in case of corrupted records.
+		 */
+		Packet poll () throws IOException {
+			int head = map.getInt (base + HEAD_OFFSET);
+			int tail = map.getInt (base + TAIL_OFFSET);
+			loadFence ();
+			if (tail == head)
+				return null;
+			
+			get (head, header, RECORD_HEADER_LENGTH);
+			int length = ((header[0] & 0xFF) << 24) | ((header[1] & 0xFF) << 16) | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+			if (length < 0 || length > Packet.MAXIMUM_PAYLOAD_LENGTH || RECORD_HEADER_LENGTH + length > tail - head) {
+				discard ();
+				throw new CommunicationException ("Corrupted record of length " + length + " discarded.");
+			}
+			
+			byte[] payload = new byte[length];
+			get (head + RECORD_HEADER_LENGTH, payload, length);
+			
+			loadFence ();
+			map.putInt (base + HEAD_OFFSET, head + RECORD_HEADER_LENGTH + length);
+			return new Packet (header[4], payload, PacketFormat.EXTENDED);
+		}
+		
+		/**
+		 * Discard all records currently in the ring. Only the consumer may call
+		 * this method.
+		 */
+		void discard () {
+			int tail = map.getInt (base + TAIL_OFFSET);
+			loadFence ();
+			map.putInt (base + HEAD_OFFSET, tail);
+		}
+		
+		/**
+		 * Copy bytes into the data area, wrapping around at its end.
+		 * 
+		 * @param position the position of the first byte.
+		 * @param src the bytes to be copied.
+		 * @param length the number of bytes to be copied.
+		 */
+		private void put (int position, byte[] src, int length) {
+			int offset = position & mask;
+			int first = Math.min (length, capacity - offset);
+			data.position (offset);
+			data.put (src, 0, first);
+			if (first < length) {
+				data.position (0);
+				data.put (src, first, length - first);
+			}
+		}
+		
+		/**
+		 * Copy bytes out of the data area, wrapping around at its end.
+		 * 
+		 * @param position the position of the first byte.
+		 * @param dst the destination array.
+		 * @param length the number of bytes to be copied.
+		 */
+		private void get (int position, byte[] dst, int length) {
+			int offset = position & mask;
+			int first = Math.min (length, capacity - offset);
+			data.position (offset);
+			data.get (dst, 0, first);
+			if (first < length) {
+				data.position (0);
+				data.get (dst, first, length - first);
+			}
+		}
+	}
+}
@@ -34,6 +34,9 @@ import at.uni_salzburg.cs.ckgroup.util.ObjectFactory;
  * connection oriented link to a resource. It allows sending and receiving
  * <code>Packet</code> objects without bothering about the low level details of
  * the accessed resource.
+ * <p>
+ * The framing of the packets is configured by the property
+ * <code>packet.format</code>, see <code>PacketFormat</code>.
  * 
  * @author Clemens Krainer
  */
@@ -124,12 +127,17 @@ public class Transceiver implements ITransceiver {
 	/**
 	 * This variable indicates that the transceiver is currently reestablishing a connection.
 	 */
-	private boolean reconnecting = false;
+	private volatile boolean reconnecting = false;
 	
 	/**
 	 * This variable contains the number of failed reconnects. 
 	 */
 	private int reconnectCounter = 0;
+	
+	/**
+	 * The framing of the packets.
+	 */
+	private PacketFormat format = PacketFormat.LEGACY;
 
 	/**
 	 * Construct a <code>Transceiver</code> by using <code>Properties</code>.
@@ -147,6 +155,7 @@ public class Transceiver implements ITransceiver {
 		reconnectionTimeOut = Long.parseLong (props.getProperty(PROP_RECONNECTION_TIMEOUT, "1000"));
 		connectionType = props.getProperty(PROP_CONNECTION_TYPE);
 		maximumReconnects = Integer.parseInt (props.getProperty(PROP_MAXIMUM_RECONNECTS,"100"));
+		format = PacketFormat.valueOf (props);
 		init ();
 	}
 	
@@ -162,11 +171,29 @@ public class Transceiver implements ITransceiver {
 	 *             thrown in case of I/O errors.
 	 */
 	public Transceiver (IConnection connection) throws ConfigurationException, IOException {
+		this (connection, PacketFormat.LEGACY);
+	}
+	
+	/**
+	 * Construct a <code>Transceiver</code> by using an existing
+	 * <code>IConnection</code> and the given framing.
+	 * 
+	 * @param connection
+	 *            the <code>IConnection</code> to be used for construction.
+	 * @param format
+	 *            the framing of the packets.
+	 * @throws ConfigurationException
+	 *             thrown in case of configuration errors.
+	 * @throws IOException
+	 *             thrown in case of I/O errors.
+	 */
+	public Transceiver (IConnection connection, PacketFormat format) throws ConfigurationException, IOException {
 		if (connection == null)
 			throw new ConfigurationException ("Connection must not be null.");
 		
 		maximumReconnects = 0;
 		this.connection = connection;
+		this.format = format;
 		
 		inputStream = connection.getInputStream();
 		outputStream = connection.getOutputStream();
@@ -195,10 +222,33 @@ public class Transceiver implements ITransceiver {
 //		System.out.println ("Transceiver.send length=" + packet.toByteArray().length);
 		
 		boolean ok = false;
+		byte[] frame = packet.toByteArray (format);
 		
 		while (!ok) {
 			try {
-				outputStream.write (packet.toByteArray());
+				outputStream.write (frame);
+				ok = true;
+				reconnectCounter = 0;
+			} catch (IOException e) {
+				reconnect (e);
+			}
+		}
+	}
+	
+	/**
+	 * Send already encoded packets in one write operation.
+	 * 
+	 * @param frames the buffer containing the encoded packets.
+	 * @param offset the offset of the first packet in the buffer.
+	 * @param length the total length of the packets in bytes.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	public void send (byte[] frames, int offset, int length) throws IOException {
+		boolean ok = false;
+		
+		while (!ok) {
+			try {
+				outputStream.write (frames, offset, length);
 				ok = true;
 				reconnectCounter = 0;
 			} catch (IOException e) {
@@ -216,7 +266,7 @@ public class Transceiver implements ITransceiver {
 		
 		while (!ok) {
 			try {
-				p = new Packet (inputStream);
+				p = new Packet (inputStream, format);
 				ok = true;
 				reconnectCounter = 0;
 			} catch (IOException e) {
@@ -265,6 +315,13 @@ public class Transceiver implements ITransceiver {
 		}
 	}
 	
+	/**
+	 * @return the framing of the packets.
+	 */
+	public PacketFormat getFormat () {
+		return format;
+	}
+	
 	/**
 	 * Return the <code>IConnection</code> of this <code>Transceiver</code>.
 	 * This method is intended for unit testing only.
@@ -21,11 +21,8 @@
 package at.uni_salzburg.cs.ckgroup.communication;
 
 import java.io.IOException;
-import java.lang.reflect.Constructor;
 import java.net.SocketException;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.ArrayDeque;
 import java.util.Properties;
 
 import at.uni_salzburg.cs.ckgroup.ConfigurationException;
@@ -35,6 +32,25 @@ import at.uni_salzburg.cs.ckgroup.util.ObjectFactory;
  * This class links a <code>ITranceiver</code> to a <code>Dispatcher</code>. It
  * is this class that converts <code>Packet</code> objects to
  * <code>IDataTransferObject</code> objects and vice versa.
+ * <p>
+ * Mappings having the <code>coalesce</code> flag set transport state values
+ * like sensor data, where only the latest value matters. If any mapping is
+ * coalescing, a separate <code>Sender</code> thread forwards the
+ * <code>IDataTransferObject</code> objects to the transceiver. It keeps one
+ * slot per coalescing packet type and sends its latest value whenever the
+ * link is free. All other objects, e.g. commands, are sent in order and
+ * without loss, and take precedence over the coalescing ones. The queue of
+ * these ordered objects is bounded, i.e. <code>receive()</code> blocks while
+ * it is full. If the transceiver fails to send a packet, the
+ * <code>Sender</code> reports and counts the failure and continues with the
+ * next packet, just like a failed direct <code>send()</code> does not affect
+ * the following ones.
+ * <p>
+ * If the property <code>batch.length</code> is set, the <code>Sender</code>
+ * combines all pending packets into batches of up to the configured payload
+ * length, but not more than the framing of the transceiver allows, see
+ * <code>PacketBatch</code>. Received batches are split into their packets
+ * before they are dispatched.
  * 
  * @author Clemens Krainer
  */
@@ -100,34 +116,46 @@ public class TransceiverAdapter extends Thread implements ISender, IDataTransfer
 	 * @see PROP_MAPPING_CLASS_NAME_SUFFIX
 	 */
 	public static final String PROP_MAPPING_REGISTER_SUFFIX = ".register";
-
+	
 	/**
-	 * This variable refers to the transceiver in charge.
+	 * The suffix for the coalescing keys of the mapping configuration. This
+	 * property indicates that only the latest value of the mapping needs to be
+	 * transmitted, i.e. that pending values may be replaced by newer ones.
+	 * The default value is false.
+	 * 
+	 * @see PROP_MAPPING_LIST
+	 * @see PROP_MAPPING_PREFIX
+	 * @see PROP_MAPPING_TYPE_SUFFIX
+	 * @see PROP_MAPPING_CLASS_NAME_SUFFIX
 	 */
-	private ITransceiver transceiver;
+	public static final String PROP_MAPPING_COALESCE_SUFFIX = ".coalesce";
 	
 	/**
-	 * This variable maps a packet type to a <code>IDataTransferObject</code> class.
+	 * The property key of the maximum payload length of batch packets. The
+	 * value must suit the framing of the transceiver, e.g. not exceed 255
+	 * bytes for the <code>LEGACY</code> framing. The default value zero
+	 * disables batching.
+	 * 
+	 * @see PacketBatch
 	 */
-	private Map<Integer,Class<?>> packetTypeToDtoMap = new HashMap<Integer,Class<?>>();
+	public static final String PROP_BATCH_LENGTH = "batch.length";
 	
 	/**
-	 * This variable maps a <code>IDataTransferObject</code> class to a packet type.
+	 * The property key of the maximum number of ordered packets the
+	 * <code>Sender</code> thread queues before <code>receive()</code> blocks.
+	 * The default value is 128.
 	 */
-	private Map<Class<?>,Integer> dtoToPacketTypeMap = new HashMap<Class<?>,Integer>();
-	
+	public static final String PROP_SENDER_QUEUE_LENGTH = "sender.queue.length";
+
 	/**
-	 * This variable maps a packet type to the <code>IDataTransferObject</code> class
-	 * constructor that takes a byte array as parameter.
+	 * This variable refers to the transceiver in charge.
 	 */
-	private Map<Integer,Constructor<?>> packetTypeToConstructorMap = new HashMap<Integer,Constructor<?>>();
+	private ITransceiver transceiver;
 	
 	/**
-	 * This variable maps a <code>IDataTransferObject</code> class to a boolean value that
-	 * indicates whether the class should be registered with the associated
-	 * dispatcher.
+	 * The mapping of packet types to <code>IDataTransferObject</code> classes.
 	 */
-	private Map<Class<?>, Boolean> classToRegisterMap = new HashMap<Class<?>, Boolean>();
+	private DataTransferObjectMapping mapping;
 	
 	/**
 	 * The associated dispatcher.
@@ -146,6 +174,27 @@ public class TransceiverAdapter extends Thread implements ISender, IDataTransfer
 	 */
 	private boolean reconnectingAllowed;
 	
+	/**
+	 * The thread forwarding the <code>IDataTransferObject</code> objects to
+	 * the transceiver if coalescing mappings are configured, null otherwise.
+	 */
+	private Sender sender = null;
+	
+	/**
+	 * The maximum payload length of batch packets or zero.
+	 */
+	private int batchLength = 0;
+	
+	/**
+	 * The maximum number of queued ordered packets of the <code>Sender</code>.
+	 */
+	private int senderQueueLength;
+	
+	/**
+	 * The framing of the transceiver.
+	 */
+	private PacketFormat format;
+	
 	/**
 	 * Construct a <code>TransceiverAdapter</code> and create the underlying
 	 * transceiver from the given <code>Properties</code>.
@@ -190,65 +239,20 @@ public class TransceiverAdapter extends Thread implements ISender, IDataTransfer
 	 * @throws ConfigurationException thrown in case of configuration or initialization errors.
 	 */
 	public void init (Properties props) throws ConfigurationException {
-		String mappingListString = props.getProperty (PROP_MAPPING_LIST);
-		if (mappingListString == null || "".equals(mappingListString))
-			throw new ConfigurationException ("Property " + PROP_MAPPING_LIST + " not configured.");
-		
-		String[] mappingList = mappingListString.trim().split ("\\s*,\\s*");
-//		String[] mappingList = StringUtils.splitOnCharAndTrim(',', mappingListString);
-		for (int k=0; k < mappingList.length; k++) {
-			String typePropString = PROP_MAPPING_PREFIX + mappingList[k] + PROP_MAPPING_TYPE_SUFFIX;
-			String typeString = props.getProperty (typePropString);
-			if (typeString == null || "".equals(typeString))
-				throw new ConfigurationException ("Property " + typePropString + " not configured.");
-
-			String regPropString = PROP_MAPPING_PREFIX + mappingList[k] + PROP_MAPPING_REGISTER_SUFFIX;
-			String regString = props.getProperty (regPropString, "false");
-			Boolean register = Boolean.valueOf (regString);
-			
-			
-			String classPropString = PROP_MAPPING_PREFIX + mappingList[k] + PROP_MAPPING_CLASS_NAME_SUFFIX;
-			String className = props.getProperty (classPropString);
-			if (className == null || "".equals(className))
-				throw new ConfigurationException ("Property " + classPropString + " not configured.");
-
-			try {
-				Class<?> classInstance = Class.forName (className);
-				Class<?>[] interfaces = classInstance.getInterfaces();
-				
-				boolean isADTO = false;
-				for (int j=0; j < interfaces.length; j++)
-					if (interfaces[j] == IDataTransferObject.class)
-						isADTO = true;
-				
-				if (!isADTO) {
-					interfaces = classInstance.getSuperclass().getInterfaces();
-					for (int j=0; j < interfaces.length; j++)
-						if (interfaces[j] == IDataTransferObject.class)
-							isADTO = true;
-				}
-				
-				if (!isADTO)
-					throw new ConfigurationException ("Class " + className + " at " + classPropString +
-							" is no derivative of " + IDataTransferObject.class.getName());
-				
-	        	Class<?> partypes[] = new Class[1];
-	            partypes[0] = byte[].class;
-
-	            Constructor<?> ctor = classInstance.getConstructor (partypes);
-				
-				Integer typeIndex = Integer.valueOf (typeString); 
-				if (typeIndex.intValue() <= 0)
-					throw new ConfigurationException ("Property " + typePropString +
-							" has not been assigned a number > 0.");
-				
-				packetTypeToDtoMap.put (typeIndex, classInstance);
-				dtoToPacketTypeMap.put (classInstance, typeIndex);
-				packetTypeToConstructorMap.put (typeIndex, ctor);
-				classToRegisterMap.put(classInstance, register);
-			} catch (Exception e) {
-				throw new ConfigurationException (e);
-			}
+		mapping = new DataTransferObjectMapping (props);
+		batchLength = Integer.parseInt (props.getProperty (PROP_BATCH_LENGTH, "0"));
+		if (batchLength != 0 && (batchLength <= PacketBatch.ENTRY_OVERHEAD || batchLength > Packet.MAXIMUM_PAYLOAD_LENGTH))
+			throw new ConfigurationException ("Property " + PROP_BATCH_LENGTH + " must be zero or in the range from " +
+				(PacketBatch.ENTRY_OVERHEAD + 1) + " to " + Packet.MAXIMUM_PAYLOAD_LENGTH + ".");
+		senderQueueLength = Integer.parseInt (props.getProperty (PROP_SENDER_QUEUE_LENGTH, "128"));
+		if (senderQueueLength <= 0)
+			throw new ConfigurationException ("Property " + PROP_SENDER_QUEUE_LENGTH + " must be greater than zero.");
+		format = getFormat (transceiver);
+		if (batchLength > format.getMaximumPayloadLength ())
+			batchLength = format.getMaximumPayloadLength ();
+		if ((mapping.hasCoalescingTypes() || batchLength > 0) && sender == null) {
+			sender = new Sender ();
+			sender.start ();
 		}
 	}
 	
@@ -261,14 +265,7 @@ public class TransceiverAdapter extends Thread implements ISender, IDataTransfer
 	 */
 	public void setDtoProvider (IDataTransferObjectProvider dtoProvider) {
 		this.dtoProvider = dtoProvider;
-		
-		Iterator<Class<?>> i = dtoToPacketTypeMap.keySet().iterator();
-		while (i.hasNext()) {
-			Class<?> classInstance = i.next();
-			Boolean register = (Boolean) classToRegisterMap.get (classInstance);
-			if (register.booleanValue())
-				dtoProvider.addDataTransferObjectListener (this, classInstance);
-		}
+		mapping.register (dtoProvider, this);
 	}
 
 	/* (non-Javadoc)
@@ -276,14 +273,246 @@ public class TransceiverAdapter extends Thread implements ISender, IDataTransfer
 	 */
 	public void receive (IDataTransferObject dto) throws IOException {
 		// receive data from dispatcher and forward it to the transceiver.
-		Integer typeIndex = (Integer) dtoToPacketTypeMap.get (dto.getClass());
-		if (typeIndex == null)
+		int typeIndex = mapping.getPacketType (dto.getClass());
+		if (typeIndex < 0)
 			throw new IOException ("No mapping found for IDataTransferObject: " + dto.getClass().toString());
 			
-		byte type  = typeIndex.byteValue();
+		if (sender != null) {
+			sender.enqueue (typeIndex, dto);
+			return;
+		}
+		
+		byte type  = (byte) typeIndex;
 		Packet packet = new Packet (type, dto.toByteArray());
 		transceiver.send (packet);
 	}
+	
+	/**
+	 * @return the number of coalescing <code>IDataTransferObject</code>
+	 *         objects that have been replaced by newer ones before they could be
+	 *         sent.
+	 */
+	public long getReplacedCounter () {
+		return sender == null ? 0 : sender.replaced;
+	}
+	
+	/**
+	 * @return the number of packets the <code>Sender</code> thread failed to
+	 *         send.
+	 */
+	public long getSendFailures () {
+		return sender == null ? 0 : sender.failures;
+	}
+	
+	/**
+	 * Determine the framing of a transceiver. Transceivers not revealing
+	 * their framing are assumed to use the <code>LEGACY</code> framing.
+	 * 
+	 * @param transceiver the transceiver.
+	 * @return the framing of the transceiver.
+	 */
+	private static PacketFormat getFormat (ITransceiver transceiver) {
+		if (transceiver instanceof Transceiver)
+			return ((Transceiver) transceiver).getFormat ();
+		if (transceiver instanceof BufferedTransceiver)
+			return ((BufferedTransceiver) transceiver).getFormat ();
+		return PacketFormat.LEGACY;
+	}
+	
+	/**
+	 * The <code>Sender</code> thread forwards the <code>IDataTransferObject</code>
+	 * objects to the transceiver. Ordered objects are queued, coalescing objects
+	 * replace pending objects of the same packet type. A failed transmission
+	 * is reported and counted, and the thread continues with the next packet.
+	 * 
+	 * @author Clemens Krainer
+	 */
+	class Sender extends Thread {
+		
+		/**
+		 * The packets of the ordered objects.
+		 */
+		private ArrayDeque<Packet> ordered = new ArrayDeque<Packet> ();
+		
+		/**
+		 * The latest pending object per coalescing packet type.
+		 */
+		private IDataTransferObject[] latest = new IDataTransferObject[DataTransferObjectMapping.NUMBER_OF_PACKET_TYPES];
+		
+		/**
+		 * The coalescing packet types having a pending object, in order of arrival.
+		 */
+		private ArrayDeque<Integer> pendingTypes = new ArrayDeque<Integer> ();
+		
+		/**
+		 * The number of replaced coalescing objects.
+		 */
+		volatile long replaced = 0;
+		
+		/**
+		 * The number of packets that could not be sent.
+		 */
+		volatile long failures = 0;
+		
+		/**
+		 * This variable indicates a running <code>Sender</code> thread.
+		 */
+		private volatile boolean active = true;
+		
+		/**
+		 * The batch under construction or null if batching is disabled.
+		 */
+		private PacketBatch batch = batchLength > 0 ? new PacketBatch (batchLength) : null;
+		
+		/**
+		 * The packet that did not fit into the previous batch.
+		 */
+		private Packet carry = null;
+		
+		/**
+		 * Construct a <code>Sender</code>.
+		 */
+		Sender () {
+			super ("TransceiverAdapter.Sender");
+			setDaemon (true);
+		}
+		
+		/**
+		 * Add an object for transmission.
+		 * 
+		 * @param type the packet type of the object.
+		 * @param dto the object to be sent.
+		 * @throws IOException thrown if the object can not be converted to a
+		 *             packet, or if the <code>Sender</code> has been terminated.
+		 */
+		void enqueue (int type, IDataTransferObject dto) throws IOException {
+			if (mapping.isCoalescing (type)) {
+				synchronized (this) {
+					checkActive ();
+					if (latest[type] == null)
+						pendingTypes.add (Integer.valueOf (type));
+					else
+						++replaced;
+					latest[type] = dto;
+					notifyAll ();
+				}
+				return;
+			}
+			
+			Packet packet = new Packet ((byte) type, dto.toByteArray());
+			synchronized (this) {
+				while (active && ordered.size () >= senderQueueLength)
+					try { wait (); } catch (InterruptedException e) { }
+				checkActive ();
+				ordered.add (packet);
+				notifyAll ();
+			}
+		}
+		
+		/**
+		 * Verify that the <code>Sender</code> is still able to send packets.
+		 * 
+		 * @throws IOException thrown if the <code>Sender</code> has been
+		 *             terminated.
+		 */
+		private void checkActive () throws IOException {
+			if (!active)
+				throw new IOException ("Sender terminated.");
+		}
+		
+		/* (non-Javadoc)
+		 * @see java.lang.Thread#run()
+		 */
+		public void run () {
+			while (active) {
+				Packet packet = carry;
+				carry = null;
+				try {
+					if (packet == null)
+						packet = next (true);
+					if (packet == null)
+						break;
+					if (batch != null)
+						packet = fillBatch (packet);
+					packet.checkPayloadLength (format);
+					transceiver.send (packet);
+				} catch (IOException e) {
+					if (batch != null)
+						batch.clear ();
+					if (active) {
+						++failures;
+						System.err.println ("TransceiverAdapter.Sender: Can not send packet of type "
+							+ (packet == null ? "?" : Integer.toString (packet.getType () & 0xFF)) + ": " + e.getMessage ());
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Take the next pending packet. Ordered packets take precedence over
+		 * coalescing ones.
+		 * 
+		 * @param wait true to wait for a pending packet.
+		 * @return the next packet or null if the <code>Sender</code> has been
+		 *         terminated or no packet is pending and waiting is not requested.
+		 * @throws IOException thrown if an object can not be converted to a packet.
+		 */
+		private Packet next (boolean wait) throws IOException {
+			Packet packet;
+			int type;
+			IDataTransferObject dto;
+			synchronized (this) {
+				while (wait && active && ordered.isEmpty() && pendingTypes.isEmpty())
+					try { wait (); } catch (InterruptedException e) { }
+				if (!active)
+					return null;
+				packet = ordered.poll ();
+				if (packet != null) {
+					notifyAll ();
+					return packet;
+				}
+				if (pendingTypes.isEmpty())
+					return null;
+				type = pendingTypes.poll ().intValue();
+				dto = latest[type];
+				latest[type] = null;
+			}
+			return new Packet ((byte) type, dto.toByteArray());
+		}
+		
+		/**
+		 * Combine the given packet with the other pending packets to a batch.
+		 * 
+		 * @param first the first packet of the batch.
+		 * @return the batch packet, or the given packet if no other packet is
+		 *         pending or the given packet exceeds the batch length.
+		 * @throws IOException thrown if an object can not be converted to a packet.
+		 */
+		private Packet fillBatch (Packet first) throws IOException {
+			if (!batch.add (first))
+				return first;
+			
+			Packet packet;
+			while ((packet = next (false)) != null)
+				if (!batch.add (packet)) {
+					carry = packet;
+					break;
+				}
+			
+			if (batch.size () > 1)
+				return batch.toPacket ();
+			batch.clear ();
+			return first;
+		}
+		
+		/**
+		 * Terminate the <code>Sender</code> thread.
+		 */
+		synchronized void terminate () {
+			active = false;
+			notifyAll ();
+		}
+	}
 
 	/* (non-Javadoc)
 	 * @see java.lang.Thread#run()
@@ -295,15 +524,11 @@ public class TransceiverAdapter extends Thread implements ISender, IDataTransfer
 		while (running) {
 			try {
 				packet = transceiver.receive();
-				Integer typeIndex = new Integer (packet.getType()&0xFF);
-	            Constructor<?> ctor = packetTypeToConstructorMap.get (typeIndex);
-	            if (ctor == null)
-	            	throw new ConfigurationException ("No mapping found for packet type " + typeIndex + " (" + Thread.currentThread().getName() + ")");
-	            Object arglist[] = new Object[1];
-	            arglist[0] = packet.getPayload();
-	            IDataTransferObject dto = (IDataTransferObject) ctor.newInstance (arglist);
-	            if (dtoProvider != null)
-	            	dtoProvider.dispatch(this, dto);
+				if (packet.getType() == PacketBatch.TYPE) {
+					for (Packet p : PacketBatch.split (packet))
+						dispatch (p);
+				} else
+					dispatch (packet);
 			} catch (CommunicationException e) {
 				e.printStackTrace();
 				Thread.yield();
@@ -324,12 +549,27 @@ public class TransceiverAdapter extends Thread implements ISender, IDataTransfer
 			dtoProvider.removeIDataTransferObjectListener (this);
 	}
 	
+	/**
+	 * Convert a received packet and forward it to the dispatcher.
+	 * 
+	 * @param packet the received packet.
+	 * @throws ConfigurationException thrown if there is no mapping for the packet type.
+	 * @throws IOException thrown if the packet can not be converted or dispatched.
+	 */
+	private void dispatch (Packet packet) throws ConfigurationException, IOException {
+		IDataTransferObject dto = mapping.createDto (packet.getType()&0xFF, packet.getPayload());
+		if (dtoProvider != null)
+			dtoProvider.dispatch(this, dto);
+	}
+	
 	/**
 	 * Terminate the transceiver reading thread.
 	 */
 	public void terminate () {
 		running = false;
 		reconnectingAllowed = false;
+		if (sender != null)
+			sender.terminate ();
 		transceiver.close();
 	}
 	
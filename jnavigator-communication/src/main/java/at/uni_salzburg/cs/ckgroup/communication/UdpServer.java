@@ -75,7 +75,7 @@ public class UdpServer extends UdpSocketServer implements ITransceiver, IDataTra
 	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#send(at.uni_salzburg.cs.ckgroup.communication.Packet)
 	 */
 	public void send(Packet packet) throws IOException {
-		byte[] bytes = packet.toByteArray();
+		byte[] bytes = packet.toByteArray (PacketFormat.LEGACY);
 		sendDatagram(bytes, bytes.length);
 	}
 
@@ -20,7 +20,10 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.AltitudeLimitLayout;
 
 
 public class AltitudeLimit implements IDataTransferObject {
@@ -38,7 +41,7 @@ public class AltitudeLimit implements IDataTransferObject {
 	/**
      * The length of the payload in bytes.
      */
-    private static final int payloadLength = 2;
+    private static final int payloadLength = AltitudeLimitLayout.PAYLOAD_LENGTH;
     
     /**
      * Construct an <code>AltitudeLimit</code> object.
@@ -55,20 +58,16 @@ public class AltitudeLimit implements IDataTransferObject {
      * @param data the byte array that contains the data.
      */
     public AltitudeLimit (byte[] data) {
-    	int k = 0;
-    	limit = (short) ((0xFF & data[k++]) << 8 | (0xFF & data[k++]));
+    	limit = AltitudeLimitLayout.getLimit (ByteBuffer.wrap (data), 0);
     }
     
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject#toByteArray()
 	 */
 	public byte[] toByteArray() {
-		byte[] data = new byte[payloadLength];
-		
-		int k=0;
-		data[k++] = (byte) (limit >> 8);
-		data[k++] = (byte) (limit & 0xFF);
-		return data;
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		AltitudeLimitLayout.putLimit (buf, 0, limit);
+		return buf.array ();
 	}
 	
 	/**
@@ -20,7 +20,11 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
+import at.uni_salzburg.cs.ckgroup.communication.CommunicationException;
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.CommandDataLayout;
 
 
 /**
@@ -68,7 +72,15 @@ public class CommandData implements IDataTransferObject {
     /**
      * The length of the payload in bytes.
      */
-    private static final int payloadLength = 8;
+    private static final int payloadLength = CommandDataLayout.PAYLOAD_LENGTH;
+    
+    /**
+     * Construct an <code>CommandData</code> object, having all values set to
+     * zero. Use <code>decodeFrom()</code> to fill in the data.
+     */
+    public CommandData () {
+    	roll = pitch = yaw = heightAboveGround = 0;
+    }
     
     /**
 	 * Construct an <code>CommandData</code> object.
@@ -91,30 +103,73 @@ public class CommandData implements IDataTransferObject {
      * @param data the byte array that contains the data.
      */
     public CommandData (byte[] data) {
-    	int k = 0;
-    	roll =  (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-    	pitch = (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-    	yaw  =  (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-    	heightAboveGround  = (short) ((data[k++] << 8) | (data[k++] & 0xFF));
+    	decode (ByteBuffer.wrap (data), 0);
     }
     
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject#toByteArray()
 	 */
 	public byte[] toByteArray () {
-		byte[] data = new byte[payloadLength];
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		encode (buf, 0);
+		return buf.array ();
+	}
+	
+	/**
+	 * Update this <code>CommandData</code> object from the current position of
+	 * a <code>ByteBuffer</code> without allocating memory. The position of the
+	 * buffer is advanced by <code>payloadLength</code> bytes.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @throws CommunicationException thrown in case of an insufficient number of remaining bytes.
+	 */
+	public void decodeFrom (ByteBuffer buf) throws CommunicationException {
+		if (payloadLength > buf.remaining())
+			throw new CommunicationException ("Input data length of " + buf.remaining() +
+					" is smaller than the expected length of " + payloadLength + " bytes");
 		
-		int k=0;
-		data[k++] = (byte) (roll >> 8);
-		data[k++] = (byte) (roll & 0xFF);
-		data[k++] = (byte) (pitch >> 8);
-		data[k++] = (byte) (pitch & 0xFF);
-		data[k++] = (byte) (yaw >> 8);
-		data[k++] = (byte) (yaw & 0xFF);
-		data[k++] = (byte) (heightAboveGround >> 8);
-		data[k++] = (byte) (heightAboveGround & 0xFF);
-			
-		return data;
+		decode (buf, buf.position ());
+		buf.position (buf.position () + payloadLength);
+	}
+	
+	/**
+	 * Write this <code>CommandData</code> object to the current position of a
+	 * <code>ByteBuffer</code> without allocating memory. The result equals the
+	 * array returned by <code>toByteArray()</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 */
+	public void encodeTo (ByteBuffer buf) {
+		encode (buf, buf.position ());
+		buf.position (buf.position () + payloadLength);
+	}
+	
+	/**
+	 * Read the fields of this <code>CommandData</code> object from a payload
+	 * according to <code>CommandDataLayout</code>.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void decode (ByteBuffer buf, int base) {
+		roll = CommandDataLayout.getRoll (buf, base);
+		pitch = CommandDataLayout.getPitch (buf, base);
+		yaw = CommandDataLayout.getYaw (buf, base);
+		heightAboveGround = CommandDataLayout.getHeightAboveGround (buf, base);
+	}
+	
+	/**
+	 * Write the fields of this <code>CommandData</code> object to a payload
+	 * according to <code>CommandDataLayout</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void encode (ByteBuffer buf, int base) {
+		CommandDataLayout.putRoll (buf, base, roll);
+		CommandDataLayout.putPitch (buf, base, pitch);
+		CommandDataLayout.putYaw (buf, base, yaw);
+		CommandDataLayout.putHeightAboveGround (buf, base, heightAboveGround);
 	}
 	
 	/**
@@ -20,11 +20,13 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
 import java.util.Locale;
 import java.util.Properties;
 
 import at.uni_salzburg.cs.ckgroup.communication.CommunicationException;
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.ControllerParametersLayout;
 
 /**
  * This abstract class contains all control parameters for one controller of the
@@ -44,7 +46,7 @@ public abstract class ControllerParameters implements IDataTransferObject {
 	private short kDerivative;
 	private short kSecondDerivative;
 
-	private static final int payloadLength = 8;
+	private static final int payloadLength = ControllerParametersLayout.PAYLOAD_LENGTH;
 	
 	private static final double FACTOR_PARAMETER = 1000.0;
 	
@@ -85,28 +87,23 @@ public abstract class ControllerParameters implements IDataTransferObject {
 					+ data.length + " is not equal to the expected length of "
 					+ payloadLength + " bytes");
 
-		int k = 0;
-		kProportional = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
-		kIntegral = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
-		kDerivative = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
-		kSecondDerivative = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
+		ByteBuffer buf = ByteBuffer.wrap (data);
+		kProportional = ControllerParametersLayout.getKProportional (buf, 0);
+		kIntegral = ControllerParametersLayout.getKIntegral (buf, 0);
+		kDerivative = ControllerParametersLayout.getKDerivative (buf, 0);
+		kSecondDerivative = ControllerParametersLayout.getKSecondDerivative (buf, 0);
 	}
 
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject#toByteArray()
 	 */
 	public byte[] toByteArray() {
-		byte[] data = new byte[payloadLength];
-		int k = 0;
-		data[k++] = (byte) (kProportional >> 8);
-		data[k++] = (byte) (kProportional & 0xFF);
-		data[k++] = (byte) (kIntegral >> 8);
-		data[k++] = (byte) (kIntegral & 0xFF);
-		data[k++] = (byte) (kDerivative >> 8);
-		data[k++] = (byte) (kDerivative & 0xFF);
-		data[k++] = (byte) (kSecondDerivative >> 8);
-		data[k++] = (byte) (kSecondDerivative & 0xFF);
-		return data;
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		ControllerParametersLayout.putKProportional (buf, 0, kProportional);
+		ControllerParametersLayout.putKIntegral (buf, 0, kIntegral);
+		ControllerParametersLayout.putKDerivative (buf, 0, kDerivative);
+		ControllerParametersLayout.putKSecondDerivative (buf, 0, kSecondDerivative);
+		return buf.array ();
 	}
 
 	/* (non-Javadoc)
@@ -20,7 +20,10 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.EnableSensorsLayout;
 
 
 public class EnableSensors implements IDataTransferObject {
@@ -33,7 +36,7 @@ public class EnableSensors implements IDataTransferObject {
 	/**
      * The length of the payload in bytes.
      */
-    private static final int payloadLength = 1;
+    private static final int payloadLength = EnableSensorsLayout.PAYLOAD_LENGTH;
     
 	/**
 	 * Construct an <code>EnableSensors</code> object.
@@ -50,16 +53,16 @@ public class EnableSensors implements IDataTransferObject {
      * @param data the byte array that contains the data.
      */
     public EnableSensors (byte[] data) {
-    	this.data = data[0];
+    	this.data = EnableSensorsLayout.getData (ByteBuffer.wrap (data), 0);
     }
     
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject#toByteArray()
 	 */
 	public byte[] toByteArray() {
-		byte[] data = new byte[payloadLength];
-		data[0] = this.data;
-		return data;
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		EnableSensorsLayout.putData (buf, 0, data);
+		return buf.array ();
 	}
 	
 	/**
@@ -20,8 +20,11 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
 import at.uni_salzburg.cs.ckgroup.communication.CommunicationException;
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.GroundReportLayout;
 
 public class GroundReport implements IDataTransferObject {
 
@@ -31,6 +34,10 @@ public class GroundReport implements IDataTransferObject {
 	private byte state;
 	private byte mode;
 	
+	/**
+	 * The length of this data transfer object in bytes when converted to a byte array.
+	 */
+	public static final int payloadLength = GroundReportLayout.PAYLOAD_LENGTH;
 	
 	/**
 	 * Construct an empty <code>GroundReport</code> data transfer object.
@@ -47,42 +54,91 @@ public class GroundReport implements IDataTransferObject {
 	 */
 	public GroundReport (byte[] data) throws CommunicationException {
 
-		int k = 0;
-		sensorData = new SensorData(data);
-		k += SensorData.payloadLength;
-		motorSignals = new MotorSignals(data, k);
-		k += MotorSignals.payloadLength;
-		motorOffsets = new MotorOffsets(data, k);
-		k += MotorOffsets.payloadLength;
-		state = data[k++];
-		mode = data[k];
+		if (payloadLength > data.length)
+			throw new CommunicationException ("Input data length of " + data.length +
+					" is smaller than the expected length of " + payloadLength + " bytes");
+
+		sensorData = new SensorData ();
+		motorSignals = new MotorSignals ();
+		motorOffsets = new MotorOffsets ();
+		decode (ByteBuffer.wrap (data), 0);
 	}
 	
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject#toByteArray()
 	 */
 	public byte[] toByteArray() {
-		
-		byte[] sdChunk = sensorData.toByteArray();
-		byte[] msChunk = motorSignals.toByteArray();
-		byte[] moChunk = motorOffsets.toByteArray();
-		
-		byte[] b = new byte[sdChunk.length + msChunk.length + moChunk.length + 2];
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		encode (buf, 0);
+		return buf.array ();
+	}
 
-		int k=0;
-		for (int i=0; i < sdChunk.length; i++)
-			b[k++] = sdChunk[i];
-		
-		for (int i=0; i < msChunk.length; i++)
-			b[k++] = msChunk[i];
-		
-		for (int i=0; i < moChunk.length; i++)
-			b[k++] = moChunk[i];
+	/**
+	 * Update this <code>GroundReport</code> object from the current position of
+	 * a <code>ByteBuffer</code>. The contained <code>SensorData</code>,
+	 * <code>MotorSignals</code> and <code>MotorOffsets</code> objects are
+	 * updated in place, i.e. memory is allocated only for missing parts. The
+	 * position of the buffer is advanced by <code>payloadLength</code> bytes.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @throws CommunicationException thrown in case of an insufficient number of remaining bytes.
+	 */
+	public void decodeFrom (ByteBuffer buf) throws CommunicationException {
+		if (payloadLength > buf.remaining())
+			throw new CommunicationException ("Input data length of " + buf.remaining() +
+					" is smaller than the expected length of " + payloadLength + " bytes");
 		
-		b[k++] = state;
-		b[k++] = mode;
+		if (sensorData == null)
+			sensorData = new SensorData ();
+		if (motorSignals == null)
+			motorSignals = new MotorSignals ();
+		if (motorOffsets == null)
+			motorOffsets = new MotorOffsets ();
 		
-		return b;
+		decode (buf, buf.position ());
+		buf.position (buf.position () + payloadLength);
+	}
+	
+	/**
+	 * Write this <code>GroundReport</code> object to the current position of a
+	 * <code>ByteBuffer</code> without allocating memory. The result equals the
+	 * array returned by <code>toByteArray()</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 */
+	public void encodeTo (ByteBuffer buf) {
+		encode (buf, buf.position ());
+		buf.position (buf.position () + payloadLength);
+	}
+	
+	/**
+	 * Read the fields of this <code>GroundReport</code> object from a payload
+	 * according to <code>GroundReportLayout</code>.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void decode (ByteBuffer buf, int base) {
+		sensorData.decode (buf, base + GroundReportLayout.SENSOR_DATA);
+		motorSignals.decode (buf, base + GroundReportLayout.MOTOR_SIGNALS);
+		motorOffsets.decode (buf, base + GroundReportLayout.MOTOR_OFFSETS);
+		state = GroundReportLayout.getState (buf, base);
+		mode = GroundReportLayout.getMode (buf, base);
+	}
+	
+	/**
+	 * Write the fields of this <code>GroundReport</code> object to a payload
+	 * according to <code>GroundReportLayout</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void encode (ByteBuffer buf, int base) {
+		sensorData.encode (buf, base + GroundReportLayout.SENSOR_DATA);
+		motorSignals.encode (buf, base + GroundReportLayout.MOTOR_SIGNALS);
+		motorOffsets.encode (buf, base + GroundReportLayout.MOTOR_OFFSETS);
+		GroundReportLayout.putState (buf, base, state);
+		GroundReportLayout.putMode (buf, base, mode);
 	}
 
 	public SensorData getSensorData() {
@@ -20,7 +20,10 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.JaviatorDataLayout;
 
 public class JaviatorData implements IDataTransferObject {
 	
@@ -79,7 +82,7 @@ public class JaviatorData implements IDataTransferObject {
 	/**
      * The length of the payload in bytes.
      */
-    private static final int payloadLength = 48;
+    private static final int payloadLength = JaviatorDataLayout.PAYLOAD_LENGTH;
 
 	/**
 	 * Construct an empty <code>JaviatorData</code> data transfer object.
@@ -94,78 +97,71 @@ public class JaviatorData implements IDataTransferObject {
      * @param data the byte array that contains the data.
      */
     public JaviatorData (byte[] data) {
-    	int k = 0;
-
-    	maps =	(long) (((data[k++] & 0xFF) << 24) | ((data[k++] & 0xFF) << 16) | ((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	temp =	(short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	batt =	(short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	sonar =	(short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	state =	(short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	id =	(short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	
-    	x_pos[0] = data[k++];	x_pos[1] = data[k++];
-    	x_pos[2] = data[k++];	x_pos[3] = data[k++];
-    	x_pos[4] = data[k++];	x_pos[5] = data[k++];
-    	x_pos[6] = data[k++];	x_pos[7] = data[k++];
-    	
-    	y_pos[0] = data[k++];	y_pos[1] = data[k++];
-    	y_pos[2] = data[k++];	y_pos[3] = data[k++];
-    	y_pos[4] = data[k++];	y_pos[5] = data[k++];
-    	y_pos[6] = data[k++];	y_pos[7] = data[k++];
-    	
-    	roll =  (short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	pitch = (short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	yaw  =  (short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	droll =  (short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	dpitch = (short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	dyaw  =  (short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	ddx =  (short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	ddy = (short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
-    	ddz  =  (short) (((data[k++] & 0xFF) << 8) | (data[k++] & 0xFF));
+    	decode (ByteBuffer.wrap (data), 0);
     }
     
 	public byte[] toByteArray() {
-		
-		byte[] data = new byte[payloadLength];
-		
-		int k=0;
-		data[k++] = (byte) ((maps >> 24) & 0xFF);
-		data[k++] = (byte) ((maps >> 16) & 0xFF);
-		data[k++] = (byte) ((maps >> 8) & 0xFF);
-		data[k++] = (byte) (maps & 0xFF);
-		data[k++] = (byte) ((temp >> 8) & 0xFF);
-		data[k++] = (byte) (temp & 0xFF);
-		data[k++] = (byte) ((batt >> 8) & 0xFF);
-		data[k++] = (byte) (batt & 0xFF);
-		data[k++] = (byte) ((sonar >> 8) & 0xFF);
-		data[k++] = (byte) (sonar & 0xFF);
-		data[k++] = (byte) ((state >> 8) & 0xFF);
-		data[k++] = (byte) (state & 0xFF);
-		data[k++] = (byte) ((id >> 8) & 0xFF);
-		data[k++] = (byte) (id & 0xFF);
-		data[k++] = x_pos[0];	data[k++] = x_pos[1];	data[k++] = x_pos[2];	data[k++] = x_pos[3];
-		data[k++] = x_pos[4];	data[k++] = x_pos[5];	data[k++] = x_pos[6];	data[k++] = x_pos[7];
-		data[k++] = y_pos[0];	data[k++] = y_pos[1];	data[k++] = y_pos[2];	data[k++] = y_pos[3];
-		data[k++] = y_pos[4];	data[k++] = y_pos[5];	data[k++] = y_pos[6];	data[k++] = y_pos[7];		
-		data[k++] = (byte) (roll >> 8);
-		data[k++] = (byte) (roll & 0xFF);
-		data[k++] = (byte) (pitch >> 8);
-		data[k++] = (byte) (pitch & 0xFF);
-		data[k++] = (byte) (yaw >> 8);
-		data[k++] = (byte) (yaw & 0xFF);
-		data[k++] = (byte) (droll >> 8);
-		data[k++] = (byte) (droll & 0xFF);
-		data[k++] = (byte) (dpitch >> 8);
-		data[k++] = (byte) (dpitch & 0xFF);
-		data[k++] = (byte) (dyaw >> 8);
-		data[k++] = (byte) (dyaw & 0xFF);
-		data[k++] = (byte) (ddx >> 8);
-		data[k++] = (byte) (ddx & 0xFF);
-		data[k++] = (byte) (ddy >> 8);
-		data[k++] = (byte) (ddy & 0xFF);
-		data[k++] = (byte) (ddz >> 8);
-		data[k++] = (byte) (ddz & 0xFF);
-		return data;
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		encode (buf, 0);
+		return buf.array ();
+	}
+	
+	/**
+	 * Read the fields of this <code>JaviatorData</code> object from a payload
+	 * according to <code>JaviatorDataLayout</code>.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void decode (ByteBuffer buf, int base) {
+		maps = JaviatorDataLayout.getMaps (buf, base);
+		temp = JaviatorDataLayout.getTemp (buf, base);
+		batt = JaviatorDataLayout.getBatt (buf, base);
+		sonar = JaviatorDataLayout.getSonar (buf, base);
+		state = JaviatorDataLayout.getState (buf, base);
+		id = JaviatorDataLayout.getId (buf, base);
+		for (int i = 0; i < x_pos.length; i++) {
+			x_pos[i] = buf.get (base + JaviatorDataLayout.X_POS + i);
+			y_pos[i] = buf.get (base + JaviatorDataLayout.Y_POS + i);
+		}
+		roll = JaviatorDataLayout.getRoll (buf, base);
+		pitch = JaviatorDataLayout.getPitch (buf, base);
+		yaw = JaviatorDataLayout.getYaw (buf, base);
+		droll = JaviatorDataLayout.getDRoll (buf, base);
+		dpitch = JaviatorDataLayout.getDPitch (buf, base);
+		dyaw = JaviatorDataLayout.getDYaw (buf, base);
+		ddx = JaviatorDataLayout.getDdx (buf, base);
+		ddy = JaviatorDataLayout.getDdy (buf, base);
+		ddz = JaviatorDataLayout.getDdz (buf, base);
+	}
+	
+	/**
+	 * Write the fields of this <code>JaviatorData</code> object to a payload
+	 * according to <code>JaviatorDataLayout</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void encode (ByteBuffer buf, int base) {
+		JaviatorDataLayout.putMaps (buf, base, (int) maps);
+		JaviatorDataLayout.putTemp (buf, base, (short) temp);
+		JaviatorDataLayout.putBatt (buf, base, (short) batt);
+		JaviatorDataLayout.putSonar (buf, base, (short) sonar);
+		JaviatorDataLayout.putState (buf, base, (short) state);
+		JaviatorDataLayout.putId (buf, base, (short) id);
+		for (int i = 0; i < x_pos.length; i++) {
+			buf.put (base + JaviatorDataLayout.X_POS + i, x_pos[i]);
+			buf.put (base + JaviatorDataLayout.Y_POS + i, y_pos[i]);
+		}
+		JaviatorDataLayout.putRoll (buf, base, roll);
+		JaviatorDataLayout.putPitch (buf, base, pitch);
+		JaviatorDataLayout.putYaw (buf, base, yaw);
+		JaviatorDataLayout.putDRoll (buf, base, droll);
+		JaviatorDataLayout.putDPitch (buf, base, dpitch);
+		JaviatorDataLayout.putDYaw (buf, base, dyaw);
+		JaviatorDataLayout.putDdx (buf, base, ddx);
+		JaviatorDataLayout.putDdy (buf, base, ddy);
+		JaviatorDataLayout.putDdz (buf, base, ddz);
 	}
 
 	public double getMaps() {
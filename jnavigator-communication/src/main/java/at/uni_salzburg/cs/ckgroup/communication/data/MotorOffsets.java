@@ -20,7 +20,11 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
+import at.uni_salzburg.cs.ckgroup.communication.CommunicationException;
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.MotorOffsetsLayout;
 
 public class MotorOffsets implements IDataTransferObject {
 	
@@ -47,7 +51,7 @@ public class MotorOffsets implements IDataTransferObject {
     /**
      * The length of the payload in bytes.
      */
-    static final int payloadLength = 8;
+    static final int payloadLength = MotorOffsetsLayout.PAYLOAD_LENGTH;
 	
     /**
      * Construct an <code>MotorOffsets</code> object.
@@ -87,30 +91,73 @@ public class MotorOffsets implements IDataTransferObject {
      * @param offset the offset in the byte array where the packet starts.
      */
     public MotorOffsets (byte[] data, int offset) {
-    	int k = offset;
-    	rollOffset =  (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-    	pitchOffset = (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-    	yawOffset  =  (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-    	zOffset  =    (short) ((data[k++] << 8) | (data[k++] & 0xFF));
+    	decode (ByteBuffer.wrap (data), offset);
     }
 	
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject#toByteArray()
 	 */
 	public byte[] toByteArray () {
-		byte[] data = new byte[payloadLength];
-		
-		int k=0;
-		data[k++] = (byte) ((rollOffset >> 8) & 0xFF);
-		data[k++] = (byte) (rollOffset & 0xFF);
-		data[k++] = (byte) ((pitchOffset >> 8) & 0xFF);
-		data[k++] = (byte) (pitchOffset & 0xFF);
-		data[k++] = (byte) ((yawOffset >> 8) & 0xFF);
-		data[k++] = (byte) (yawOffset & 0xFF);
-		data[k++] = (byte) ((zOffset >> 8) & 0xFF);
-		data[k++] = (byte) (zOffset & 0xFF);
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		encode (buf, 0);
+		return buf.array ();
+	}
+	
+	/**
+	 * Update this <code>MotorOffsets</code> object from the current position of
+	 * a <code>ByteBuffer</code> without allocating memory. The position of the
+	 * buffer is advanced by <code>payloadLength</code> bytes.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @throws CommunicationException thrown in case of an insufficient number of remaining bytes.
+	 */
+	public void decodeFrom (ByteBuffer buf) throws CommunicationException {
+		if (payloadLength > buf.remaining())
+			throw new CommunicationException ("Input data length of " + buf.remaining() +
+					" is smaller than the expected length of " + payloadLength + " bytes");
 		
-		return data;
+		decode (buf, buf.position ());
+		buf.position (buf.position () + payloadLength);
+	}
+	
+	/**
+	 * Write this <code>MotorOffsets</code> object to the current position of a
+	 * <code>ByteBuffer</code> without allocating memory. The result equals the
+	 * array returned by <code>toByteArray()</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 */
+	public void encodeTo (ByteBuffer buf) {
+		encode (buf, buf.position ());
+		buf.position (buf.position () + payloadLength);
+	}
+	
+	/**
+	 * Read the fields of this <code>MotorOffsets</code> object from a payload
+	 * according to <code>MotorOffsetsLayout</code>.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 */
+	void decode (ByteBuffer buf, int base) {
+		rollOffset = MotorOffsetsLayout.getRollOffset (buf, base);
+		pitchOffset = MotorOffsetsLayout.getPitchOffset (buf, base);
+		yawOffset = MotorOffsetsLayout.getYawOffset (buf, base);
+		zOffset = MotorOffsetsLayout.getZOffset (buf, base);
+	}
+	
+	/**
+	 * Write the fields of this <code>MotorOffsets</code> object to a payload
+	 * according to <code>MotorOffsetsLayout</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 * @param base the position of the payload in the buffer.
+	 */
+	void encode (ByteBuffer buf, int base) {
+		MotorOffsetsLayout.putRollOffset (buf, base, rollOffset);
+		MotorOffsetsLayout.putPitchOffset (buf, base, pitchOffset);
+		MotorOffsetsLayout.putYawOffset (buf, base, yawOffset);
+		MotorOffsetsLayout.putZOffset (buf, base, zOffset);
 	}
 
 	public short getRollOffset() {
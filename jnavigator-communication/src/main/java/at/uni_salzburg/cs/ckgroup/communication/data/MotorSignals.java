@@ -20,7 +20,11 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
+import at.uni_salzburg.cs.ckgroup.communication.CommunicationException;
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.MotorSignalsLayout;
 
 
 /**
@@ -58,7 +62,7 @@ public class MotorSignals implements IDataTransferObject {
     /**
      * The length of the payload in bytes.
      */
-    static final int payloadLength = 10;
+    static final int payloadLength = MotorSignalsLayout.PAYLOAD_LENGTH;
     
     /**
      * Construct an <code>MotorSignals</code> object, having all parameters set to zero.
@@ -99,33 +103,96 @@ public class MotorSignals implements IDataTransferObject {
      * @param offset the offset in the byte array where the packet starts.
      */
     public MotorSignals (byte[] data, int offset) {
-    	int k = offset;
-    	front = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
-    	right = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
-    	rear  = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
-    	left  = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
-        id    = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
+    	decode (ByteBuffer.wrap (data), offset);
     }
     
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject#toByteArray()
 	 */
 	public byte[] toByteArray () {
-		byte[] data = new byte[payloadLength];
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		encode (buf, 0);
+		return buf.array ();
+	}
+	
+	/**
+	 * Update all motor speeds and the plant identification at once. This
+	 * allows reusing a <code>MotorSignals</code> object instead of creating a
+	 * new one per control cycle.
+	 * 
+	 * @param front the front motor speed in RPM
+	 * @param right the right motor speed in RPM
+	 * @param rear the rear motor speed in RPM
+	 * @param left the left motor speed in RPM
+	 * @param id the JAviator plant identification
+	 * @return this object.
+	 */
+	public MotorSignals set (short front, short right, short rear, short left, int id) {
+		this.front = front;
+		this.right = right;
+		this.rear = rear;
+		this.left = left;
+		this.id = (short)id;
+		return this;
+	}
+	
+	/**
+	 * Update this <code>MotorSignals</code> object from the current position of
+	 * a <code>ByteBuffer</code> without allocating memory. The position of the
+	 * buffer is advanced by <code>payloadLength</code> bytes.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @throws CommunicationException thrown in case of an insufficient number of remaining bytes.
+	 */
+	public void decodeFrom (ByteBuffer buf) throws CommunicationException {
+		if (payloadLength > buf.remaining())
+			throw new CommunicationException ("Input data length of " + buf.remaining() +
+					" is smaller than the expected length of " + payloadLength + " bytes");
 		
-		int k=0;
-		data[k++] = (byte) ((front >> 8) & 0xFF);
-		data[k++] = (byte) (front & 0xFF);
-		data[k++] = (byte) ((right >> 8) & 0xFF);
-		data[k++] = (byte) (right & 0xFF);
-		data[k++] = (byte) ((rear >> 8) & 0xFF);
-		data[k++] = (byte) (rear & 0xFF);
-		data[k++] = (byte) ((left >> 8) & 0xFF);
-		data[k++] = (byte) (left & 0xFF);
-		data[k++] = (byte) ((id >> 8) & 0xFF);
-		data[k++] = (byte) (id & 0xFF);
-			
-		return data;
+		decode (buf, buf.position ());
+		buf.position (buf.position () + payloadLength);
+	}
+	
+	/**
+	 * Write this <code>MotorSignals</code> object to the current position of a
+	 * <code>ByteBuffer</code> without allocating memory. The result equals the
+	 * array returned by <code>toByteArray()</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 */
+	public void encodeTo (ByteBuffer buf) {
+		encode (buf, buf.position ());
+		buf.position (buf.position () + payloadLength);
+	}
+	
+	/**
+	 * Read the fields of this <code>MotorSignals</code> object from a payload
+	 * according to <code>MotorSignalsLayout</code>.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 */
+	void decode (ByteBuffer buf, int base) {
+		front = MotorSignalsLayout.getFront (buf, base);
+		right = MotorSignalsLayout.getRight (buf, base);
+		rear = MotorSignalsLayout.getRear (buf, base);
+		left = MotorSignalsLayout.getLeft (buf, base);
+		id = MotorSignalsLayout.getId (buf, base);
+	}
+	
+	/**
+	 * Write the fields of this <code>MotorSignals</code> object to a payload
+	 * according to <code>MotorSignalsLayout</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 * @param base the position of the payload in the buffer.
+	 */
+	void encode (ByteBuffer buf, int base) {
+		MotorSignalsLayout.putFront (buf, base, front);
+		MotorSignalsLayout.putRight (buf, base, right);
+		MotorSignalsLayout.putRear (buf, base, rear);
+		MotorSignalsLayout.putLeft (buf, base, left);
+		MotorSignalsLayout.putId (buf, base, id);
 	}
 	
 	/* (non-Javadoc)
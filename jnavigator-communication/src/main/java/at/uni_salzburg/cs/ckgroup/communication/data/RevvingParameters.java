@@ -20,7 +20,10 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.RevvingParametersLayout;
 
 /**
  * This class implements a container for revving parameter values.
@@ -52,7 +55,7 @@ public class RevvingParameters implements IDataTransferObject {
 	/**
 	 * The length of the payload in bytes.
 	 */
-	private static final int payloadLength = 10;
+	private static final int payloadLength = RevvingParametersLayout.PAYLOAD_LENGTH;
 
 	public RevvingParameters(double idleSpeedLimit, double revvingUpStep,
 			double revvingDownStep, double integralDownStep) {
@@ -69,30 +72,44 @@ public class RevvingParameters implements IDataTransferObject {
 	 *            the byte array that contains the data.
 	 */
 	public RevvingParameters(byte[] data) {
-		int k = 0;
-		idleSpeedLimit = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
-		revvingUpStep = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
-		revvingDownStep = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
-		integralDownStep = (short) ((data[k++] & 0xFF) << 8 | data[k++] & 0xFF);
+		decode (ByteBuffer.wrap (data), 0);
 	}
 
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject#toByteArray()
 	 */
 	public byte[] toByteArray() {
-		byte[] data = new byte[payloadLength];
-
-		int k = 0;
-		data[k++] = (byte) (idleSpeedLimit >> 8);
-		data[k++] = (byte) (idleSpeedLimit & 0xFF);
-		data[k++] = (byte) (revvingUpStep >> 8);
-		data[k++] = (byte) (revvingUpStep & 0xFF);
-		data[k++] = (byte) (revvingDownStep >> 8);
-		data[k++] = (byte) (revvingDownStep & 0xFF);
-		data[k++] = (byte) (integralDownStep >> 8);
-		data[k++] = (byte) (integralDownStep & 0xFF);
-
-		return data;
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		encode (buf, 0);
+		return buf.array ();
+	}
+	
+	/**
+	 * Read the fields of this <code>RevvingParameters</code> object from a payload
+	 * according to <code>RevvingParametersLayout</code>.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void decode (ByteBuffer buf, int base) {
+		idleSpeedLimit = RevvingParametersLayout.getIdleSpeedLimit (buf, base);
+		revvingUpStep = RevvingParametersLayout.getRevvingUpStep (buf, base);
+		revvingDownStep = RevvingParametersLayout.getRevvingDownStep (buf, base);
+		integralDownStep = RevvingParametersLayout.getIntegralDownStep (buf, base);
+	}
+	
+	/**
+	 * Write the fields of this <code>RevvingParameters</code> object to a payload
+	 * according to <code>RevvingParametersLayout</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void encode (ByteBuffer buf, int base) {
+		RevvingParametersLayout.putIdleSpeedLimit (buf, base, idleSpeedLimit);
+		RevvingParametersLayout.putRevvingUpStep (buf, base, revvingUpStep);
+		RevvingParametersLayout.putRevvingDownStep (buf, base, revvingDownStep);
+		RevvingParametersLayout.putIntegralDownStep (buf, base, integralDownStep);
 	}
 
 }
@@ -20,8 +20,11 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
 import at.uni_salzburg.cs.ckgroup.communication.CommunicationException;
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.SensorDataLayout;
 
 /**
  * This class implements a data transfer object for sensor data from the
@@ -42,6 +45,68 @@ public class SensorData implements IDataTransferObject {
 	public static final double BATTERY_FACTOR = 0.001;
 	public static final double ANGLE_FACTOR_NEW = 0.001;
 	
+	/* field indices for the raw, scaled and bulk accessors */
+	public static final int ROLL = 0;
+	public static final int PITCH = 1;
+	public static final int YAW = 2;
+	public static final int DROLL = 3;
+	public static final int DPITCH = 4;
+	public static final int DYAW = 5;
+	public static final int DDROLL = 6;
+	public static final int DDPITCH = 7;
+	public static final int DDYAW = 8;
+	public static final int X = 9;
+	public static final int Y = 10;
+	public static final int Z = 11;
+	public static final int DX = 12;
+	public static final int DY = 13;
+	public static final int DZ = 14;
+	public static final int DDX = 15;
+	public static final int DDY = 16;
+	public static final int DDZ = 17;
+	public static final int MAPS = 18;
+	public static final int TEMP = 19;
+	public static final int BATTERY = 20;
+	
+	/**
+	 * The number of fields of a <code>SensorData</code> object.
+	 */
+	public static final int NUMBER_OF_FIELDS = 21;
+	
+	/**
+	 * The factors converting the raw values to the scaled values returned by
+	 * the getters, indexed by field.
+	 */
+	private static final double[] SCALE = {
+		ANGLE_FACTOR, ANGLE_FACTOR, ANGLE_FACTOR,
+		ANG_RATE_FACTOR, ANG_RATE_FACTOR, ANG_RATE_FACTOR,
+		ANG_ACCEL_FACTOR, ANG_ACCEL_FACTOR, ANG_ACCEL_FACTOR,
+		LENGTH_FACTOR, LENGTH_FACTOR, LENGTH_FACTOR,
+		VELOCITY_FACTOR, VELOCITY_FACTOR, VELOCITY_FACTOR,
+		ACCEL_FACTOR, ACCEL_FACTOR, ACCEL_FACTOR,
+		MAPS_FACTOR, TEMPERATURE_FACTOR, BATTERY_FACTOR
+	};
+	
+	/**
+	 * The reciprocal values of <code>SCALE</code>.
+	 */
+	private static final double[] INVERSE_SCALE = new double[NUMBER_OF_FIELDS];
+	
+	static {
+		for (int k=0; k < NUMBER_OF_FIELDS; k++)
+			INVERSE_SCALE[k] = 1.0 / SCALE[k];
+	}
+	
+	/* factors converting JaviatorData raw values to SensorData raw values */
+	private static final double JD_ANGLE = 1000.0 * JaviatorData.FACTOR_EULER_ANGLE;
+	private static final double JD_ANGULAR_VEL = 1000.0 * JaviatorData.FACTOR_ANGULAR_VEL;
+	private static final double JD_LINEAR_ACC = 1000.0 * JaviatorData.FACTOR_LINEAR_ACC;
+	private static final double JD_SONAR = 1000.0 * JaviatorData.FACTOR_SONAR;
+	private static final double JD_MAPS = 1000.0 * JaviatorData.FACTOR_BMU_MAPS;
+	private static final double JD_TEMP = 1000.0 * JaviatorData.FACTOR_BMU_TEMP;
+	private static final double JD_TEMP_OFFSET = 1000.0 * JaviatorData.OFFSET_TEMPERATURE;
+	private static final double JD_BATT = 1000.0 * JaviatorData.FACTOR_BMU_BATT;
+	
 	/* scaling constants */
 //	private static final double  FACTOR_EULER_ANGLE = 2000*Math.PI/65536.0;    /* [units] --> [mrad] (2*PI*1000 mrad/2^16) */
 //	private static final double  FACTOR_ANGULAR_VEL = 8500.0/32768.0;          /* [units] --> [mrad/s] */
@@ -161,7 +226,7 @@ public class SensorData implements IDataTransferObject {
 	/**
 	 * The length of this data transfer object in bytes when converted to a byte array.
 	 */
-	static final int payloadLength = 42;
+	public static final int payloadLength = SensorDataLayout.PAYLOAD_LENGTH;
 	
 	/**
 	 * Construct an empty <code>SensorData</code> data transfer object.
@@ -174,27 +239,40 @@ public class SensorData implements IDataTransferObject {
 	 * Construct an empty <code>SensorData</code> data transfer object from an <code>JaviatorData</code> data transfer object.
 	 */
 	public SensorData (JaviatorData jd) {
-		roll = (short)(1000.0 * jd.getRoll());
-		pitch = (short)(1000.0 * jd.getPitch());
-		yaw = (short)(1000.0 * jd.getYaw());
-		dRoll = (short)(1000.0 * jd.getDroll());
-		dPitch = (short)(1000.0 * jd.getDpitch());
-		dYaw = (short)(1000.0 * jd.getDyaw());
+		set (jd);
+	}
+	
+	/**
+	 * Update this <code>SensorData</code> object from an <code>JaviatorData</code>
+	 * data transfer object. This allows reusing a <code>SensorData</code> object
+	 * instead of creating a new one per control cycle.
+	 * 
+	 * @param jd the <code>JaviatorData</code> data transfer object.
+	 * @return this object.
+	 */
+	public SensorData set (JaviatorData jd) {
+		roll = (short)(jd.roll * JD_ANGLE);
+		pitch = (short)(jd.pitch * JD_ANGLE);
+		yaw = (short)(jd.yaw * JD_ANGLE);
+		dRoll = (short)(jd.droll * JD_ANGULAR_VEL);
+		dPitch = (short)(jd.dpitch * JD_ANGULAR_VEL);
+		dYaw = (short)(jd.dyaw * JD_ANGULAR_VEL);
 		ddRoll = 0;
 		ddPitch = 0;
 		ddYaw = 0;
 		x = (short)(1000.0 * jd.getX_pos());
 		y = (short)(1000.0 * jd.getY_pos());
-		z = (short)(1000.0 * jd.getSonar() - 120);
+		z = (short)(jd.sonar * JD_SONAR - 120);
 		dx = 0;
 		dy = 0;
 		dz = 0;
-		ddx = (short)(1000.0 * jd.getDdx());
-		ddy = (short)(1000.0 * jd.getDdy());
-		ddz = (short)(1000.0 * jd.getDdz());
-		maps = (short)(1000.0 * jd.getMaps());
-		temp = (short)(1000.0 * jd.getTemp());
-		battery = (short)(1000.0 * jd.getBatt());
+		ddx = (short)(jd.ddx * JD_LINEAR_ACC);
+		ddy = (short)(jd.ddy * JD_LINEAR_ACC);
+		ddz = (short)(jd.ddz * JD_LINEAR_ACC);
+		maps = (short)(jd.maps * JD_MAPS);
+		temp = (short)(jd.temp * JD_TEMP - JD_TEMP_OFFSET);
+		battery = (short)(jd.batt * JD_BATT);
+		return this;
 	}
 	
 	/**
@@ -208,60 +286,264 @@ public class SensorData implements IDataTransferObject {
 			throw new CommunicationException ("Input data length of " + data.length +
 					" is smaller than the expected length of " + payloadLength + " bytes");
 
-		int k = 0;
-		roll =       (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		pitch =      (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		yaw =        (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		dRoll =      (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		dPitch =     (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		dYaw =       (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		ddRoll =     (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		ddPitch =    (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		ddYaw =      (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		x =          (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		y =          (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		z =          (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		dx =         (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		dy =         (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		dz =         (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		ddx =        (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		ddy =        (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		ddz =        (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		maps =       (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		temp =       (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-		battery =    (short) ((data[k++] << 8) | (data[k++] & 0xFF));
+		decode (ByteBuffer.wrap (data), 0);
 	}
 
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject#toByteArray()
 	 */
 	public byte[] toByteArray () {
-		byte[] data = new byte[payloadLength];
-		int k=0;
-		data[k++] = (byte) (roll >> 8);			data[k++] = (byte) (roll & 0xFF);
-		data[k++] = (byte) (pitch >> 8);		data[k++] = (byte) (pitch & 0xFF);
-		data[k++] = (byte) (yaw >> 8);			data[k++] = (byte) (yaw & 0xFF);
-		data[k++] = (byte) (dRoll >> 8);		data[k++] = (byte) (dRoll & 0xFF);
-		data[k++] = (byte) (dPitch >> 8);		data[k++] = (byte) (dPitch & 0xFF);
-		data[k++] = (byte) (dYaw >> 8);			data[k++] = (byte) (dYaw & 0xFF);
-		data[k++] = (byte) (ddRoll >> 8);		data[k++] = (byte) (ddRoll & 0xFF);
-		data[k++] = (byte) (ddPitch >> 8);		data[k++] = (byte) (ddPitch & 0xFF);
-		data[k++] = (byte) (ddYaw >> 8);		data[k++] = (byte) (ddYaw & 0xFF);
-		data[k++] = (byte) (x >> 8);			data[k++] = (byte) (x & 0xFF);
-		data[k++] = (byte) (y >> 8);			data[k++] = (byte) (y & 0xFF);
-		data[k++] = (byte) (z >> 8);			data[k++] = (byte) (z & 0xFF);
-		data[k++] = (byte) (dx >> 8);			data[k++] = (byte) (dx & 0xFF);
-		data[k++] = (byte) (dy >> 8);			data[k++] = (byte) (dy & 0xFF);
-		data[k++] = (byte) (dz >> 8);			data[k++] = (byte) (dz & 0xFF);
-		data[k++] = (byte) (ddx >> 8);			data[k++] = (byte) (ddx & 0xFF);
-		data[k++] = (byte) (ddy >> 8);			data[k++] = (byte) (ddy & 0xFF);
-		data[k++] = (byte) (ddz >> 8);			data[k++] = (byte) (ddz & 0xFF);
-		data[k++] = (byte) (maps >> 8);		    data[k++] = (byte) (maps & 0xFF);
-		data[k++] = (byte) (temp >> 8);		    data[k++] = (byte) (temp & 0xFF);
-		data[k++] = (byte) (battery >> 8);		data[k++] = (byte) (battery & 0xFF);
-		return data;
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		encode (buf, 0);
+		return buf.array ();
+	}
+
+	/**
+	 * Update this <code>SensorData</code> object from the current position of
+	 * a <code>ByteBuffer</code> without allocating memory. The position of the
+	 * buffer is advanced by <code>payloadLength</code> bytes.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @throws CommunicationException thrown in case of an insufficient number of remaining bytes.
+	 */
+	public void decodeFrom (ByteBuffer buf) throws CommunicationException {
+		if (payloadLength > buf.remaining())
+			throw new CommunicationException ("Input data length of " + buf.remaining() +
+					" is smaller than the expected length of " + payloadLength + " bytes");
+
+		decode (buf, buf.position ());
+		buf.position (buf.position () + payloadLength);
 	}
 
+	/**
+	 * Write this <code>SensorData</code> object to the current position of a
+	 * <code>ByteBuffer</code> without allocating memory. The result equals the
+	 * array returned by <code>toByteArray()</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 */
+	public void encodeTo (ByteBuffer buf) {
+		encode (buf, buf.position ());
+		buf.position (buf.position () + payloadLength);
+	}
+	
+	/**
+	 * Read the fields of this <code>SensorData</code> object from a payload
+	 * according to <code>SensorDataLayout</code>.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 */
+	void decode (ByteBuffer buf, int base) {
+		roll = SensorDataLayout.getRoll (buf, base);
+		pitch = SensorDataLayout.getPitch (buf, base);
+		yaw = SensorDataLayout.getYaw (buf, base);
+		dRoll = SensorDataLayout.getDRoll (buf, base);
+		dPitch = SensorDataLayout.getDPitch (buf, base);
+		dYaw = SensorDataLayout.getDYaw (buf, base);
+		ddRoll = SensorDataLayout.getDdRoll (buf, base);
+		ddPitch = SensorDataLayout.getDdPitch (buf, base);
+		ddYaw = SensorDataLayout.getDdYaw (buf, base);
+		x = SensorDataLayout.getX (buf, base);
+		y = SensorDataLayout.getY (buf, base);
+		z = SensorDataLayout.getZ (buf, base);
+		dx = SensorDataLayout.getDx (buf, base);
+		dy = SensorDataLayout.getDy (buf, base);
+		dz = SensorDataLayout.getDz (buf, base);
+		ddx = SensorDataLayout.getDdx (buf, base);
+		ddy = SensorDataLayout.getDdy (buf, base);
+		ddz = SensorDataLayout.getDdz (buf, base);
+		maps = SensorDataLayout.getMaps (buf, base);
+		temp = SensorDataLayout.getTemp (buf, base);
+		battery = SensorDataLayout.getBattery (buf, base);
+	}
+	
+	/**
+	 * Write the fields of this <code>SensorData</code> object to a payload
+	 * according to <code>SensorDataLayout</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 * @param base the position of the payload in the buffer.
+	 */
+	void encode (ByteBuffer buf, int base) {
+		SensorDataLayout.putRoll (buf, base, roll);
+		SensorDataLayout.putPitch (buf, base, pitch);
+		SensorDataLayout.putYaw (buf, base, yaw);
+		SensorDataLayout.putDRoll (buf, base, dRoll);
+		SensorDataLayout.putDPitch (buf, base, dPitch);
+		SensorDataLayout.putDYaw (buf, base, dYaw);
+		SensorDataLayout.putDdRoll (buf, base, ddRoll);
+		SensorDataLayout.putDdPitch (buf, base, ddPitch);
+		SensorDataLayout.putDdYaw (buf, base, ddYaw);
+		SensorDataLayout.putX (buf, base, x);
+		SensorDataLayout.putY (buf, base, y);
+		SensorDataLayout.putZ (buf, base, z);
+		SensorDataLayout.putDx (buf, base, dx);
+		SensorDataLayout.putDy (buf, base, dy);
+		SensorDataLayout.putDz (buf, base, dz);
+		SensorDataLayout.putDdx (buf, base, ddx);
+		SensorDataLayout.putDdy (buf, base, ddy);
+		SensorDataLayout.putDdz (buf, base, ddz);
+		SensorDataLayout.putMaps (buf, base, maps);
+		SensorDataLayout.putTemp (buf, base, temp);
+		SensorDataLayout.putBattery (buf, base, battery);
+	}
+
+	/**
+	 * @param field the index of the field, e.g. <code>ROLL</code>.
+	 * @return the factor converting the raw value of the field to the value
+	 *         returned by its getter.
+	 */
+	public static double getScale (int field) {
+		return SCALE[field];
+	}
+
+	/**
+	 * @param field the index of the field, e.g. <code>ROLL</code>.
+	 * @return the raw value of the field as transmitted.
+	 */
+	public short getRaw (int field) {
+		switch (field) {
+			case ROLL:		return roll;
+			case PITCH:		return pitch;
+			case YAW:		return yaw;
+			case DROLL:		return dRoll;
+			case DPITCH:	return dPitch;
+			case DYAW:		return dYaw;
+			case DDROLL:	return ddRoll;
+			case DDPITCH:	return ddPitch;
+			case DDYAW:		return ddYaw;
+			case X:			return x;
+			case Y:			return y;
+			case Z:			return z;
+			case DX:		return dx;
+			case DY:		return dy;
+			case DZ:		return dz;
+			case DDX:		return ddx;
+			case DDY:		return ddy;
+			case DDZ:		return ddz;
+			case MAPS:		return maps;
+			case TEMP:		return temp;
+			case BATTERY:	return battery;
+			default:
+				throw new IndexOutOfBoundsException ("Invalid field index " + field);
+		}
+	}
+
+	/**
+	 * @param field the index of the field, e.g. <code>ROLL</code>.
+	 * @param value the new raw value of the field.
+	 */
+	public void setRaw (int field, short value) {
+		switch (field) {
+			case ROLL:		roll = value; break;
+			case PITCH:		pitch = value; break;
+			case YAW:		yaw = value; break;
+			case DROLL:		dRoll = value; break;
+			case DPITCH:	dPitch = value; break;
+			case DYAW:		dYaw = value; break;
+			case DDROLL:	ddRoll = value; break;
+			case DDPITCH:	ddPitch = value; break;
+			case DDYAW:		ddYaw = value; break;
+			case X:			x = value; break;
+			case Y:			y = value; break;
+			case Z:			z = value; break;
+			case DX:		dx = value; break;
+			case DY:		dy = value; break;
+			case DZ:		dz = value; break;
+			case DDX:		ddx = value; break;
+			case DDY:		ddy = value; break;
+			case DDZ:		ddz = value; break;
+			case MAPS:		maps = value; break;
+			case TEMP:		temp = value; break;
+			case BATTERY:	battery = value; break;
+			default:
+				throw new IndexOutOfBoundsException ("Invalid field index " + field);
+		}
+	}
+
+	/**
+	 * @param field the index of the field, e.g. <code>ROLL</code>.
+	 * @return the scaled value of the field, i.e. the raw value multiplied by
+	 *         <code>getScale(field)</code>.
+	 */
+	public double getScaled (int field) {
+		return getRaw (field) * SCALE[field];
+	}
+
+	/**
+	 * @param field the index of the field, e.g. <code>ROLL</code>.
+	 * @param value the new scaled value of the field.
+	 */
+	public void setScaled (int field, double value) {
+		setRaw (field, (short) Math.round (value * INVERSE_SCALE[field]));
+	}
+
+	/**
+	 * Convert all fields to scaled values at once. The array is indexed by
+	 * the field indices, e.g. <code>dst[SensorData.Z]</code> equals
+	 * <code>getZ()</code>.
+	 * 
+	 * @param dst the destination array of at least <code>NUMBER_OF_FIELDS</code> elements.
+	 * @return the destination array.
+	 */
+	public double[] toDoubleArray (double[] dst) {
+		dst[ROLL] = roll * SCALE[ROLL];
+		dst[PITCH] = pitch * SCALE[PITCH];
+		dst[YAW] = yaw * SCALE[YAW];
+		dst[DROLL] = dRoll * SCALE[DROLL];
+		dst[DPITCH] = dPitch * SCALE[DPITCH];
+		dst[DYAW] = dYaw * SCALE[DYAW];
+		dst[DDROLL] = ddRoll * SCALE[DDROLL];
+		dst[DDPITCH] = ddPitch * SCALE[DDPITCH];
+		dst[DDYAW] = ddYaw * SCALE[DDYAW];
+		dst[X] = x * SCALE[X];
+		dst[Y] = y * SCALE[Y];
+		dst[Z] = z * SCALE[Z];
+		dst[DX] = dx * SCALE[DX];
+		dst[DY] = dy * SCALE[DY];
+		dst[DZ] = dz * SCALE[DZ];
+		dst[DDX] = ddx * SCALE[DDX];
+		dst[DDY] = ddy * SCALE[DDY];
+		dst[DDZ] = ddz * SCALE[DDZ];
+		dst[MAPS] = maps * SCALE[MAPS];
+		dst[TEMP] = temp * SCALE[TEMP];
+		dst[BATTERY] = battery * SCALE[BATTERY];
+		return dst;
+	}
+
+	/**
+	 * Set all fields from scaled values at once. This is the inverse of
+	 * <code>toDoubleArray()</code>, i.e. the values are rounded to the
+	 * nearest raw value.
+	 * 
+	 * @param src the source array of at least <code>NUMBER_OF_FIELDS</code> elements.
+	 * @return this object.
+	 */
+	public SensorData fromDoubleArray (double[] src) {
+		roll = (short) Math.round (src[ROLL] * INVERSE_SCALE[ROLL]);
+		pitch = (short) Math.round (src[PITCH] * INVERSE_SCALE[PITCH]);
+		yaw = (short) Math.round (src[YAW] * INVERSE_SCALE[YAW]);
+		dRoll = (short) Math.round (src[DROLL] * INVERSE_SCALE[DROLL]);
+		dPitch = (short) Math.round (src[DPITCH] * INVERSE_SCALE[DPITCH]);
+		dYaw = (short) Math.round (src[DYAW] * INVERSE_SCALE[DYAW]);
+		ddRoll = (short) Math.round (src[DDROLL] * INVERSE_SCALE[DDROLL]);
+		ddPitch = (short) Math.round (src[DDPITCH] * INVERSE_SCALE[DDPITCH]);
+		ddYaw = (short) Math.round (src[DDYAW] * INVERSE_SCALE[DDYAW]);
+		x = (short) Math.round (src[X] * INVERSE_SCALE[X]);
+		y = (short) Math.round (src[Y] * INVERSE_SCALE[Y]);
+		z = (short) Math.round (src[Z] * INVERSE_SCALE[Z]);
+		dx = (short) Math.round (src[DX] * INVERSE_SCALE[DX]);
+		dy = (short) Math.round (src[DY] * INVERSE_SCALE[DY]);
+		dz = (short) Math.round (src[DZ] * INVERSE_SCALE[DZ]);
+		ddx = (short) Math.round (src[DDX] * INVERSE_SCALE[DDX]);
+		ddy = (short) Math.round (src[DDY] * INVERSE_SCALE[DDY]);
+		ddz = (short) Math.round (src[DDZ] * INVERSE_SCALE[DDZ]);
+		maps = (short) Math.round (src[MAPS] * INVERSE_SCALE[MAPS]);
+		temp = (short) Math.round (src[TEMP] * INVERSE_SCALE[TEMP]);
+		battery = (short) Math.round (src[BATTERY] * INVERSE_SCALE[BATTERY]);
+		return this;
+	}
 
 	/**
 	 * @return the current roll value in degrees.
@@ -1,13 +1,10 @@
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import at.uni_salzburg.cs.ckgroup.communication.CommunicationException;
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.SimulationDataLayout;
 
 public class SimulationData implements IDataTransferObject {
 	
@@ -104,7 +101,7 @@ public class SimulationData implements IDataTransferObject {
 	/**
 	 * The length of this data transfer object in bytes when converted to a byte array.
 	 */
-	static final int payloadLength = 144;
+	static final int payloadLength = SimulationDataLayout.PAYLOAD_LENGTH;
 	
 	/**
 	 * Construct an empty <code>SimulationData</code> data transfer object.
@@ -124,57 +121,69 @@ public class SimulationData implements IDataTransferObject {
 			throw new CommunicationException ("Input data length of " + data.length +
 					" is not equal to the expected length of " + payloadLength + " bytes");
 		
-		DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data));
-		try {
-			roll = dis.readDouble();
-			pitch = dis.readDouble();
-			yaw = dis.readDouble();
-			dRoll = dis.readDouble();
-			dPitch = dis.readDouble();
-			dYaw = dis.readDouble();
-			ddRoll = dis.readDouble();
-			ddPitch = dis.readDouble();
-			ddYaw = dis.readDouble();
-			x = dis.readDouble();
-			y = dis.readDouble();
-			z = dis.readDouble();
-			dx = dis.readDouble();
-			dy = dis.readDouble();
-			dz = dis.readDouble();
-			ddx = dis.readDouble();
-			ddy = dis.readDouble();
-			ddz = dis.readDouble();
-		} catch (IOException e) {
-			throw new CommunicationException ("At reading message", e);
-		}
+		decode (ByteBuffer.wrap (data), 0);
 	}
 	
 	public byte[] toByteArray() {
-		ByteArrayOutputStream bos = new ByteArrayOutputStream();
-		DataOutputStream dos = new DataOutputStream(bos);
-		try {
-			dos.writeDouble(roll);
-			dos.writeDouble(pitch);
-			dos.writeDouble(yaw);
-			dos.writeDouble(dRoll);
-			dos.writeDouble(dPitch);
-			dos.writeDouble(dYaw);
-			dos.writeDouble(ddRoll);
-			dos.writeDouble(ddPitch);
-			dos.writeDouble(ddYaw);
-			dos.writeDouble(x);
-			dos.writeDouble(y);
-			dos.writeDouble(z);
-			dos.writeDouble(dx);
-			dos.writeDouble(dy);
-			dos.writeDouble(dz);
-			dos.writeDouble(ddx);
-			dos.writeDouble(ddy);
-			dos.writeDouble(ddz);
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-		return bos.toByteArray();
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		encode (buf, 0);
+		return buf.array ();
+	}
+	
+	/**
+	 * Read the fields of this <code>SimulationData</code> object from a payload
+	 * according to <code>SimulationDataLayout</code>.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void decode (ByteBuffer buf, int base) {
+		roll = SimulationDataLayout.getRoll (buf, base);
+		pitch = SimulationDataLayout.getPitch (buf, base);
+		yaw = SimulationDataLayout.getYaw (buf, base);
+		dRoll = SimulationDataLayout.getDRoll (buf, base);
+		dPitch = SimulationDataLayout.getDPitch (buf, base);
+		dYaw = SimulationDataLayout.getDYaw (buf, base);
+		ddRoll = SimulationDataLayout.getDdRoll (buf, base);
+		ddPitch = SimulationDataLayout.getDdPitch (buf, base);
+		ddYaw = SimulationDataLayout.getDdYaw (buf, base);
+		x = SimulationDataLayout.getX (buf, base);
+		y = SimulationDataLayout.getY (buf, base);
+		z = SimulationDataLayout.getZ (buf, base);
+		dx = SimulationDataLayout.getDx (buf, base);
+		dy = SimulationDataLayout.getDy (buf, base);
+		dz = SimulationDataLayout.getDz (buf, base);
+		ddx = SimulationDataLayout.getDdx (buf, base);
+		ddy = SimulationDataLayout.getDdy (buf, base);
+		ddz = SimulationDataLayout.getDdz (buf, base);
+	}
+	
+	/**
+	 * Write the fields of this <code>SimulationData</code> object to a payload
+	 * according to <code>SimulationDataLayout</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void encode (ByteBuffer buf, int base) {
+		SimulationDataLayout.putRoll (buf, base, roll);
+		SimulationDataLayout.putPitch (buf, base, pitch);
+		SimulationDataLayout.putYaw (buf, base, yaw);
+		SimulationDataLayout.putDRoll (buf, base, dRoll);
+		SimulationDataLayout.putDPitch (buf, base, dPitch);
+		SimulationDataLayout.putDYaw (buf, base, dYaw);
+		SimulationDataLayout.putDdRoll (buf, base, ddRoll);
+		SimulationDataLayout.putDdPitch (buf, base, ddPitch);
+		SimulationDataLayout.putDdYaw (buf, base, ddYaw);
+		SimulationDataLayout.putX (buf, base, x);
+		SimulationDataLayout.putY (buf, base, y);
+		SimulationDataLayout.putZ (buf, base, z);
+		SimulationDataLayout.putDx (buf, base, dx);
+		SimulationDataLayout.putDy (buf, base, dy);
+		SimulationDataLayout.putDz (buf, base, dz);
+		SimulationDataLayout.putDdx (buf, base, ddx);
+		SimulationDataLayout.putDdy (buf, base, ddy);
+		SimulationDataLayout.putDdz (buf, base, ddz);
 	}
 	
 	/* (non-Javadoc)
@@ -20,7 +20,10 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
 import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.layout.TrimValuesLayout;
 
 
 /**
@@ -53,7 +56,7 @@ public class TrimValues implements IDataTransferObject {
     /**
      * The length of the payload in bytes.
      */
-    private static final int payloadLength = 6;
+    private static final int payloadLength = TrimValuesLayout.PAYLOAD_LENGTH;
     
     /**
 	 * Construct an <code>ActuatorData</code> object.
@@ -74,27 +77,42 @@ public class TrimValues implements IDataTransferObject {
      * @param data the byte array that contains the data.
      */
     public TrimValues (byte[] data) {
-    	int k = 0;
-    	roll =  (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-    	pitch = (short) ((data[k++] << 8) | (data[k++] & 0xFF));
-    	yaw  =  (short) ((data[k++] << 8) | (data[k++] & 0xFF));
+    	decode (ByteBuffer.wrap (data), 0);
     }
     
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject#toByteArray()
 	 */
 	public byte[] toByteArray () {
-		byte[] data = new byte[payloadLength];
-		
-		int k=0;
-		data[k++] = (byte) (roll >> 8);
-		data[k++] = (byte) (roll & 0xFF);
-		data[k++] = (byte) (pitch >> 8);
-		data[k++] = (byte) (pitch & 0xFF);
-		data[k++] = (byte) (yaw >> 8);
-		data[k++] = (byte) (yaw & 0xFF);
-			
-		return data;
+		ByteBuffer buf = ByteBuffer.allocate (payloadLength);
+		encode (buf, 0);
+		return buf.array ();
+	}
+	
+	/**
+	 * Read the fields of this <code>TrimValues</code> object from a payload
+	 * according to <code>TrimValuesLayout</code>.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void decode (ByteBuffer buf, int base) {
+		roll = TrimValuesLayout.getRoll (buf, base);
+		pitch = TrimValuesLayout.getPitch (buf, base);
+		yaw = TrimValuesLayout.getYaw (buf, base);
+	}
+	
+	/**
+	 * Write the fields of this <code>TrimValues</code> object to a payload
+	 * according to <code>TrimValuesLayout</code>.
+	 * 
+	 * @param buf the destination buffer.
+	 * @param base the position of the payload in the buffer.
+	 */
+	private void encode (ByteBuffer buf, int base) {
+		TrimValuesLayout.putRoll (buf, base, roll);
+		TrimValuesLayout.putPitch (buf, base, pitch);
+		TrimValuesLayout.putYaw (buf, base, yaw);
 	}
 	
 	/**
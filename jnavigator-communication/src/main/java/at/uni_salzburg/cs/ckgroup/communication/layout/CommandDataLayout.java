@@ -0,0 +1,230 @@
+/*
+ * @(#) CommandDataLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>CommandData</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class CommandDataLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 8;
+	
+	/**
+	 * The offset of the field <code>roll</code>.
+	 */
+	public static final int ROLL = 0;
+	
+	/**
+	 * The offset of the field <code>pitch</code>.
+	 */
+	public static final int PITCH = 2;
+	
+	/**
+	 * The offset of the field <code>yaw</code>.
+	 */
+	public static final int YAW = 4;
+	
+	/**
+	 * The offset of the field <code>heightAboveGround</code>.
+	 */
+	public static final int HEIGHT_ABOVE_GROUND = 6;
+	
+	/**
+	 * The factor converting raw values of field <code>roll</code> to scaled values.
+	 */
+	public static final double ROLL_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>pitch</code> to scaled values.
+	 */
+	public static final double PITCH_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>yaw</code> to scaled values.
+	 */
+	public static final double YAW_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>heightAboveGround</code> to scaled values.
+	 */
+	public static final double HEIGHT_ABOVE_GROUND_SCALE = 0.001;
+	
+	private CommandDataLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>roll</code>.
+	 */
+	public static short getRoll (ByteBuffer buf, int base) {
+		return buf.getShort (base + ROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>roll</code>.
+	 */
+	public static void putRoll (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + ROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>roll</code>.
+	 */
+	public static double getRollScaled (ByteBuffer buf, int base) {
+		return getRoll (buf, base) * ROLL_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>roll</code>.
+	 */
+	public static void putRollScaled (ByteBuffer buf, int base, double value) {
+		putRoll (buf, base, (short) (value / ROLL_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>pitch</code>.
+	 */
+	public static short getPitch (ByteBuffer buf, int base) {
+		return buf.getShort (base + PITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>pitch</code>.
+	 */
+	public static void putPitch (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + PITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>pitch</code>.
+	 */
+	public static double getPitchScaled (ByteBuffer buf, int base) {
+		return getPitch (buf, base) * PITCH_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>pitch</code>.
+	 */
+	public static void putPitchScaled (ByteBuffer buf, int base, double value) {
+		putPitch (buf, base, (short) (value / PITCH_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>yaw</code>.
+	 */
+	public static short getYaw (ByteBuffer buf, int base) {
+		return buf.getShort (base + YAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>yaw</code>.
+	 */
+	public static void putYaw (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + YAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>yaw</code>.
+	 */
+	public static double getYawScaled (ByteBuffer buf, int base) {
+		return getYaw (buf, base) * YAW_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>yaw</code>.
+	 */
+	public static void putYawScaled (ByteBuffer buf, int base, double value) {
+		putYaw (buf, base, (short) (value / YAW_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>heightAboveGround</code>.
+	 */
+	public static short getHeightAboveGround (ByteBuffer buf, int base) {
+		return buf.getShort (base + HEIGHT_ABOVE_GROUND);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>heightAboveGround</code>.
+	 */
+	public static void putHeightAboveGround (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + HEIGHT_ABOVE_GROUND, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>heightAboveGround</code>.
+	 */
+	public static double getHeightAboveGroundScaled (ByteBuffer buf, int base) {
+		return getHeightAboveGround (buf, base) * HEIGHT_ABOVE_GROUND_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>heightAboveGround</code>.
+	 */
+	public static void putHeightAboveGroundScaled (ByteBuffer buf, int base, double value) {
+		putHeightAboveGround (buf, base, (short) (value / HEIGHT_ABOVE_GROUND_SCALE));
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * @(#) ControllerParametersLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>ControllerParameters</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class ControllerParametersLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 8;
+	
+	/**
+	 * The offset of the field <code>kProportional</code>.
+	 */
+	public static final int K_PROPORTIONAL = 0;
+	
+	/**
+	 * The offset of the field <code>kIntegral</code>.
+	 */
+	public static final int K_INTEGRAL = 2;
+	
+	/**
+	 * The offset of the field <code>kDerivative</code>.
+	 */
+	public static final int K_DERIVATIVE = 4;
+	
+	/**
+	 * The offset of the field <code>kSecondDerivative</code>.
+	 */
+	public static final int K_SECOND_DERIVATIVE = 6;
+	
+	/**
+	 * The factor converting raw values of field <code>kProportional</code> to scaled values.
+	 */
+	public static final double K_PROPORTIONAL_SCALE = 0.001;
+	
+	/**
+	 * The factor converting raw values of field <code>kIntegral</code> to scaled values.
+	 */
+	public static final double K_INTEGRAL_SCALE = 0.001;
+	
+	/**
+	 * The factor converting raw values of field <code>kDerivative</code> to scaled values.
+	 */
+	public static final double K_DERIVATIVE_SCALE = 0.001;
+	
+	/**
+	 * The factor converting raw values of field <code>kSecondDerivative</code> to scaled values.
+	 */
+	public static final double K_SECOND_DERIVATIVE_SCALE = 0.001;
+	
+	private ControllerParametersLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>kProportional</code>.
+	 */
+	public static short getKProportional (ByteBuffer buf, int base) {
+		return buf.getShort (base + K_PROPORTIONAL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>kProportional</code>.
+	 */
+	public static void putKProportional (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + K_PROPORTIONAL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>kProportional</code>.
+	 */
+	public static double getKProportionalScaled (ByteBuffer buf, int base) {
+		return getKProportional (buf, base) * K_PROPORTIONAL_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>kProportional</code>.
+	 */
+	public static void putKProportionalScaled (ByteBuffer buf, int base, double value) {
+		putKProportional (buf, base, (short) (value / K_PROPORTIONAL_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>kIntegral</code>.
+	 */
+	public static short getKIntegral (ByteBuffer buf, int base) {
+		return buf.getShort (base + K_INTEGRAL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>kIntegral</code>.
+	 */
+	public static void putKIntegral (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + K_INTEGRAL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>kIntegral</code>.
+	 */
+	public static double getKIntegralScaled (ByteBuffer buf, int base) {
+		return getKIntegral (buf, base) * K_INTEGRAL_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>kIntegral</code>.
+	 */
+	public static void putKIntegralScaled (ByteBuffer buf, int base, double value) {
+		putKIntegral (buf, base, (short) (value / K_INTEGRAL_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>kDerivative</code>.
+	 */
+	public static short getKDerivative (ByteBuffer buf, int base) {
+		return buf.getShort (base + K_DERIVATIVE);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>kDerivative</code>.
+	 */
+	public static void putKDerivative (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + K_DERIVATIVE, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>kDerivative</code>.
+	 */
+	public static double getKDerivativeScaled (ByteBuffer buf, int base) {
+		return getKDerivative (buf, base) * K_DERIVATIVE_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>kDerivative</code>.
+	 */
+	public static void putKDerivativeScaled (ByteBuffer buf, int base, double value) {
+		putKDerivative (buf, base, (short) (value / K_DERIVATIVE_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>kSecondDerivative</code>.
+	 */
+	public static short getKSecondDerivative (ByteBuffer buf, int base) {
+		return buf.getShort (base + K_SECOND_DERIVATIVE);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>kSecondDerivative</code>.
+	 */
+	public static void putKSecondDerivative (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + K_SECOND_DERIVATIVE, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>kSecondDerivative</code>.
+	 */
+	public static double getKSecondDerivativeScaled (ByteBuffer buf, int base) {
+		return getKSecondDerivative (buf, base) * K_SECOND_DERIVATIVE_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>kSecondDerivative</code>.
+	 */
+	public static void putKSecondDerivativeScaled (ByteBuffer buf, int base, double value) {
+		putKSecondDerivative (buf, base, (short) (value / K_SECOND_DERIVATIVE_SCALE));
+	}
+}
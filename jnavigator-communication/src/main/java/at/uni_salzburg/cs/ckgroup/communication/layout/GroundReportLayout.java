@@ -0,0 +1,107 @@
+/*
+ * @(#) GroundReportLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>GroundReport</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class GroundReportLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 62;
+	
+	/**
+	 * The offset of the nested <code>SensorData</code> payload.
+	 */
+	public static final int SENSOR_DATA = 0;
+	
+	/**
+	 * The offset of the nested <code>MotorSignals</code> payload.
+	 */
+	public static final int MOTOR_SIGNALS = 42;
+	
+	/**
+	 * The offset of the nested <code>MotorOffsets</code> payload.
+	 */
+	public static final int MOTOR_OFFSETS = 52;
+	
+	/**
+	 * The offset of the field <code>state</code>.
+	 */
+	public static final int STATE = 60;
+	
+	/**
+	 * The offset of the field <code>mode</code>.
+	 */
+	public static final int MODE = 61;
+	
+	private GroundReportLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>state</code>.
+	 */
+	public static byte getState (ByteBuffer buf, int base) {
+		return buf.get (base + STATE);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>state</code>.
+	 */
+	public static void putState (ByteBuffer buf, int base, byte value) {
+		buf.put (base + STATE, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>mode</code>.
+	 */
+	public static byte getMode (ByteBuffer buf, int base) {
+		return buf.get (base + MODE);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>mode</code>.
+	 */
+	public static void putMode (ByteBuffer buf, int base, byte value) {
+		buf.put (base + MODE, value);
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * @(#) IdleLimitLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>IdleLimit</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class IdleLimitLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 2;
+	
+	/**
+	 * The offset of the field <code>limit</code>.
+	 */
+	public static final int LIMIT = 0;
+	
+	/**
+	 * The factor converting raw values of field <code>limit</code> to scaled values.
+	 */
+	public static final double LIMIT_SCALE = 1.0;
+	
+	private IdleLimitLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>limit</code>.
+	 */
+	public static short getLimit (ByteBuffer buf, int base) {
+		return buf.getShort (base + LIMIT);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>limit</code>.
+	 */
+	public static void putLimit (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + LIMIT, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>limit</code>.
+	 */
+	public static double getLimitScaled (ByteBuffer buf, int base) {
+		return getLimit (buf, base) * LIMIT_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>limit</code>.
+	 */
+	public static void putLimitScaled (ByteBuffer buf, int base, double value) {
+		putLimit (buf, base, (short) (value / LIMIT_SCALE));
+	}
+}
@@ -0,0 +1,713 @@
+/*
+ * @(#) JaviatorDataLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>JaviatorData</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class JaviatorDataLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 48;
+	
+	/**
+	 * The offset of the field <code>maps</code>.
+	 */
+	public static final int MAPS = 0;
+	
+	/**
+	 * The offset of the field <code>temp</code>.
+	 */
+	public static final int TEMP = 4;
+	
+	/**
+	 * The offset of the field <code>batt</code>.
+	 */
+	public static final int BATT = 6;
+	
+	/**
+	 * The offset of the field <code>sonar</code>.
+	 */
+	public static final int SONAR = 8;
+	
+	/**
+	 * The offset of the field <code>state</code>.
+	 */
+	public static final int STATE = 10;
+	
+	/**
+	 * The offset of the field <code>id</code>.
+	 */
+	public static final int ID = 12;
+	
+	/**
+	 * The offset of the field <code>xPos</code>.
+	 */
+	public static final int X_POS = 14;
+	
+	/**
+	 * The offset of the field <code>yPos</code>.
+	 */
+	public static final int Y_POS = 22;
+	
+	/**
+	 * The offset of the field <code>roll</code>.
+	 */
+	public static final int ROLL = 30;
+	
+	/**
+	 * The offset of the field <code>pitch</code>.
+	 */
+	public static final int PITCH = 32;
+	
+	/**
+	 * The offset of the field <code>yaw</code>.
+	 */
+	public static final int YAW = 34;
+	
+	/**
+	 * The offset of the field <code>dRoll</code>.
+	 */
+	public static final int D_ROLL = 36;
+	
+	/**
+	 * The offset of the field <code>dPitch</code>.
+	 */
+	public static final int D_PITCH = 38;
+	
+	/**
+	 * The offset of the field <code>dYaw</code>.
+	 */
+	public static final int D_YAW = 40;
+	
+	/**
+	 * The offset of the field <code>ddx</code>.
+	 */
+	public static final int DDX = 42;
+	
+	/**
+	 * The offset of the field <code>ddy</code>.
+	 */
+	public static final int DDY = 44;
+	
+	/**
+	 * The offset of the field <code>ddz</code>.
+	 */
+	public static final int DDZ = 46;
+	
+	/**
+	 * The factor converting raw values of field <code>maps</code> to scaled values.
+	 */
+	public static final double MAPS_SCALE = 115000000.0/16777216.0;
+	
+	/**
+	 * The factor converting raw values of field <code>batt</code> to scaled values.
+	 */
+	public static final double BATT_SCALE = 18.0/1024.0;
+	
+	/**
+	 * The factor converting raw values of field <code>sonar</code> to scaled values.
+	 */
+	public static final double SONAR_SCALE = 3.0/1024.0;
+	
+	/**
+	 * The factor converting raw values of field <code>roll</code> to scaled values.
+	 */
+	public static final double ROLL_SCALE = 2.0*Math.PI/65536.0;
+	
+	/**
+	 * The factor converting raw values of field <code>pitch</code> to scaled values.
+	 */
+	public static final double PITCH_SCALE = 2.0*Math.PI/65536.0;
+	
+	/**
+	 * The factor converting raw values of field <code>yaw</code> to scaled values.
+	 */
+	public static final double YAW_SCALE = 2.0*Math.PI/65536.0;
+	
+	/**
+	 * The factor converting raw values of field <code>dRoll</code> to scaled values.
+	 */
+	public static final double D_ROLL_SCALE = 8.5/32768.0;
+	
+	/**
+	 * The factor converting raw values of field <code>dPitch</code> to scaled values.
+	 */
+	public static final double D_PITCH_SCALE = 8.5/32768.0;
+	
+	/**
+	 * The factor converting raw values of field <code>dYaw</code> to scaled values.
+	 */
+	public static final double D_YAW_SCALE = 8.5/32768.0;
+	
+	/**
+	 * The factor converting raw values of field <code>ddx</code> to scaled values.
+	 */
+	public static final double DDX_SCALE = 9.810/4681.0;
+	
+	/**
+	 * The factor converting raw values of field <code>ddy</code> to scaled values.
+	 */
+	public static final double DDY_SCALE = 9.810/4681.0;
+	
+	/**
+	 * The factor converting raw values of field <code>ddz</code> to scaled values.
+	 */
+	public static final double DDZ_SCALE = 9.810/4681.0;
+	
+	private JaviatorDataLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>maps</code>.
+	 */
+	public static int getMaps (ByteBuffer buf, int base) {
+		return buf.getInt (base + MAPS);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>maps</code>.
+	 */
+	public static void putMaps (ByteBuffer buf, int base, int value) {
+		buf.putInt (base + MAPS, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>maps</code>.
+	 */
+	public static double getMapsScaled (ByteBuffer buf, int base) {
+		return getMaps (buf, base) * MAPS_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>maps</code>.
+	 */
+	public static void putMapsScaled (ByteBuffer buf, int base, double value) {
+		putMaps (buf, base, (int) (value / MAPS_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>temp</code>.
+	 */
+	public static short getTemp (ByteBuffer buf, int base) {
+		return buf.getShort (base + TEMP);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>temp</code>.
+	 */
+	public static void putTemp (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + TEMP, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>batt</code>.
+	 */
+	public static short getBatt (ByteBuffer buf, int base) {
+		return buf.getShort (base + BATT);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>batt</code>.
+	 */
+	public static void putBatt (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + BATT, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>batt</code>.
+	 */
+	public static double getBattScaled (ByteBuffer buf, int base) {
+		return getBatt (buf, base) * BATT_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>batt</code>.
+	 */
+	public static void putBattScaled (ByteBuffer buf, int base, double value) {
+		putBatt (buf, base, (short) (value / BATT_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>sonar</code>.
+	 */
+	public static short getSonar (ByteBuffer buf, int base) {
+		return buf.getShort (base + SONAR);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>sonar</code>.
+	 */
+	public static void putSonar (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + SONAR, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>sonar</code>.
+	 */
+	public static double getSonarScaled (ByteBuffer buf, int base) {
+		return getSonar (buf, base) * SONAR_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>sonar</code>.
+	 */
+	public static void putSonarScaled (ByteBuffer buf, int base, double value) {
+		putSonar (buf, base, (short) (value / SONAR_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>state</code>.
+	 */
+	public static short getState (ByteBuffer buf, int base) {
+		return buf.getShort (base + STATE);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>state</code>.
+	 */
+	public static void putState (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + STATE, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>id</code>.
+	 */
+	public static short getId (ByteBuffer buf, int base) {
+		return buf.getShort (base + ID);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>id</code>.
+	 */
+	public static void putId (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + ID, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>xPos</code>.
+	 */
+	public static long getXPos (ByteBuffer buf, int base) {
+		return buf.getLong (base + X_POS);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>xPos</code>.
+	 */
+	public static void putXPos (ByteBuffer buf, int base, long value) {
+		buf.putLong (base + X_POS, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>yPos</code>.
+	 */
+	public static long getYPos (ByteBuffer buf, int base) {
+		return buf.getLong (base + Y_POS);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>yPos</code>.
+	 */
+	public static void putYPos (ByteBuffer buf, int base, long value) {
+		buf.putLong (base + Y_POS, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>roll</code>.
+	 */
+	public static short getRoll (ByteBuffer buf, int base) {
+		return buf.getShort (base + ROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>roll</code>.
+	 */
+	public static void putRoll (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + ROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>roll</code>.
+	 */
+	public static double getRollScaled (ByteBuffer buf, int base) {
+		return getRoll (buf, base) * ROLL_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>roll</code>.
+	 */
+	public static void putRollScaled (ByteBuffer buf, int base, double value) {
+		putRoll (buf, base, (short) (value / ROLL_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>pitch</code>.
+	 */
+	public static short getPitch (ByteBuffer buf, int base) {
+		return buf.getShort (base + PITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>pitch</code>.
+	 */
+	public static void putPitch (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + PITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>pitch</code>.
+	 */
+	public static double getPitchScaled (ByteBuffer buf, int base) {
+		return getPitch (buf, base) * PITCH_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>pitch</code>.
+	 */
+	public static void putPitchScaled (ByteBuffer buf, int base, double value) {
+		putPitch (buf, base, (short) (value / PITCH_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>yaw</code>.
+	 */
+	public static short getYaw (ByteBuffer buf, int base) {
+		return buf.getShort (base + YAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>yaw</code>.
+	 */
+	public static void putYaw (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + YAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>yaw</code>.
+	 */
+	public static double getYawScaled (ByteBuffer buf, int base) {
+		return getYaw (buf, base) * YAW_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>yaw</code>.
+	 */
+	public static void putYawScaled (ByteBuffer buf, int base, double value) {
+		putYaw (buf, base, (short) (value / YAW_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dRoll</code>.
+	 */
+	public static short getDRoll (ByteBuffer buf, int base) {
+		return buf.getShort (base + D_ROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dRoll</code>.
+	 */
+	public static void putDRoll (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + D_ROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>dRoll</code>.
+	 */
+	public static double getDRollScaled (ByteBuffer buf, int base) {
+		return getDRoll (buf, base) * D_ROLL_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>dRoll</code>.
+	 */
+	public static void putDRollScaled (ByteBuffer buf, int base, double value) {
+		putDRoll (buf, base, (short) (value / D_ROLL_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dPitch</code>.
+	 */
+	public static short getDPitch (ByteBuffer buf, int base) {
+		return buf.getShort (base + D_PITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dPitch</code>.
+	 */
+	public static void putDPitch (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + D_PITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>dPitch</code>.
+	 */
+	public static double getDPitchScaled (ByteBuffer buf, int base) {
+		return getDPitch (buf, base) * D_PITCH_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>dPitch</code>.
+	 */
+	public static void putDPitchScaled (ByteBuffer buf, int base, double value) {
+		putDPitch (buf, base, (short) (value / D_PITCH_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dYaw</code>.
+	 */
+	public static short getDYaw (ByteBuffer buf, int base) {
+		return buf.getShort (base + D_YAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dYaw</code>.
+	 */
+	public static void putDYaw (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + D_YAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>dYaw</code>.
+	 */
+	public static double getDYawScaled (ByteBuffer buf, int base) {
+		return getDYaw (buf, base) * D_YAW_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>dYaw</code>.
+	 */
+	public static void putDYawScaled (ByteBuffer buf, int base, double value) {
+		putDYaw (buf, base, (short) (value / D_YAW_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddx</code>.
+	 */
+	public static short getDdx (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDX);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddx</code>.
+	 */
+	public static void putDdx (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDX, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>ddx</code>.
+	 */
+	public static double getDdxScaled (ByteBuffer buf, int base) {
+		return getDdx (buf, base) * DDX_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>ddx</code>.
+	 */
+	public static void putDdxScaled (ByteBuffer buf, int base, double value) {
+		putDdx (buf, base, (short) (value / DDX_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddy</code>.
+	 */
+	public static short getDdy (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDY);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddy</code>.
+	 */
+	public static void putDdy (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDY, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>ddy</code>.
+	 */
+	public static double getDdyScaled (ByteBuffer buf, int base) {
+		return getDdy (buf, base) * DDY_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>ddy</code>.
+	 */
+	public static void putDdyScaled (ByteBuffer buf, int base, double value) {
+		putDdy (buf, base, (short) (value / DDY_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddz</code>.
+	 */
+	public static short getDdz (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDZ);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddz</code>.
+	 */
+	public static void putDdz (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDZ, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>ddz</code>.
+	 */
+	public static double getDdzScaled (ByteBuffer buf, int base) {
+		return getDdz (buf, base) * DDZ_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>ddz</code>.
+	 */
+	public static void putDdzScaled (ByteBuffer buf, int base, double value) {
+		putDdz (buf, base, (short) (value / DDZ_SCALE));
+	}
+}
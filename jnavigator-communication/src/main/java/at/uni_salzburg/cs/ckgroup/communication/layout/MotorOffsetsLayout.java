@@ -0,0 +1,138 @@
+/*
+ * @(#) MotorOffsetsLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>MotorOffsets</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class MotorOffsetsLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 8;
+	
+	/**
+	 * The offset of the field <code>rollOffset</code>.
+	 */
+	public static final int ROLL_OFFSET = 0;
+	
+	/**
+	 * The offset of the field <code>pitchOffset</code>.
+	 */
+	public static final int PITCH_OFFSET = 2;
+	
+	/**
+	 * The offset of the field <code>yawOffset</code>.
+	 */
+	public static final int YAW_OFFSET = 4;
+	
+	/**
+	 * The offset of the field <code>zOffset</code>.
+	 */
+	public static final int Z_OFFSET = 6;
+	
+	private MotorOffsetsLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>rollOffset</code>.
+	 */
+	public static short getRollOffset (ByteBuffer buf, int base) {
+		return buf.getShort (base + ROLL_OFFSET);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>rollOffset</code>.
+	 */
+	public static void putRollOffset (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + ROLL_OFFSET, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>pitchOffset</code>.
+	 */
+	public static short getPitchOffset (ByteBuffer buf, int base) {
+		return buf.getShort (base + PITCH_OFFSET);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>pitchOffset</code>.
+	 */
+	public static void putPitchOffset (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + PITCH_OFFSET, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>yawOffset</code>.
+	 */
+	public static short getYawOffset (ByteBuffer buf, int base) {
+		return buf.getShort (base + YAW_OFFSET);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>yawOffset</code>.
+	 */
+	public static void putYawOffset (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + YAW_OFFSET, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>zOffset</code>.
+	 */
+	public static short getZOffset (ByteBuffer buf, int base) {
+		return buf.getShort (base + Z_OFFSET);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>zOffset</code>.
+	 */
+	public static void putZOffset (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + Z_OFFSET, value);
+	}
+}
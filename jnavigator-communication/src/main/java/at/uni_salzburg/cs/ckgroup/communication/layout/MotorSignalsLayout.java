@@ -0,0 +1,161 @@
+/*
+ * @(#) MotorSignalsLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>MotorSignals</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class MotorSignalsLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 10;
+	
+	/**
+	 * The offset of the field <code>front</code>.
+	 */
+	public static final int FRONT = 0;
+	
+	/**
+	 * The offset of the field <code>right</code>.
+	 */
+	public static final int RIGHT = 2;
+	
+	/**
+	 * The offset of the field <code>rear</code>.
+	 */
+	public static final int REAR = 4;
+	
+	/**
+	 * The offset of the field <code>left</code>.
+	 */
+	public static final int LEFT = 6;
+	
+	/**
+	 * The offset of the field <code>id</code>.
+	 */
+	public static final int ID = 8;
+	
+	private MotorSignalsLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>front</code>.
+	 */
+	public static short getFront (ByteBuffer buf, int base) {
+		return buf.getShort (base + FRONT);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>front</code>.
+	 */
+	public static void putFront (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + FRONT, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>right</code>.
+	 */
+	public static short getRight (ByteBuffer buf, int base) {
+		return buf.getShort (base + RIGHT);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>right</code>.
+	 */
+	public static void putRight (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + RIGHT, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>rear</code>.
+	 */
+	public static short getRear (ByteBuffer buf, int base) {
+		return buf.getShort (base + REAR);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>rear</code>.
+	 */
+	public static void putRear (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + REAR, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>left</code>.
+	 */
+	public static short getLeft (ByteBuffer buf, int base) {
+		return buf.getShort (base + LEFT);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>left</code>.
+	 */
+	public static void putLeft (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + LEFT, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>id</code>.
+	 */
+	public static short getId (ByteBuffer buf, int base) {
+		return buf.getShort (base + ID);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>id</code>.
+	 */
+	public static void putId (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + ID, value);
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * @(#) RevvingParametersLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>RevvingParameters</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class RevvingParametersLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 10;
+	
+	/**
+	 * The offset of the field <code>idleSpeedLimit</code>.
+	 */
+	public static final int IDLE_SPEED_LIMIT = 0;
+	
+	/**
+	 * The offset of the field <code>revvingUpStep</code>.
+	 */
+	public static final int REVVING_UP_STEP = 2;
+	
+	/**
+	 * The offset of the field <code>revvingDownStep</code>.
+	 */
+	public static final int REVVING_DOWN_STEP = 4;
+	
+	/**
+	 * The offset of the field <code>integralDownStep</code>.
+	 */
+	public static final int INTEGRAL_DOWN_STEP = 6;
+	
+	/**
+	 * The offset of the padding <code>reserved</code>.
+	 */
+	public static final int RESERVED = 8;
+	
+	private RevvingParametersLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>idleSpeedLimit</code>.
+	 */
+	public static short getIdleSpeedLimit (ByteBuffer buf, int base) {
+		return buf.getShort (base + IDLE_SPEED_LIMIT);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>idleSpeedLimit</code>.
+	 */
+	public static void putIdleSpeedLimit (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + IDLE_SPEED_LIMIT, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>revvingUpStep</code>.
+	 */
+	public static short getRevvingUpStep (ByteBuffer buf, int base) {
+		return buf.getShort (base + REVVING_UP_STEP);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>revvingUpStep</code>.
+	 */
+	public static void putRevvingUpStep (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + REVVING_UP_STEP, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>revvingDownStep</code>.
+	 */
+	public static short getRevvingDownStep (ByteBuffer buf, int base) {
+		return buf.getShort (base + REVVING_DOWN_STEP);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>revvingDownStep</code>.
+	 */
+	public static void putRevvingDownStep (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + REVVING_DOWN_STEP, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>integralDownStep</code>.
+	 */
+	public static short getIntegralDownStep (ByteBuffer buf, int base) {
+		return buf.getShort (base + INTEGRAL_DOWN_STEP);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>integralDownStep</code>.
+	 */
+	public static void putIntegralDownStep (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + INTEGRAL_DOWN_STEP, value);
+	}
+}
@@ -0,0 +1,1012 @@
+/*
+ * @(#) SensorDataLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>SensorData</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class SensorDataLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 42;
+	
+	/**
+	 * The offset of the field <code>roll</code>.
+	 */
+	public static final int ROLL = 0;
+	
+	/**
+	 * The offset of the field <code>pitch</code>.
+	 */
+	public static final int PITCH = 2;
+	
+	/**
+	 * The offset of the field <code>yaw</code>.
+	 */
+	public static final int YAW = 4;
+	
+	/**
+	 * The offset of the field <code>dRoll</code>.
+	 */
+	public static final int D_ROLL = 6;
+	
+	/**
+	 * The offset of the field <code>dPitch</code>.
+	 */
+	public static final int D_PITCH = 8;
+	
+	/**
+	 * The offset of the field <code>dYaw</code>.
+	 */
+	public static final int D_YAW = 10;
+	
+	/**
+	 * The offset of the field <code>ddRoll</code>.
+	 */
+	public static final int DD_ROLL = 12;
+	
+	/**
+	 * The offset of the field <code>ddPitch</code>.
+	 */
+	public static final int DD_PITCH = 14;
+	
+	/**
+	 * The offset of the field <code>ddYaw</code>.
+	 */
+	public static final int DD_YAW = 16;
+	
+	/**
+	 * The offset of the field <code>x</code>.
+	 */
+	public static final int X = 18;
+	
+	/**
+	 * The offset of the field <code>y</code>.
+	 */
+	public static final int Y = 20;
+	
+	/**
+	 * The offset of the field <code>z</code>.
+	 */
+	public static final int Z = 22;
+	
+	/**
+	 * The offset of the field <code>dx</code>.
+	 */
+	public static final int DX = 24;
+	
+	/**
+	 * The offset of the field <code>dy</code>.
+	 */
+	public static final int DY = 26;
+	
+	/**
+	 * The offset of the field <code>dz</code>.
+	 */
+	public static final int DZ = 28;
+	
+	/**
+	 * The offset of the field <code>ddx</code>.
+	 */
+	public static final int DDX = 30;
+	
+	/**
+	 * The offset of the field <code>ddy</code>.
+	 */
+	public static final int DDY = 32;
+	
+	/**
+	 * The offset of the field <code>ddz</code>.
+	 */
+	public static final int DDZ = 34;
+	
+	/**
+	 * The offset of the field <code>maps</code>.
+	 */
+	public static final int MAPS = 36;
+	
+	/**
+	 * The offset of the field <code>temp</code>.
+	 */
+	public static final int TEMP = 38;
+	
+	/**
+	 * The offset of the field <code>battery</code>.
+	 */
+	public static final int BATTERY = 40;
+	
+	/**
+	 * The factor converting raw values of field <code>roll</code> to scaled values.
+	 */
+	public static final double ROLL_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>pitch</code> to scaled values.
+	 */
+	public static final double PITCH_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>yaw</code> to scaled values.
+	 */
+	public static final double YAW_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>dRoll</code> to scaled values.
+	 */
+	public static final double D_ROLL_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>dPitch</code> to scaled values.
+	 */
+	public static final double D_PITCH_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>dYaw</code> to scaled values.
+	 */
+	public static final double D_YAW_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>ddRoll</code> to scaled values.
+	 */
+	public static final double DD_ROLL_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>ddPitch</code> to scaled values.
+	 */
+	public static final double DD_PITCH_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>ddYaw</code> to scaled values.
+	 */
+	public static final double DD_YAW_SCALE = 0.18/Math.PI;
+	
+	/**
+	 * The factor converting raw values of field <code>x</code> to scaled values.
+	 */
+	public static final double X_SCALE = 0.001;
+	
+	/**
+	 * The factor converting raw values of field <code>y</code> to scaled values.
+	 */
+	public static final double Y_SCALE = 0.001;
+	
+	/**
+	 * The factor converting raw values of field <code>z</code> to scaled values.
+	 */
+	public static final double Z_SCALE = 0.001;
+	
+	/**
+	 * The factor converting raw values of field <code>dx</code> to scaled values.
+	 */
+	public static final double DX_SCALE = 0.01;
+	
+	/**
+	 * The factor converting raw values of field <code>dy</code> to scaled values.
+	 */
+	public static final double DY_SCALE = 0.01;
+	
+	/**
+	 * The factor converting raw values of field <code>dz</code> to scaled values.
+	 */
+	public static final double DZ_SCALE = 0.01;
+	
+	/**
+	 * The factor converting raw values of field <code>ddx</code> to scaled values.
+	 */
+	public static final double DDX_SCALE = 9810.0/4681.0;
+	
+	/**
+	 * The factor converting raw values of field <code>ddy</code> to scaled values.
+	 */
+	public static final double DDY_SCALE = 9810.0/4681.0;
+	
+	/**
+	 * The factor converting raw values of field <code>ddz</code> to scaled values.
+	 */
+	public static final double DDZ_SCALE = 9810.0/4681.0;
+	
+	/**
+	 * The factor converting raw values of field <code>maps</code> to scaled values.
+	 */
+	public static final double MAPS_SCALE = 0.001;
+	
+	/**
+	 * The factor converting raw values of field <code>temp</code> to scaled values.
+	 */
+	public static final double TEMP_SCALE = 0.001;
+	
+	/**
+	 * The factor converting raw values of field <code>battery</code> to scaled values.
+	 */
+	public static final double BATTERY_SCALE = 0.001;
+	
+	private SensorDataLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>roll</code>.
+	 */
+	public static short getRoll (ByteBuffer buf, int base) {
+		return buf.getShort (base + ROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>roll</code>.
+	 */
+	public static void putRoll (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + ROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>roll</code>.
+	 */
+	public static double getRollScaled (ByteBuffer buf, int base) {
+		return getRoll (buf, base) * ROLL_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>roll</code>.
+	 */
+	public static void putRollScaled (ByteBuffer buf, int base, double value) {
+		putRoll (buf, base, (short) (value / ROLL_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>pitch</code>.
+	 */
+	public static short getPitch (ByteBuffer buf, int base) {
+		return buf.getShort (base + PITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>pitch</code>.
+	 */
+	public static void putPitch (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + PITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>pitch</code>.
+	 */
+	public static double getPitchScaled (ByteBuffer buf, int base) {
+		return getPitch (buf, base) * PITCH_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>pitch</code>.
+	 */
+	public static void putPitchScaled (ByteBuffer buf, int base, double value) {
+		putPitch (buf, base, (short) (value / PITCH_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>yaw</code>.
+	 */
+	public static short getYaw (ByteBuffer buf, int base) {
+		return buf.getShort (base + YAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>yaw</code>.
+	 */
+	public static void putYaw (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + YAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>yaw</code>.
+	 */
+	public static double getYawScaled (ByteBuffer buf, int base) {
+		return getYaw (buf, base) * YAW_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>yaw</code>.
+	 */
+	public static void putYawScaled (ByteBuffer buf, int base, double value) {
+		putYaw (buf, base, (short) (value / YAW_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dRoll</code>.
+	 */
+	public static short getDRoll (ByteBuffer buf, int base) {
+		return buf.getShort (base + D_ROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dRoll</code>.
+	 */
+	public static void putDRoll (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + D_ROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>dRoll</code>.
+	 */
+	public static double getDRollScaled (ByteBuffer buf, int base) {
+		return getDRoll (buf, base) * D_ROLL_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>dRoll</code>.
+	 */
+	public static void putDRollScaled (ByteBuffer buf, int base, double value) {
+		putDRoll (buf, base, (short) (value / D_ROLL_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dPitch</code>.
+	 */
+	public static short getDPitch (ByteBuffer buf, int base) {
+		return buf.getShort (base + D_PITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dPitch</code>.
+	 */
+	public static void putDPitch (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + D_PITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>dPitch</code>.
+	 */
+	public static double getDPitchScaled (ByteBuffer buf, int base) {
+		return getDPitch (buf, base) * D_PITCH_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>dPitch</code>.
+	 */
+	public static void putDPitchScaled (ByteBuffer buf, int base, double value) {
+		putDPitch (buf, base, (short) (value / D_PITCH_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dYaw</code>.
+	 */
+	public static short getDYaw (ByteBuffer buf, int base) {
+		return buf.getShort (base + D_YAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dYaw</code>.
+	 */
+	public static void putDYaw (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + D_YAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>dYaw</code>.
+	 */
+	public static double getDYawScaled (ByteBuffer buf, int base) {
+		return getDYaw (buf, base) * D_YAW_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>dYaw</code>.
+	 */
+	public static void putDYawScaled (ByteBuffer buf, int base, double value) {
+		putDYaw (buf, base, (short) (value / D_YAW_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddRoll</code>.
+	 */
+	public static short getDdRoll (ByteBuffer buf, int base) {
+		return buf.getShort (base + DD_ROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddRoll</code>.
+	 */
+	public static void putDdRoll (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DD_ROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>ddRoll</code>.
+	 */
+	public static double getDdRollScaled (ByteBuffer buf, int base) {
+		return getDdRoll (buf, base) * DD_ROLL_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>ddRoll</code>.
+	 */
+	public static void putDdRollScaled (ByteBuffer buf, int base, double value) {
+		putDdRoll (buf, base, (short) (value / DD_ROLL_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddPitch</code>.
+	 */
+	public static short getDdPitch (ByteBuffer buf, int base) {
+		return buf.getShort (base + DD_PITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddPitch</code>.
+	 */
+	public static void putDdPitch (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DD_PITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>ddPitch</code>.
+	 */
+	public static double getDdPitchScaled (ByteBuffer buf, int base) {
+		return getDdPitch (buf, base) * DD_PITCH_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>ddPitch</code>.
+	 */
+	public static void putDdPitchScaled (ByteBuffer buf, int base, double value) {
+		putDdPitch (buf, base, (short) (value / DD_PITCH_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddYaw</code>.
+	 */
+	public static short getDdYaw (ByteBuffer buf, int base) {
+		return buf.getShort (base + DD_YAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddYaw</code>.
+	 */
+	public static void putDdYaw (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DD_YAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>ddYaw</code>.
+	 */
+	public static double getDdYawScaled (ByteBuffer buf, int base) {
+		return getDdYaw (buf, base) * DD_YAW_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>ddYaw</code>.
+	 */
+	public static void putDdYawScaled (ByteBuffer buf, int base, double value) {
+		putDdYaw (buf, base, (short) (value / DD_YAW_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>x</code>.
+	 */
+	public static short getX (ByteBuffer buf, int base) {
+		return buf.getShort (base + X);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>x</code>.
+	 */
+	public static void putX (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + X, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>x</code>.
+	 */
+	public static double getXScaled (ByteBuffer buf, int base) {
+		return getX (buf, base) * X_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>x</code>.
+	 */
+	public static void putXScaled (ByteBuffer buf, int base, double value) {
+		putX (buf, base, (short) (value / X_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>y</code>.
+	 */
+	public static short getY (ByteBuffer buf, int base) {
+		return buf.getShort (base + Y);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>y</code>.
+	 */
+	public static void putY (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + Y, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>y</code>.
+	 */
+	public static double getYScaled (ByteBuffer buf, int base) {
+		return getY (buf, base) * Y_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>y</code>.
+	 */
+	public static void putYScaled (ByteBuffer buf, int base, double value) {
+		putY (buf, base, (short) (value / Y_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>z</code>.
+	 */
+	public static short getZ (ByteBuffer buf, int base) {
+		return buf.getShort (base + Z);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>z</code>.
+	 */
+	public static void putZ (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + Z, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>z</code>.
+	 */
+	public static double getZScaled (ByteBuffer buf, int base) {
+		return getZ (buf, base) * Z_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>z</code>.
+	 */
+	public static void putZScaled (ByteBuffer buf, int base, double value) {
+		putZ (buf, base, (short) (value / Z_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dx</code>.
+	 */
+	public static short getDx (ByteBuffer buf, int base) {
+		return buf.getShort (base + DX);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dx</code>.
+	 */
+	public static void putDx (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DX, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>dx</code>.
+	 */
+	public static double getDxScaled (ByteBuffer buf, int base) {
+		return getDx (buf, base) * DX_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>dx</code>.
+	 */
+	public static void putDxScaled (ByteBuffer buf, int base, double value) {
+		putDx (buf, base, (short) (value / DX_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dy</code>.
+	 */
+	public static short getDy (ByteBuffer buf, int base) {
+		return buf.getShort (base + DY);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dy</code>.
+	 */
+	public static void putDy (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DY, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>dy</code>.
+	 */
+	public static double getDyScaled (ByteBuffer buf, int base) {
+		return getDy (buf, base) * DY_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>dy</code>.
+	 */
+	public static void putDyScaled (ByteBuffer buf, int base, double value) {
+		putDy (buf, base, (short) (value / DY_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dz</code>.
+	 */
+	public static short getDz (ByteBuffer buf, int base) {
+		return buf.getShort (base + DZ);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dz</code>.
+	 */
+	public static void putDz (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DZ, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>dz</code>.
+	 */
+	public static double getDzScaled (ByteBuffer buf, int base) {
+		return getDz (buf, base) * DZ_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>dz</code>.
+	 */
+	public static void putDzScaled (ByteBuffer buf, int base, double value) {
+		putDz (buf, base, (short) (value / DZ_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddx</code>.
+	 */
+	public static short getDdx (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDX);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddx</code>.
+	 */
+	public static void putDdx (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDX, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>ddx</code>.
+	 */
+	public static double getDdxScaled (ByteBuffer buf, int base) {
+		return getDdx (buf, base) * DDX_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>ddx</code>.
+	 */
+	public static void putDdxScaled (ByteBuffer buf, int base, double value) {
+		putDdx (buf, base, (short) (value / DDX_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddy</code>.
+	 */
+	public static short getDdy (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDY);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddy</code>.
+	 */
+	public static void putDdy (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDY, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>ddy</code>.
+	 */
+	public static double getDdyScaled (ByteBuffer buf, int base) {
+		return getDdy (buf, base) * DDY_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>ddy</code>.
+	 */
+	public static void putDdyScaled (ByteBuffer buf, int base, double value) {
+		putDdy (buf, base, (short) (value / DDY_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddz</code>.
+	 */
+	public static short getDdz (ByteBuffer buf, int base) {
+		return buf.getShort (base + DDZ);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddz</code>.
+	 */
+	public static void putDdz (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + DDZ, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>ddz</code>.
+	 */
+	public static double getDdzScaled (ByteBuffer buf, int base) {
+		return getDdz (buf, base) * DDZ_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>ddz</code>.
+	 */
+	public static void putDdzScaled (ByteBuffer buf, int base, double value) {
+		putDdz (buf, base, (short) (value / DDZ_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>maps</code>.
+	 */
+	public static short getMaps (ByteBuffer buf, int base) {
+		return buf.getShort (base + MAPS);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>maps</code>.
+	 */
+	public static void putMaps (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + MAPS, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>maps</code>.
+	 */
+	public static double getMapsScaled (ByteBuffer buf, int base) {
+		return getMaps (buf, base) * MAPS_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>maps</code>.
+	 */
+	public static void putMapsScaled (ByteBuffer buf, int base, double value) {
+		putMaps (buf, base, (short) (value / MAPS_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>temp</code>.
+	 */
+	public static short getTemp (ByteBuffer buf, int base) {
+		return buf.getShort (base + TEMP);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>temp</code>.
+	 */
+	public static void putTemp (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + TEMP, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>temp</code>.
+	 */
+	public static double getTempScaled (ByteBuffer buf, int base) {
+		return getTemp (buf, base) * TEMP_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>temp</code>.
+	 */
+	public static void putTempScaled (ByteBuffer buf, int base, double value) {
+		putTemp (buf, base, (short) (value / TEMP_SCALE));
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>battery</code>.
+	 */
+	public static short getBattery (ByteBuffer buf, int base) {
+		return buf.getShort (base + BATTERY);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>battery</code>.
+	 */
+	public static void putBattery (ByteBuffer buf, int base, short value) {
+		buf.putShort (base + BATTERY, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value of field <code>battery</code>.
+	 */
+	public static double getBatteryScaled (ByteBuffer buf, int base) {
+		return getBattery (buf, base) * BATTERY_SCALE;
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new scaled value of field <code>battery</code>.
+	 */
+	public static void putBatteryScaled (ByteBuffer buf, int base, double value) {
+		putBattery (buf, base, (short) (value / BATTERY_SCALE));
+	}
+}
@@ -0,0 +1,460 @@
+/*
+ * @(#) SimulationDataLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.layout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes the wire layout of <code>SimulationData</code> payloads.
+ * The accessors read and write the fields of a payload in place by means of
+ * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory
+ * and without changing the position of the buffer.
+ * <p>
+ * This class has been generated by <code>LayoutGenerator</code> from
+ * <code>dto.schema</code>. Do not edit.
+ *
+ * @author Clemens Krainer
+ */
+public final class SimulationDataLayout {
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	public static final int PAYLOAD_LENGTH = 144;
+	
+	/**
+	 * The offset of the field <code>roll</code>.
+	 */
+	public static final int ROLL = 0;
+	
+	/**
+	 * The offset of the field <code>pitch</code>.
+	 */
+	public static final int PITCH = 8;
+	
+	/**
+	 * The offset of the field <code>yaw</code>.
+	 */
+	public static final int YAW = 16;
+	
+	/**
+	 * The offset of the field <code>dRoll</code>.
+	 */
+	public static final int D_ROLL = 24;
+	
+	/**
+	 * The offset of the field <code>dPitch</code>.
+	 */
+	public static final int D_PITCH = 32;
+	
+	/**
+	 * The offset of the field <code>dYaw</code>.
+	 */
+	public static final int D_YAW = 40;
+	
+	/**
+	 * The offset of the field <code>ddRoll</code>.
+	 */
+	public static final int DD_ROLL = 48;
+	
+	/**
+	 * The offset of the field <code>ddPitch</code>.
+	 */
+	public static final int DD_PITCH = 56;
+	
+	/**
+	 * The offset of the field <code>ddYaw</code>.
+	 */
+	public static final int DD_YAW = 64;
+	
+	/**
+	 * The offset of the field <code>x</code>.
+	 */
+	public static final int X = 72;
+	
+	/**
+	 * The offset of the field <code>y</code>.
+	 */
+	public static final int Y = 80;
+	
+	/**
+	 * The offset of the field <code>z</code>.
+	 */
+	public static final int Z = 88;
+	
+	/**
+	 * The offset of the field <code>dx</code>.
+	 */
+	public static final int DX = 96;
+	
+	/**
+	 * The offset of the field <code>dy</code>.
+	 */
+	public static final int DY = 104;
+	
+	/**
+	 * The offset of the field <code>dz</code>.
+	 */
+	public static final int DZ = 112;
+	
+	/**
+	 * The offset of the field <code>ddx</code>.
+	 */
+	public static final int DDX = 120;
+	
+	/**
+	 * The offset of the field <code>ddy</code>.
+	 */
+	public static final int DDY = 128;
+	
+	/**
+	 * The offset of the field <code>ddz</code>.
+	 */
+	public static final int DDZ = 136;
+	
+	private SimulationDataLayout () {
+		// Intentionally empty.
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>roll</code>.
+	 */
+	public static double getRoll (ByteBuffer buf, int base) {
+		return buf.getDouble (base + ROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>roll</code>.
+	 */
+	public static void putRoll (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + ROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>pitch</code>.
+	 */
+	public static double getPitch (ByteBuffer buf, int base) {
+		return buf.getDouble (base + PITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>pitch</code>.
+	 */
+	public static void putPitch (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + PITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>yaw</code>.
+	 */
+	public static double getYaw (ByteBuffer buf, int base) {
+		return buf.getDouble (base + YAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>yaw</code>.
+	 */
+	public static void putYaw (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + YAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dRoll</code>.
+	 */
+	public static double getDRoll (ByteBuffer buf, int base) {
+		return buf.getDouble (base + D_ROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dRoll</code>.
+	 */
+	public static void putDRoll (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + D_ROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dPitch</code>.
+	 */
+	public static double getDPitch (ByteBuffer buf, int base) {
+		return buf.getDouble (base + D_PITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dPitch</code>.
+	 */
+	public static void putDPitch (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + D_PITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dYaw</code>.
+	 */
+	public static double getDYaw (ByteBuffer buf, int base) {
+		return buf.getDouble (base + D_YAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dYaw</code>.
+	 */
+	public static void putDYaw (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + D_YAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddRoll</code>.
+	 */
+	public static double getDdRoll (ByteBuffer buf, int base) {
+		return buf.getDouble (base + DD_ROLL);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddRoll</code>.
+	 */
+	public static void putDdRoll (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + DD_ROLL, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddPitch</code>.
+	 */
+	public static double getDdPitch (ByteBuffer buf, int base) {
+		return buf.getDouble (base + DD_PITCH);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddPitch</code>.
+	 */
+	public static void putDdPitch (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + DD_PITCH, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddYaw</code>.
+	 */
+	public static double getDdYaw (ByteBuffer buf, int base) {
+		return buf.getDouble (base + DD_YAW);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddYaw</code>.
+	 */
+	public static void putDdYaw (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + DD_YAW, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>x</code>.
+	 */
+	public static double getX (ByteBuffer buf, int base) {
+		return buf.getDouble (base + X);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>x</code>.
+	 */
+	public static void putX (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + X, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>y</code>.
+	 */
+	public static double getY (ByteBuffer buf, int base) {
+		return buf.getDouble (base + Y);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>y</code>.
+	 */
+	public static void putY (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + Y, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>z</code>.
+	 */
+	public static double getZ (ByteBuffer buf, int base) {
+		return buf.getDouble (base + Z);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>z</code>.
+	 */
+	public static void putZ (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + Z, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dx</code>.
+	 */
+	public static double getDx (ByteBuffer buf, int base) {
+		return buf.getDouble (base + DX);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dx</code>.
+	 */
+	public static void putDx (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + DX, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dy</code>.
+	 */
+	public static double getDy (ByteBuffer buf, int base) {
+		return buf.getDouble (base + DY);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dy</code>.
+	 */
+	public static void putDy (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + DY, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>dz</code>.
+	 */
+	public static double getDz (ByteBuffer buf, int base) {
+		return buf.getDouble (base + DZ);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>dz</code>.
+	 */
+	public static void putDz (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + DZ, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddx</code>.
+	 */
+	public static double getDdx (ByteBuffer buf, int base) {
+		return buf.getDouble (base + DDX);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddx</code>.
+	 */
+	public static void putDdx (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + DDX, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddy</code>.
+	 */
+	public static double getDdy (ByteBuffer buf, int base) {
+		return buf.getDouble (base + DDY);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddy</code>.
+	 */
+	public static void putDdy (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + DDY, value);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value of field <code>ddz</code>.
+	 */
+	public static double getDdz (ByteBuffer buf, int base) {
+		return buf.getDouble (base + DDZ);
+	}
+	
+	/**
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @param value the new raw value of field <code>ddz</code>.
+	 */
+	public static void putDdz (ByteBuffer buf, int base, double value) {
+		buf.putDouble (base + DDZ, value);
+	}
+}
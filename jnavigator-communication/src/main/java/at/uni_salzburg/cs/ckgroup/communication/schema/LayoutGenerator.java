@@ -0,0 +1,334 @@
+/*
+ * @(#) LayoutGenerator.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.schema;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This class generates a layout class per <code>WireLayout</code> of a
+ * <code>WireSchema</code>. A layout class provides the offsets of the fields
+ * and static accessors that read and write raw and scaled values by means of
+ * absolute <code>ByteBuffer</code> operations. This allows decoding and
+ * encoding payloads in place, without allocating data transfer objects.
+ * <p>
+ * The generated classes are kept under version control. The build verifies
+ * that they are up to date, see <code>LayoutGeneratorTestCase</code> and
+ * <code>JaviatorLayoutTestCase</code> of module <code>javiator-mockjaviator</code>.
+ * 
+ * @author Clemens Krainer
+ */
+public class LayoutGenerator {
+	
+	/**
+	 * The line separator of the generated files.
+	 */
+	private static final String NL = "\n";
+	
+	/**
+	 * The file header of the generated files. The first line is completed by the file name.
+	 */
+	private static final String[] HEADER = {
+		"/*",
+		" * @(#) ",
+		" *",
+		" * This code is part of the JAviator project: javiator.cs.uni-salzburg.at",
+		" * Copyright (c) 2012  Clemens Krainer",
+		" *",
+		" * This program is free software; you can redistribute it and/or modify",
+		" * it under the terms of the GNU General Public License as published by",
+		" * the Free Software Foundation; either version 2 of the License, or",
+		" * (at your option) any later version.",
+		" *",
+		" * This program is distributed in the hope that it will be useful,",
+		" * but WITHOUT ANY WARRANTY; without even the implied warranty of",
+		" * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the",
+		" * GNU General Public License for more details.",
+		" *",
+		" * You should have received a copy of the GNU General Public License",
+		" * along with this program; if not, write to the Free Software Foundation,",
+		" * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.",
+		" */"
+	};
+	
+	/**
+	 * Generate the source of the layout class of a <code>WireLayout</code>.
+	 * 
+	 * @param layout the layout.
+	 * @return the source code.
+	 */
+	public static String generate (WireLayout layout) {
+		String className = layout.getLayoutClassName ();
+		StringBuilder b = new StringBuilder ();
+		
+		for (int k=0; k < HEADER.length; k++)
+			b.append (HEADER[k]).append (k == 1 ? className + ".java" : "").append (NL);
+		b.append ("package ").append (layout.getTarget ().getLayoutPackage ()).append (";").append (NL).append (NL);
+		b.append ("import java.nio.ByteBuffer;").append (NL).append (NL);
+		
+		b.append ("/**").append (NL);
+		b.append (" * This class describes the wire layout of <code>").append (layout.getName ()).append ("</code> payloads.").append (NL);
+		b.append (" * The accessors read and write the fields of a payload in place by means of").append (NL);
+		b.append (" * absolute <code>ByteBuffer</code> operations, i.e. without allocating memory").append (NL);
+		b.append (" * and without changing the position of the buffer.").append (NL);
+		b.append (" * <p>").append (NL);
+		b.append (" * This class has been generated by <code>LayoutGenerator</code> from").append (NL);
+		b.append (" * <code>").append (WireSchema.SCHEMA_RESOURCE).append ("</code>. Do not edit.").append (NL);
+		b.append (" *").append (NL);
+		b.append (" * @author Clemens Krainer").append (NL);
+		b.append (" */").append (NL);
+		b.append ("public final class ").append (className).append (" {").append (NL);
+		
+		constant (b, "The length of the payload in bytes.", "int", "PAYLOAD_LENGTH", Integer.toString (layout.getPayloadLength ()));
+		
+		for (WireField f : layout.getFields ()) {
+			String what = f.getNested () != null ? "nested <code>" + f.getNested ().getName () + "</code> payload"
+				: f.getType () == WireType.PAD ? "padding <code>" + f.getName () + "</code>"
+				: "field <code>" + f.getName () + "</code>";
+			constant (b, "The offset of the " + what + ".", "int", constantName (f.getName ()), Integer.toString (f.getOffset ()));
+		}
+		
+		for (WireField f : layout.getFields ())
+			if (f.getScaleExpression () != null)
+				constant (b, "The factor converting raw values of field <code>" + f.getName () + "</code> to scaled values.",
+					"double", constantName (f.getName ()) + "_SCALE", f.getScaleExpression ());
+		
+		b.append ("\t").append (NL);
+		b.append ("\tprivate ").append (className).append (" () {").append (NL);
+		b.append ("\t\t// Intentionally empty.").append (NL);
+		b.append ("\t}").append (NL);
+		
+		for (WireField f : layout.getFields ())
+			if (f.isPrimitive ())
+				accessors (b, f);
+		
+		b.append ("}").append (NL);
+		return b.toString ();
+	}
+	
+	/**
+	 * Append a constant.
+	 */
+	private static void constant (StringBuilder b, String doc, String type, String name, String value) {
+		b.append ("\t").append (NL);
+		b.append ("\t/**").append (NL);
+		b.append ("\t * ").append (doc).append (NL);
+		b.append ("\t */").append (NL);
+		b.append ("\tpublic static final ").append (type).append (" ").append (name).append (" = ").append (value).append (";").append (NL);
+	}
+	
+	/**
+	 * Append the accessors of a primitive field.
+	 */
+	private static void accessors (StringBuilder b, WireField f) {
+		WireType t = f.getType ();
+		String constant = constantName (f.getName ());
+		String suffix = Character.toUpperCase (f.getName ().charAt (0)) + f.getName ().substring (1);
+		String type = t.getJavaType ();
+		String index = "base + " + constant;
+		
+		b.append ("\t").append (NL);
+		b.append ("\t/**").append (NL);
+		b.append ("\t * @param buf the buffer containing the payload.").append (NL);
+		b.append ("\t * @param base the position of the payload in the buffer.").append (NL);
+		b.append ("\t * @return the raw value of field <code>").append (f.getName ()).append ("</code>.").append (NL);
+		b.append ("\t */").append (NL);
+		b.append ("\tpublic static ").append (type).append (" get").append (suffix).append (" (ByteBuffer buf, int base) {").append (NL);
+		b.append ("\t\treturn buf.").append (t.getGetter ()).append (" (").append (index).append (")").append (t.getMask ()).append (";").append (NL);
+		b.append ("\t}").append (NL);
+		
+		b.append ("\t").append (NL);
+		b.append ("\t/**").append (NL);
+		b.append ("\t * @param buf the buffer containing the payload.").append (NL);
+		b.append ("\t * @param base the position of the payload in the buffer.").append (NL);
+		b.append ("\t * @param value the new raw value of field <code>").append (f.getName ()).append ("</code>.").append (NL);
+		b.append ("\t */").append (NL);
+		b.append ("\tpublic static void put").append (suffix).append (" (ByteBuffer buf, int base, ").append (type).append (" value) {").append (NL);
+		b.append ("\t\tbuf.").append (t.getSetter ()).append (" (").append (index).append (", ").append (t.getCast ()).append ("value);").append (NL);
+		b.append ("\t}").append (NL);
+		
+		if (f.getScaleExpression () == null)
+			return;
+		
+		b.append ("\t").append (NL);
+		b.append ("\t/**").append (NL);
+		b.append ("\t * @param buf the buffer containing the payload.").append (NL);
+		b.append ("\t * @param base the position of the payload in the buffer.").append (NL);
+		b.append ("\t * @return the scaled value of field <code>").append (f.getName ()).append ("</code>.").append (NL);
+		b.append ("\t */").append (NL);
+		b.append ("\tpublic static double get").append (suffix).append ("Scaled (ByteBuffer buf, int base) {").append (NL);
+		b.append ("\t\treturn get").append (suffix).append (" (buf, base) * ").append (constant).append ("_SCALE;").append (NL);
+		b.append ("\t}").append (NL);
+		
+		b.append ("\t").append (NL);
+		b.append ("\t/**").append (NL);
+		b.append ("\t * @param buf the buffer containing the payload.").append (NL);
+		b.append ("\t * @param base the position of the payload in the buffer.").append (NL);
+		b.append ("\t * @param value the new scaled value of field <code>").append (f.getName ()).append ("</code>.").append (NL);
+		b.append ("\t */").append (NL);
+		b.append ("\tpublic static void put").append (suffix).append ("Scaled (ByteBuffer buf, int base, double value) {").append (NL);
+		b.append ("\t\tput").append (suffix).append (" (buf, base, (").append (type).append (") (value / ").append (constant).append ("_SCALE));").append (NL);
+		b.append ("\t}").append (NL);
+	}
+	
+	/**
+	 * Convert a field name to the name of a constant, e.g. <code>dRoll</code>
+	 * to <code>D_ROLL</code>.
+	 * 
+	 * @param name the field name.
+	 * @return the constant name.
+	 */
+	static String constantName (String name) {
+		StringBuilder b = new StringBuilder ();
+		for (int k=0; k < name.length (); k++) {
+			char c = name.charAt (k);
+			if (k > 0 && Character.isUpperCase (c) && !Character.isUpperCase (name.charAt (k-1)))
+				b.append ('_');
+			b.append (Character.toUpperCase (c));
+		}
+		return b.toString ();
+	}
+	
+	/**
+	 * @param projectRoot the root directory of the project.
+	 * @param layout the layout.
+	 * @return the source file of the layout class.
+	 */
+	public static File sourceFile (File projectRoot, WireLayout layout) {
+		return layoutFile (new File (projectRoot, layout.getTarget ().getSourceDirectory ()), layout);
+	}
+	
+	/**
+	 * @param sourceDirectory the source directory of the target of the layout.
+	 * @param layout the layout.
+	 * @return the source file of the layout class.
+	 */
+	private static File layoutFile (File sourceDirectory, WireLayout layout) {
+		String packageDirectory = layout.getTarget ().getLayoutPackage ().replace ('.', File.separatorChar);
+		return new File (new File (sourceDirectory, packageDirectory), layout.getLayoutClassName () + ".java");
+	}
+	
+	/**
+	 * Find the layout classes that are missing or differ from the schema.
+	 * 
+	 * @param schema the schema.
+	 * @param projectRoot the root directory of the project.
+	 * @return the outdated source files.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	public static List<File> findOutdated (WireSchema schema, File projectRoot) throws IOException {
+		List<File> outdated = new ArrayList<File> ();
+		for (WireLayout layout : schema.getLayouts ()) {
+			File file = sourceFile (projectRoot, layout);
+			if (!file.isFile () || !generate (layout).equals (read (file)))
+				outdated.add (file);
+		}
+		return outdated;
+	}
+	
+	/**
+	 * Find the layout classes of one target that are missing or differ from
+	 * the schema.
+	 * 
+	 * @param schema the schema.
+	 * @param targetName the name of the target.
+	 * @param sourceDirectory the source directory of the target.
+	 * @return the outdated source files.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	public static List<File> findOutdated (WireSchema schema, String targetName, File sourceDirectory) throws IOException {
+		List<File> outdated = new ArrayList<File> ();
+		for (WireLayout layout : schema.getLayouts ()) {
+			if (!targetName.equals (layout.getTarget ().getName ()))
+				continue;
+			File file = layoutFile (sourceDirectory, layout);
+			if (!file.isFile () || !generate (layout).equals (read (file)))
+				outdated.add (file);
+		}
+		return outdated;
+	}
+	
+	/**
+	 * Write all layout classes of a schema.
+	 * 
+	 * @param schema the schema.
+	 * @param projectRoot the root directory of the project.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	public static void generateAll (WireSchema schema, File projectRoot) throws IOException {
+		for (WireLayout layout : schema.getLayouts ()) {
+			File file = sourceFile (projectRoot, layout);
+			if (!file.getParentFile ().isDirectory () && !file.getParentFile ().mkdirs ())
+				throw new IOException ("Can not create directory " + file.getParentFile ());
+			OutputStream out = new FileOutputStream (file);
+			try {
+				out.write (generate (layout).getBytes ("UTF-8"));
+			} finally {
+				out.close ();
+			}
+		}
+	}
+	
+	/**
+	 * @param file the file to be read.
+	 * @return the content of the file.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	private static String read (File file) throws IOException {
+		byte[] content = new byte[(int) file.length ()];
+		InputStream in = new FileInputStream (file);
+		try {
+			int length = 0;
+			while (length < content.length) {
+				int n = in.read (content, length, content.length - length);
+				if (n < 0)
+					break;
+				length += n;
+			}
+		} finally {
+			in.close ();
+		}
+		return new String (content, "UTF-8");
+	}
+	
+	/**
+	 * Generate the layout classes of the schema on the class path.
+	 * 
+	 * @param args the root directory of the project.
+	 * @throws IOException thrown in case of I/O errors.
+	 * @throws ConfigurationException thrown in case of schema errors.
+	 */
+	public static void main (String[] args) throws IOException, ConfigurationException {
+		if (args.length != 1) {
+			System.err.println ("usage: java " + LayoutGenerator.class.getName () + " <project root directory>");
+			System.exit (1);
+		}
+		generateAll (WireSchema.load (), new File (args[0]));
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * @(#) WireField.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.schema;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class describes one field of a <code>WireLayout</code>. A field is
+ * either of a primitive <code>WireType</code>, padding, or a nested layout.
+ * 
+ * @author Clemens Krainer
+ */
+public class WireField {
+	
+	/**
+	 * The name of the field.
+	 */
+	private String name;
+	
+	/**
+	 * The type of the field, or null for nested layouts.
+	 */
+	private WireType type;
+	
+	/**
+	 * The nested layout, or null for primitive fields.
+	 */
+	private WireLayout nested;
+	
+	/**
+	 * The offset of the field in the payload.
+	 */
+	private int offset;
+	
+	/**
+	 * The length of the field in bytes.
+	 */
+	private int length;
+	
+	/**
+	 * The scale factor as Java expression, or null if the field is not scaled.
+	 */
+	private String scaleExpression;
+	
+	/**
+	 * The value of the scale factor, 1 if the field is not scaled.
+	 */
+	private double scale;
+	
+	/**
+	 * The name of the getter of the data transfer object that returns the
+	 * scaled value of this field, or null.
+	 */
+	private String check;
+	
+	/**
+	 * Construct a <code>WireField</code>.
+	 * 
+	 * @param name the name of the field.
+	 * @param type the type of the field, or null for nested layouts.
+	 * @param nested the nested layout, or null for primitive fields.
+	 * @param offset the offset of the field in the payload.
+	 * @param length the length of the field in bytes.
+	 * @param scaleExpression the scale factor as Java expression, or null.
+	 * @param scale the value of the scale factor.
+	 * @param check the name of the getter returning the scaled value, or null.
+	 */
+	WireField (String name, WireType type, WireLayout nested, int offset, int length, String scaleExpression, double scale, String check) {
+		this.name = name;
+		this.type = type;
+		this.nested = nested;
+		this.offset = offset;
+		this.length = length;
+		this.scaleExpression = scaleExpression;
+		this.scale = scale;
+		this.check = check;
+	}
+	
+	/**
+	 * Read the raw value of a primitive field.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the raw value.
+	 */
+	public double getRaw (ByteBuffer buf, int base) {
+		return type == null ? 0 : type.get (buf, base + offset);
+	}
+	
+	/**
+	 * Read the scaled value of a primitive field.
+	 * 
+	 * @param buf the buffer containing the payload.
+	 * @param base the position of the payload in the buffer.
+	 * @return the scaled value.
+	 */
+	public double getScaled (ByteBuffer buf, int base) {
+		return getRaw (buf, base) * scale;
+	}
+	
+	/**
+	 * @return true if the field has accessors, i.e. is neither padding nor a nested layout.
+	 */
+	public boolean isPrimitive () {
+		return type != null && type != WireType.PAD;
+	}
+	
+	/**
+	 * @return the name of the field.
+	 */
+	public String getName () {
+		return name;
+	}
+	
+	/**
+	 * @return the type of the field, or null for nested layouts.
+	 */
+	public WireType getType () {
+		return type;
+	}
+	
+	/**
+	 * @return the nested layout, or null for primitive fields.
+	 */
+	public WireLayout getNested () {
+		return nested;
+	}
+	
+	/**
+	 * @return the offset of the field in the payload.
+	 */
+	public int getOffset () {
+		return offset;
+	}
+	
+	/**
+	 * @return the length of the field in bytes.
+	 */
+	public int getLength () {
+		return length;
+	}
+	
+	/**
+	 * @return the scale factor as Java expression, or null if the field is not scaled.
+	 */
+	public String getScaleExpression () {
+		return scaleExpression;
+	}
+	
+	/**
+	 * @return the value of the scale factor.
+	 */
+	public double getScale () {
+		return scale;
+	}
+	
+	/**
+	 * @return the name of the getter returning the scaled value, or null.
+	 */
+	public String getCheck () {
+		return check;
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * @(#) WireLayout.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.schema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class describes the wire layout of the payload of a data transfer
+ * object, i.e. the ordered list of its fields.
+ * 
+ * @author Clemens Krainer
+ */
+public class WireLayout {
+	
+	/**
+	 * The name of the layout, which equals the simple name of the data transfer object.
+	 */
+	private String name;
+	
+	/**
+	 * The target the layout belongs to.
+	 */
+	private WireTarget target;
+	
+	/**
+	 * The simple names of the data transfer object classes having this layout.
+	 */
+	private List<String> dtoClasses;
+	
+	/**
+	 * The fields in the order of transmission.
+	 */
+	private List<WireField> fields = new ArrayList<WireField> ();
+	
+	/**
+	 * The length of the payload in bytes.
+	 */
+	private int payloadLength = 0;
+	
+	/**
+	 * Construct a <code>WireLayout</code>.
+	 * 
+	 * @param name the name of the layout.
+	 * @param target the target the layout belongs to.
+	 * @param dtoClasses the simple names of the data transfer object classes having this layout.
+	 */
+	WireLayout (String name, WireTarget target, List<String> dtoClasses) {
+		this.name = name;
+		this.target = target;
+		this.dtoClasses = dtoClasses;
+	}
+	
+	/**
+	 * Append a field.
+	 * 
+	 * @param field the field, its offset being the current payload length.
+	 */
+	void add (WireField field) {
+		fields.add (field);
+		payloadLength += field.getLength ();
+	}
+	
+	/**
+	 * @param fieldName the name of a field.
+	 * @return the field or null if there is no such field.
+	 */
+	public WireField getField (String fieldName) {
+		for (WireField f : fields)
+			if (f.getName ().equals (fieldName))
+				return f;
+		return null;
+	}
+	
+	/**
+	 * @return the name of the layout.
+	 */
+	public String getName () {
+		return name;
+	}
+	
+	/**
+	 * @return the target the layout belongs to.
+	 */
+	public WireTarget getTarget () {
+		return target;
+	}
+	
+	/**
+	 * @return the fully qualified names of the data transfer object classes having this layout.
+	 */
+	public List<String> getDtoClassNames () {
+		List<String> names = new ArrayList<String> ();
+		for (String c : dtoClasses)
+			names.add (target.getDtoPackage () + "." + c);
+		return names;
+	}
+	
+	/**
+	 * @return the simple name of the generated class.
+	 */
+	public String getLayoutClassName () {
+		return name + "Layout";
+	}
+	
+	/**
+	 * @return the fields in the order of transmission.
+	 */
+	public List<WireField> getFields () {
+		return Collections.unmodifiableList (fields);
+	}
+	
+	/**
+	 * @return the length of the payload in bytes.
+	 */
+	public int getPayloadLength () {
+		return payloadLength;
+	}
+}
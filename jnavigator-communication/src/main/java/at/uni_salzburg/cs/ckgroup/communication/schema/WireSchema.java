@@ -0,0 +1,294 @@
+/*
+ * @(#) WireSchema.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.schema;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This class implements the parser of the schema describing the wire layouts
+ * of the data transfer objects. The schema is a text file containing the
+ * following lines. Text after a <code>#</code> is a comment.
+ * 
+ * <pre>
+ * target &lt;name&gt; &lt;dto package&gt; &lt;layout package&gt; &lt;source directory&gt;
+ * layout &lt;Name&gt; &lt;target&gt; [dto=&lt;Class&gt;,...]
+ *     &lt;field&gt; &lt;type&gt; [scale=&lt;expression&gt;] [check=&lt;getter&gt;]
+ *     &lt;field&gt; pad length=&lt;bytes&gt;
+ *     &lt;field&gt; &lt;Layout&gt;
+ * </pre>
+ * 
+ * Field lines are indented and belong to the preceding layout. The type is
+ * one of the <code>WireType</code> names or the name of a layout of the same
+ * target defined before. The scale is a Java expression of numbers and
+ * <code>Math.PI</code> that converts raw values to the units of the getter
+ * named by <code>check</code>. The data transfer object classes default to
+ * the class having the name of the layout.
+ * 
+ * @author Clemens Krainer
+ */
+public class WireSchema {
+	
+	/**
+	 * The name of the schema resource.
+	 */
+	public static final String SCHEMA_RESOURCE = "dto.schema";
+	
+	/**
+	 * The targets by name.
+	 */
+	private Map<String,WireTarget> targets = new LinkedHashMap<String,WireTarget> ();
+	
+	/**
+	 * The layouts in the order of definition.
+	 */
+	private List<WireLayout> layouts = new ArrayList<WireLayout> ();
+	
+	/**
+	 * Parse a schema.
+	 * 
+	 * @param in the schema input stream.
+	 * @throws IOException thrown in case of I/O errors.
+	 * @throws ConfigurationException thrown in case of syntax errors.
+	 */
+	public WireSchema (InputStream in) throws IOException, ConfigurationException {
+		BufferedReader reader = new BufferedReader (new InputStreamReader (in, "UTF-8"));
+		WireLayout layout = null;
+		String line;
+		int lineNumber = 0;
+		
+		while ((line = reader.readLine ()) != null) {
+			++lineNumber;
+			int comment = line.indexOf ('#');
+			if (comment >= 0)
+				line = line.substring (0, comment);
+			if (line.trim ().length () == 0)
+				continue;
+			
+			boolean indented = Character.isWhitespace (line.charAt (0));
+			String[] tokens = line.trim ().split ("\\s+");
+			
+			try {
+				if (indented) {
+					if (layout == null)
+						throw new ConfigurationException ("Field outside of a layout.");
+					layout.add (parseField (layout, tokens));
+				} else if ("target".equals (tokens[0]) && tokens.length == 5) {
+					targets.put (tokens[1], new WireTarget (tokens[1], tokens[2], tokens[3], tokens[4]));
+					layout = null;
+				} else if ("layout".equals (tokens[0]) && (tokens.length == 3 || tokens.length == 4)) {
+					layout = parseLayout (tokens);
+					layouts.add (layout);
+				} else
+					throw new ConfigurationException ("Invalid directive.");
+			} catch (ConfigurationException e) {
+				throw new ConfigurationException ("Schema line " + lineNumber + ": " + e.getMessage ());
+			}
+		}
+	}
+	
+	/**
+	 * Load the schema from the class path.
+	 * 
+	 * @return the schema.
+	 * @throws IOException thrown in case of I/O errors.
+	 * @throws ConfigurationException thrown in case of syntax errors.
+	 */
+	public static WireSchema load () throws IOException, ConfigurationException {
+		InputStream in = WireSchema.class.getResourceAsStream (SCHEMA_RESOURCE);
+		if (in == null)
+			throw new IOException ("Can not find resource " + SCHEMA_RESOURCE);
+		try {
+			return new WireSchema (in);
+		} finally {
+			in.close ();
+		}
+	}
+	
+	/**
+	 * Parse a layout line.
+	 * 
+	 * @param tokens the tokens of the line.
+	 * @return the new layout.
+	 * @throws ConfigurationException thrown in case of syntax errors.
+	 */
+	private WireLayout parseLayout (String[] tokens) throws ConfigurationException {
+		WireTarget target = targets.get (tokens[2]);
+		if (target == null)
+			throw new ConfigurationException ("Unknown target " + tokens[2]);
+		if (getLayout (target.getName (), tokens[1]) != null)
+			throw new ConfigurationException ("Duplicate layout " + tokens[1]);
+		
+		List<String> dtoClasses = Collections.singletonList (tokens[1]);
+		if (tokens.length == 4) {
+			if (!tokens[3].startsWith ("dto="))
+				throw new ConfigurationException ("Invalid attribute " + tokens[3]);
+			dtoClasses = Arrays.asList (tokens[3].substring (4).split (","));
+		}
+		return new WireLayout (tokens[1], target, dtoClasses);
+	}
+	
+	/**
+	 * Parse a field line.
+	 * 
+	 * @param layout the layout the field belongs to.
+	 * @param tokens the tokens of the line.
+	 * @return the new field.
+	 * @throws ConfigurationException thrown in case of syntax errors.
+	 */
+	private WireField parseField (WireLayout layout, String[] tokens) throws ConfigurationException {
+		if (tokens.length < 2)
+			throw new ConfigurationException ("Missing field type.");
+		if (layout.getField (tokens[0]) != null)
+			throw new ConfigurationException ("Duplicate field " + tokens[0]);
+		
+		String scaleExpression = null;
+		String check = null;
+		int padLength = -1;
+		for (int k=2; k < tokens.length; k++) {
+			if (tokens[k].startsWith ("scale="))
+				scaleExpression = tokens[k].substring (6);
+			else if (tokens[k].startsWith ("check="))
+				check = tokens[k].substring (6);
+			else if (tokens[k].startsWith ("length="))
+				padLength = Integer.parseInt (tokens[k].substring (7));
+			else
+				throw new ConfigurationException ("Invalid attribute " + tokens[k]);
+		}
+		
+		int offset = layout.getPayloadLength ();
+		WireType type = WireType.forSchemaName (tokens[1]);
+		if (type == null) {
+			WireLayout nested = getLayout (layout.getTarget ().getName (), tokens[1]);
+			if (nested == null)
+				throw new ConfigurationException ("Unknown type " + tokens[1]);
+			return new WireField (tokens[0], null, nested, offset, nested.getPayloadLength (), null, 1, null);
+		}
+		
+		if (type == WireType.PAD) {
+			if (padLength <= 0)
+				throw new ConfigurationException ("Padding requires a length > 0.");
+			return new WireField (tokens[0], type, null, offset, padLength, null, 1, null);
+		}
+		
+		double scale = scaleExpression == null ? 1 : new ExpressionParser (scaleExpression).parse ();
+		return new WireField (tokens[0], type, null, offset, type.getLength (), scaleExpression, scale, check);
+	}
+	
+	/**
+	 * @param targetName the name of a target.
+	 * @param layoutName the name of a layout.
+	 * @return the layout or null if there is no such layout.
+	 */
+	public WireLayout getLayout (String targetName, String layoutName) {
+		for (WireLayout l : layouts)
+			if (l.getTarget ().getName ().equals (targetName) && l.getName ().equals (layoutName))
+				return l;
+		return null;
+	}
+	
+	/**
+	 * @return the layouts in the order of definition.
+	 */
+	public List<WireLayout> getLayouts () {
+		return Collections.unmodifiableList (layouts);
+	}
+	
+	/**
+	 * @return the targets.
+	 */
+	public List<WireTarget> getTargets () {
+		return new ArrayList<WireTarget> (targets.values ());
+	}
+	
+	/**
+	 * This class evaluates the scale expressions. It supports numbers,
+	 * <code>Math.PI</code>, the four basic arithmetic operations and
+	 * parentheses.
+	 */
+	private static class ExpressionParser {
+		
+		private String text;
+		private int pos = 0;
+		
+		ExpressionParser (String text) {
+			this.text = text;
+		}
+		
+		double parse () throws ConfigurationException {
+			double value = sum ();
+			if (pos != text.length ())
+				throw new ConfigurationException ("Invalid scale expression " + text);
+			return value;
+		}
+		
+		private double sum () throws ConfigurationException {
+			double value = product ();
+			while (pos < text.length () && (text.charAt (pos) == '+' || text.charAt (pos) == '-'))
+				value = text.charAt (pos++) == '+' ? value + product () : value - product ();
+			return value;
+		}
+		
+		private double product () throws ConfigurationException {
+			double value = factor ();
+			while (pos < text.length () && (text.charAt (pos) == '*' || text.charAt (pos) == '/'))
+				value = text.charAt (pos++) == '*' ? value * factor () : value / factor ();
+			return value;
+		}
+		
+		private double factor () throws ConfigurationException {
+			if (text.startsWith ("-", pos)) {
+				++pos;
+				return -factor ();
+			}
+			if (text.startsWith ("(", pos)) {
+				++pos;
+				double value = sum ();
+				if (!text.startsWith (")", pos))
+					throw new ConfigurationException ("Invalid scale expression " + text);
+				++pos;
+				return value;
+			}
+			if (text.startsWith ("Math.PI", pos)) {
+				pos += 7;
+				return Math.PI;
+			}
+			int start = pos;
+			while (pos < text.length () && (Character.isDigit (text.charAt (pos)) || text.charAt (pos) == '.'))
+				++pos;
+			try {
+				return Double.parseDouble (text.substring (start, pos));
+			} catch (NumberFormatException e) {
+				throw new ConfigurationException ("Invalid scale expression " + text);
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * @(#) WireTarget.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.schema;
+
+/**
+ * This class describes a target of the <code>LayoutGenerator</code>, i.e. a
+ * module holding data transfer objects and the generated layout classes.
+ * 
+ * @author Clemens Krainer
+ */
+public class WireTarget {
+	
+	/**
+	 * The name of the target.
+	 */
+	private String name;
+	
+	/**
+	 * The package of the data transfer objects.
+	 */
+	private String dtoPackage;
+	
+	/**
+	 * The package of the generated layout classes.
+	 */
+	private String layoutPackage;
+	
+	/**
+	 * The source directory of the generated classes, relative to the project root.
+	 */
+	private String sourceDirectory;
+	
+	/**
+	 * Construct a <code>WireTarget</code>.
+	 * 
+	 * @param name the name of the target.
+	 * @param dtoPackage the package of the data transfer objects.
+	 * @param layoutPackage the package of the generated layout classes.
+	 * @param sourceDirectory the source directory of the generated classes, relative to the project root.
+	 */
+	WireTarget (String name, String dtoPackage, String layoutPackage, String sourceDirectory) {
+		this.name = name;
+		this.dtoPackage = dtoPackage;
+		this.layoutPackage = layoutPackage;
+		this.sourceDirectory = sourceDirectory;
+	}
+	
+	/**
+	 * @return the name of the target.
+	 */
+	public String getName () {
+		return name;
+	}
+	
+	/**
+	 * @return the package of the data transfer objects.
+	 */
+	public String getDtoPackage () {
+		return dtoPackage;
+	}
+	
+	/**
+	 * @return the package of the generated layout classes.
+	 */
+	public String getLayoutPackage () {
+		return layoutPackage;
+	}
+	
+	/**
+	 * @return the source directory of the generated classes, relative to the project root.
+	 */
+	public String getSourceDirectory () {
+		return sourceDirectory;
+	}
+}
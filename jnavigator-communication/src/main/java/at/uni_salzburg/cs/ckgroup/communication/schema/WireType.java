@@ -0,0 +1,171 @@
+/*
+ * @(#) WireType.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.schema;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This enumeration lists the wire types of the fields of a
+ * <code>WireLayout</code>. All multi-byte types are big endian.
+ * 
+ * @author Clemens Krainer
+ */
+public enum WireType {
+	
+	INT8 ("int8", 1, "byte", "get", "put", "", ""),
+	UINT8 ("uint8", 1, "int", "get", "put", " & 0xFF", "(byte) "),
+	INT16 ("int16", 2, "short", "getShort", "putShort", "", ""),
+	UINT16 ("uint16", 2, "int", "getShort", "putShort", " & 0xFFFF", "(short) "),
+	INT32 ("int32", 4, "int", "getInt", "putInt", "", ""),
+	UINT32 ("uint32", 4, "long", "getInt", "putInt", " & 0xFFFFFFFFL", "(int) "),
+	INT64 ("int64", 8, "long", "getLong", "putLong", "", ""),
+	FLOAT64 ("float64", 8, "double", "getDouble", "putDouble", "", ""),
+	PAD ("pad", 0, null, null, null, null, null);
+	
+	/**
+	 * The name of the type in the schema.
+	 */
+	private final String schemaName;
+	
+	/**
+	 * The length of the type in bytes. Padding has a length per field.
+	 */
+	private final int length;
+	
+	/**
+	 * The Java type of the accessors.
+	 */
+	private final String javaType;
+	
+	/**
+	 * The name of the <code>ByteBuffer</code> getter.
+	 */
+	private final String getter;
+	
+	/**
+	 * The name of the <code>ByteBuffer</code> setter.
+	 */
+	private final String setter;
+	
+	/**
+	 * The mask applied to values read, in Java syntax.
+	 */
+	private final String mask;
+	
+	/**
+	 * The cast applied to values written, in Java syntax.
+	 */
+	private final String cast;
+	
+	/**
+	 * Construct a <code>WireType</code>.
+	 */
+	private WireType (String schemaName, int length, String javaType, String getter, String setter, String mask, String cast) {
+		this.schemaName = schemaName;
+		this.length = length;
+		this.javaType = javaType;
+		this.getter = getter;
+		this.setter = setter;
+		this.mask = mask;
+		this.cast = cast;
+	}
+	
+	/**
+	 * @param schemaName the name of the type in the schema.
+	 * @return the type or null if there is no such type.
+	 */
+	public static WireType forSchemaName (String schemaName) {
+		for (WireType t : values ())
+			if (t.schemaName.equals (schemaName))
+				return t;
+		return null;
+	}
+	
+	/**
+	 * Read a value of this type.
+	 * 
+	 * @param buf the buffer.
+	 * @param index the absolute position of the value.
+	 * @return the value converted to a double.
+	 */
+	public double get (ByteBuffer buf, int index) {
+		switch (this) {
+			case INT8:    return buf.get (index);
+			case UINT8:   return buf.get (index) & 0xFF;
+			case INT16:   return buf.getShort (index);
+			case UINT16:  return buf.getShort (index) & 0xFFFF;
+			case INT32:   return buf.getInt (index);
+			case UINT32:  return buf.getInt (index) & 0xFFFFFFFFL;
+			case INT64:   return buf.getLong (index);
+			case FLOAT64: return buf.getDouble (index);
+			default:      return 0;
+		}
+	}
+	
+	/**
+	 * @return the name of the type in the schema.
+	 */
+	public String getSchemaName () {
+		return schemaName;
+	}
+	
+	/**
+	 * @return the length of the type in bytes.
+	 */
+	public int getLength () {
+		return length;
+	}
+	
+	/**
+	 * @return the Java type of the accessors.
+	 */
+	String getJavaType () {
+		return javaType;
+	}
+	
+	/**
+	 * @return the name of the <code>ByteBuffer</code> getter.
+	 */
+	String getGetter () {
+		return getter;
+	}
+	
+	/**
+	 * @return the name of the <code>ByteBuffer</code> setter.
+	 */
+	String getSetter () {
+		return setter;
+	}
+	
+	/**
+	 * @return the mask applied to values read, in Java syntax.
+	 */
+	String getMask () {
+		return mask;
+	}
+	
+	/**
+	 * @return the cast applied to values written, in Java syntax.
+	 */
+	String getCast () {
+		return cast;
+	}
+}
@@ -0,0 +1,314 @@
+/*
+ * @(#) TelemetryChunk.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * This class describes a chunk file of a <code>TelemetryStore</code> and
+ * implements reading and writing of its columns.
+ * <p>
+ * A chunk file starts with a header consisting of <code>MAGIC</code>,
+ * <code>VERSION</code>, the number of rows, the first and the last time stamp,
+ * the number of columns and the compressed length of each column. The time
+ * column comes first, followed by the columns of <code>TelemetryColumn</code>
+ * in their natural order. Each column is delta encoded and compressed
+ * separately, so that a scan reads only the columns it needs.
+ * <p>
+ * Chunk files are written to a temporary file first, which is renamed after
+ * it has been synchronized to disk. A chunk file therefore is either complete
+ * or missing.
+ * 
+ * @author Clemens Krainer
+ */
+class TelemetryChunk {
+	
+	/**
+	 * The magic number at the beginning of each chunk file.
+	 */
+	static final int MAGIC = 0x4A4E544C;
+	
+	/**
+	 * The version of the chunk file format.
+	 */
+	static final int VERSION = 1;
+	
+	/**
+	 * The length of the fixed part of the header in bytes.
+	 */
+	private static final int FIXED_HEADER_LENGTH = 32;
+	
+	/**
+	 * The file name suffix of temporary chunk files.
+	 */
+	static final String TEMPORARY_SUFFIX = ".tmp";
+	
+	/**
+	 * The chunk file.
+	 */
+	private File file;
+	
+	/**
+	 * The number of rows.
+	 */
+	private int rows;
+	
+	/**
+	 * The time stamp of the first row.
+	 */
+	private long firstTime;
+	
+	/**
+	 * The time stamp of the last row.
+	 */
+	private long lastTime;
+	
+	/**
+	 * The file offsets of the columns, the time column being the first one.
+	 */
+	private long[] offsets;
+	
+	/**
+	 * The compressed lengths of the columns, the time column being the first one.
+	 */
+	private int[] lengths;
+	
+	/**
+	 * Construct a <code>TelemetryChunk</code> by reading the header of a chunk file.
+	 * 
+	 * @param file the chunk file.
+	 * @throws IOException thrown in case of I/O errors, an invalid header or
+	 *         a file shorter than its header indicates.
+	 */
+	TelemetryChunk (File file) throws IOException {
+		this.file = file;
+		RandomAccessFile raf = new RandomAccessFile (file, "r");
+		try {
+			if (raf.length () < FIXED_HEADER_LENGTH || raf.readInt () != MAGIC)
+				throw new IOException ("File " + file.getName () + " is not a telemetry chunk.");
+			int version = raf.readInt ();
+			if (version != VERSION)
+				throw new IOException ("File " + file.getName () + " has unsupported version " + version);
+			rows = raf.readInt ();
+			firstTime = raf.readLong ();
+			lastTime = raf.readLong ();
+			int columns = raf.readInt ();
+			offsets = new long[columns];
+			lengths = new int[columns];
+			long offset = FIXED_HEADER_LENGTH + 4L * columns;
+			for (int k=0; k < columns; k++) {
+				lengths[k] = raf.readInt ();
+				offsets[k] = offset;
+				offset += lengths[k];
+			}
+			if (raf.length () < offset)
+				throw new IOException ("File " + file.getName () + " is truncated.");
+		} finally {
+			raf.close ();
+		}
+	}
+	
+	/**
+	 * Write a chunk file via a temporary file.
+	 * 
+	 * @param file the chunk file to be written.
+	 * @param time the time column.
+	 * @param columns the value columns in the order of <code>TelemetryColumn</code>.
+	 * @param rows the number of valid rows in the columns.
+	 * @param deflater the <code>Deflater</code> to be used for compression.
+	 * @return the descriptor of the new chunk file.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	static TelemetryChunk write (File file, long[] time, short[][] columns, int rows, Deflater deflater) throws IOException {
+		ByteBuffer raw = ByteBuffer.allocate (8 * rows);
+		byte[][] blobs = new byte[columns.length + 1][];
+		
+		long previousTime = 0;
+		for (int k=0; k < rows; k++) {
+			raw.putLong (time[k] - previousTime);
+			previousTime = time[k];
+		}
+		blobs[0] = compress (raw, deflater);
+		
+		for (int c=0; c < columns.length; c++) {
+			raw.clear ();
+			short[] column = columns[c];
+			short previous = 0;
+			for (int k=0; k < rows; k++) {
+				raw.putShort ((short) (column[k] - previous));
+				previous = column[k];
+			}
+			blobs[c+1] = compress (raw, deflater);
+		}
+		
+		File temporary = new File (file.getParentFile (), file.getName () + TEMPORARY_SUFFIX);
+		RandomAccessFile raf = new RandomAccessFile (temporary, "rw");
+		try {
+			raf.setLength (0);
+			raf.writeInt (MAGIC);
+			raf.writeInt (VERSION);
+			raf.writeInt (rows);
+			raf.writeLong (time[0]);
+			raf.writeLong (time[rows-1]);
+			raf.writeInt (blobs.length);
+			for (int k=0; k < blobs.length; k++)
+				raf.writeInt (blobs[k].length);
+			for (int k=0; k < blobs.length; k++)
+				raf.write (blobs[k]);
+			raf.getFD ().sync ();
+		} finally {
+			raf.close ();
+		}
+		Files.move (temporary.toPath (), file.toPath (), StandardCopyOption.ATOMIC_MOVE);
+		return new TelemetryChunk (file);
+	}
+	
+	/**
+	 * Compress the content of a buffer.
+	 * 
+	 * @param raw the buffer in fill mode.
+	 * @param deflater the <code>Deflater</code> to be used.
+	 * @return the compressed bytes.
+	 */
+	private static byte[] compress (ByteBuffer raw, Deflater deflater) {
+		deflater.reset ();
+		deflater.setInput (raw.array (), 0, raw.position ());
+		deflater.finish ();
+		byte[] out = new byte[raw.position () / 2 + 64];
+		int length = 0;
+		while (!deflater.finished ()) {
+			if (length == out.length) {
+				byte[] n = new byte[2 * out.length];
+				System.arraycopy (out, 0, n, 0, length);
+				out = n;
+			}
+			length += deflater.deflate (out, length, out.length - length);
+		}
+		byte[] result = new byte[length];
+		System.arraycopy (out, 0, result, 0, length);
+		return result;
+	}
+	
+	/**
+	 * Read and decompress a column.
+	 * 
+	 * @param index the index of the column, zero being the time column.
+	 * @param rawLength the length of the uncompressed column in bytes.
+	 * @return the uncompressed column.
+	 * @throws IOException thrown in case of I/O errors or corrupted data.
+	 */
+	private ByteBuffer load (int index, int rawLength) throws IOException {
+		byte[] compressed = new byte[lengths[index]];
+		RandomAccessFile raf = new RandomAccessFile (file, "r");
+		try {
+			raf.seek (offsets[index]);
+			raf.readFully (compressed);
+		} finally {
+			raf.close ();
+		}
+		
+		byte[] raw = new byte[rawLength];
+		Inflater inflater = new Inflater ();
+		try {
+			inflater.setInput (compressed);
+			int length = 0;
+			while (length < rawLength && !inflater.finished ())
+				length += inflater.inflate (raw, length, rawLength - length);
+			if (length != rawLength)
+				throw new IOException ("Column " + index + " of file " + file.getName () + " is truncated.");
+		} catch (DataFormatException e) {
+			throw new IOException ("Column " + index + " of file " + file.getName () + " is corrupted.", e);
+		} finally {
+			inflater.end ();
+		}
+		return ByteBuffer.wrap (raw);
+	}
+	
+	/**
+	 * @return the time column.
+	 * @throws IOException thrown in case of I/O errors or corrupted data.
+	 */
+	long[] loadTime () throws IOException {
+		ByteBuffer raw = load (0, 8 * rows);
+		long[] time = new long[rows];
+		long t = 0;
+		for (int k=0; k < rows; k++)
+			time[k] = t += raw.getLong ();
+		return time;
+	}
+	
+	/**
+	 * Load a value column. Columns not contained in the file, e.g. because it
+	 * has been written by an older version, read as zero.
+	 * 
+	 * @param column the column to be loaded.
+	 * @return the raw values.
+	 * @throws IOException thrown in case of I/O errors or corrupted data.
+	 */
+	short[] loadColumn (TelemetryColumn column) throws IOException {
+		short[] values = new short[rows];
+		int index = column.ordinal () + 1;
+		if (index >= lengths.length)
+			return values;
+		
+		ByteBuffer raw = load (index, 2 * rows);
+		short v = 0;
+		for (int k=0; k < rows; k++)
+			values[k] = v += raw.getShort ();
+		return values;
+	}
+	
+	/**
+	 * @return the chunk file.
+	 */
+	File getFile () {
+		return file;
+	}
+	
+	/**
+	 * @return the number of rows.
+	 */
+	int getRows () {
+		return rows;
+	}
+	
+	/**
+	 * @return the time stamp of the first row.
+	 */
+	long getFirstTime () {
+		return firstTime;
+	}
+	
+	/**
+	 * @return the time stamp of the last row.
+	 */
+	long getLastTime () {
+		return lastTime;
+	}
+}
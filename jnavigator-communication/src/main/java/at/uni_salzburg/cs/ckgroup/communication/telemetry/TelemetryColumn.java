@@ -0,0 +1,92 @@
+/*
+ * @(#) TelemetryColumn.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.telemetry;
+
+import at.uni_salzburg.cs.ckgroup.communication.data.SensorData;
+
+/**
+ * This enumeration lists the columns of a <code>TelemetryStore</code>. Each
+ * column holds the raw 16 bit values as transmitted in
+ * <code>SensorData</code> and <code>GroundReport</code> objects. The scale
+ * factor converts raw values to the units of the <code>SensorData</code>
+ * getters, e.g. degrees or meters.
+ * <p>
+ * The order of the <code>SensorData</code> columns equals the order of the
+ * values in the payload of a <code>SensorData</code> object.
+ * 
+ * @author Clemens Krainer
+ */
+public enum TelemetryColumn {
+	
+	ROLL (SensorData.ANGLE_FACTOR),
+	PITCH (SensorData.ANGLE_FACTOR),
+	YAW (SensorData.ANGLE_FACTOR),
+	DROLL (SensorData.ANG_RATE_FACTOR),
+	DPITCH (SensorData.ANG_RATE_FACTOR),
+	DYAW (SensorData.ANG_RATE_FACTOR),
+	DDROLL (SensorData.ANG_ACCEL_FACTOR),
+	DDPITCH (SensorData.ANG_ACCEL_FACTOR),
+	DDYAW (SensorData.ANG_ACCEL_FACTOR),
+	X (SensorData.LENGTH_FACTOR),
+	Y (SensorData.LENGTH_FACTOR),
+	Z (SensorData.LENGTH_FACTOR),
+	DX (SensorData.VELOCITY_FACTOR),
+	DY (SensorData.VELOCITY_FACTOR),
+	DZ (SensorData.VELOCITY_FACTOR),
+	DDX (SensorData.ACCEL_FACTOR),
+	DDY (SensorData.ACCEL_FACTOR),
+	DDZ (SensorData.ACCEL_FACTOR),
+	MAPS (SensorData.MAPS_FACTOR),
+	TEMPERATURE (SensorData.TEMPERATURE_FACTOR),
+	BATTERY (SensorData.BATTERY_FACTOR),
+	MOTOR_FRONT (1),
+	MOTOR_RIGHT (1),
+	MOTOR_REAR (1),
+	MOTOR_LEFT (1),
+	STATE (1),
+	MODE (1);
+	
+	/**
+	 * The number of <code>SensorData</code> columns.
+	 */
+	public static final int SENSOR_DATA_COLUMNS = BATTERY.ordinal () + 1;
+	
+	/**
+	 * The factor to convert raw values to scaled values.
+	 */
+	private final double scale;
+	
+	/**
+	 * Construct a <code>TelemetryColumn</code>.
+	 * 
+	 * @param scale the factor to convert raw values to scaled values.
+	 */
+	private TelemetryColumn (double scale) {
+		this.scale = scale;
+	}
+	
+	/**
+	 * @return the factor to convert raw values to scaled values.
+	 */
+	public double getScale () {
+		return scale;
+	}
+}
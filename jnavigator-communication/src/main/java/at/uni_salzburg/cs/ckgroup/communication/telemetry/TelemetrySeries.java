@@ -0,0 +1,169 @@
+/*
+ * @(#) TelemetrySeries.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.telemetry;
+
+/**
+ * This class contains the result of a range scan or a downsampling of a
+ * <code>TelemetryStore</code>. It holds one primitive array per requested
+ * column. All values are scaled by the factor of their
+ * <code>TelemetryColumn</code>.
+ * 
+ * @author Clemens Krainer
+ */
+public class TelemetrySeries {
+	
+	/**
+	 * The columns of this series.
+	 */
+	private TelemetryColumn[] columns;
+	
+	/**
+	 * The index of each <code>TelemetryColumn</code> in <code>values</code>,
+	 * or -1 if the column is not part of this series.
+	 */
+	private int[] columnIndex = new int[TelemetryColumn.values ().length];
+	
+	/**
+	 * The time stamps.
+	 */
+	private long[] time;
+	
+	/**
+	 * The values per column.
+	 */
+	private double[][] values;
+	
+	/**
+	 * The number of rows.
+	 */
+	private int size = 0;
+	
+	/**
+	 * Construct an empty <code>TelemetrySeries</code>.
+	 * 
+	 * @param columns the columns of the series.
+	 * @param capacity the initial capacity in rows.
+	 */
+	TelemetrySeries (TelemetryColumn[] columns, int capacity) {
+		this.columns = columns.clone ();
+		for (int k=0; k < columnIndex.length; k++)
+			columnIndex[k] = -1;
+		for (int k=0; k < columns.length; k++)
+			columnIndex[columns[k].ordinal ()] = k;
+		
+		capacity = Math.max (capacity, 16);
+		time = new long[capacity];
+		values = new double[columns.length][capacity];
+	}
+	
+	/**
+	 * Reserve space for further rows.
+	 * 
+	 * @param rows the number of rows to be added.
+	 */
+	void ensureCapacity (int rows) {
+		if (size + rows <= time.length)
+			return;
+		
+		int capacity = Math.max (size + rows, 2 * time.length);
+		long[] t = new long[capacity];
+		System.arraycopy (time, 0, t, 0, size);
+		time = t;
+		for (int c=0; c < values.length; c++) {
+			double[] v = new double[capacity];
+			System.arraycopy (values[c], 0, v, 0, size);
+			values[c] = v;
+		}
+	}
+	
+	/**
+	 * Add a row. The caller has to reserve space via <code>ensureCapacity()</code>
+	 * and to set the values by means of <code>set()</code>.
+	 * 
+	 * @param timestamp the time stamp of the row.
+	 * @return the index of the new row.
+	 */
+	int add (long timestamp) {
+		time[size] = timestamp;
+		return size++;
+	}
+	
+	/**
+	 * Set a value of a row.
+	 * 
+	 * @param row the index of the row.
+	 * @param column the index of the column in this series.
+	 * @param value the scaled value.
+	 */
+	void set (int row, int column, double value) {
+		values[column][row] = value;
+	}
+	
+	/**
+	 * Shrink the arrays to the number of rows.
+	 */
+	void trim () {
+		if (size == time.length)
+			return;
+		
+		long[] t = new long[size];
+		System.arraycopy (time, 0, t, 0, size);
+		time = t;
+		for (int c=0; c < values.length; c++) {
+			double[] v = new double[size];
+			System.arraycopy (values[c], 0, v, 0, size);
+			values[c] = v;
+		}
+	}
+	
+	/**
+	 * @return the number of rows.
+	 */
+	public int size () {
+		return size;
+	}
+	
+	/**
+	 * @return the columns of this series.
+	 */
+	public TelemetryColumn[] getColumns () {
+		return columns.clone ();
+	}
+	
+	/**
+	 * @return the time stamps in milliseconds.
+	 */
+	public long[] getTime () {
+		return time;
+	}
+	
+	/**
+	 * @param column the requested column.
+	 * @return the scaled values of the column.
+	 * @throws IllegalArgumentException thrown if the column is not part of this series.
+	 */
+	public double[] getValues (TelemetryColumn column) {
+		int index = columnIndex[column.ordinal ()];
+		if (index < 0)
+			throw new IllegalArgumentException ("Column " + column + " is not part of this series.");
+		return values[index];
+	}
+}
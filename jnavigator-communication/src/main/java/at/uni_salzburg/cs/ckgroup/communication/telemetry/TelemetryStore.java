@@ -0,0 +1,724 @@
+/*
+ * @(#) TelemetryStore.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.telemetry;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectListener;
+import at.uni_salzburg.cs.ckgroup.communication.data.GroundReport;
+import at.uni_salzburg.cs.ckgroup.communication.data.SensorData;
+
+/**
+ * This class implements an append-only, columnar store for
+ * <code>SensorData</code> and <code>GroundReport</code> time series. Each
+ * field of <code>TelemetryColumn</code> is kept in a primitive array of raw
+ * values next to a column of time stamps in milliseconds.
+ * <p>
+ * Registered as a listener at a <code>Dispatcher</code>, the store ingests
+ * <code>SensorData</code> and <code>GroundReport</code> objects without
+ * keeping references to them. Rows of <code>SensorData</code> objects have
+ * the motor signal columns set to zero and the state and mode columns set to
+ * -1. Only one of both classes should be registered if the
+ * <code>GroundReport</code> objects carry the received <code>SensorData</code>
+ * objects, otherwise each sample is stored twice.
+ * <p>
+ * If the configured number of rows is reached, a background thread writes
+ * the current chunk to a new chunk file, see <code>TelemetryChunk</code>,
+ * while ingestion continues in a second set of columns. Ingestion waits only
+ * if the previous chunk has not been written yet. Constructing a
+ * <code>TelemetryStore</code> on a directory containing chunk files makes
+ * these available to range scans and downsampling, e.g. for post-processing
+ * a flight. A corrupt last chunk file, e.g. left by a crash, is skipped and
+ * renamed.
+ * 
+ * @author Clemens Krainer
+ */
+public class TelemetryStore implements IDataTransferObjectListener {
+	
+	/**
+	 * The property key of the directory the chunk files are written to.
+	 */
+	public static final String PROP_DIRECTORY = "directory";
+	
+	/**
+	 * The property key of the file name prefix of the chunk files.
+	 */
+	public static final String PROP_FILE_PREFIX = "file.prefix";
+	
+	/**
+	 * The property key of the number of rows per chunk.
+	 */
+	public static final String PROP_CHUNK_SIZE = "chunk.size";
+	
+	/**
+	 * The default file name prefix of the chunk files.
+	 */
+	public static final String DEFAULT_FILE_PREFIX = "telemetry";
+	
+	/**
+	 * The default number of rows per chunk.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 4096;
+	
+	/**
+	 * The file name suffix of the chunk files.
+	 */
+	public static final String FILE_SUFFIX = ".tlm";
+	
+	/**
+	 * The suffix appended to the name of a corrupt last chunk file.
+	 */
+	public static final String CORRUPT_SUFFIX = ".corrupt";
+	
+	/**
+	 * The number of value columns.
+	 */
+	private static final int NUMBER_OF_COLUMNS = TelemetryColumn.values ().length;
+	
+	/**
+	 * The directory of the chunk files.
+	 */
+	private File directory;
+	
+	/**
+	 * The file name prefix of the chunk files.
+	 */
+	private String filePrefix;
+	
+	/**
+	 * The number of rows per chunk.
+	 */
+	private int chunkSize;
+	
+	/**
+	 * The descriptors of the written chunk files in ascending order of time.
+	 */
+	private List<TelemetryChunk> chunks = new ArrayList<TelemetryChunk> ();
+	
+	/**
+	 * The number of the next chunk file.
+	 */
+	private int chunkNumber = 0;
+	
+	/**
+	 * The time column of the current chunk.
+	 */
+	private long[] time;
+	
+	/**
+	 * The value columns of the current chunk.
+	 */
+	private short[][] columns;
+	
+	/**
+	 * The number of rows in the current chunk.
+	 */
+	private int rows = 0;
+	
+	/**
+	 * The time column of the chunk being written, or null.
+	 */
+	private long[] pendingTime = null;
+	
+	/**
+	 * The value columns of the chunk being written, or null.
+	 */
+	private short[][] pendingColumns = null;
+	
+	/**
+	 * The number of rows of the chunk being written, or zero.
+	 */
+	private int pendingRows = 0;
+	
+	/**
+	 * The number of the chunk file being written.
+	 */
+	private int pendingNumber;
+	
+	/**
+	 * The unused time column for the next chunk, or null while the chunk
+	 * being written holds it.
+	 */
+	private long[] spareTime;
+	
+	/**
+	 * The unused value columns for the next chunk, or null while the chunk
+	 * being written holds them.
+	 */
+	private short[][] spareColumns;
+	
+	/**
+	 * The exception that prevented writing a chunk file, or null.
+	 */
+	private IOException failure = null;
+	
+	/**
+	 * The thread writing the chunk files.
+	 */
+	private Thread writer;
+	
+	/**
+	 * The total number of rows, including the rows of the chunk files.
+	 */
+	private long rowCount = 0;
+	
+	/**
+	 * The time stamp of the latest row.
+	 */
+	private long lastTime = Long.MIN_VALUE;
+	
+	/**
+	 * The buffer to convert <code>IDataTransferObject</code> objects to raw values.
+	 */
+	private ByteBuffer scratch = ByteBuffer.allocate (GroundReport.payloadLength);
+	
+	/**
+	 * Indicates that the store has been closed.
+	 */
+	private boolean closed = false;
+	
+	/**
+	 * Construct a <code>TelemetryStore</code> and load the descriptors of the
+	 * chunk files already present in the directory.
+	 * 
+	 * @param props the properties to be used for construction.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 * @throws IOException thrown if an existing chunk file can not be read.
+	 */
+	public TelemetryStore (Properties props) throws ConfigurationException, IOException {
+		String dir = props.getProperty (PROP_DIRECTORY);
+		if (dir == null || "".equals (dir))
+			throw new ConfigurationException ("Property " + PROP_DIRECTORY + " not configured.");
+		
+		directory = new File (dir);
+		if (!directory.isDirectory () && !directory.mkdirs ())
+			throw new ConfigurationException ("Can not create directory " + directory.getAbsolutePath ());
+		
+		filePrefix = props.getProperty (PROP_FILE_PREFIX, DEFAULT_FILE_PREFIX);
+		chunkSize = Integer.parseInt (props.getProperty (PROP_CHUNK_SIZE, Integer.toString (DEFAULT_CHUNK_SIZE)));
+		if (chunkSize <= 0)
+			throw new ConfigurationException ("Property " + PROP_CHUNK_SIZE + " must be greater than zero.");
+		
+		time = new long[chunkSize];
+		columns = new short[NUMBER_OF_COLUMNS][chunkSize];
+		spareTime = new long[chunkSize];
+		spareColumns = new short[NUMBER_OF_COLUMNS][chunkSize];
+		loadChunks ();
+		
+		writer = new Thread ("TelemetryStore.Writer") {
+			public void run () {
+				writeChunks ();
+			}
+		};
+		writer.setDaemon (true);
+		writer.start ();
+	}
+	
+	/**
+	 * Return the file of a chunk.
+	 * 
+	 * @param number the number of the chunk.
+	 * @return the chunk file.
+	 */
+	private File chunkFile (int number) {
+		return new File (directory, String.format ("%s-%05d%s", filePrefix, number, FILE_SUFFIX));
+	}
+	
+	/**
+	 * Load the descriptors of the existing chunk files. Temporary files of
+	 * unfinished chunk files are deleted. A corrupt last chunk file is skipped
+	 * and renamed by appending <code>CORRUPT_SUFFIX</code>. Its number is not
+	 * reused.
+	 * 
+	 * @throws IOException thrown if a chunk file other than the last one can
+	 *         not be read.
+	 */
+	private void loadChunks () throws IOException {
+		final String pattern = Pattern.quote (filePrefix) + "-\\d{5}" + Pattern.quote (FILE_SUFFIX);
+		final String temporaryPattern = pattern + Pattern.quote (TelemetryChunk.TEMPORARY_SUFFIX);
+		File[] temporaryFiles = directory.listFiles (new FilenameFilter () {
+			public boolean accept (File dir, String name) {
+				return name.matches (temporaryPattern);
+			}
+		});
+		if (temporaryFiles != null)
+			for (int k=0; k < temporaryFiles.length; k++)
+				if (!temporaryFiles[k].delete ())
+					System.err.println ("TelemetryStore: Can not delete temporary file " + temporaryFiles[k].getAbsolutePath ());
+		
+		String[] names = directory.list (new FilenameFilter () {
+			public boolean accept (File dir, String name) {
+				return name.matches (pattern);
+			}
+		});
+		if (names == null)
+			return;
+		
+		Arrays.sort (names);
+		for (int k=0; k < names.length; k++) {
+			int number = Integer.parseInt (names[k].substring (filePrefix.length () + 1, filePrefix.length () + 6));
+			chunkNumber = Math.max (chunkNumber, number + 1);
+			File file = new File (directory, names[k]);
+			TelemetryChunk chunk;
+			try {
+				chunk = new TelemetryChunk (file);
+			} catch (IOException e) {
+				if (k < names.length - 1)
+					throw e;
+				System.err.println ("TelemetryStore: Skipping corrupt chunk file " + names[k] + ": " + e.getMessage ());
+				File corrupt = new File (directory, names[k] + CORRUPT_SUFFIX);
+				if (!file.renameTo (corrupt))
+					System.err.println ("TelemetryStore: Can not rename " + names[k] + " to " + corrupt.getName ());
+				break;
+			}
+			chunks.add (chunk);
+			rowCount += chunk.getRows ();
+			lastTime = Math.max (lastTime, chunk.getLastTime ());
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.IDataTransferObjectListener#receive(at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject)
+	 */
+	public void receive (IDataTransferObject dto) throws IOException {
+		if (dto instanceof SensorData)
+			append (System.currentTimeMillis (), (SensorData) dto);
+		else if (dto instanceof GroundReport)
+			append (System.currentTimeMillis (), (GroundReport) dto);
+	}
+	
+	/**
+	 * Append a row holding the values of a <code>SensorData</code> object.
+	 * 
+	 * @param timestamp the time stamp in milliseconds. Time stamps older than
+	 *        the latest row are replaced by the time stamp of the latest row.
+	 * @param sensorData the <code>SensorData</code> object.
+	 * @throws IOException thrown if the store is closed or a chunk file can not be written.
+	 */
+	public synchronized void append (long timestamp, SensorData sensorData) throws IOException {
+		int row = nextRow (timestamp);
+		scratch.clear ();
+		sensorData.encodeTo (scratch);
+		for (int c=0; c < TelemetryColumn.SENSOR_DATA_COLUMNS; c++)
+			columns[c][row] = scratch.getShort (2 * c);
+		for (int c=TelemetryColumn.SENSOR_DATA_COLUMNS; c < TelemetryColumn.STATE.ordinal (); c++)
+			columns[c][row] = 0;
+		columns[TelemetryColumn.STATE.ordinal ()][row] = -1;
+		columns[TelemetryColumn.MODE.ordinal ()][row] = -1;
+	}
+	
+	/**
+	 * Append a row holding the values of a <code>GroundReport</code> object.
+	 * 
+	 * @param timestamp the time stamp in milliseconds. Time stamps older than
+	 *        the latest row are replaced by the time stamp of the latest row.
+	 * @param groundReport the <code>GroundReport</code> object.
+	 * @throws IOException thrown if the store is closed or a chunk file can not be written.
+	 */
+	public synchronized void append (long timestamp, GroundReport groundReport) throws IOException {
+		int row = nextRow (timestamp);
+		scratch.clear ();
+		groundReport.encodeTo (scratch);
+		
+		// The payload contains the sensor data, the motor signals including
+		// the plant id, the motor offsets, the state and the mode.
+		for (int c=0; c < TelemetryColumn.STATE.ordinal (); c++)
+			columns[c][row] = scratch.getShort (2 * c);
+		int k = GroundReport.payloadLength - 2;
+		columns[TelemetryColumn.STATE.ordinal ()][row] = scratch.get (k);
+		columns[TelemetryColumn.MODE.ordinal ()][row] = scratch.get (k + 1);
+	}
+	
+	/**
+	 * Reserve the next row of the current chunk. Write the current chunk to a
+	 * file if it is full.
+	 * 
+	 * @param timestamp the time stamp of the new row.
+	 * @return the index of the new row.
+	 * @throws IOException thrown if the store is closed or a chunk file can not be written.
+	 */
+	private int nextRow (long timestamp) throws IOException {
+		if (closed)
+			throw new IOException ("TelemetryStore is closed.");
+		checkFailure ();
+		if (rows == chunkSize)
+			handOver ();
+		if (timestamp < lastTime)
+			timestamp = lastTime;
+		lastTime = timestamp;
+		time[rows] = timestamp;
+		++rowCount;
+		return rows++;
+	}
+	
+	/**
+	 * Hand the current chunk over to the writer thread and continue with the
+	 * spare columns. Wait if the previous chunk has not been written yet.
+	 * 
+	 * @throws IOException thrown if a chunk file could not be written.
+	 */
+	private void handOver () throws IOException {
+		awaitPendingChunk ();
+		pendingTime = time;
+		pendingColumns = columns;
+		pendingRows = rows;
+		pendingNumber = chunkNumber++;
+		time = spareTime;
+		columns = spareColumns;
+		spareTime = null;
+		spareColumns = null;
+		rows = 0;
+		notifyAll ();
+	}
+	
+	/**
+	 * Wait until the writer thread has written the pending chunk.
+	 * 
+	 * @throws IOException thrown if a chunk file could not be written.
+	 */
+	private void awaitPendingChunk () throws IOException {
+		boolean interrupted = false;
+		while (pendingRows > 0 && failure == null)
+			try {
+				wait ();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		if (interrupted)
+			Thread.currentThread ().interrupt ();
+		checkFailure ();
+	}
+	
+	/**
+	 * @throws IOException thrown if the writer thread could not write a chunk file.
+	 */
+	private void checkFailure () throws IOException {
+		if (failure != null)
+			throw new IOException ("Can not write chunk file: " + failure.getMessage (), failure);
+	}
+	
+	/**
+	 * Write the pending chunks until the store is closed. This method is
+	 * executed by the writer thread.
+	 */
+	private void writeChunks () {
+		Deflater deflater = new Deflater (Deflater.BEST_SPEED);
+		try {
+			while (true) {
+				long[] t;
+				short[][] c;
+				int n;
+				int number;
+				synchronized (this) {
+					while (pendingRows == 0 && !closed)
+						try { wait (); } catch (InterruptedException e) { }
+					if (pendingRows == 0)
+						return;
+					t = pendingTime;
+					c = pendingColumns;
+					n = pendingRows;
+					number = pendingNumber;
+				}
+				
+				TelemetryChunk chunk;
+				try {
+					chunk = TelemetryChunk.write (chunkFile (number), t, c, n, deflater);
+				} catch (IOException e) {
+					System.err.println ("TelemetryStore: Can not write chunk file " + chunkFile (number).getName () + ": " + e.getMessage ());
+					synchronized (this) {
+						failure = e;
+						notifyAll ();
+					}
+					return;
+				}
+				
+				synchronized (this) {
+					chunks.add (chunk);
+					spareTime = pendingTime;
+					spareColumns = pendingColumns;
+					pendingTime = null;
+					pendingColumns = null;
+					pendingRows = 0;
+					notifyAll ();
+				}
+			}
+		} finally {
+			deflater.end ();
+		}
+	}
+	
+	/**
+	 * Write the rows of the current chunk to a new chunk file and wait until
+	 * all chunk files are written.
+	 * 
+	 * @throws IOException thrown if the chunk file can not be written.
+	 */
+	public synchronized void flush () throws IOException {
+		if (closed)
+			return;
+		if (rows > 0)
+			handOver ();
+		awaitPendingChunk ();
+	}
+	
+	/**
+	 * Write the rows of the current chunk to a file and close the store.
+	 * 
+	 * @throws IOException thrown if the chunk file can not be written.
+	 */
+	public void close () throws IOException {
+		synchronized (this) {
+			if (closed)
+				return;
+			try {
+				flush ();
+			} finally {
+				closed = true;
+				notifyAll ();
+			}
+		}
+		try {
+			writer.join ();
+		} catch (InterruptedException e) {
+			Thread.currentThread ().interrupt ();
+		}
+	}
+	
+	/**
+	 * @return the total number of rows.
+	 */
+	public synchronized long getRowCount () {
+		return rowCount;
+	}
+	
+	/**
+	 * @return the number of chunk files, including the one being written.
+	 */
+	public synchronized int getChunkCount () {
+		return pendingRows > 0 ? chunks.size () + 1 : chunks.size ();
+	}
+	
+	/**
+	 * Return all rows having a time stamp between <code>from</code>
+	 * (inclusive) and <code>to</code> (exclusive).
+	 * 
+	 * @param from the start of the time range in milliseconds.
+	 * @param to the end of the time range in milliseconds.
+	 * @param columns the requested columns.
+	 * @return the rows of the requested columns.
+	 * @throws IOException thrown if a chunk file can not be read.
+	 */
+	public TelemetrySeries scan (long from, long to, TelemetryColumn... columns) throws IOException {
+		final TelemetrySeries series = new TelemetrySeries (columns, 0);
+		final double[] scale = scales (columns);
+		
+		visit (from, to, columns, new RowVisitor () {
+			public void visit (long[] time, short[][] values, int begin, int end) {
+				series.ensureCapacity (end - begin);
+				for (int k=begin; k < end; k++) {
+					int row = series.add (time[k]);
+					for (int c=0; c < values.length; c++)
+						series.set (row, c, values[c][k] * scale[c]);
+				}
+			}
+		});
+		
+		series.trim ();
+		return series;
+	}
+	
+	/**
+	 * Downsample all rows having a time stamp between <code>from</code>
+	 * (inclusive) and <code>to</code> (exclusive). The time range is divided
+	 * into intervals starting at <code>from</code>. Each interval containing
+	 * rows results in one row holding the start of the interval and the mean
+	 * values of the contained rows.
+	 * 
+	 * @param from the start of the time range in milliseconds.
+	 * @param to the end of the time range in milliseconds.
+	 * @param interval the length of the intervals in milliseconds.
+	 * @param columns the requested columns.
+	 * @return the downsampled rows of the requested columns.
+	 * @throws IOException thrown if a chunk file can not be read.
+	 */
+	public TelemetrySeries downsample (final long from, long to, final long interval, TelemetryColumn... columns) throws IOException {
+		if (interval <= 0)
+			throw new IllegalArgumentException ("Interval must be greater than zero, but is " + interval);
+		
+		final TelemetrySeries series = new TelemetrySeries (columns, 0);
+		final double[] scale = scales (columns);
+		final double[] sums = new double[columns.length];
+		
+		RowVisitor visitor = new RowVisitor () {
+			private long intervalStart = 0;
+			private int count = 0;
+			
+			public void visit (long[] time, short[][] values, int begin, int end) {
+				for (int k=begin; k < end; k++) {
+					long start = from + (time[k] - from) / interval * interval;
+					if (count > 0 && start != intervalStart)
+						finish ();
+					intervalStart = start;
+					++count;
+					for (int c=0; c < values.length; c++)
+						sums[c] += values[c][k];
+				}
+			}
+			
+			public void finish () {
+				if (count == 0)
+					return;
+				series.ensureCapacity (1);
+				int row = series.add (intervalStart);
+				for (int c=0; c < sums.length; c++) {
+					series.set (row, c, sums[c] / count * scale[c]);
+					sums[c] = 0;
+				}
+				count = 0;
+			}
+		};
+		
+		visit (from, to, columns, visitor);
+		visitor.finish ();
+		series.trim ();
+		return series;
+	}
+	
+	/**
+	 * @param columns the columns.
+	 * @return the scale factors of the columns.
+	 */
+	private static double[] scales (TelemetryColumn[] columns) {
+		double[] scale = new double[columns.length];
+		for (int c=0; c < columns.length; c++)
+			scale[c] = columns[c].getScale ();
+		return scale;
+	}
+	
+	/**
+	 * Visit all rows in a time range, chunk by chunk. Only the chunk files
+	 * overlapping the time range are read, and only the requested columns of
+	 * them. The lock of the store is held only while copying the current
+	 * chunk and the chunk being written, so that ingestion continues during
+	 * long scans.
+	 * 
+	 * @param from the start of the time range in milliseconds, inclusive.
+	 * @param to the end of the time range in milliseconds, exclusive.
+	 * @param requested the requested columns.
+	 * @param visitor the visitor.
+	 * @throws IOException thrown if a chunk file can not be read.
+	 */
+	private void visit (long from, long to, TelemetryColumn[] requested, RowVisitor visitor) throws IOException {
+		List<TelemetryChunk> files;
+		long[] pendingT;
+		short[][] pending = new short[requested.length][];
+		long[] currentTime;
+		short[][] current = new short[requested.length][];
+		
+		synchronized (this) {
+			files = new ArrayList<TelemetryChunk> (chunks);
+			pendingT = pendingRows > 0 ? Arrays.copyOf (pendingTime, pendingRows) : new long[0];
+			for (int c=0; c < requested.length; c++)
+				pending[c] = pendingRows > 0 ? Arrays.copyOf (pendingColumns[requested[c].ordinal ()], pendingRows) : new short[0];
+			currentTime = Arrays.copyOf (time, rows);
+			for (int c=0; c < requested.length; c++)
+				current[c] = Arrays.copyOf (columns[requested[c].ordinal ()], rows);
+		}
+		
+		short[][] values = new short[requested.length][];
+		for (TelemetryChunk chunk : files) {
+			if (chunk.getLastTime () < from || chunk.getFirstTime () >= to)
+				continue;
+			long[] t = chunk.loadTime ();
+			int begin = lowerBound (t, t.length, from);
+			int end = lowerBound (t, t.length, to);
+			if (begin == end)
+				continue;
+			for (int c=0; c < requested.length; c++)
+				values[c] = chunk.loadColumn (requested[c]);
+			visitor.visit (t, values, begin, end);
+		}
+		
+		int begin = lowerBound (pendingT, pendingT.length, from);
+		int end = lowerBound (pendingT, pendingT.length, to);
+		if (begin < end)
+			visitor.visit (pendingT, pending, begin, end);
+		
+		begin = lowerBound (currentTime, currentTime.length, from);
+		end = lowerBound (currentTime, currentTime.length, to);
+		if (begin < end)
+			visitor.visit (currentTime, current, begin, end);
+	}
+	
+	/**
+	 * @param time the ascending time stamps.
+	 * @param length the number of valid time stamps.
+	 * @param key the time stamp to search for.
+	 * @return the index of the first time stamp not less than <code>key</code>.
+	 */
+	private static int lowerBound (long[] time, int length, long key) {
+		int low = 0;
+		int high = length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (time[mid] < key)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+	
+	/**
+	 * A visitor of consecutive rows.
+	 */
+	private abstract static class RowVisitor {
+		
+		/**
+		 * Visit the rows from <code>begin</code> (inclusive) to
+		 * <code>end</code> (exclusive).
+		 * 
+		 * @param time the time column.
+		 * @param values the requested columns.
+		 * @param begin the index of the first row.
+		 * @param end the index after the last row.
+		 */
+		abstract void visit (long[] time, short[][] values, int begin, int end);
+		
+		/**
+		 * Finish visiting rows.
+		 */
+		void finish () {
+			// Intentionally empty.
+		}
+	}
+}
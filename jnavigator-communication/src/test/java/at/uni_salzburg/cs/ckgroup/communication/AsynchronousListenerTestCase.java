@@ -0,0 +1,195 @@
+/*
+ * @(#) AsynchronousListenerTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * This test case verifies the implementation of the <code>AsynchronousListener</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class AsynchronousListenerTestCase extends TestCase {
+	
+	/**
+	 * A listener that waits for a gate to open before it processes messages.
+	 */
+	private static class GatedListener implements IDataTransferObjectListener {
+		CountDownLatch gate = new CountDownLatch (1);
+		List<IDataTransferObject> received = new ArrayList<IDataTransferObject> ();
+		
+		public void receive (IDataTransferObject dto) throws IOException {
+			try {
+				gate.await ();
+			} catch (InterruptedException e) {
+				throw new IOException (e);
+			}
+			synchronized (received) {
+				received.add (dto);
+				received.notifyAll ();
+			}
+		}
+		
+		void awaitMessages (int count) throws InterruptedException {
+			long end = System.currentTimeMillis () + 2000;
+			synchronized (received) {
+				while (received.size () < count && System.currentTimeMillis () < end)
+					received.wait (100);
+			}
+		}
+	}
+	
+	private GatedListener listener;
+	private MockDataTransferObjectOne one;
+	private MockDataTransferObjectTwo two;
+	private MockDataTransferObjectThree three;
+	
+	public void setUp () {
+		listener = new GatedListener ();
+		one = new MockDataTransferObjectOne (new byte[] {1});
+		two = new MockDataTransferObjectTwo (new byte[] {2});
+		three = new MockDataTransferObjectThree (new byte[] {3});
+	}
+	
+	/**
+	 * Verify that all messages are delivered in order with the
+	 * <code>BLOCK</code> policy.
+	 */
+	public void testCase01 () throws Exception {
+		AsynchronousListener async = new AsynchronousListener (listener, AsynchronousListener.Policy.BLOCK, 2);
+		listener.gate.countDown ();
+		
+		for (int k=0; k < 50; k++)
+			async.receive (k % 2 == 0 ? (IDataTransferObject) one : two);
+		
+		listener.awaitMessages (50);
+		assertEquals (50, listener.received.size ());
+		for (int k=0; k < 50; k++)
+			assertSame (k % 2 == 0 ? (IDataTransferObject) one : two, listener.received.get (k));
+		assertEquals (0, async.getDroppedMessages ());
+		
+		async.terminate ();
+		async.join (1000);
+	}
+	
+	/**
+	 * Verify that the oldest messages are dropped with the
+	 * <code>DROP_OLDEST</code> policy.
+	 */
+	public void testCase02 () throws Exception {
+		AsynchronousListener async = new AsynchronousListener (listener, AsynchronousListener.Policy.DROP_OLDEST, 2);
+		
+		async.receive (one);
+		Thread.sleep (100);
+		async.receive (two);
+		async.receive (three);
+		async.receive (one);
+		assertEquals (2, async.getDepth ());
+		assertEquals (1, async.getDroppedMessages ());
+		
+		listener.gate.countDown ();
+		listener.awaitMessages (3);
+		assertEquals (3, listener.received.size ());
+		assertSame (one, listener.received.get (0));
+		assertSame (three, listener.received.get (1));
+		assertSame (one, listener.received.get (2));
+		
+		async.terminate ();
+		async.join (1000);
+	}
+	
+	/**
+	 * Verify that pending messages of the same type are replaced with the
+	 * <code>COALESCE</code> policy.
+	 */
+	public void testCase03 () throws Exception {
+		AsynchronousListener async = new AsynchronousListener (listener, AsynchronousListener.Policy.COALESCE, 4);
+		MockDataTransferObjectOne newOne = new MockDataTransferObjectOne (new byte[] {4});
+		
+		async.receive (three);
+		Thread.sleep (100);
+		async.receive (one);
+		async.receive (two);
+		async.receive (newOne);
+		assertEquals (2, async.getDepth ());
+		assertEquals (1, async.getDroppedMessages ());
+		
+		listener.gate.countDown ();
+		listener.awaitMessages (3);
+		assertEquals (3, listener.received.size ());
+		assertSame (three, listener.received.get (0));
+		assertSame (newOne, listener.received.get (1));
+		assertSame (two, listener.received.get (2));
+		
+		async.terminate ();
+		async.join (1000);
+	}
+	
+	/**
+	 * Verify that a blocked asynchronous listener does not delay the
+	 * synchronous listeners of a <code>Dispatcher</code> and that the sender
+	 * does not get its own messages.
+	 */
+	public void testCase04 () throws Exception {
+		Dispatcher dispatcher = new Dispatcher ();
+		MockListenerOne listenerOne = new MockListenerOne ();
+		dispatcher.addDataTransferObjectListener (listenerOne, IDataTransferObject.class);
+		dispatcher.addDataTransferObjectListener (listener, IDataTransferObject.class);
+		AsynchronousListener async = dispatcher.setAsynchronous (listener, AsynchronousListener.Policy.DROP_OLDEST, 10);
+		
+		for (int k=0; k < 20; k++)
+			dispatcher.dispatch (null, one);
+		assertEquals (20, listenerOne.counter);
+		
+		dispatcher.dispatch (listenerOne, two);
+		assertEquals (20, listenerOne.counter);
+		
+		listener.gate.countDown ();
+		listener.awaitMessages (11);
+		assertSame (two, listener.received.get (listener.received.size () - 1));
+		assertTrue (async.getDroppedMessages () > 0);
+		
+		dispatcher.terminate ();
+		async.join (1000);
+		
+		listener.received.clear ();
+		dispatcher.dispatch (null, three);
+		assertEquals (1, listener.received.size ());
+	}
+	
+	/**
+	 * Verify that invalid parameters are refused.
+	 */
+	public void testCase05 () {
+		try {
+			new AsynchronousListener (listener, AsynchronousListener.Policy.BLOCK, 0);
+			fail ();
+		} catch (IllegalArgumentException e) {
+			assertEquals ("Capacity must be greater than zero, but is 0", e.getMessage ());
+		}
+	}
+}
@@ -20,6 +20,7 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Properties;
 
@@ -489,4 +490,204 @@ public class BufferedTransceiverTestCase extends TestCase {
 			fail ();
 		}
 	}
+	
+	/**
+	 * Send a burst of <code>Packet</code> objects that exceeds the send buffer
+	 * length while the connection is broken. Verify that <code>send()</code>
+	 * refuses the excess packets with an exception after the send timeout and
+	 * that the queued packets are sent in order after the connection has been
+	 * reestablished.
+	 */
+	public void testCase14 () {
+		
+		byte [] packet1 = {10,11,12,13,14,15,16,17,18,19};
+		
+		try {
+			props.setProperty (BufferedTransceiver.PROP_SEND_TIMEOUT, "20");
+			BufferedTransceiver transceiver = new BufferedTransceiver (props);
+			assertNotNull (transceiver);
+			
+			FakeConnection connection = (FakeConnection) transceiver.getConnection();
+			connection.setFakeIOException (true);
+			
+			transceiver.send (new Packet ((byte)100, packet1));
+			Thread.sleep (50);
+			
+			int refused = 0;
+			for (int k=0; k < 8; k++) {
+				try {
+					transceiver.send (new Packet ((byte)k, packet1));
+				} catch (CommunicationException e) {
+					assertEquals ("Send queue full, can not send packet of type " + k + " within 20ms.", e.getMessage ());
+					++refused;
+				}
+			}
+			
+			assertEquals ("refused packets", 3, refused);
+			assertEquals ("queue depth", 5, transceiver.getQueueDepth());
+			assertEquals ("dropped packets", 3, transceiver.getDroppedPackets());
+			
+			FakeConnection newConnection = connection;
+			int counter = 50;
+			while (newConnection == connection && --counter > 0) {
+				Thread.sleep(100);
+				newConnection = (FakeConnection) transceiver.getConnection();
+			}
+			Thread.sleep (200);
+			
+			assertEquals ("queue depth", 0, transceiver.getQueueDepth());
+			byte[] buf = newConnection.getWriteBuffer();
+			byte[] pb = new Packet ((byte)100, packet1).toByteArray();
+			assertEquals (6 * pb.length, buf.length);
+			arrayCompare (pb, ByteArrayUtils.partition(buf, 0, pb.length));
+			for (int k=0; k < 5; k++) {
+				pb = new Packet ((byte)k, packet1).toByteArray();
+				arrayCompare (pb, ByteArrayUtils.partition(buf, (k+1)*pb.length, pb.length));
+			}
+			
+			transceiver.terminate ();
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail ();
+		}
+	}
+	
+	/**
+	 * Send a <code>Packet</code> exceeding the <code>LEGACY</code> framing
+	 * between two valid packets. Verify that the invalid packet is refused by
+	 * <code>send()</code> and that both valid packets are sent.
+	 */
+	public void testCase15 () {
+		
+		byte [] packet1 = {10,11,12,13,14,15,16,17,18,19};
+
+		try {
+			FakeConnection connection = (FakeConnection) ObjectFactory.getInstance ().instantiateIConnection (Transceiver.PROP_CONNECTION_PARAMS_PREFIX, props);
+			BufferedTransceiver transceiver = new BufferedTransceiver (props, connection);
+			
+			transceiver.send (new Packet ((byte)1, packet1));
+			try {
+				transceiver.send (new Packet ((byte)2, new byte[300], PacketFormat.EXTENDED));
+				fail ();
+			} catch (CommunicationException e) {
+				assertEquals ("Message too long. Only lengths up to 255 bytes are supported. Requested lenght is 300.", e.getMessage());
+			}
+			transceiver.send (new Packet ((byte)3, packet1));
+			
+			byte[] p1 = new Packet ((byte)1, packet1).toByteArray();
+			byte[] p3 = new Packet ((byte)3, packet1).toByteArray();
+			
+			ByteArrayOutputStream written = new ByteArrayOutputStream ();
+			for (int counter = 50; written.size () < p1.length + p3.length && counter > 0; --counter) {
+				Thread.sleep (20);
+				written.write (connection.getWriteBuffer());
+			}
+			byte[] buf = written.toByteArray ();
+			assertEquals (p1.length + p3.length, buf.length);
+			arrayCompare (p1, ByteArrayUtils.partition(buf, 0, p1.length));
+			arrayCompare (p3, ByteArrayUtils.partition(buf, p1.length, p3.length));
+			assertEquals ("encoding errors", 0, transceiver.getEncodingErrors());
+			
+			transceiver.terminate ();
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail ();
+		}
+	}
+	
+	/**
+	 * Verify that the <code>Writer</code> encodes the packets in the
+	 * <code>EXTENDED</code> framing of the underlying transceiver, including
+	 * packets exceeding the <code>LEGACY</code> framing.
+	 */
+	public void testCase16 () {
+		
+		byte [] packet1 = {10,11,12,13,14,15,16,17,18,19};
+		byte [] packet2 = new byte[5000];
+		for (int k=0; k < packet2.length; k++)
+			packet2[k] = (byte) k;
+
+		try {
+			props.setProperty (PacketFormat.PROP_PACKET_FORMAT, "extended");
+			FakeConnection connection = (FakeConnection) ObjectFactory.getInstance ().instantiateIConnection (Transceiver.PROP_CONNECTION_PARAMS_PREFIX, props);
+			BufferedTransceiver transceiver = new BufferedTransceiver (props, connection);
+			
+			transceiver.send (new Packet ((byte)1, packet1));
+			transceiver.send (new Packet ((byte)2, packet2, PacketFormat.EXTENDED));
+			
+			byte[] p1 = new Packet ((byte)1, packet1).toByteArray (PacketFormat.EXTENDED);
+			byte[] p2 = new Packet ((byte)2, packet2, PacketFormat.EXTENDED).toByteArray (PacketFormat.EXTENDED);
+			
+			ByteArrayOutputStream written = new ByteArrayOutputStream ();
+			for (int counter = 50; written.size () < p1.length + p2.length && counter > 0; --counter) {
+				Thread.sleep (20);
+				written.write (connection.getWriteBuffer());
+			}
+			byte[] buf = written.toByteArray ();
+			assertEquals (p1.length + p2.length, buf.length);
+			arrayCompare (p1, ByteArrayUtils.partition(buf, 0, p1.length));
+			arrayCompare (p2, ByteArrayUtils.partition(buf, p1.length, p2.length));
+			assertEquals ("encoding errors", 0, transceiver.getEncodingErrors());
+			
+			transceiver.terminate ();
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail ();
+		}
+	}
+	
+	/**
+	 * Fill the send queue while the connection is broken and verify that a
+	 * further <code>send()</code> waits until the connection has been
+	 * reestablished instead of dropping the packet.
+	 */
+	public void testCase17 () {
+		
+		final byte [] packet1 = {10,11,12,13,14,15,16,17,18,19};
+		
+		try {
+			props.setProperty (BufferedTransceiver.PROP_SEND_TIMEOUT, "5000");
+			final BufferedTransceiver transceiver = new BufferedTransceiver (props);
+			
+			FakeConnection connection = (FakeConnection) transceiver.getConnection();
+			connection.setFakeIOException (true);
+			
+			transceiver.send (new Packet ((byte)100, packet1));
+			Thread.sleep (50);
+			for (int k=0; k < 5; k++)
+				transceiver.send (new Packet ((byte)k, packet1));
+			assertEquals ("queue depth", 5, transceiver.getQueueDepth());
+			
+			final Exception[] failure = new Exception[1];
+			Thread sender = new Thread () {
+				public void run () {
+					try {
+						transceiver.send (new Packet ((byte)5, packet1));
+					} catch (Exception e) {
+						failure[0] = e;
+					}
+				}
+			};
+			sender.start ();
+			sender.join (5000);
+			assertFalse (sender.isAlive ());
+			assertNull (failure[0]);
+			assertEquals ("dropped packets", 0, transceiver.getDroppedPackets());
+			
+			byte[] pb = new Packet ((byte)5, packet1).toByteArray();
+			ByteArrayOutputStream written = new ByteArrayOutputStream ();
+			for (int counter = 100; written.size () < 7 * pb.length && counter > 0; --counter) {
+				Thread.sleep (20);
+				written.write (((FakeConnection) transceiver.getConnection()).getWriteBuffer());
+			}
+			byte[] buf = written.toByteArray ();
+			assertEquals (7 * pb.length, buf.length);
+			arrayCompare (pb, ByteArrayUtils.partition(buf, 6 * pb.length, pb.length));
+			
+			transceiver.terminate ();
+		} catch (Exception e) {
+			e.printStackTrace();
+			fail ();
+		}
+	}
 }
@@ -0,0 +1,63 @@
+/*
+ * @(#) Crc16TestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+/**
+ * This test case verifies the implementation of the <code>Crc16</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class Crc16TestCase extends TestCase {
+
+	/**
+	 * Verify the standard check value of CRC-16/CCITT-FALSE and that all
+	 * variants of the calculation agree.
+	 */
+	public void testCase01 () {
+		byte[] data = "123456789".getBytes ();
+		assertEquals (0x29B1, Crc16.checksum (data, 0, data.length));
+		
+		int crc = Crc16.INITIAL_VALUE;
+		for (int k=0; k < data.length; k++)
+			crc = Crc16.update (crc, data[k]);
+		assertEquals (0x29B1, crc);
+		
+		ByteBuffer buf = ByteBuffer.allocate (20);
+		buf.position (5);
+		buf.put (data);
+		assertEquals (0x29B1, Crc16.update (Crc16.INITIAL_VALUE, buf, 5, data.length));
+		
+		assertEquals (Crc16.INITIAL_VALUE, Crc16.checksum (data, 0, 0));
+	}
+
+	/**
+	 * Verify that swapped bytes change the checksum.
+	 */
+	public void testCase02 () {
+		byte[] a = { 10, 20, 30, 40 };
+		byte[] b = { 10, 30, 20, 40 };
+		assertTrue (Crc16.checksum (a, 0, 4) != Crc16.checksum (b, 0, 4));
+	}
+}
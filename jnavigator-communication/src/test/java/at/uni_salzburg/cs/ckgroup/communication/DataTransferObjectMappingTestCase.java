@@ -0,0 +1,110 @@
+/*
+ * @(#) DataTransferObjectMappingTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.util.Properties;
+
+import junit.framework.TestCase;
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+import at.uni_salzburg.cs.ckgroup.communication.data.SensorData;
+
+/**
+ * This test case verifies the implementation of the <code>DataTransferObjectMapping</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class DataTransferObjectMappingTestCase extends TestCase {
+
+	private Properties props;
+
+	public void setUp () {
+		props = new Properties ();
+		props.setProperty (TransceiverAdapter.PROP_MAPPING_LIST, "one, sensor");
+		props.setProperty ("mapping.one.type", "1");
+		props.setProperty ("mapping.one.className", MockDataTransferObjectOne.class.getName());
+		props.setProperty ("mapping.one.register", "true");
+		props.setProperty ("mapping.sensor.type", "255");
+		props.setProperty ("mapping.sensor.className", SensorData.class.getName());
+	}
+
+	/**
+	 * Verify the mapping in both directions and the creation of data transfer
+	 * objects.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase01 () throws Exception {
+		DataTransferObjectMapping mapping = new DataTransferObjectMapping (props);
+
+		assertEquals (1, mapping.getPacketType (MockDataTransferObjectOne.class));
+		assertEquals (255, mapping.getPacketType (SensorData.class));
+		assertEquals (-1, mapping.getPacketType (MockDataTransferObjectTwo.class));
+		assertSame (MockDataTransferObjectOne.class, mapping.getDtoClass (1));
+		assertNull (mapping.getDtoClass (2));
+		assertNull (mapping.getDtoClass (256));
+		assertTrue (mapping.isRegistered (MockDataTransferObjectOne.class));
+		assertFalse (mapping.isRegistered (SensorData.class));
+
+		IDataTransferObject dto = mapping.createDto (1, new byte[] {1,2,3});
+		assertTrue (dto instanceof MockDataTransferObjectOne);
+		assertEquals (3, dto.toByteArray().length);
+
+		dto = mapping.createDto (255, new byte[SensorData.payloadLength]);
+		assertTrue (dto instanceof SensorData);
+	}
+
+	/**
+	 * Verify that unmapped packet types and invalid payloads are refused.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase02 () throws Exception {
+		DataTransferObjectMapping mapping = new DataTransferObjectMapping (props);
+
+		try {
+			mapping.createDto (2, new byte[] {1});
+			fail ();
+		} catch (ConfigurationException e) {
+			assertTrue (e.getMessage().startsWith ("No mapping found for packet type 2 "));
+		}
+
+		try {
+			mapping.createDto (255, new byte[] {1});
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Can not convert packet type 255", e.getMessage());
+			assertTrue (e.getCause() instanceof CommunicationException);
+		}
+	}
+
+	/**
+	 * Verify that packet types beyond 255 are refused.
+	 */
+	public void testCase03 () {
+		props.setProperty ("mapping.sensor.type", "256");
+		try {
+			new DataTransferObjectMapping (props);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Property mapping.sensor.type has been assigned a number > 255.", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,209 @@
+/*
+ * @(#) DeltaTransceiverTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+
+/**
+ * This test case verifies the implementation of the <code>DeltaTransceiver</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class DeltaTransceiverTestCase extends TestCase {
+	
+	private static final byte SENSOR_TYPE = 5;
+	
+	private Properties props;
+	private LoopbackTransceiver[] link;
+	
+	public void setUp () {
+		props = new Properties ();
+		props.setProperty (DeltaTransceiver.PROP_TYPES, "5, 6");
+		props.setProperty (DeltaTransceiver.PROP_KEY_INTERVAL, "10");
+		props.setProperty (DeltaTransceiver.PROP_NEGOTIATE, "false");
+		link = LoopbackTransceiver.createLink ();
+	}
+	
+	/**
+	 * Create a 42 byte sensor payload of slowly varying 16 bit values.
+	 */
+	private static byte[] sensorPayload (int frame) {
+		byte[] b = new byte[42];
+		for (int k=0; k < 21; k++) {
+			int value = 1000 * (k - 10) + frame * (k % 5 - 2) + (k == 3 ? 40000 * (frame % 2) : 0);
+			b[2*k] = (byte) (value >> 8);
+			b[2*k+1] = (byte) value;
+		}
+		return b;
+	}
+	
+	private static void arrayCompare (byte[] a, byte[] b) {
+		assertEquals ("array length", a.length, b.length);
+		for (int k=0; k < a.length; k++)
+			assertEquals ("a["+k+"] != b["+k+"]", a[k], b[k]);
+	}
+	
+	/**
+	 * Verify the round trip of the difference encoding, including word
+	 * overflows and odd payload lengths.
+	 */
+	public void testCase01 () {
+		byte[][] cases = {
+			{ 0, 0, 0, 0 }, { 1, 2, 3, 4 },
+			{ (byte)0x7F, (byte)0xFF, (byte)0x80, 0 }, { (byte)0x80, 0, (byte)0x7F, (byte)0xFF },
+			{ 1, 2, 3 }, { (byte)0xFF, 0, 9 },
+		};
+		byte[] buffer = new byte[32];
+		for (int k=0; k+1 < cases.length; k += 2) {
+			int length = DeltaTransceiver.encodeDelta (cases[k], cases[k+1], buffer, 3);
+			assertTrue (length > 3);
+			byte[] frame = new byte[length];
+			System.arraycopy (buffer, 0, frame, 0, length);
+			byte[] decoded = new byte[cases[k].length];
+			assertTrue (DeltaTransceiver.decodeDelta (cases[k], frame, 3, decoded));
+			arrayCompare (cases[k+1], decoded);
+		}
+		
+		assertEquals (3 + 21, DeltaTransceiver.encodeDelta (sensorPayload (0), sensorPayload (0), buffer, 3));
+		assertEquals (0, DeltaTransceiver.encodeDelta (new byte[66], new byte[66], buffer, 0));
+	}
+	
+	/**
+	 * Send a series of sensor payloads and verify that they arrive unchanged,
+	 * that key frames are sent at the configured interval, and that the
+	 * payloads are compressed.
+	 */
+	public void testCase02 () throws IOException, Exception {
+		DeltaTransceiver sender = new DeltaTransceiver (props, link[0]);
+		DeltaTransceiver receiver = new DeltaTransceiver (props, link[1]);
+		
+		Packet other = new Packet ((byte)1, new byte[] {1,2,3});
+		for (int k=0; k < 40; k++) {
+			sender.send (new Packet (SENSOR_TYPE, sensorPayload (k)));
+			if (k % 7 == 0)
+				sender.send (other);
+		}
+		
+		for (int k=0; k < 40; k++) {
+			Packet p = receiver.receive ();
+			assertEquals (SENSOR_TYPE, p.getType ());
+			arrayCompare (sensorPayload (k), p.getPayload ());
+			if (k % 7 == 0)
+				arrayCompare (other.toByteArray (), receiver.receive ().toByteArray ());
+		}
+		
+		assertEquals (4, sender.getKeyFrames ());
+		assertEquals (36, sender.getDeltaFrames ());
+		assertEquals (40 * 42, sender.getUncompressedBytes ());
+		assertTrue ("compressed " + sender.getCompressedBytes (), sender.getCompressedBytes () < 40 * 42 * 2 / 3);
+		assertEquals (0, receiver.getDroppedFrames ());
+	}
+	
+	/**
+	 * Lose a delta frame and verify that the receiver drops the following
+	 * delta frame, requests a key frame and resumes after it.
+	 */
+	public void testCase03 () throws Exception {
+		DeltaTransceiver sender = new DeltaTransceiver (props, link[0]);
+		DeltaTransceiver receiver = new DeltaTransceiver (props, link[1]);
+		
+		sender.send (new Packet (SENSOR_TYPE, sensorPayload (0)));
+		arrayCompare (sensorPayload (0), receiver.receive ().getPayload ());
+		sender.send (new Packet (SENSOR_TYPE, sensorPayload (1)));
+		link[1].incoming.clear ();
+		sender.send (new Packet (SENSOR_TYPE, sensorPayload (2)));
+		sender.send (new Packet ((byte)1, new byte[] {7}));
+		
+		Packet p = receiver.receive ();
+		assertEquals (1, p.getType ());
+		assertEquals (1, receiver.getDroppedFrames ());
+		assertEquals (1, link[0].incoming.size ());
+		
+		receiver.send (new Packet ((byte)1, new byte[] {8}));
+		assertEquals (1, sender.receive ().getType ());
+		
+		sender.send (new Packet (SENSOR_TYPE, sensorPayload (3)));
+		assertEquals (2, sender.getKeyFrames ());
+		p = receiver.receive ();
+		arrayCompare (sensorPayload (3), p.getPayload ());
+	}
+	
+	/**
+	 * Verify the negotiation of the compression with a capable peer and with
+	 * a peer that does not support compression.
+	 */
+	public void testCase04 () throws Exception {
+		props.setProperty (DeltaTransceiver.PROP_NEGOTIATE, "true");
+		DeltaTransceiver a = new DeltaTransceiver (props, link[0]);
+		DeltaTransceiver b = new DeltaTransceiver (props, link[1]);
+		assertFalse (a.isCompressing ());
+		
+		a.send (new Packet (SENSOR_TYPE, sensorPayload (0)));
+		assertEquals (2, link[0].sent);
+		arrayCompare (sensorPayload (0), b.receive ().getPayload ());
+		assertTrue (b.isCompressing ());
+		
+		b.send (new Packet ((byte)1, new byte[] {1}));
+		assertEquals (1, a.receive ().getType ());
+		assertTrue (a.isCompressing ());
+		
+		a.send (new Packet (SENSOR_TYPE, sensorPayload (1)));
+		a.send (new Packet (SENSOR_TYPE, sensorPayload (2)));
+		assertEquals (1, a.getKeyFrames ());
+		assertEquals (1, a.getDeltaFrames ());
+		arrayCompare (sensorPayload (1), b.receive ().getPayload ());
+		arrayCompare (sensorPayload (2), b.receive ().getPayload ());
+		
+		LoopbackTransceiver[] legacyLink = LoopbackTransceiver.createLink ();
+		DeltaTransceiver c = new DeltaTransceiver (props, legacyLink[0]);
+		for (int k=0; k < 100; k++)
+			c.send (new Packet (SENSOR_TYPE, sensorPayload (k)));
+		assertFalse (c.isCompressing ());
+		assertEquals (105, legacyLink[0].sent);
+		assertEquals (0, c.getKeyFrames () + c.getDeltaFrames ());
+	}
+	
+	/**
+	 * Verify that invalid configurations are refused.
+	 */
+	public void testCase05 () {
+		String[][] cases = {
+			{ DeltaTransceiver.PROP_TYPES, "5, 256", "Property delta.types has invalid packet type 256" },
+			{ DeltaTransceiver.PROP_TYPES, "250", "Property delta.types must not contain the value of delta.packet.type." },
+			{ DeltaTransceiver.PROP_PACKET_TYPE, "x", "Property delta.packet.type has invalid packet type x" },
+			{ DeltaTransceiver.PROP_KEY_INTERVAL, "0", "Property delta.key.interval must be greater than zero." },
+		};
+		for (int k=0; k < cases.length; k++) {
+			Properties p = new Properties ();
+			p.putAll (props);
+			p.setProperty (cases[k][0], cases[k][1]);
+			try {
+				new DeltaTransceiver (p, link[0]);
+				fail ("Case " + k);
+			} catch (at.uni_salzburg.cs.ckgroup.ConfigurationException e) {
+				assertEquals ("Case " + k, cases[k][2], e.getMessage ());
+			}
+		}
+	}
+}
@@ -477,4 +477,38 @@ public class DispatcherTestCase extends TestCase {
 			assertEquals ("Refusing to send a null data transfer object.", e.getMessage());
 		}
 	}
+	
+	/**
+	 * Register and unregister a listener in a separate thread while
+	 * dispatching messages. Verify that the permanently registered listener
+	 * gets all messages and that dispatching is not disturbed.
+	 */
+	public void testCase16 () throws Exception {
+		dispatcher.addDataTransferObjectListener (listenerOne, MockDataTransferObjectOne.class);
+		
+		Thread registrar = new Thread () {
+			public void run () {
+				for (int k=0; k < 200; k++) {
+					dispatcher.addDataTransferObjectListener (listenerTwo, MockDataTransferObjectOne.class);
+					dispatcher.addDataTransferObjectListener (listenerThree, IDataTransferObject.class);
+					dispatcher.removeIDataTransferObjectListener (listenerTwo);
+					dispatcher.removeIDataTransferObjectListener (listenerThree);
+				}
+			}
+		};
+		registrar.start ();
+		
+		for (int k=0; k < 200; k++)
+			dispatcher.dispatch (null, one);
+		
+		registrar.join ();
+		assertEquals ("counter one", 200, listenerOne.counter);
+		
+		listenerTwo.counter = 0;
+		listenerThree.counter = 0;
+		dispatcher.dispatch (null, one);
+		assertEquals ("counter one", 201, listenerOne.counter);
+		assertEquals ("counter two", 0, listenerTwo.counter);
+		assertEquals ("counter three", 0, listenerThree.counter);
+	}
 }
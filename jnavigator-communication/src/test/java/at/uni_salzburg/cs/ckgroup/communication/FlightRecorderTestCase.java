@@ -0,0 +1,236 @@
+/*
+ * @(#) FlightRecorderTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+
+/**
+ * This test case verifies the implementation of the <code>FlightRecorder</code>
+ * and <code>FlightRecordPlayer</code> classes.
+ *
+ * @author Clemens Krainer
+ */
+public class FlightRecorderTestCase extends TestCase {
+
+	private File directory;
+	private Properties props;
+	private Dispatcher dispatcher;
+	private CollectingListener listener;
+
+	/**
+	 * A listener that collects the received messages.
+	 */
+	private static class CollectingListener implements IDataTransferObjectListener {
+		List<IDataTransferObject> received = new ArrayList<IDataTransferObject> ();
+
+		public void receive (IDataTransferObject dto) throws IOException {
+			received.add (dto);
+		}
+	}
+
+	public void setUp () {
+		directory = new File ("target/flight-recorder-test");
+		deleteRecording ();
+
+		props = new Properties ();
+		props.setProperty (FlightRecorder.PROP_DIRECTORY, directory.getPath ());
+		props.setProperty (TransceiverAdapter.PROP_MAPPING_LIST, "one, two");
+		props.setProperty ("mapping.one.type", "1");
+		props.setProperty ("mapping.one.className", MockDataTransferObjectOne.class.getName());
+		props.setProperty ("mapping.two.type", "2");
+		props.setProperty ("mapping.two.className", MockDataTransferObjectTwo.class.getName());
+
+		dispatcher = new Dispatcher ();
+		listener = new CollectingListener ();
+		dispatcher.addDataTransferObjectListener (listener, IDataTransferObject.class);
+	}
+
+	public void tearDown () {
+		deleteRecording ();
+	}
+
+	private void deleteRecording () {
+		File[] files = directory.listFiles ();
+		if (files != null)
+			for (int k=0; k < files.length; k++)
+				files[k].delete ();
+		directory.delete ();
+	}
+
+	/**
+	 * Record some messages and replay them at maximum speed. Verify that
+	 * messages of unmapped classes are skipped.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase01 () throws Exception {
+		FlightRecorder recorder = new FlightRecorder (props);
+		recorder.receive (new MockDataTransferObjectOne (new byte[] {1,2,3}));
+		recorder.receive (new MockDataTransferObjectThree (new byte[] {9}));
+		recorder.receive (new MockDataTransferObjectTwo (new byte[] {4,5}));
+		recorder.receive (new MockDataTransferObjectOne (new byte[] {}));
+		recorder.close ();
+
+		assertEquals (3, recorder.getRecordedMessages ());
+		assertEquals (1, recorder.getSkippedMessages ());
+
+		props.setProperty (FlightRecordPlayer.PROP_SPEED, "0");
+		FlightRecordPlayer player = new FlightRecordPlayer (props);
+		player.setDtoProvider (dispatcher);
+		assertEquals (3, player.replay ());
+
+		assertEquals (3, listener.received.size ());
+		assertTrue (listener.received.get (0) instanceof MockDataTransferObjectOne);
+		assertEquals (3, listener.received.get (0).toByteArray ().length);
+		assertTrue (listener.received.get (1) instanceof MockDataTransferObjectTwo);
+		assertEquals (5, listener.received.get (1).toByteArray ()[1]);
+		assertEquals (0, listener.received.get (2).toByteArray ().length);
+	}
+
+	/**
+	 * Record enough messages to fill several segments and verify that all of
+	 * them are replayed in order.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase02 () throws Exception {
+		props.setProperty (FlightRecorder.PROP_SEGMENT_SIZE, "65555");
+		FlightRecorder recorder = new FlightRecorder (props);
+		for (int k=0; k < 10000; k++)
+			recorder.receive (new MockDataTransferObjectOne (new byte[] { (byte)(k >> 8), (byte)k, 0 }));
+		recorder.close ();
+
+		assertTrue (FlightRecorder.segmentFile (directory, FlightRecorder.DEFAULT_FILE_PREFIX, 2).exists ());
+
+		props.setProperty (FlightRecordPlayer.PROP_SPEED, "0");
+		FlightRecordPlayer player = new FlightRecordPlayer (props);
+		player.setDtoProvider (dispatcher);
+		assertEquals (10000, player.replay ());
+
+		for (int k=0; k < 10000; k++) {
+			byte[] b = listener.received.get (k).toByteArray ();
+			assertEquals ("message " + k, k, ((b[0] & 0xFF) << 8) | (b[1] & 0xFF));
+		}
+	}
+
+	/**
+	 * Verify that the player keeps the original timing, scaled by the
+	 * configured speed.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase03 () throws Exception {
+		FlightRecorder recorder = new FlightRecorder (props);
+		recorder.receive (new MockDataTransferObjectOne (new byte[] {1}));
+		Thread.sleep (300);
+		recorder.receive (new MockDataTransferObjectOne (new byte[] {2}));
+		recorder.close ();
+
+		FlightRecordPlayer player = new FlightRecordPlayer (props);
+		player.setDtoProvider (dispatcher);
+		long start = System.currentTimeMillis ();
+		assertEquals (2, player.replay ());
+		long duration = System.currentTimeMillis () - start;
+		assertTrue ("duration " + duration, duration >= 290);
+
+		player.setSpeed (3);
+		start = System.currentTimeMillis ();
+		assertEquals (2, player.replay ());
+		duration = System.currentTimeMillis () - start;
+		assertTrue ("duration " + duration, duration >= 90 && duration < 250);
+	}
+
+	/**
+	 * Verify that a missing directory property is refused.
+	 */
+	public void testCase04 () {
+		props.remove (FlightRecorder.PROP_DIRECTORY);
+		try {
+			new FlightRecorder (props);
+			fail ();
+		} catch (Exception e) {
+			assertEquals ("Property directory not configured.", e.getMessage ());
+		}
+	}
+
+	/**
+	 * Record a long recording followed by a short one and verify that only
+	 * the short recording is replayed and no stale or unused segment files
+	 * remain.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase05 () throws Exception {
+		props.setProperty (FlightRecorder.PROP_SEGMENT_SIZE, "65555");
+		FlightRecorder recorder = new FlightRecorder (props);
+		for (int k=0; k < 10000; k++)
+			recorder.receive (new MockDataTransferObjectOne (new byte[] { 1, 2, 3 }));
+		recorder.close ();
+		assertTrue (FlightRecorder.segmentFile (directory, FlightRecorder.DEFAULT_FILE_PREFIX, 2).exists ());
+
+		recorder = new FlightRecorder (props);
+		recorder.receive (new MockDataTransferObjectTwo (new byte[] { 4 }));
+		recorder.receive (new MockDataTransferObjectTwo (new byte[] { 5 }));
+		recorder.close ();
+		assertTrue (FlightRecorder.segmentFile (directory, FlightRecorder.DEFAULT_FILE_PREFIX, 0).exists ());
+		assertFalse (FlightRecorder.segmentFile (directory, FlightRecorder.DEFAULT_FILE_PREFIX, 1).exists ());
+		assertFalse (FlightRecorder.segmentFile (directory, FlightRecorder.DEFAULT_FILE_PREFIX, 2).exists ());
+
+		try {
+			recorder.receive (new MockDataTransferObjectTwo (new byte[] { 6 }));
+			fail ();
+		} catch (IOException e) {
+			assertEquals ("FlightRecorder is closed.", e.getMessage ());
+		}
+
+		props.setProperty (FlightRecordPlayer.PROP_SPEED, "0");
+		FlightRecordPlayer player = new FlightRecordPlayer (props);
+		player.setDtoProvider (dispatcher);
+		assertEquals (2, player.replay ());
+		assertEquals (5, listener.received.get (1).toByteArray ()[0]);
+	}
+
+	/**
+	 * Verify that a replay started by <code>run()</code> keeps the exception
+	 * of an invalid recording.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase06 () throws Exception {
+		directory.mkdirs ();
+		FileOutputStream out = new FileOutputStream (FlightRecorder.segmentFile (directory, FlightRecorder.DEFAULT_FILE_PREFIX, 0));
+		out.write (new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		out.close ();
+
+		FlightRecordPlayer player = new FlightRecordPlayer (props);
+		player.setDtoProvider (dispatcher);
+		player.run ();
+		assertNotNull (player.getFailure ());
+		assertEquals ("File flight-00000.rec is not a flight recording.", player.getFailure ().getMessage ());
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * @(#) LoopbackTransceiver.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class implements a <code>ITransceiver</code> used in the unit tests.
+ * Two instances form a link, i.e. the packets sent via one instance are
+ * received by the other one. The unit tests may inspect and modify the
+ * packets in transit via the <code>incoming</code> queue.
+ * 
+ * @author Clemens Krainer
+ */
+public class LoopbackTransceiver implements ITransceiver {
+	
+	/**
+	 * The packets sent by the peer, but not yet received.
+	 */
+	public LinkedBlockingQueue<Packet> incoming = new LinkedBlockingQueue<Packet> ();
+	
+	/**
+	 * The other end of the link.
+	 */
+	private LoopbackTransceiver peer;
+	
+	/**
+	 * The number of sent packets.
+	 */
+	public volatile int sent = 0;
+	
+	/**
+	 * @return two connected instances.
+	 */
+	public static LoopbackTransceiver[] createLink () {
+		LoopbackTransceiver a = new LoopbackTransceiver ();
+		LoopbackTransceiver b = new LoopbackTransceiver ();
+		a.peer = b;
+		b.peer = a;
+		return new LoopbackTransceiver[] { a, b };
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#send(at.uni_salzburg.cs.ckgroup.communication.Packet)
+	 */
+	public void send (Packet packet) throws IOException {
+		++sent;
+		peer.incoming.add (packet);
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#receive()
+	 */
+	public Packet receive () throws IOException {
+		try {
+			Packet packet = incoming.poll (1, TimeUnit.SECONDS);
+			if (packet == null)
+				throw new IOException ("Read timed out.");
+			return packet;
+		} catch (InterruptedException e) {
+			throw new IOException ("Read interrupted.");
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#close()
+	 */
+	public void close () {
+		// Intentionally empty.
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * @(#) MockTransceiver.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.Vector;
+
+/**
+ * This class implements a <code>ITransceiver</code> used in the unit tests.
+ * The static variable <code>linkUp</code> simulates the availability of the
+ * link.
+ * 
+ * @author Clemens Krainer
+ */
+public class MockTransceiver implements ITransceiver {
+	
+	/**
+	 * The simulated availability of the link.
+	 */
+	public static volatile boolean linkUp = true;
+	
+	/**
+	 * The number of created instances.
+	 */
+	public static volatile int instances = 0;
+	
+	/**
+	 * The latest created instance.
+	 */
+	public static volatile MockTransceiver current = null;
+	
+	/**
+	 * The packets sent via this instance.
+	 */
+	public Vector<Packet> sent = new Vector<Packet> ();
+	
+	/**
+	 * This variable indicates a closed instance.
+	 */
+	public volatile boolean closed = false;
+	
+	/**
+	 * Construct a <code>MockTransceiver</code>.
+	 * 
+	 * @param props the properties to be used for construction.
+	 * @throws IOException thrown if the link is down.
+	 */
+	public MockTransceiver (Properties props) throws IOException {
+		if (!linkUp)
+			throw new IOException ("Link is down.");
+		++instances;
+		current = this;
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#send(at.uni_salzburg.cs.ckgroup.communication.Packet)
+	 */
+	public void send (Packet packet) throws IOException {
+		if (!linkUp || closed)
+			throw new IOException ("Write failed.");
+		sent.add (packet);
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#receive()
+	 */
+	public synchronized Packet receive () throws IOException {
+		while (linkUp && !closed)
+			try { wait (10); } catch (InterruptedException e) { }
+		throw new IOException ("Read failed.");
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.communication.ITransceiver#close()
+	 */
+	public void close () {
+		closed = true;
+	}
+}
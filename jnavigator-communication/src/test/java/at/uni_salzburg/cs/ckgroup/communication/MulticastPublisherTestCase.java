@@ -0,0 +1,136 @@
+/*
+ * @(#) MulticastPublisherTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.util.Properties;
+
+import junit.framework.TestCase;
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This test verifies the implementation of the <code>MulticastPublisher</code>
+ * and <code>MulticastSubscriber</code> classes.
+ *
+ * @author Clemens Krainer
+ */
+public class MulticastPublisherTestCase extends TestCase {
+
+	private Properties props;
+
+	public void setUp () throws Exception {
+		super.setUp();
+
+		props = new Properties ();
+		props.setProperty (MulticastPublisher.PROP_GROUP, "239.255.74.1");
+		props.setProperty (MulticastPublisher.PROP_PORT, "5490");
+		props.setProperty (MulticastPublisher.PROP_TIME_TO_LIVE, "0");
+
+		props.setProperty (TransceiverAdapter.PROP_MAPPING_LIST, "one");
+		props.setProperty (TransceiverAdapter.PROP_MAPPING_PREFIX+"one"+TransceiverAdapter.PROP_MAPPING_TYPE_SUFFIX, "1");
+		props.setProperty (TransceiverAdapter.PROP_MAPPING_PREFIX+"one"+TransceiverAdapter.PROP_MAPPING_CLASS_NAME_SUFFIX,
+				"at.uni_salzburg.cs.ckgroup.communication.MockDataTransferObjectOne");
+		props.setProperty (TransceiverAdapter.PROP_MAPPING_PREFIX+"one"+TransceiverAdapter.PROP_MAPPING_REGISTER_SUFFIX, "true");
+	}
+
+	void arrayCompare (byte[] a, byte[] b) {
+		assertEquals ("array length", a.length, b.length);
+
+		for (int k=0; k < a.length; k++)
+			assertEquals ("a["+k+"] != b["+k+"]", a[k], b[k]);
+	}
+
+	/**
+	 * Publish an object dispatched on the vehicle side and verify that two
+	 * subscribers dispatch it to their local dispatchers.
+	 */
+	public void testCase01 () throws Exception {
+		Dispatcher vehicle = new Dispatcher ();
+		MulticastPublisher publisher = new MulticastPublisher (props);
+		publisher.setDtoProvider (vehicle);
+		Thread publisherThread = new Thread (publisher);
+		publisherThread.start ();
+
+		MockListenerOne[] listeners = new MockListenerOne[2];
+		MulticastSubscriber[] subscribers = new MulticastSubscriber[2];
+		Thread[] threads = new Thread[2];
+		for (int k=0; k < 2; k++) {
+			listeners[k] = new MockListenerOne ();
+			Dispatcher ground = new Dispatcher ();
+			ground.addDataTransferObjectListener (listeners[k], MockDataTransferObjectOne.class);
+			subscribers[k] = new MulticastSubscriber (props);
+			subscribers[k].setDtoProvider (ground);
+			threads[k] = new Thread (subscribers[k]);
+			threads[k].start ();
+		}
+
+		MockDataTransferObjectOne one = new MockDataTransferObjectOne (new byte[] {1,2,3,4,5});
+		vehicle.dispatch (null, one);
+
+		for (int j=0; j < 50 && (listeners[0].counter == 0 || listeners[1].counter == 0); j++)
+			Thread.sleep (20);
+
+		assertEquals (1, publisher.getPublishedObjects ());
+		for (int k=0; k < 2; k++) {
+			assertEquals ("listener " + k, 1, listeners[k].counter);
+			arrayCompare (one.toByteArray (), listeners[k].dto.toByteArray ());
+			assertEquals ("received " + k, 1, subscribers[k].getReceivedObjects ());
+			assertEquals ("dropped " + k, 0, subscribers[k].getDroppedFrames ());
+		}
+
+		publisher.terminate ();
+		publisherThread.join (1000);
+		assertFalse (publisherThread.isAlive ());
+		for (int k=0; k < 2; k++) {
+			subscribers[k].terminate ();
+			threads[k].join (1000);
+			assertFalse (threads[k].isAlive ());
+		}
+	}
+
+	/**
+	 * Verify that missing or invalid group properties cause exceptions.
+	 */
+	public void testCase02 () throws Exception {
+		props.setProperty (MulticastPublisher.PROP_GROUP, "127.0.0.1");
+		try {
+			new MulticastPublisher (props);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Property multicast.group is no multicast address: 127.0.0.1", e.getMessage ());
+		}
+
+		props.remove (MulticastPublisher.PROP_PORT);
+		try {
+			new MulticastSubscriber (props);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Property multicast.port is not set.", e.getMessage ());
+		}
+
+		props.remove (MulticastPublisher.PROP_GROUP);
+		try {
+			new MulticastPublisher (props);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Property multicast.group is not set.", e.getMessage ());
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * @(#) NioTcpServerTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+
+/**
+ * This test verifies the implementation of the <code>NioTcpServer</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class NioTcpServerTestCase extends TestCase {
+
+	private IDataTransferObjectProvider dtoProvider;
+	private Properties serverProps;
+	private Properties clientProps;
+	private Packet packetOne;
+	private MockListenerOne listenerOne;
+
+	public void setUp () throws Exception {
+		super.setUp();
+
+		serverProps = new Properties ();
+		serverProps.setProperty (NioTcpServer.PROP_SERVER_PORT, "5470");
+
+		serverProps.setProperty (TransceiverAdapter.PROP_MAPPING_LIST, "one");
+
+		serverProps.setProperty (TransceiverAdapter.PROP_MAPPING_PREFIX+"one"+TransceiverAdapter.PROP_MAPPING_TYPE_SUFFIX, "1");
+		serverProps.setProperty (TransceiverAdapter.PROP_MAPPING_PREFIX+"one"+TransceiverAdapter.PROP_MAPPING_CLASS_NAME_SUFFIX,
+				"at.uni_salzburg.cs.ckgroup.communication.MockDataTransferObjectOne");
+		serverProps.setProperty (TransceiverAdapter.PROP_MAPPING_PREFIX+"one"+TransceiverAdapter.PROP_MAPPING_REGISTER_SUFFIX, "true");
+
+		packetOne =   new Packet ((byte)1, new byte[] {1,2,3,4,5,6,7,8,9,0});
+
+		listenerOne = new MockListenerOne ();
+
+		dtoProvider = new Dispatcher ();
+		dtoProvider.addDataTransferObjectListener(listenerOne, IDataTransferObject.class);
+
+		clientProps = new Properties ();
+		clientProps.setProperty (Transceiver.PROP_CONNECTION_TYPE, "stream");
+		clientProps.setProperty (Transceiver.PROP_RECONNECTION_TIMEOUT,"100000");
+		clientProps.setProperty (Transceiver.PROP_MAXIMUM_RECONNECTS, "0");
+		clientProps.setProperty (Transceiver.PROP_CONNECTION_PARAMS_PREFIX+"className", "at.uni_salzburg.cs.ckgroup.io.TcpSocket");
+		clientProps.setProperty (Transceiver.PROP_CONNECTION_PARAMS_PREFIX+"host", "127.0.0.1");
+		clientProps.setProperty (Transceiver.PROP_CONNECTION_PARAMS_PREFIX+"port", "5470");
+	}
+
+	void arrayCompare (byte[] a, byte[] b) {
+		assertEquals ("array length", a.length, b.length);
+
+		for (int k=0; k < a.length; k++)
+			assertEquals ("a["+k+"] != b["+k+"]", a[k], b[k]);
+	}
+
+	/**
+	 * Create a <code>NioTcpServer</code> and use a <code>Transceiver</code> as
+	 * TCP client. Send one packet via TCP and verify that it arrives on the
+	 * other side.
+	 */
+	public void testCase01 () throws Exception {
+		NioTcpServer server = new NioTcpServer (serverProps);
+		server.setDtoProvider (dtoProvider);
+		Thread serverThread = new Thread (server);
+		serverThread.start();
+
+		Transceiver client = new Transceiver (clientProps);
+		client.send(packetOne);
+
+		try { Thread.sleep(500); } catch (InterruptedException e) {;}
+
+		assertEquals (1, server.getClientCount());
+		assertEquals (1, listenerOne.counter);
+		arrayCompare (packetOne.getPayload(), listenerOne.dto.toByteArray());
+
+		client.close();
+		server.terminate();
+		serverThread.join(1000);
+		assertFalse (serverThread.isAlive());
+	}
+
+	/**
+	 * Connect two clients and verify that a packet sent by the first client
+	 * is forwarded to the second client only, and that a dispatched data
+	 * transfer object reaches both clients.
+	 */
+	public void testCase02 () throws Exception {
+		NioTcpServer server = new NioTcpServer (serverProps);
+		server.setDtoProvider (dtoProvider);
+		Thread serverThread = new Thread (server);
+		serverThread.start();
+
+		Transceiver clientA = new Transceiver (clientProps);
+		Transceiver clientB = new Transceiver (clientProps);
+		try { Thread.sleep(300); } catch (InterruptedException e) {;}
+		assertEquals (2, server.getClientCount());
+
+		clientA.send(packetOne);
+		Packet received = clientB.receive();
+		arrayCompare (packetOne.toByteArray(), received.toByteArray());
+
+		MockDataTransferObjectOne one = new MockDataTransferObjectOne (new byte[] {9,8,7});
+		dtoProvider.dispatch (null, one);
+		Packet expected = new Packet ((byte)1, one.toByteArray());
+		arrayCompare (expected.toByteArray(), clientA.receive().toByteArray());
+		arrayCompare (expected.toByteArray(), clientB.receive().toByteArray());
+
+		clientA.close();
+		clientB.close();
+		server.terminate();
+		serverThread.join(1000);
+		assertFalse (serverThread.isAlive());
+	}
+
+	/**
+	 * Verify that a client not reading its data is disconnected as soon as
+	 * its queue overflows, instead of silently losing queued frames, and that
+	 * a client keeping pace receives all frames.
+	 */
+	public void testCase04 () throws Exception {
+		serverProps.setProperty (NioTcpServer.PROP_CLIENT_QUEUE_LENGTH, "10");
+		NioTcpServer server = new NioTcpServer (serverProps);
+		server.setDtoProvider (dtoProvider);
+		Thread serverThread = new Thread (server);
+		serverThread.start();
+
+		Socket slow = new Socket ();
+		slow.setReceiveBufferSize (1024);
+		slow.connect (new InetSocketAddress ("127.0.0.1", 5470));
+		Transceiver fast = new Transceiver (clientProps);
+		try { Thread.sleep(300); } catch (InterruptedException e) {;}
+		assertEquals (2, server.getClientCount());
+
+		byte[] payload = new byte[200];
+		int sent = 0;
+		for (int k=0; k < 100000 && server.getClientCount() > 1; k++) {
+			payload[0] = (byte)k;
+			dtoProvider.dispatch (null, new MockDataTransferObjectOne (payload.clone()));
+			++sent;
+			Packet received = fast.receive();
+			assertEquals ((byte)k, received.getPayload()[0]);
+		}
+
+		assertEquals (1, server.getClientCount());
+		assertTrue (server.getDroppedFrames() > 0);
+		assertTrue (sent < 100000);
+
+		InputStream in = slow.getInputStream();
+		byte[] buf = new byte[4096];
+		while (in.read (buf) >= 0)
+			continue;
+		slow.close();
+
+		fast.close();
+		server.terminate();
+		serverThread.join(1000);
+		assertFalse (serverThread.isAlive());
+	}
+
+	/**
+	 * Verify that a missing port number causes an exception.
+	 */
+	public void testCase03 () throws Exception {
+		serverProps.remove (NioTcpServer.PROP_SERVER_PORT);
+		try {
+			new NioTcpServer (serverProps);
+			fail ();
+		} catch (java.io.IOException e) {
+			assertEquals ("Property server.port is not set.", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * @(#) PacketBatchTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * This test case verifies the implementation of the <code>PacketBatch</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class PacketBatchTestCase extends TestCase {
+
+	/**
+	 * Combine several packets to a batch and split the batch again.
+	 *
+	 * @throws IOException
+	 */
+	public void testCase01 () throws IOException {
+		Packet one = new Packet ((byte)1, new byte[] {1,2,3});
+		Packet two = new Packet ((byte)2, null);
+		Packet three = new Packet ((byte)(200), new byte[300], PacketFormat.EXTENDED);
+		
+		PacketBatch batch = new PacketBatch (400);
+		assertTrue (batch.add (one));
+		assertTrue (batch.add (two));
+		assertTrue (batch.add (three));
+		assertFalse (batch.add (three));
+		assertEquals (3, batch.size ());
+		
+		Packet p = batch.toPacket ();
+		assertEquals (0, batch.size ());
+		assertEquals (PacketBatch.TYPE, p.getType ());
+		assertEquals (3 * PacketBatch.ENTRY_OVERHEAD + 3 + 300, p.getPayload ().length);
+		
+		List<Packet> packets = PacketBatch.split (p);
+		assertEquals (3, packets.size ());
+		assertEquals (one.toString (), packets.get (0).toString ());
+		assertEquals ("[255,255,2,0,0,2]", packets.get (1).toString ());
+		assertEquals (200, packets.get (2).getType () & 0xFF);
+		assertEquals (300, packets.get (2).getPayload ().length);
+	}
+
+	/**
+	 * Verify that corrupted batches and invalid lengths are refused.
+	 *
+	 * @throws IOException
+	 */
+	public void testCase02 () throws IOException {
+		try {
+			PacketBatch.split (new Packet ((byte)1, new byte[] {1}));
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Packet type 1 is no batch.", e.getMessage ());
+		}
+		
+		try {
+			PacketBatch.split (new Packet (PacketBatch.TYPE, new byte[] {1, 0, 1, 7, 2, 0}));
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Truncated batch entry at offset 4.", e.getMessage ());
+		}
+		
+		try {
+			PacketBatch.split (new Packet (PacketBatch.TYPE, new byte[] {1, 0, 5, 7}));
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Truncated batch entry at offset 0.", e.getMessage ());
+		}
+		
+		try {
+			new PacketBatch (3);
+			fail ();
+		} catch (IllegalArgumentException e) {
+			assertEquals ("The maximum length must be in the range from 4 to 65535, but is 3", e.getMessage ());
+		}
+	}
+}
@@ -0,0 +1,249 @@
+/*
+ * @(#) PacketCodecTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+import at.uni_salzburg.cs.ckgroup.communication.data.SensorData;
+
+/**
+ * This test case verifies the implementation of the <code>PacketCodec</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class PacketCodecTestCase extends TestCase {
+
+	private static final byte[] SENSOR_PAYLOAD = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14,
+			15, 16, 17, 18,	19, 20, 21, 22, 23, 24, 25, 26, 27, 28,
+			29, 30, 31, 32, 33, 34, 35, 36,	37, 38, 39, 40, 41, 42 };
+
+	/**
+	 * Verify that encoding a frame into a buffer produces the same bytes as
+	 * <code>Packet.toByteArray()</code>.
+	 *
+	 * @throws IOException
+	 */
+	public void testCase01 () throws IOException {
+		byte[] payload = new byte[] {(byte)200,30,(byte)129,(byte)255,13};
+		byte[] expected = new Packet ((byte)13, payload).toByteArray();
+
+		ByteBuffer buf = ByteBuffer.allocate (100);
+		PacketCodec.encode ((byte)13, payload, buf);
+		assertEquals ("length", expected.length, buf.position());
+		for (int k=0; k < expected.length; k++)
+			assertEquals ("Byte ["+k+"]", expected[k], buf.get(k));
+
+		buf.clear();
+		PacketCodec.encode ((byte)13, (byte[]) null, buf);
+		expected = new Packet ((byte)13, null).toByteArray();
+		assertEquals ("length", expected.length, buf.position());
+		for (int k=0; k < expected.length; k++)
+			assertEquals ("Byte ["+k+"]", expected[k], buf.get(k));
+	}
+
+	/**
+	 * Verify that the checksum matches the legacy calculation also for packet
+	 * types greater than 127.
+	 *
+	 * @throws IOException
+	 */
+	public void testCase02 () throws IOException {
+		byte type = (byte)200;
+		byte[] expected = new Packet (type, SENSOR_PAYLOAD).toByteArray();
+
+		ByteBuffer buf = ByteBuffer.allocateDirect (100);
+		PacketCodec.encode (type, SENSOR_PAYLOAD, buf);
+		for (int k=0; k < expected.length; k++)
+			assertEquals ("Byte ["+k+"]", expected[k], buf.get(k));
+	}
+
+	/**
+	 * Verify the decoding of several frames out of the read buffer, including
+	 * garbage between frames and frames split across two reads.
+	 *
+	 * @throws IOException
+	 */
+	public void testCase03 () throws IOException {
+		byte[] one = new Packet ((byte)1, new byte[] {1,2,3}).toByteArray();
+		byte[] two = new Packet ((byte)2, new byte[] {4,5}).toByteArray();
+
+		PacketCodec codec = new PacketCodec ();
+		codec.append (new byte[] {7, 8, 9}, 0, 3);
+		codec.append (one, 0, one.length);
+		codec.append (two, 0, 4);
+
+		assertTrue (codec.next());
+		assertEquals ("type", 1, codec.getType());
+		byte[] p = codec.getPayload();
+		assertEquals ("payload length", 3, p.length);
+		assertEquals (1, p[0]);
+		assertEquals (3, p[2]);
+		assertEquals ("discarded", 3, codec.getDiscardedBytes());
+
+		assertFalse (codec.next());
+		codec.append (two, 4, two.length - 4);
+
+		assertTrue (codec.next());
+		assertEquals ("type", 2, codec.getType());
+		assertEquals ("payload length", 2, codec.getPayloadLength());
+		Packet packet = codec.toPacket();
+		assertEquals ("packet", "[255,255,2,2,4,5,0,13]", packet.toString());
+
+		assertFalse (codec.next());
+		assertEquals ("remaining", 0, codec.getReadBuffer().position());
+	}
+
+	/**
+	 * Verify that a corrupted frame is reported and skipped.
+	 *
+	 * @throws IOException
+	 */
+	public void testCase04 () throws IOException {
+		byte[] bad = new Packet ((byte)1, new byte[] {1,2,3}).toByteArray();
+		bad[5] = 9;
+		byte[] good = new Packet ((byte)2, new byte[] {4,5}).toByteArray();
+
+		PacketCodec codec = new PacketCodec ();
+		codec.append (bad, 0, bad.length);
+		codec.append (good, 0, good.length);
+
+		try {
+			codec.next();
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Checksum Error.", e.getMessage());
+		}
+		assertEquals ("checksum errors", 1, codec.getChecksumErrors());
+
+		assertTrue (codec.next());
+		assertEquals ("type", 2, codec.getType());
+		assertFalse (codec.next());
+	}
+
+	/**
+	 * Verify the allocation free <code>SensorData</code> path for both encoding
+	 * and decoding.
+	 *
+	 * @throws IOException
+	 */
+	public void testCase05 () throws IOException {
+		SensorData sd = new SensorData (SENSOR_PAYLOAD);
+		ByteBuffer buf = ByteBuffer.allocate (2 * PacketCodec.MAXIMUM_FRAME_LENGTH);
+		PacketCodec.encode ((byte)5, sd, buf);
+
+		byte[] expected = new Packet ((byte)5, SENSOR_PAYLOAD).toByteArray();
+		assertEquals ("length", expected.length, buf.position());
+		for (int k=0; k < expected.length; k++)
+			assertEquals ("Byte ["+k+"]", expected[k], buf.get(k));
+
+		buf.flip();
+		PacketCodec codec = new PacketCodec ();
+		assertTrue (codec.decode (buf));
+		assertEquals ("position", expected.length, buf.position());
+
+		SensorData target = new SensorData ();
+		codec.decode (target);
+		byte[] b = target.toByteArray();
+		for (int k=0; k < SENSOR_PAYLOAD.length; k++)
+			assertEquals ("Byte ["+k+"]", SENSOR_PAYLOAD[k], b[k]);
+
+		assertFalse (codec.decode (buf));
+	}
+
+	/**
+	 * Verify that too long payloads and too small buffers are refused.
+	 */
+	public void testCase06 () {
+		try {
+			PacketCodec.encode ((byte)1, new byte[256], ByteBuffer.allocate (300));
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Message too long. Only lengths up to 255 bytes are supported. Requested lenght is 256.", e.getMessage());
+		}
+
+		try {
+			PacketCodec.encode ((byte)1, new byte[10], ByteBuffer.allocate (15));
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Insufficient buffer space. Required are 16 bytes, but only 15 bytes are left.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Verify the decoding of <code>EXTENDED</code> frames, including a frame
+	 * exceeding the <code>LEGACY</code> payload limit, garbage containing a
+	 * header of an unsupported version and a corrupted frame.
+	 *
+	 * @throws IOException
+	 */
+	public void testCase07 () throws IOException {
+		byte[] one = new Packet ((byte)1, new byte[] {1,2,3}).toByteArray (PacketFormat.EXTENDED);
+		byte[] two = new Packet ((byte)2, new byte[600], PacketFormat.EXTENDED).toByteArray (PacketFormat.EXTENDED);
+		byte[] bad = new Packet ((byte)3, new byte[] {4,5}).toByteArray (PacketFormat.EXTENDED);
+		bad[7] = 9;
+		
+		ByteBuffer buf = ByteBuffer.allocate (1000);
+		PacketCodec.encode (PacketFormat.EXTENDED, (byte)1, new byte[] {1,2,3}, 0, 3, buf);
+		assertEquals (one.length, buf.position ());
+		for (int k=0; k < one.length; k++)
+			assertEquals ("Byte ["+k+"]", one[k], buf.get (k));
+		
+		PacketCodec codec = new PacketCodec (1024, false, PacketFormat.EXTENDED);
+		codec.append (new byte[] {(byte)0xFF, (byte)0xFE, 7, 1, 0, 0}, 0, 6);
+		codec.append (one, 0, one.length);
+		codec.append (two, 0, 300);
+		
+		assertTrue (codec.next ());
+		assertEquals ("type", 1, codec.getType ());
+		assertEquals ("payload length", 3, codec.getPayloadLength ());
+		assertEquals ("discarded", 6, codec.getDiscardedBytes ());
+		assertFalse (codec.next ());
+		
+		codec.append (two, 300, two.length - 300);
+		codec.append (bad, 0, bad.length);
+		assertTrue (codec.next ());
+		assertEquals ("type", 2, codec.getType ());
+		assertEquals ("payload length", 600, codec.getPayloadLength ());
+		
+		try {
+			codec.next ();
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Checksum Error.", e.getMessage ());
+		}
+		assertFalse (codec.next ());
+		assertEquals ("checksum errors", 1, codec.getChecksumErrors ());
+		
+		PacketCodec small = new PacketCodec (PacketCodec.MAXIMUM_FRAME_LENGTH, false, PacketFormat.EXTENDED);
+		small.append (two, 0, PacketCodec.MAXIMUM_FRAME_LENGTH);
+		assertFalse (small.next ());
+		assertEquals ("discarded", PacketCodec.MAXIMUM_FRAME_LENGTH, small.getDiscardedBytes ());
+		
+		try {
+			PacketCodec.encode (PacketFormat.EXTENDED, (byte)1, new byte[65536], 0, 65536, ByteBuffer.allocate (10));
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Message too long. Only lengths up to 65535 bytes are supported. Requested lenght is 65536.", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * @(#) PacketSendQueueTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ * This test case verifies the implementation of the <code>PacketSendQueue</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class PacketSendQueueTestCase extends TestCase {
+
+	/**
+	 * Verify the FIFO order and that a full queue rejects packets.
+	 *
+	 * @throws IOException
+	 */
+	public void testCase01 () throws IOException {
+		PacketSendQueue queue = new PacketSendQueue (3);
+		assertNull (queue.poll ());
+
+		for (int k=0; k < 5; k++)
+			assertEquals (k < 3, queue.offer (new Packet ((byte)k, null)));
+
+		assertEquals (3, queue.size ());
+		assertEquals (2, queue.getDroppedPackets ());
+
+		assertEquals (0, queue.poll ().getType ());
+		assertTrue (queue.offer (new Packet ((byte)5, null)));
+		assertEquals (1, queue.poll ().getType ());
+		assertEquals (2, queue.poll ().getType ());
+		assertEquals (5, queue.poll ().getType ());
+		assertNull (queue.poll ());
+		assertEquals (0, queue.size ());
+	}
+
+	/**
+	 * Verify that packets of several producers are all delivered to one
+	 * consumer, in order per producer.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase02 () throws Exception {
+		final PacketSendQueue queue = new PacketSendQueue (16);
+		final int producers = 4;
+		final int packets = 2000;
+
+		Thread[] threads = new Thread[producers];
+		for (int k=0; k < producers; k++) {
+			final byte id = (byte)k;
+			threads[k] = new Thread () {
+				public void run () {
+					try {
+						for (int j=0; j < packets; j++) {
+							Packet p = new Packet (id, new byte[] { (byte)(j >> 8), (byte)j });
+							while (!queue.offer (p))
+								Thread.yield ();
+						}
+					} catch (IOException e) {
+						e.printStackTrace ();
+					}
+				}
+			};
+			threads[k].start ();
+		}
+
+		int[] next = new int[producers];
+		int received = 0;
+		long end = System.currentTimeMillis () + 10000;
+		while (received < producers * packets && System.currentTimeMillis () < end) {
+			Packet p = queue.poll ();
+			if (p == null) {
+				queue.await (10);
+				continue;
+			}
+			int seq = ((p.getPayload ()[0] & 0xFF) << 8) | (p.getPayload ()[1] & 0xFF);
+			assertEquals ("producer " + p.getType (), next[p.getType ()], seq);
+			++next[p.getType ()];
+			++received;
+		}
+
+		for (int k=0; k < producers; k++)
+			threads[k].join ();
+
+		assertEquals (producers * packets, received);
+	}
+
+	/**
+	 * Verify that a producer waits for room in a full queue and gives up
+	 * after the timeout.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase03 () throws Exception {
+		final PacketSendQueue queue = new PacketSendQueue (2);
+		assertTrue (queue.offer (new Packet ((byte)0, null), 10));
+		assertTrue (queue.offer (new Packet ((byte)1, null), 10));
+
+		long start = System.currentTimeMillis ();
+		assertFalse (queue.offer (new Packet ((byte)2, null), 50));
+		assertTrue (System.currentTimeMillis () - start >= 50);
+		assertEquals (1, queue.getDroppedPackets ());
+
+		final boolean[] added = new boolean[1];
+		Thread producer = new Thread () {
+			public void run () {
+				try {
+					added[0] = queue.offer (new Packet ((byte)3, null), 5000);
+				} catch (IOException e) {
+					e.printStackTrace ();
+				}
+			}
+		};
+		producer.start ();
+		assertEquals (0, queue.poll ().getType ());
+		producer.join (5000);
+
+		assertTrue (added[0]);
+		assertEquals (1, queue.getDroppedPackets ());
+		assertEquals (1, queue.poll ().getType ());
+		assertEquals (3, queue.poll ().getType ());
+		assertNull (queue.poll ());
+	}
+}
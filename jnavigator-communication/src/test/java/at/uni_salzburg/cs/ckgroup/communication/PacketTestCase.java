@@ -321,4 +321,112 @@ public class PacketTestCase extends TestCase {
 		}
 		
 	}
+	
+	/**
+	 * This test verifies the <code>EXTENDED</code> framing of a packet and
+	 * that the <code>InputStream</code> constructor synchronizes to it after
+	 * garbage, including a partial header.
+	 */
+	public void testCase23 () throws IOException {
+		int[] expected = {255,254,1,13,0,3,1,2,3,0xCD,0xCE};
+		Packet p = new Packet ((byte)13, new byte[] {1,2,3});
+		
+		byte[] x = p.toByteArray (PacketFormat.EXTENDED);
+		assertEquals (expected.length, x.length);
+		int crc = Crc16.checksum (x, 2, x.length - 4);
+		expected[9] = crc >> 8;
+		expected[10] = crc & 0xFF;
+		for (int k=0; k < expected.length; k++)
+			assertEquals ("Byte ["+k+"]", expected[k], x[k] & 0xFF);
+		
+		byte[] stream = new byte[x.length + 4];
+		stream[0] = 7;
+		stream[1] = (byte)255;
+		stream[2] = (byte)255;
+		stream[3] = 9;
+		System.arraycopy (x, 0, stream, 4, x.length);
+		Packet q = new Packet (new ByteArrayInputStream (stream), PacketFormat.EXTENDED);
+		assertEquals ("String", p.toString (), q.toString ());
+		
+		stream = new byte[x.length + 1];
+		stream[0] = (byte)255;
+		System.arraycopy (x, 0, stream, 1, x.length);
+		q = new Packet (new ByteArrayInputStream (stream), PacketFormat.EXTENDED);
+		assertEquals ("String", p.toString (), q.toString ());
+	}
+	
+	/**
+	 * This test verifies that the CRC of the <code>EXTENDED</code> framing
+	 * detects swapped payload bytes, which the additive checksum of the
+	 * <code>LEGACY</code> framing misses, and that unsupported versions are
+	 * refused.
+	 */
+	public void testCase24 () throws IOException {
+		Packet p = new Packet ((byte)13, new byte[] {1,2,3});
+		
+		byte[] legacy = p.toByteArray ();
+		legacy[4] = 2;
+		legacy[5] = 1;
+		assertEquals (13, new Packet (new ByteArrayInputStream (legacy)).getType ());
+		
+		byte[] x = p.toByteArray (PacketFormat.EXTENDED);
+		x[6] = 2;
+		x[7] = 1;
+		try {
+			new Packet (new ByteArrayInputStream (x), PacketFormat.EXTENDED);
+			fail ();
+		} catch (IOException e) {
+			assertEquals ("Checksum Error.", e.getMessage());
+		}
+		
+		x = p.toByteArray (PacketFormat.EXTENDED);
+		x[2] = 2;
+		try {
+			new Packet (new ByteArrayInputStream (x), PacketFormat.EXTENDED);
+			fail ();
+		} catch (IOException e) {
+			assertEquals ("Unsupported frame version 2.", e.getMessage());
+		}
+	}
+	
+	/**
+	 * This test verifies that a payload exceeding the <code>LEGACY</code>
+	 * framing is accepted for the <code>EXTENDED</code> framing, but refused
+	 * by <code>toByteArray(PacketFormat.LEGACY)</code> and <code>toByteArray()</code>.
+	 */
+	public void testCase25 () throws IOException {
+		byte type = 13;
+		byte[] payload = new byte[256];
+		for (int k=0; k < payload.length; k++)
+			payload[k] = (byte) k;
+		
+		Packet p = new Packet (type, payload, PacketFormat.EXTENDED);
+		try {
+			p.toByteArray (PacketFormat.LEGACY);
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Message too long. Only lengths up to 255 bytes are supported. Requested lenght is 256.", e.getMessage());
+		}
+		
+		try {
+			p.toByteArray ();
+			fail ();
+		} catch (IllegalStateException e) {
+			assertEquals ("Message too long. Only lengths up to 255 bytes are supported. Requested lenght is 256.", e.getMessage());
+		}
+		
+		byte[] x = p.toByteArray (PacketFormat.EXTENDED);
+		assertEquals (256 + 8, x.length);
+		Packet q = new Packet (new ByteArrayInputStream (x), PacketFormat.EXTENDED);
+		assertEquals (type, q.getType ());
+		for (int k=0; k < payload.length; k++)
+			assertEquals ("payload at index "+k, payload[k], q.getPayload ()[k]);
+		
+		try {
+			new Packet (type, new byte[65536], PacketFormat.EXTENDED);
+			fail ();
+		} catch (IOException e) {
+			assertEquals ("Message too long. Only lengths up to 65535 bytes are supported. Requested lenght is 65536.", e.getMessage());
+		}
+	}
 }
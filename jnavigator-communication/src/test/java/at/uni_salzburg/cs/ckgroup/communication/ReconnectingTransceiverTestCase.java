@@ -0,0 +1,180 @@
+/*
+ * @(#) ReconnectingTransceiverTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+
+/**
+ * This test case verifies the implementation of the <code>ReconnectingTransceiver</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class ReconnectingTransceiverTestCase extends TestCase {
+
+	private Properties props;
+	private Packet packet;
+
+	public void setUp () throws IOException {
+		MockTransceiver.linkUp = true;
+		MockTransceiver.instances = 0;
+		MockTransceiver.current = null;
+
+		props = new Properties ();
+		props.setProperty (ReconnectingTransceiver.PROP_TRANSCEIVER_PREFIX + "className", MockTransceiver.class.getName());
+		props.setProperty (ReconnectingTransceiver.PROP_INITIAL_DELAY, "20");
+		props.setProperty (ReconnectingTransceiver.PROP_MAXIMUM_DELAY, "40");
+
+		packet = new Packet ((byte)1, new byte[] {1,2,3});
+	}
+
+	/**
+	 * Break the link and verify that sending fails immediately while the
+	 * connection is being reestablished, and that the connection is
+	 * reestablished after the link is up again.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase01 () throws Exception {
+		ReconnectingTransceiver t = new ReconnectingTransceiver (props);
+		assertEquals (ReconnectingTransceiver.State.CONNECTED, t.getState ());
+		t.send (packet);
+		assertEquals (1, MockTransceiver.current.sent.size ());
+
+		MockTransceiver.linkUp = false;
+		try {
+			t.send (packet);
+			fail ();
+		} catch (IOException e) {
+			assertEquals ("Write failed.", e.getMessage ());
+		}
+		assertEquals (ReconnectingTransceiver.State.RECONNECTING, t.getState ());
+
+		long start = System.currentTimeMillis ();
+		try {
+			t.send (packet);
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Connection is RECONNECTING.", e.getMessage ());
+		}
+		assertTrue (System.currentTimeMillis () - start < 20);
+
+		Thread.sleep (100);
+		assertEquals (ReconnectingTransceiver.State.RECONNECTING, t.getState ());
+		MockTransceiver.linkUp = true;
+		Thread.sleep (200);
+
+		assertEquals (ReconnectingTransceiver.State.CONNECTED, t.getState ());
+		assertEquals (1, t.getReconnects ());
+		assertEquals (2, MockTransceiver.instances);
+		t.send (packet);
+		assertEquals (1, MockTransceiver.current.sent.size ());
+		t.close ();
+		assertEquals (ReconnectingTransceiver.State.FAILED, t.getState ());
+	}
+
+	/**
+	 * Verify the drop and block send policies.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase02 () throws Exception {
+		MockTransceiver.linkUp = false;
+		props.setProperty (ReconnectingTransceiver.PROP_SEND_POLICY, "drop");
+		ReconnectingTransceiver t = new ReconnectingTransceiver (props);
+		assertEquals (ReconnectingTransceiver.State.RECONNECTING, t.getState ());
+		t.send (packet);
+		t.send (packet);
+		assertEquals (2, t.getDroppedPackets ());
+		t.close ();
+
+		props.setProperty (ReconnectingTransceiver.PROP_SEND_POLICY, "block");
+		props.setProperty (ReconnectingTransceiver.PROP_SEND_TIMEOUT, "1000");
+		t = new ReconnectingTransceiver (props);
+		new Thread () {
+			public void run () {
+				try { Thread.sleep (100); } catch (InterruptedException e) { }
+				MockTransceiver.linkUp = true;
+			}
+		}.start ();
+		t.send (packet);
+		assertEquals (ReconnectingTransceiver.State.CONNECTED, t.getState ());
+		assertEquals (1, MockTransceiver.current.sent.size ());
+		t.close ();
+	}
+
+	/**
+	 * Verify that the connection fails after the maximum number of attempts
+	 * and that a waiting receiver is released.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase03 () throws Exception {
+		props.setProperty (ReconnectingTransceiver.PROP_MAXIMUM_ATTEMPTS, "3");
+		ReconnectingTransceiver t = new ReconnectingTransceiver (props);
+		MockTransceiver.linkUp = false;
+
+		try {
+			t.receive ();
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Connection failed.", e.getMessage ());
+		}
+		assertEquals (ReconnectingTransceiver.State.FAILED, t.getState ());
+		assertEquals (1, MockTransceiver.instances);
+	}
+
+	/**
+	 * Verify the exponential backoff including the jitter.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase04 () throws Exception {
+		props.setProperty (ReconnectingTransceiver.PROP_INITIAL_DELAY, "100");
+		props.setProperty (ReconnectingTransceiver.PROP_MAXIMUM_DELAY, "1000");
+		ReconnectingTransceiver t = new ReconnectingTransceiver (props);
+
+		for (int k=0; k < 100; k++) {
+			long d0 = t.backoffDelay (0);
+			long d2 = t.backoffDelay (2);
+			long d9 = t.backoffDelay (40);
+			assertTrue ("delay " + d0, d0 >= 80 && d0 <= 120);
+			assertTrue ("delay " + d2, d2 >= 320 && d2 <= 480);
+			assertTrue ("delay " + d9, d9 >= 800 && d9 <= 1200);
+		}
+		t.close ();
+	}
+
+	/**
+	 * Verify that invalid configurations are refused.
+	 */
+	public void testCase05 () {
+		props.setProperty (ReconnectingTransceiver.PROP_SEND_POLICY, "wait");
+		try {
+			new ReconnectingTransceiver (props);
+			fail ();
+		} catch (Exception e) {
+			assertEquals ("Property send.policy has invalid value wait", e.getMessage ());
+		}
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * @(#) SequencedDatagramTransceiverTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This test case verifies the implementation of the <code>SequencedDatagramTransceiver</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class SequencedDatagramTransceiverTestCase extends TestCase {
+
+	private Properties serverProps;
+	private Properties clientProps;
+
+	public void setUp () {
+		serverProps = new Properties ();
+		serverProps.setProperty (SequencedDatagramTransceiver.PROP_LOCAL_PORT, "5471");
+
+		clientProps = new Properties ();
+		clientProps.setProperty (SequencedDatagramTransceiver.PROP_HOST, "127.0.0.1");
+		clientProps.setProperty (SequencedDatagramTransceiver.PROP_PORT, "5471");
+	}
+
+	/**
+	 * Send several packets in one datagram from the client to the server and
+	 * one packet back to the client.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase01 () throws Exception {
+		SequencedDatagramTransceiver server = new SequencedDatagramTransceiver (serverProps);
+		SequencedDatagramTransceiver client = new SequencedDatagramTransceiver (clientProps);
+
+		try {
+			Packet one = new Packet ((byte)1, new byte[] {1,2,3});
+			Packet two = new Packet ((byte)2, new byte[200]);
+			Packet three = new Packet ((byte)3, null);
+
+			client.append (one);
+			client.append (two);
+			client.append (three);
+			client.flush ();
+
+			assertEquals (one.toString (), server.receive ().toString ());
+			PacketCodec frame = server.receiveFrame ();
+			assertEquals (2, frame.getType ());
+			assertEquals (200, frame.getPayloadLength ());
+			assertEquals (three.toString (), server.receive ().toString ());
+
+			server.send (two);
+			assertEquals (two.toString (), client.receive ().toString ());
+
+			assertEquals (0, server.getLostDatagrams ());
+			assertEquals (0, server.getStaleDatagrams ());
+		} finally {
+			client.close ();
+			server.close ();
+		}
+	}
+
+	/**
+	 * Send datagrams out of order and verify that lost and stale datagrams
+	 * are detected and that stale datagrams are dropped.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase02 () throws Exception {
+		SequencedDatagramTransceiver server = new SequencedDatagramTransceiver (serverProps);
+		DatagramChannel raw = DatagramChannel.open ();
+		InetSocketAddress address = new InetSocketAddress ("127.0.0.1", 5471);
+
+		try {
+			int[] sequence = { 7, 10, 9, 11 };
+			for (int k=0; k < sequence.length; k++) {
+				ByteBuffer buf = ByteBuffer.allocate (100);
+				buf.put (SequencedDatagramTransceiver.HEADER_MARKER);
+				buf.putInt (sequence[k]);
+				PacketCodec.encode ((byte)(k+1), new byte[] {(byte)k}, buf);
+				buf.flip ();
+				raw.send (buf, address);
+			}
+
+			assertEquals (1, server.receive ().getType ());
+			assertEquals (2, server.receive ().getType ());
+			assertEquals (4, server.receive ().getType ());
+
+			assertEquals (2, server.getLostDatagrams ());
+			assertEquals (1, server.getStaleDatagrams ());
+		} finally {
+			raw.close ();
+			server.close ();
+		}
+	}
+
+	/**
+	 * Verify that a failed transmission does not consume a sequence number.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase04 () throws Exception {
+		SequencedDatagramTransceiver server = new SequencedDatagramTransceiver (serverProps);
+		DatagramChannel raw = DatagramChannel.open ();
+
+		try {
+			try {
+				server.send (new Packet ((byte)1, new byte[] {1}));
+				fail ();
+			} catch (CommunicationException e) {
+				assertEquals ("Remote address is not known yet.", e.getMessage ());
+			}
+
+			ByteBuffer buf = ByteBuffer.allocate (100);
+			buf.put (SequencedDatagramTransceiver.HEADER_MARKER);
+			buf.putInt (0);
+			PacketCodec.encode ((byte)2, new byte[] {2}, buf);
+			buf.flip ();
+			raw.send (buf, new InetSocketAddress ("127.0.0.1", 5471));
+			assertEquals (2, server.receive ().getType ());
+
+			server.send (new Packet ((byte)3, new byte[] {3}));
+			buf.clear ();
+			raw.receive (buf);
+			buf.flip ();
+			assertEquals (SequencedDatagramTransceiver.HEADER_MARKER, buf.get ());
+			assertEquals (0, buf.getInt ());
+
+			PacketCodec codec = new PacketCodec (PacketFormat.LEGACY);
+			assertTrue (codec.decode (buf));
+			assertEquals (3, codec.getType ());
+			try {
+				codec.next ();
+				fail ();
+			} catch (IllegalStateException e) {
+				assertEquals ("This codec has no read buffer.", e.getMessage ());
+			}
+		} finally {
+			raw.close ();
+			server.close ();
+		}
+	}
+
+	/**
+	 * Verify that a missing configuration is refused.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase03 () throws Exception {
+		try {
+			new SequencedDatagramTransceiver (new Properties ());
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Either property host or local.port must be set.", e.getMessage ());
+		}
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * @(#) SharedMemoryTransceiverTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+
+/**
+ * This test verifies the implementation of the
+ * <code>SharedMemoryTransceiver</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class SharedMemoryTransceiverTestCase extends TestCase {
+
+	private File file;
+	private Properties propsA;
+	private Properties propsB;
+
+	public void setUp () throws Exception {
+		super.setUp();
+		file = File.createTempFile ("shm", ".ring");
+		file.deleteOnExit();
+
+		propsA = new Properties ();
+		propsA.setProperty (SharedMemoryTransceiver.PROP_FILE, file.getAbsolutePath());
+		propsA.setProperty (SharedMemoryTransceiver.PROP_SIDE, "a");
+		propsA.setProperty (SharedMemoryTransceiver.PROP_CAPACITY, "1000");
+		propsA.setProperty (SharedMemoryTransceiver.PROP_POLL_INTERVAL, "10");
+
+		propsB = new Properties ();
+		propsB.setProperty (SharedMemoryTransceiver.PROP_FILE, file.getAbsolutePath());
+		propsB.setProperty (SharedMemoryTransceiver.PROP_SIDE, "B");
+	}
+
+	public void tearDown () throws Exception {
+		file.delete();
+		super.tearDown();
+	}
+
+	void arrayCompare (byte[] a, byte[] b) {
+		assertEquals ("array length", a.length, b.length);
+
+		for (int k=0; k < a.length; k++)
+			assertEquals ("a["+k+"] != b["+k+"]", a[k], b[k]);
+	}
+
+	/**
+	 * Send packets in both directions and verify that they arrive unchanged.
+	 * The second side adopts the capacity of the initialized file.
+	 */
+	public void testCase01 () throws Exception {
+		SharedMemoryTransceiver a = new SharedMemoryTransceiver (propsA);
+		SharedMemoryTransceiver b = new SharedMemoryTransceiver (propsB);
+		assertEquals ("file length", SharedMemoryTransceiver.FILE_HEADER_LENGTH +
+				2 * (SharedMemoryTransceiver.RING_HEADER_LENGTH + 1024), file.length());
+
+		Packet one = new Packet ((byte)1, new byte[] {1,2,3,4,5,6,7,8,9,0});
+		Packet two = new Packet ((byte)200, new byte[0]);
+		a.send (one);
+		a.send (two);
+		b.send (two);
+
+		arrayCompare (one.toByteArray(), b.receive().toByteArray());
+		arrayCompare (two.toByteArray(), b.receive().toByteArray());
+		arrayCompare (two.toByteArray(), a.receive().toByteArray());
+
+		a.close();
+		b.close();
+	}
+
+	/**
+	 * Send many packets of varying length from one thread to another, so that
+	 * the records wrap around the end of the ring and the sender has to wait
+	 * for free space.
+	 */
+	public void testCase02 () throws Exception {
+		final SharedMemoryTransceiver a = new SharedMemoryTransceiver (propsA);
+		SharedMemoryTransceiver b = new SharedMemoryTransceiver (propsB);
+		final int count = 5000;
+		final IOException[] error = new IOException[1];
+
+		Thread sender = new Thread () {
+			public void run () {
+				try {
+					for (int k=0; k < count; k++) {
+						byte[] payload = new byte[k % 300];
+						for (int j=0; j < payload.length; j++)
+							payload[j] = (byte)(k + j);
+						a.send (new Packet ((byte)(k % 100 + 1), payload, PacketFormat.EXTENDED));
+					}
+				} catch (IOException e) {
+					error[0] = e;
+				}
+			}
+		};
+		sender.start();
+
+		for (int k=0; k < count; k++) {
+			Packet packet = b.receive();
+			assertEquals ("type", k % 100 + 1, packet.getType());
+			byte[] payload = packet.getPayload();
+			assertEquals ("length", k % 300, payload.length);
+			for (int j=0; j < payload.length; j++)
+				assertEquals ("payload["+j+"]", (byte)(k + j), payload[j]);
+		}
+
+		sender.join (1000);
+		assertNull (error[0]);
+		a.close();
+		b.close();
+	}
+
+	/**
+	 * Verify that packets exceeding the ring capacity are refused and that
+	 * closing the transceiver terminates a waiting receiver.
+	 */
+	public void testCase03 () throws Exception {
+		SharedMemoryTransceiver a = new SharedMemoryTransceiver (propsA);
+		final SharedMemoryTransceiver b = new SharedMemoryTransceiver (propsB);
+
+		try {
+			a.send (new Packet ((byte)1, new byte[1020], PacketFormat.EXTENDED));
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Packet too long. The ring capacity is 1024 bytes, but 1025 bytes are required.", e.getMessage());
+		}
+
+		final IOException[] error = new IOException[1];
+		Thread receiver = new Thread () {
+			public void run () {
+				try {
+					b.receive();
+				} catch (IOException e) {
+					error[0] = e;
+				}
+			}
+		};
+		receiver.start();
+		try { Thread.sleep(100); } catch (InterruptedException e) {;}
+		b.close();
+		receiver.join (1000);
+		assertFalse (receiver.isAlive());
+		assertEquals ("Transceiver closed.", error[0].getMessage());
+		a.close();
+	}
+
+	/**
+	 * Verify that missing or invalid properties cause exceptions.
+	 */
+	public void testCase04 () throws Exception {
+		propsA.remove (SharedMemoryTransceiver.PROP_FILE);
+		try {
+			new SharedMemoryTransceiver (propsA);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Property shm.file is not set.", e.getMessage());
+		}
+
+		propsB.setProperty (SharedMemoryTransceiver.PROP_SIDE, "c");
+		try {
+			new SharedMemoryTransceiver (propsB);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Property shm.side must be either a or b.", e.getMessage());
+		}
+
+		propsB.setProperty (SharedMemoryTransceiver.PROP_SIDE, "b");
+		propsB.setProperty (SharedMemoryTransceiver.PROP_CAPACITY, "100");
+		try {
+			new SharedMemoryTransceiver (propsB);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Property shm.capacity must be at least 1024.", e.getMessage());
+		}
+
+		propsB.setProperty (SharedMemoryTransceiver.PROP_CAPACITY, "2000000000");
+		try {
+			new SharedMemoryTransceiver (propsB);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Property shm.capacity must be at most 1073741824.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Verify that a sender gives up if the receiving side does not make room
+	 * within the send timeout.
+	 */
+	public void testCase05 () throws Exception {
+		propsA.setProperty (SharedMemoryTransceiver.PROP_SEND_TIMEOUT, "50");
+		SharedMemoryTransceiver a = new SharedMemoryTransceiver (propsA);
+		SharedMemoryTransceiver b = new SharedMemoryTransceiver (propsB);
+
+		Packet packet = new Packet ((byte)7, new byte[100]);
+		int sent = 0;
+		long start = System.currentTimeMillis();
+		try {
+			while (sent < 100) {
+				a.send (packet);
+				++sent;
+			}
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Send timeout. The receiving side did not make room for a packet of type 7 within 50ms.", e.getMessage());
+		}
+		assertEquals (1024 / 105, sent);
+		assertTrue (System.currentTimeMillis() - start >= 50);
+
+		arrayCompare (packet.toByteArray(), b.receive().toByteArray());
+		a.send (packet);
+
+		a.close();
+		b.close();
+	}
+}
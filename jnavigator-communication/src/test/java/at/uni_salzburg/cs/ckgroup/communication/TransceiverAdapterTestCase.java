@@ -21,7 +21,11 @@
 package at.uni_salzburg.cs.ckgroup.communication;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Properties;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import junit.framework.TestCase;
 import at.uni_salzburg.cs.ckgroup.ConfigurationException;
@@ -478,6 +482,238 @@ public class TransceiverAdapterTestCase extends TestCase {
 		}
 	}
 	
+	/**
+	 * Configure mapping "one" as coalescing. Keep the link busy while
+	 * dispatching several coalescing and ordered data transfer objects.
+	 * Verify that the ordered objects are all sent in order and that only the
+	 * latest coalescing object is sent after them.
+	 */
+	public void testCase16 () throws Exception {
+		props.setProperty (TransceiverAdapter.PROP_MAPPING_PREFIX+"one"+TransceiverAdapter.PROP_MAPPING_COALESCE_SUFFIX, "true");
+		
+		final CountDownLatch linkBusy = new CountDownLatch (1);
+		final CountDownLatch linkFree = new CountDownLatch (1);
+		final CountDownLatch allSent = new CountDownLatch (4);
+		final List<Packet> sent = new Vector<Packet> ();
+		ITransceiver link = new ITransceiver () {
+			public void send (Packet packet) throws IOException {
+				linkBusy.countDown ();
+				try { linkFree.await (); } catch (InterruptedException e) { }
+				sent.add (packet);
+				allSent.countDown ();
+			}
+			public Packet receive () throws IOException {
+				return null;
+			}
+			public void close () { }
+		};
+		
+		TransceiverAdapter ta = new TransceiverAdapter (props, link);
+		ta.receive (new MockDataTransferObjectOne (new byte[] {1}));
+		assertTrue (linkBusy.await (5, TimeUnit.SECONDS));
+		
+		ta.receive (new MockDataTransferObjectOne (new byte[] {2}));
+		ta.receive (new MockDataTransferObjectTwo (new byte[] {10}));
+		ta.receive (new MockDataTransferObjectOne (new byte[] {3}));
+		ta.receive (new MockDataTransferObjectTwo (new byte[] {11}));
+		ta.receive (new MockDataTransferObjectOne (new byte[] {4}));
+		assertEquals (2, ta.getReplacedCounter ());
+		
+		linkFree.countDown ();
+		assertTrue (allSent.await (5, TimeUnit.SECONDS));
+		ta.terminate ();
+		
+		assertEquals (4, sent.size ());
+		assertEquals ("[255,255,1,1,1,0,3]", sent.get(0).toString());
+		assertEquals ("[255,255,2,1,10,0,13]", sent.get(1).toString());
+		assertEquals ("[255,255,2,1,11,0,14]", sent.get(2).toString());
+		assertEquals ("[255,255,1,1,4,0,6]", sent.get(3).toString());
+	}
+	
+	/**
+	 * Enable batching. Keep the link busy while dispatching several data
+	 * transfer objects and verify that the pending objects are sent in one
+	 * batch. Verify that a received batch is dispatched as separate objects.
+	 */
+	public void testCase17 () throws Exception {
+		props.setProperty (TransceiverAdapter.PROP_BATCH_LENGTH, "20");
+		
+		final CountDownLatch linkBusy = new CountDownLatch (1);
+		final CountDownLatch linkFree = new CountDownLatch (1);
+		final CountDownLatch allSent = new CountDownLatch (3);
+		final CountDownLatch allReceived = new CountDownLatch (1);
+		final List<Packet> sent = new Vector<Packet> ();
+		final PacketBatch received = new PacketBatch (100);
+		received.add (new Packet ((byte)1, new byte[] {5,6}));
+		received.add (new Packet ((byte)2, new byte[] {7}));
+		received.add (new Packet ((byte)1, new byte[] {8}));
+		final Packet receivedBatch = received.toPacket ();
+		ITransceiver link = new ITransceiver () {
+			private boolean first = true;
+			public void send (Packet packet) throws IOException {
+				linkBusy.countDown ();
+				try { linkFree.await (); } catch (InterruptedException e) { }
+				sent.add (packet);
+				allSent.countDown ();
+			}
+			public synchronized Packet receive () throws IOException {
+				if (first) {
+					first = false;
+					return receivedBatch;
+				}
+				allReceived.countDown ();
+				try { wait (); } catch (InterruptedException e) { }
+				throw new IOException ("closed");
+			}
+			public synchronized void close () {
+				notifyAll ();
+			}
+		};
+		
+		TransceiverAdapter ta = new TransceiverAdapter (props, link);
+		ta.setDtoProvider (dtoProvider);
+		ta.receive (new MockDataTransferObjectOne (new byte[] {1}));
+		assertTrue (linkBusy.await (5, TimeUnit.SECONDS));
+		
+		ta.receive (new MockDataTransferObjectTwo (new byte[] {2,2,2,2,2,2,2,2}));
+		ta.receive (new MockDataTransferObjectOne (new byte[] {3}));
+		ta.receive (new MockDataTransferObjectTwo (new byte[] {4,4,4,4,4,4,4,4}));
+		
+		linkFree.countDown ();
+		ta.start ();
+		assertTrue (allSent.await (5, TimeUnit.SECONDS));
+		assertTrue (allReceived.await (5, TimeUnit.SECONDS));
+		ta.terminate ();
+		
+		assertEquals (3, sent.size ());
+		assertEquals ("[255,255,1,1,1,0,3]", sent.get(0).toString());
+		List<Packet> batch = PacketBatch.split (sent.get(1));
+		assertEquals (2, batch.size ());
+		assertEquals (2, batch.get(0).getType ());
+		assertEquals (1, batch.get(1).getType ());
+		assertEquals ("[255,255,2,8,4,4,4,4,4,4,4,4,0,42]", sent.get(2).toString());
+		
+		assertEquals (3, listenerOne.counter);
+		assertEquals (1, listenerTwo.counter);
+	}
+	
+	/**
+	 * Configure mapping "one" as coalescing and limit the sender queue to two
+	 * packets. Verify that a full queue blocks the caller until the link is
+	 * free, and that a failed transmission is counted and does not affect the
+	 * following ones.
+	 */
+	public void testCase18 () throws Exception {
+		props.setProperty (TransceiverAdapter.PROP_MAPPING_PREFIX+"one"+TransceiverAdapter.PROP_MAPPING_COALESCE_SUFFIX, "true");
+		props.setProperty (TransceiverAdapter.PROP_SENDER_QUEUE_LENGTH, "2");
+		
+		final CountDownLatch linkBusy = new CountDownLatch (1);
+		final CountDownLatch linkFree = new CountDownLatch (1);
+		final CountDownLatch queueFull = new CountDownLatch (1);
+		final CountDownLatch enqueued = new CountDownLatch (1);
+		final List<Packet> sent = new Vector<Packet> ();
+		ITransceiver link = new ITransceiver () {
+			public void send (Packet packet) throws IOException {
+				linkBusy.countDown ();
+				try { linkFree.await (); } catch (InterruptedException e) { }
+				if (packet.getPayload ()[0] == 13)
+					throw new IOException ("link down");
+				sent.add (packet);
+			}
+			public Packet receive () throws IOException {
+				return null;
+			}
+			public void close () { }
+		};
+		
+		final TransceiverAdapter ta = new TransceiverAdapter (props, link);
+		ta.receive (new MockDataTransferObjectTwo (new byte[] {10}));
+		assertTrue (linkBusy.await (5, TimeUnit.SECONDS));
+		ta.receive (new MockDataTransferObjectTwo (new byte[] {11}));
+		ta.receive (new MockDataTransferObjectTwo (new byte[] {12}));
+		
+		Thread caller = new Thread () {
+			public void run () {
+				try {
+					queueFull.countDown ();
+					ta.receive (new MockDataTransferObjectTwo (new byte[] {13}));
+					enqueued.countDown ();
+				} catch (IOException e) {
+					fail (e.getMessage ());
+				}
+			}
+		};
+		caller.start ();
+		assertTrue (queueFull.await (5, TimeUnit.SECONDS));
+		assertFalse (enqueued.await (200, TimeUnit.MILLISECONDS));
+		
+		linkFree.countDown ();
+		assertTrue (enqueued.await (5, TimeUnit.SECONDS));
+		caller.join (5000);
+		
+		for (int k=0; k < 50 && ta.getSendFailures () == 0; k++)
+			Thread.sleep (20);
+		assertEquals (1, ta.getSendFailures ());
+		
+		ta.receive (new MockDataTransferObjectTwo (new byte[] {14}));
+		for (int k=0; k < 50 && sent.size () < 4; k++)
+			Thread.sleep (20);
+		ta.terminate ();
+		
+		assertEquals (1, ta.getSendFailures ());
+		assertEquals (4, sent.size ());
+		assertEquals ("[255,255,2,1,10,0,13]", sent.get(0).toString());
+		assertEquals ("[255,255,2,1,11,0,14]", sent.get(1).toString());
+		assertEquals ("[255,255,2,1,12,0,15]", sent.get(2).toString());
+		assertEquals ("[255,255,2,1,14,0,17]", sent.get(3).toString());
+	}
+	
+	/**
+	 * Enable batching with a batch length exceeding the <code>LEGACY</code>
+	 * framing of the link. Verify that the batches are limited to the
+	 * framing, so that no transmission fails.
+	 */
+	public void testCase19 () throws Exception {
+		props.setProperty (TransceiverAdapter.PROP_BATCH_LENGTH, "1000");
+		
+		final CountDownLatch linkBusy = new CountDownLatch (1);
+		final CountDownLatch linkFree = new CountDownLatch (1);
+		final List<Packet> sent = new Vector<Packet> ();
+		ITransceiver link = new ITransceiver () {
+			public void send (Packet packet) throws IOException {
+				linkBusy.countDown ();
+				try { linkFree.await (); } catch (InterruptedException e) { }
+				packet.checkPayloadLength (PacketFormat.LEGACY);
+				sent.add (packet);
+			}
+			public Packet receive () throws IOException {
+				return null;
+			}
+			public void close () { }
+		};
+		
+		TransceiverAdapter ta = new TransceiverAdapter (props, link);
+		ta.receive (new MockDataTransferObjectTwo (new byte[] {1}));
+		assertTrue (linkBusy.await (5, TimeUnit.SECONDS));
+		
+		for (int k=0; k < 4; k++)
+			ta.receive (new MockDataTransferObjectTwo (new byte[100]));
+		
+		linkFree.countDown ();
+		int packets = 0;
+		for (int k=0; k < 50 && packets < 5; k++) {
+			Thread.sleep (20);
+			packets = 0;
+			for (int j=0; j < sent.size (); j++)
+				packets += sent.get (j).getType () == PacketBatch.TYPE ? PacketBatch.split (sent.get (j)).size () : 1;
+		}
+		ta.terminate ();
+		
+		assertEquals (5, packets);
+		assertEquals (0, ta.getSendFailures ());
+		assertTrue (sent.size () >= 3);
+	}
+	
 	/**
 	 * This class implements a <code>IDataTransferObject</code> derivative to be used in the
 	 * unit tests.
@@ -20,7 +20,10 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
 import junit.framework.TestCase;
+import at.uni_salzburg.cs.ckgroup.communication.CommunicationException;
 
 /**
  * This test verifies the implementation of the <code>NavigationData</code>
@@ -102,4 +105,34 @@ public class CommandDataTestCase extends TestCase {
 		for (int k=0; k < b.length; k++)
 			assertEquals ("result  Array index "+k, data[k], b[k]);
 	}
+	
+	/**
+	 * Verify the conversion from and to a <code>ByteBuffer</code>.
+	 * 
+	 * @throws CommunicationException
+	 */
+	public void testCase04 () throws CommunicationException {
+		CommandData navigationData = new CommandData (12,34,54,90);
+		byte[] data = navigationData.toByteArray();
+		
+		ByteBuffer buf = ByteBuffer.allocate (10);
+		navigationData.encodeTo (buf);
+		assertEquals ("position", data.length, buf.position ());
+		for (int k=0; k < data.length; k++)
+			assertEquals ("Buffer index "+k, data[k], buf.get (k));
+		
+		buf.flip ();
+		CommandData navigationData2 = new CommandData ();
+		assertEquals (0, navigationData2.getHeightOverGround (), 1E-9);
+		navigationData2.decodeFrom (buf);
+		assertEquals ("position", data.length, buf.position ());
+		assertEquals (navigationData.toString (), navigationData2.toString ());
+		
+		try {
+			navigationData2.decodeFrom (buf);
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Input data length of 0 is smaller than the expected length of 8 bytes", e.getMessage());
+		}
+	}
 }
@@ -20,6 +20,8 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
 import at.uni_salzburg.cs.ckgroup.communication.CommunicationException;
 import junit.framework.TestCase;
 
@@ -96,4 +98,47 @@ public class GroundReportTestCase extends TestCase {
 
 	}
 	
+	/**
+	 * Verify that decoding from a <code>ByteBuffer</code> updates the
+	 * contained objects in place and that encoding reproduces the payload.
+	 */
+	public void testCase03 () throws CommunicationException {
+		
+		int len = GroundReport.payloadLength; 
+		byte[] data = new byte[len];
+		for (int k=0; k < len; k++)
+			data[k] = (byte)(100-k);
+		data[len-2] = 1;
+		data[len-1] = 2;
+		
+		GroundReport gr = new GroundReport();
+		gr.decodeFrom (ByteBuffer.wrap (data));
+		SensorData sd = gr.getSensorData();
+		MotorSignals ms = gr.getMotorSignals();
+		MotorOffsets mo = gr.getMotorOffsets();
+		assertEquals (FlyingState.values()[1], gr.getState());
+		assertEquals (FlyingMode.values()[2], gr.getMode());
+		
+		ByteBuffer buf = ByteBuffer.allocate (len);
+		gr.encodeTo (buf);
+		assertEquals ("position", len, buf.position ());
+		for (int k = 0; k < len; k++)
+			assertEquals("Buffer index " + k, data[k], buf.get (k));
+		
+		data[0] = 0;
+		gr.decodeFrom (ByteBuffer.wrap (data));
+		assertSame (sd, gr.getSensorData());
+		assertSame (ms, gr.getMotorSignals());
+		assertSame (mo, gr.getMotorOffsets());
+		byte[] res = gr.toByteArray();
+		for (int k = 0; k < len; k++)
+			assertEquals("Array index " + k, data[k], res[k]);
+		
+		try {
+			gr.decodeFrom (ByteBuffer.wrap (data, 1, len-1));
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Input data length of " + (len-1) + " is smaller than the expected length of " + len + " bytes", e.getMessage());
+		}
+	}
 }
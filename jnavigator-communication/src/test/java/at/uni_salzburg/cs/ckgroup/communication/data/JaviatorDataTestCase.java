@@ -118,4 +118,13 @@ public class JaviatorDataTestCase extends TestCase {
 		assertEquals(   9.432, jd.getY_pos(),   1E-9);
 		System.out.println("jd="+jd.toString());
 	}
+	
+	public void testCase06() {
+		
+		JaviatorData jd = new JaviatorData ();
+		jd.setMaps(-1000.0);
+		
+		JaviatorData copy = new JaviatorData (jd.toByteArray());
+		assertEquals(-1000.0, copy.getMaps(), 1E1);
+	}
 }
@@ -20,7 +20,10 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
 import junit.framework.TestCase;
+import at.uni_salzburg.cs.ckgroup.communication.CommunicationException;
 
 /**
  * This test case verifies the implementation of the <code>MotorSignals</code>
@@ -113,4 +116,38 @@ public class MotorSignalsTestCase extends TestCase {
 		for (int n=0; n < b.length; n++)
 			assertEquals ("result  Array index "+n, adData[n+ofs], b[n]);
 	}
+	
+	/**
+	 * Verify the in place update by <code>set()</code> and the conversion from
+	 * and to a <code>ByteBuffer</code>.
+	 * 
+	 * @throws CommunicationException
+	 */
+	public void testCase05 () throws CommunicationException {
+		MotorSignals ad = new MotorSignals ();
+		assertSame (ad, ad.set ((short)12345, (short)(-11034), (short)354, (short)943, 109));
+		byte[] expected = new MotorSignals ((short)12345, (short)(-11034), (short)354, (short)943, 109).toByteArray();
+		
+		ByteBuffer buf = ByteBuffer.allocate (20);
+		buf.put ((byte)77);
+		ad.encodeTo (buf);
+		assertEquals ("position", 11, buf.position ());
+		for (int k=0; k < expected.length; k++)
+			assertEquals ("Buffer index "+k, expected[k], buf.get (k+1));
+		
+		buf.flip ();
+		buf.get ();
+		MotorSignals ad2 = new MotorSignals ();
+		ad2.decodeFrom (buf);
+		assertEquals ("position", 11, buf.position ());
+		assertEquals (ad.toString (), ad2.toString ());
+		
+		buf.position (2);
+		try {
+			ad2.decodeFrom (buf);
+			fail ();
+		} catch (CommunicationException e) {
+			assertEquals ("Input data length of 9 is smaller than the expected length of 10 bytes", e.getMessage());
+		}
+	}
 }
@@ -20,6 +20,8 @@
  */
 package at.uni_salzburg.cs.ckgroup.communication.data;
 
+import java.nio.ByteBuffer;
+
 import junit.framework.TestCase;
 import at.uni_salzburg.cs.ckgroup.communication.CommunicationException;
 import at.uni_salzburg.cs.ckgroup.communication.data.SensorData;
@@ -289,4 +291,120 @@ public class SensorDataTestCase extends TestCase {
 		}
 	}
 
+
+	/**
+	 * Verify the conversion from and to a <code>ByteBuffer</code>.
+	 */
+	public void testCase06 () {
+		
+		byte payload[] = { 1, 2, 3, -4, 5, 6, -7, 8, -9, 10, 11, 12, 13, -127,
+				15,	16,	-17, 18, 19, 20, 21, -22, 23, 127, -25, -26, 27, -28,
+				-29, -30, 31, -32, 33, 34, -35, 36, -37, 38, -39, 40, -41, 42 };
+		
+		try {
+			ByteBuffer buf = ByteBuffer.allocate (50);
+			buf.put ((byte)99).put (payload).flip ();
+			buf.get ();
+			
+			SensorData sd = new SensorData ();
+			sd.decodeFrom (buf);
+			assertEquals ("position", 43, buf.position ());
+			
+			byte[] b = sd.toByteArray();
+			for (int k=0; k < b.length; k++)
+				assertEquals ("Array index "+k, payload[k], b[k]);
+			
+			buf.clear ();
+			sd.encodeTo (buf);
+			assertEquals ("position", 42, buf.position ());
+			for (int k=0; k < b.length; k++)
+				assertEquals ("Buffer index "+k, payload[k], buf.get (k));
+			
+			buf.flip ().limit (41);
+			try {
+				sd.decodeFrom (buf);
+				fail ();
+			} catch (CommunicationException e) {
+				assertEquals ("Input data length of 41 is smaller than the expected length of 42 bytes", e.getMessage());
+			}
+			
+		} catch (CommunicationException e) {
+			e.printStackTrace();
+			fail ();
+		}
+	}
+
+	/**
+	 * Verify the raw, scaled and bulk accessors against the getter methods.
+	 */
+	public void testCase07 () {
+		
+		byte payload[] = { 1, 2, 3, -4, 5, 6, -7, 8, -9, 10, 11, 12, 13, -127,
+				15,	16,	-17, 18, 19, 20, 21, -22, 23, 127, -25, -26, 27, -28,
+				-29, -30, 31, -32, 33, 34, -35, 36, -37, 38, -39, 40, -41, 42 };
+		
+		try {
+			SensorData sd = new SensorData (payload);
+			double[] values = sd.toDoubleArray (new double[SensorData.NUMBER_OF_FIELDS]);
+			
+			assertEquals (sd.getRoll (), values[SensorData.ROLL], 1E-12);
+			assertEquals (sd.getDPitch (), values[SensorData.DPITCH], 1E-12);
+			assertEquals (sd.getDDYaw (), values[SensorData.DDYAW], 1E-12);
+			assertEquals (sd.getZ (), values[SensorData.Z], 1E-12);
+			assertEquals (sd.getDz (), values[SensorData.DZ], 1E-12);
+			assertEquals (sd.getDDx (), values[SensorData.DDX], 1E-12);
+			assertEquals (sd.getBattery (), values[SensorData.BATTERY], 1E-12);
+			
+			for (int k=0; k < SensorData.NUMBER_OF_FIELDS; k++) {
+				short raw = (short) ((payload[2*k] << 8) | (payload[2*k+1] & 0xFF));
+				assertEquals ("raw field "+k, raw, sd.getRaw (k));
+				assertEquals ("scaled field "+k, raw * SensorData.getScale (k), sd.getScaled (k), 1E-12);
+			}
+			
+			SensorData copy = new SensorData ().fromDoubleArray (values);
+			byte[] b = copy.toByteArray ();
+			for (int k=0; k < b.length; k++)
+				assertEquals ("Array index "+k, payload[k], b[k]);
+			
+			copy.setScaled (SensorData.Z, 1.234);
+			assertEquals (1234, copy.getRaw (SensorData.Z));
+			copy.setRaw (SensorData.DZ, (short)-77);
+			assertEquals (-0.77, copy.getDz (), 1E-12);
+			
+			try {
+				copy.getRaw (SensorData.NUMBER_OF_FIELDS);
+				fail ();
+			} catch (IndexOutOfBoundsException e) {
+				assertEquals ("Invalid field index 21", e.getMessage ());
+			}
+			
+		} catch (CommunicationException e) {
+			e.printStackTrace();
+			fail ();
+		}
+	}
+	
+	/**
+	 * Verify the conversion of <code>JaviatorData</code> objects.
+	 */
+	public void testCase08 () {
+		byte payload[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14,
+				'0', '0', '0', '1', '2', '3', '4', '5',
+				'0', '0', '0', '5', '4', '3', '2', '1',
+				25, 26, -27, 28, 29, 30, 31, 32, 33, 34, 35, 36,
+				37, 38, 39, 40, 41, 42 };
+		
+		JaviatorData jd = new JaviatorData (payload);
+		SensorData sd = new SensorData (jd);
+		
+		assertEquals ((short)(1000.0 * jd.getRoll()), sd.getRaw (SensorData.ROLL), 1);
+		assertEquals ((short)(1000.0 * jd.getPitch()), sd.getRaw (SensorData.PITCH), 1);
+		assertEquals ((short)(1000.0 * jd.getDyaw()), sd.getRaw (SensorData.DYAW), 1);
+		assertEquals (12345, sd.getRaw (SensorData.X));
+		assertEquals (54321, sd.getRaw (SensorData.Y) & 0xFFFF);
+		assertEquals ((short)(1000.0 * jd.getSonar() - 120), sd.getRaw (SensorData.Z), 1);
+		assertEquals ((short)(1000.0 * jd.getDdz()), sd.getRaw (SensorData.DDZ), 1);
+		assertEquals ((short)(1000.0 * jd.getTemp()), sd.getRaw (SensorData.TEMP), 1);
+		assertEquals ((short)(1000.0 * jd.getBatt()), sd.getRaw (SensorData.BATTERY), 1);
+	}
 }
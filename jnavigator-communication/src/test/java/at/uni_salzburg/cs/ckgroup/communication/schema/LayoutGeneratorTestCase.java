@@ -0,0 +1,204 @@
+/*
+ * @(#) LayoutGeneratorTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.schema;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import junit.framework.TestCase;
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+import at.uni_salzburg.cs.ckgroup.communication.IDataTransferObject;
+import at.uni_salzburg.cs.ckgroup.communication.data.GroundReport;
+import at.uni_salzburg.cs.ckgroup.communication.data.SensorData;
+import at.uni_salzburg.cs.ckgroup.communication.layout.GroundReportLayout;
+import at.uni_salzburg.cs.ckgroup.communication.layout.MotorSignalsLayout;
+import at.uni_salzburg.cs.ckgroup.communication.layout.SensorDataLayout;
+
+/**
+ * This test verifies the implementation of the <code>LayoutGenerator</code>
+ * class, the generated layout classes, and the consistency of the schema with
+ * the data transfer objects of package
+ * <code>at.uni_salzburg.cs.ckgroup.communication.data</code>.
+ * @author Clemens Krainer
+ */
+public class LayoutGeneratorTestCase extends TestCase {
+	
+	/**
+	 * The source directory of this module, relative to the module directory.
+	 */
+	private static final File SOURCE_DIRECTORY = new File ("src/main/java");
+	
+	private WireSchema schema;
+	
+	public void setUp () throws Exception {
+		super.setUp ();
+		schema = WireSchema.load ();
+	}
+	
+	/**
+	 * Fill a payload with a pattern that is valid for all data types.
+	 */
+	private static byte[] createPayload (WireLayout layout) {
+		ByteBuffer buf = ByteBuffer.allocate (layout.getPayloadLength ());
+		for (int p=0; p < buf.capacity (); p++)
+			buf.put (p, (byte) ((p * 37 + 11) & 0x7F));
+		fill (layout, buf, 0);
+		return buf.array ();
+	}
+	
+	/**
+	 * Clear the padding and set floating point fields to valid numbers.
+	 */
+	private static void fill (WireLayout layout, ByteBuffer buf, int base) {
+		int k = 0;
+		for (WireField f : layout.getFields ()) {
+			if (f.getNested () != null)
+				fill (f.getNested (), buf, base + f.getOffset ());
+			else if (f.getType () == WireType.PAD)
+				for (int i=0; i < f.getLength (); i++)
+					buf.put (base + f.getOffset () + i, (byte) 0);
+			else if (f.getType () == WireType.FLOAT64)
+				buf.putDouble (base + f.getOffset (), k + 0.5);
+			++k;
+		}
+	}
+	
+	/**
+	 * Verify that the generated layout classes of this module are up to date.
+	 */
+	public void testCase01 () throws Exception {
+		List<File> outdated = LayoutGenerator.findOutdated (schema, "communication", SOURCE_DIRECTORY);
+		assertTrue ("Outdated layout classes " + outdated + ", run the LayoutGenerator", outdated.isEmpty ());
+	}
+	
+	/**
+	 * Verify for each data transfer object of package
+	 * <code>at.uni_salzburg.cs.ckgroup.communication.data</code> that the
+	 * schema matches its payload length, its encoding and its getters.
+	 */
+	public void testCase02 () throws Exception {
+		int count = 0;
+		for (WireLayout layout : schema.getLayouts ()) {
+			if (!"communication".equals (layout.getTarget ().getName ()))
+				continue;
+			
+			byte[] payload = createPayload (layout);
+			ByteBuffer buf = ByteBuffer.wrap (payload);
+			
+			for (String className : layout.getDtoClassNames ()) {
+				Class<?> dtoClass = Class.forName (className);
+				IDataTransferObject dto = (IDataTransferObject) dtoClass.getConstructor (byte[].class).newInstance (payload);
+				byte[] encoded = dto.toByteArray ();
+				assertEquals (className + " payload length", payload.length, encoded.length);
+				for (int k=0; k < payload.length; k++)
+					assertEquals (className + " byte [" + k + "]", payload[k], encoded[k]);
+				
+				for (WireField f : layout.getFields ()) {
+					if (f.getCheck () == null)
+						continue;
+					Method getter = dtoClass.getMethod (f.getCheck ());
+					double expected = f.getScaled (buf, 0);
+					double actual = ((Number) getter.invoke (dto)).doubleValue ();
+					assertEquals (className + "." + f.getCheck () + "()", expected, actual, 1E-9 * Math.max (1, Math.abs (expected)));
+				}
+				++count;
+			}
+		}
+		assertTrue ("Number of verified classes is " + count, count > 10);
+	}
+	
+	/**
+	 * Verify the generated accessors of <code>SensorDataLayout</code>.
+	 */
+	public void testCase03 () throws Exception {
+		byte[] payload = createPayload (schema.getLayout ("communication", "SensorData"));
+		SensorData sd = new SensorData (payload);
+		
+		ByteBuffer buf = ByteBuffer.allocate (SensorDataLayout.PAYLOAD_LENGTH + 10);
+		buf.position (10);
+		sd.encodeTo (buf);
+		
+		assertEquals (42, SensorDataLayout.PAYLOAD_LENGTH);
+		assertEquals (sd.getRoll (), SensorDataLayout.getRollScaled (buf, 10), 1E-9);
+		assertEquals (sd.getDDx (), SensorDataLayout.getDdxScaled (buf, 10), 1E-9);
+		assertEquals (sd.getBattery (), SensorDataLayout.getBatteryScaled (buf, 10), 1E-9);
+		
+		SensorDataLayout.putRollScaled (buf, 10, 0.5);
+		SensorDataLayout.putZ (buf, 10, (short) -1234);
+		buf.position (10);
+		sd.decodeFrom (buf);
+		assertEquals (0.5, sd.getRoll (), SensorDataLayout.ROLL_SCALE);
+		assertEquals (-1234 * SensorDataLayout.Z_SCALE, sd.getZ (), 1E-9);
+	}
+	
+	/**
+	 * Verify the nested offsets of <code>GroundReportLayout</code>.
+	 */
+	public void testCase04 () throws Exception {
+		byte[] payload = createPayload (schema.getLayout ("communication", "GroundReport"));
+		GroundReport report = new GroundReport (payload);
+		report.getMotorSignals ().set ((short) 1, (short) 2, (short) 3, (short) 4, 4711);
+		ByteBuffer buf = ByteBuffer.wrap (report.toByteArray ());
+		
+		assertEquals (GroundReport.payloadLength, GroundReportLayout.PAYLOAD_LENGTH);
+		int motors = GroundReportLayout.MOTOR_SIGNALS;
+		assertEquals (1, MotorSignalsLayout.getFront (buf, motors));
+		assertEquals (3, MotorSignalsLayout.getRear (buf, motors));
+		assertEquals (4711, MotorSignalsLayout.getId (buf, motors));
+		assertEquals (report.getSensorData ().getYaw (), SensorDataLayout.getYawScaled (buf, GroundReportLayout.SENSOR_DATA), 1E-9);
+		assertEquals (payload[GroundReportLayout.STATE], GroundReportLayout.getState (buf, 0));
+		assertEquals (payload[GroundReportLayout.MODE], GroundReportLayout.getMode (buf, 0));
+	}
+	
+	/**
+	 * Verify that the schema parser reports errors with their line number.
+	 */
+	public void testCase05 () throws Exception {
+		String[][] cases = {
+			{ "layout A nowhere\n", "Schema line 1: Unknown target nowhere" },
+			{ "target t a.b a.c src\nlayout A t\n\tx float32\n", "Schema line 3: Unknown type float32" },
+			{ "target t a.b a.c src\n\tx int8\n", "Schema line 2: Field outside of a layout." },
+			{ "target t a.b a.c src\nlayout A t\n\tx int8 scale=1/(2\n", "Schema line 3: Invalid scale expression 1/(2" },
+		};
+		
+		for (int k=0; k < cases.length; k++) {
+			try {
+				new WireSchema (new ByteArrayInputStream (cases[k][0].getBytes ()));
+				fail ("Case " + k);
+			} catch (ConfigurationException e) {
+				assertEquals ("Case " + k, cases[k][1], e.getMessage ());
+			}
+		}
+	}
+	
+	/**
+	 * Verify the conversion of field names to constant names.
+	 */
+	public void testCase06 () {
+		assertEquals ("D_ROLL", LayoutGenerator.constantName ("dRoll"));
+		assertEquals ("VALUE_1", LayoutGenerator.constantName ("value_1"));
+		assertEquals ("K_PROPORTIONAL", LayoutGenerator.constantName ("kProportional"));
+		assertEquals ("MAPS", LayoutGenerator.constantName ("maps"));
+	}
+}
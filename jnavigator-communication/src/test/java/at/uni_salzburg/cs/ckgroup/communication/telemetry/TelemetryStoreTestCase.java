@@ -0,0 +1,271 @@
+/*
+ * @(#) TelemetryStoreTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.communication.telemetry;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+import at.uni_salzburg.cs.ckgroup.communication.Dispatcher;
+import at.uni_salzburg.cs.ckgroup.communication.data.FlyingMode;
+import at.uni_salzburg.cs.ckgroup.communication.data.FlyingState;
+import at.uni_salzburg.cs.ckgroup.communication.data.GroundReport;
+import at.uni_salzburg.cs.ckgroup.communication.data.MotorOffsets;
+import at.uni_salzburg.cs.ckgroup.communication.data.MotorSignals;
+import at.uni_salzburg.cs.ckgroup.communication.data.SensorData;
+
+/**
+ * This test case verifies the implementation of the <code>TelemetryStore</code> class.
+ *
+ * @author Clemens Krainer
+ */
+public class TelemetryStoreTestCase extends TestCase {
+
+	private File directory;
+	private Properties props;
+
+	public void setUp () {
+		directory = new File ("target/telemetry-store-test");
+		deleteStore ();
+
+		props = new Properties ();
+		props.setProperty (TelemetryStore.PROP_DIRECTORY, directory.getPath ());
+		props.setProperty (TelemetryStore.PROP_CHUNK_SIZE, "100");
+	}
+
+	public void tearDown () {
+		deleteStore ();
+	}
+
+	private void deleteStore () {
+		File[] files = directory.listFiles ();
+		if (files != null)
+			for (int k=0; k < files.length; k++)
+				files[k].delete ();
+		directory.delete ();
+	}
+
+	/**
+	 * Create a <code>SensorData</code> object having the raw values of roll,
+	 * x and z set.
+	 */
+	private static SensorData sensorData (int roll, int x, int z) throws Exception {
+		ByteBuffer buf = ByteBuffer.allocate (SensorData.payloadLength);
+		buf.putShort (0, (short) roll);
+		buf.putShort (2 * TelemetryColumn.X.ordinal (), (short) x);
+		buf.putShort (2 * TelemetryColumn.Z.ordinal (), (short) z);
+		SensorData sd = new SensorData ();
+		sd.decodeFrom (buf);
+		return sd;
+	}
+
+	/**
+	 * Append rows spanning several chunk files and verify range scans across
+	 * chunk boundaries and the current chunk.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase01 () throws Exception {
+		TelemetryStore store = new TelemetryStore (props);
+		for (int k=0; k < 350; k++)
+			store.append (1000 + 10 * k, sensorData (k, -k, 2 * k));
+
+		assertEquals (350, store.getRowCount ());
+		assertEquals (3, store.getChunkCount ());
+
+		TelemetrySeries s = store.scan (1995, 3005, TelemetryColumn.X, TelemetryColumn.Z);
+		assertEquals (101, s.size ());
+		long[] t = s.getTime ();
+		double[] x = s.getValues (TelemetryColumn.X);
+		double[] z = s.getValues (TelemetryColumn.Z);
+		for (int k=0; k < s.size (); k++) {
+			assertEquals (2000 + 10 * k, t[k]);
+			assertEquals (-(100 + k) * SensorData.LENGTH_FACTOR, x[k], 1E-9);
+			assertEquals (2 * (100 + k) * SensorData.LENGTH_FACTOR, z[k], 1E-9);
+		}
+
+		s = store.scan (4400, 5000, TelemetryColumn.ROLL, TelemetryColumn.STATE);
+		assertEquals (10, s.size ());
+		assertEquals (4400, s.getTime ()[0]);
+		assertEquals (340 * SensorData.ANGLE_FACTOR, s.getValues (TelemetryColumn.ROLL)[0], 1E-9);
+		assertEquals (-1, s.getValues (TelemetryColumn.STATE)[9], 1E-9);
+
+		assertEquals (0, store.scan (0, 1000).size ());
+		try {
+			s.getValues (TelemetryColumn.YAW);
+			fail ();
+		} catch (IllegalArgumentException e) {
+			assertEquals ("Column YAW is not part of this series.", e.getMessage ());
+		}
+		store.close ();
+	}
+
+	/**
+	 * Verify that <code>GroundReport</code> objects received via a
+	 * <code>Dispatcher</code> are stored and that a new store reads the chunk
+	 * files of a closed one.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase02 () throws Exception {
+		TelemetryStore store = new TelemetryStore (props);
+		Dispatcher dispatcher = new Dispatcher ();
+		dispatcher.addDataTransferObjectListener (store, GroundReport.class);
+
+		GroundReport gr = new GroundReport ();
+		gr.setSensorData (sensorData (1, 2, 3));
+		gr.setMotorSignals (new MotorSignals ((short)10, (short)11, (short)12, (short)13, 14));
+		gr.setMotorOffsets (new MotorOffsets ());
+		gr.setState (FlyingState.HELI_STATE_FLYING);
+		gr.setMode (FlyingMode.values ()[1]);
+		long before = System.currentTimeMillis ();
+		dispatcher.dispatch (null, gr);
+		dispatcher.dispatch (null, gr);
+		assertEquals (2, store.getRowCount ());
+		store.close ();
+
+		try {
+			store.append (0, gr);
+			fail ();
+		} catch (java.io.IOException e) {
+			assertEquals ("TelemetryStore is closed.", e.getMessage ());
+		}
+
+		TelemetryStore reader = new TelemetryStore (props);
+		assertEquals (1, reader.getChunkCount ());
+		assertEquals (2, reader.getRowCount ());
+		TelemetrySeries s = reader.scan (before, Long.MAX_VALUE, TelemetryColumn.MOTOR_FRONT,
+			TelemetryColumn.MOTOR_LEFT, TelemetryColumn.STATE, TelemetryColumn.MODE, TelemetryColumn.Z);
+		assertEquals (2, s.size ());
+		assertEquals (10, s.getValues (TelemetryColumn.MOTOR_FRONT)[1], 1E-9);
+		assertEquals (13, s.getValues (TelemetryColumn.MOTOR_LEFT)[1], 1E-9);
+		assertEquals (FlyingState.HELI_STATE_FLYING.ordinal (), s.getValues (TelemetryColumn.STATE)[0], 1E-9);
+		assertEquals (1, s.getValues (TelemetryColumn.MODE)[0], 1E-9);
+		assertEquals (3 * SensorData.LENGTH_FACTOR, s.getValues (TelemetryColumn.Z)[0], 1E-9);
+
+		reader.append (0, gr);
+		assertEquals ("time stamps are monotonic", s.getTime ()[1], reader.scan (before, Long.MAX_VALUE).getTime ()[2]);
+		reader.close ();
+		assertEquals (2, new TelemetryStore (props).getChunkCount ());
+	}
+
+	/**
+	 * Verify downsampling into intervals, including empty intervals.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase03 () throws Exception {
+		TelemetryStore store = new TelemetryStore (props);
+		for (int k=0; k < 250; k++)
+			store.append (10 * k, sensorData (k, 0, 0));
+		store.append (5000, sensorData (1000, 0, 0));
+
+		TelemetrySeries s = store.downsample (0, 10000, 1000, TelemetryColumn.ROLL);
+		assertEquals (4, s.size ());
+		assertEquals (0, s.getTime ()[0]);
+		assertEquals (49.5 * SensorData.ANGLE_FACTOR, s.getValues (TelemetryColumn.ROLL)[0], 1E-9);
+		assertEquals (2000, s.getTime ()[2]);
+		assertEquals (224.5 * SensorData.ANGLE_FACTOR, s.getValues (TelemetryColumn.ROLL)[2], 1E-9);
+		assertEquals (5000, s.getTime ()[3]);
+		assertEquals (1000 * SensorData.ANGLE_FACTOR, s.getValues (TelemetryColumn.ROLL)[3], 1E-9);
+
+		s = store.downsample (500, 1500, 300, TelemetryColumn.ROLL);
+		assertEquals (4, s.size ());
+		assertEquals (1400, s.getTime ()[3]);
+		assertEquals (144.5 * SensorData.ANGLE_FACTOR, s.getValues (TelemetryColumn.ROLL)[3], 1E-9);
+
+		try {
+			store.downsample (0, 1, 0);
+			fail ();
+		} catch (IllegalArgumentException e) {
+			assertEquals ("Interval must be greater than zero, but is 0", e.getMessage ());
+		}
+		store.close ();
+	}
+
+	/**
+	 * Verify that missing or invalid properties are refused.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase04 () throws Exception {
+		props.setProperty (TelemetryStore.PROP_CHUNK_SIZE, "0");
+		try {
+			new TelemetryStore (props);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Property chunk.size must be greater than zero.", e.getMessage ());
+		}
+
+		props.remove (TelemetryStore.PROP_DIRECTORY);
+		try {
+			new TelemetryStore (props);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Property directory not configured.", e.getMessage ());
+		}
+	}
+
+	/**
+	 * Verify that a new store skips and renames a truncated last chunk file,
+	 * deletes temporary files, e.g. left by a crash, and continues with the
+	 * next chunk number.
+	 *
+	 * @throws Exception
+	 */
+	public void testCase05 () throws Exception {
+		TelemetryStore store = new TelemetryStore (props);
+		for (int k=0; k < 200; k++)
+			store.append (10 * k, sensorData (k, 0, 0));
+		store.close ();
+		assertEquals (2, store.getChunkCount ());
+
+		File first = new File (directory, "telemetry-00000.tlm");
+		byte[] content = new byte[(int) first.length () / 2];
+		RandomAccessFile in = new RandomAccessFile (first, "r");
+		in.readFully (content);
+		in.close ();
+		FileOutputStream out = new FileOutputStream (new File (directory, "telemetry-00002.tlm"));
+		out.write (content);
+		out.close ();
+		File temporary = new File (directory, "telemetry-00003.tlm.tmp");
+		out = new FileOutputStream (temporary);
+		out.write (content);
+		out.close ();
+
+		store = new TelemetryStore (props);
+		assertEquals (2, store.getChunkCount ());
+		assertEquals (200, store.getRowCount ());
+		assertFalse (temporary.exists ());
+		assertTrue (new File (directory, "telemetry-00002.tlm" + TelemetryStore.CORRUPT_SUFFIX).exists ());
+		assertEquals (200, store.scan (0, Long.MAX_VALUE, TelemetryColumn.ROLL).size ());
+
+		for (int k=200; k < 250; k++)
+			store.append (10 * k, sensorData (k, 0, 0));
+		store.close ();
+		assertTrue (new File (directory, "telemetry-00003.tlm").exists ());
+		assertEquals (250, new TelemetryStore (props).getRowCount ());
+	}
+}
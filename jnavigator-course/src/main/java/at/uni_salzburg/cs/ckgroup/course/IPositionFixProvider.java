@@ -0,0 +1,41 @@
+/*
+ * @(#) IPositionFixProvider.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.course;
+
+/**
+ * This interface extends the <code>IPositionProvider</code> by a consistent
+ * snapshot of the position, the speed and the course over ground. Readers
+ * running in other threads should prefer <code>getPositionFix()</code> over
+ * the separate getters of <code>IPositionProvider</code>, because the latter
+ * may return values of different updates.
+ * 
+ * @author Clemens Krainer
+ */
+public interface IPositionFixProvider extends IPositionProvider
+{
+	/**
+	 * Return the latest position fix. The returned object is immutable and
+	 * may be kept by the caller.
+	 * 
+	 * @return the latest position fix or null if no fix has been received yet.
+	 */
+	public PositionFix getPositionFix ();
+}
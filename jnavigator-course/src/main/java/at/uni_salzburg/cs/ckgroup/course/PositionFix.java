@@ -0,0 +1,196 @@
+/*
+ * @(#) PositionFix.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.course;
+
+/**
+ * This class is an immutable snapshot of a position fix, i.e. the position,
+ * speed and course over ground, the UTC time of the fix, the local receive
+ * time, the horizontal dilution of precision and the fix quality. A position
+ * provider publishes a new snapshot for every update, so readers always see
+ * values that belong together.
+ * 
+ * @author Clemens Krainer
+ */
+public class PositionFix
+{
+	/**
+	 * The position or null if no position is available. The position must not
+	 * be modified.
+	 */
+	private final PolarCoordinate position;
+	
+	/**
+	 * The speed over ground or <code>Double.NaN</code> if not available.
+	 */
+	private final double speedOverGround;
+	
+	/**
+	 * The course over ground in degrees or <code>Double.NaN</code> if not available.
+	 */
+	private final double courseOverGround;
+	
+	/**
+	 * The boxed speed over ground or null if not available. It is boxed once
+	 * per snapshot, so that the <code>IPositionProvider</code> getters do not
+	 * allocate.
+	 */
+	private final Double speedOverGroundValue;
+	
+	/**
+	 * The boxed course over ground or null if not available.
+	 */
+	private final Double courseOverGroundValue;
+	
+	/**
+	 * The UTC time of the position fix in milliseconds since midnight or -1 if
+	 * not available.
+	 */
+	private final int timeOfDay;
+	
+	/**
+	 * The value of <code>System.nanoTime()</code> at the reception of the
+	 * position.
+	 */
+	private final long receiveTime;
+	
+	/**
+	 * The horizontal dilution of precision or <code>Double.NaN</code> if not available.
+	 */
+	private final double horizontalDilution;
+	
+	/**
+	 * The fix quality, e.g. 1 for GPS and 2 for DGPS, or -1 if not available.
+	 */
+	private final int fixQuality;
+	
+	/**
+	 * Construct a <code>PositionFix</code>.
+	 * 
+	 * @param position the position or null.
+	 * @param speedOverGround the speed over ground or <code>Double.NaN</code>.
+	 * @param courseOverGround the course over ground in degrees or <code>Double.NaN</code>.
+	 * @param timeOfDay the UTC time of the fix in milliseconds since midnight or -1.
+	 * @param receiveTime the value of <code>System.nanoTime()</code> at the reception of the position.
+	 * @param horizontalDilution the horizontal dilution of precision or <code>Double.NaN</code>.
+	 * @param fixQuality the fix quality or -1.
+	 */
+	public PositionFix (PolarCoordinate position, double speedOverGround, double courseOverGround,
+			int timeOfDay, long receiveTime, double horizontalDilution, int fixQuality)
+	{
+		this.position = position;
+		this.speedOverGround = speedOverGround;
+		this.courseOverGround = courseOverGround;
+		this.speedOverGroundValue = Double.isNaN (speedOverGround) ? null : Double.valueOf (speedOverGround);
+		this.courseOverGroundValue = Double.isNaN (courseOverGround) ? null : Double.valueOf (courseOverGround);
+		this.timeOfDay = timeOfDay;
+		this.receiveTime = receiveTime;
+		this.horizontalDilution = horizontalDilution;
+		this.fixQuality = fixQuality;
+	}
+	
+	/**
+	 * @return the position or null if no position is available. The position
+	 *         must not be modified.
+	 */
+	public PolarCoordinate getPosition ()
+	{
+		return position;
+	}
+	
+	/**
+	 * @return the speed over ground or <code>Double.NaN</code> if not available.
+	 */
+	public double getSpeedOverGround ()
+	{
+		return speedOverGround;
+	}
+	
+	/**
+	 * @return the course over ground in degrees or <code>Double.NaN</code> if
+	 *         not available.
+	 */
+	public double getCourseOverGround ()
+	{
+		return courseOverGround;
+	}
+	
+	/**
+	 * @return the speed over ground or null if not available.
+	 */
+	public Double getSpeedOverGroundValue ()
+	{
+		return speedOverGroundValue;
+	}
+	
+	/**
+	 * @return the course over ground in degrees or null if not available.
+	 */
+	public Double getCourseOverGroundValue ()
+	{
+		return courseOverGroundValue;
+	}
+	
+	/**
+	 * @return the UTC time of the position fix in milliseconds since midnight
+	 *         or -1 if not available.
+	 */
+	public int getTimeOfDay ()
+	{
+		return timeOfDay;
+	}
+	
+	/**
+	 * @return the value of <code>System.nanoTime()</code> at the reception of
+	 *         the position.
+	 */
+	public long getReceiveTime ()
+	{
+		return receiveTime;
+	}
+	
+	/**
+	 * @return the horizontal dilution of precision or <code>Double.NaN</code>
+	 *         if not available.
+	 */
+	public double getHorizontalDilution ()
+	{
+		return horizontalDilution;
+	}
+	
+	/**
+	 * @return the fix quality, e.g. 1 for GPS and 2 for DGPS, or -1 if not
+	 *         available.
+	 */
+	public int getFixQuality ()
+	{
+		return fixQuality;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString ()
+	{
+		return "position=" + position + ", speedOverGround=" + speedOverGround + ", courseOverGround="
+				+ courseOverGround + "°, timeOfDay=" + timeOfDay + "ms, horizontalDilution="
+				+ horizontalDilution + ", fixQuality=" + fixQuality;
+	}
+}
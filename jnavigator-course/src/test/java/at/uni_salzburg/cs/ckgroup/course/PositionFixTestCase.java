@@ -0,0 +1,64 @@
+/*
+ * @(#) PositionFixTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.course;
+
+import junit.framework.TestCase;
+
+/**
+ * This class verifies the implementation of the PositionFix class.
+ * 
+ * @author Clemens Krainer
+ */
+public class PositionFixTestCase extends TestCase
+{
+	/**
+	 * Verify the construction of a PositionFix object.
+	 */
+	public void testCase01 () {
+		PolarCoordinate p = new PolarCoordinate (1,2,3);
+		PositionFix f = new PositionFix (p, 4, 5, 6000, 7, 1.3, 2);
+		
+		assertSame (p, f.getPosition ());
+		assertEquals (4.0, f.getSpeedOverGround (), 1E-5);
+		assertEquals (5.0, f.getCourseOverGround (), 1E-5);
+		assertEquals (4.0, f.getSpeedOverGroundValue ().doubleValue (), 1E-5);
+		assertSame (f.getSpeedOverGroundValue (), f.getSpeedOverGroundValue ());
+		assertEquals (5.0, f.getCourseOverGroundValue ().doubleValue (), 1E-5);
+		assertSame (f.getCourseOverGroundValue (), f.getCourseOverGroundValue ());
+		assertEquals (6000, f.getTimeOfDay ());
+		assertEquals (7, f.getReceiveTime ());
+		assertEquals (1.3, f.getHorizontalDilution (), 1E-5);
+		assertEquals (2, f.getFixQuality ());
+		assertEquals ("position=(1.0°, 2.0°, 3.0m), speedOverGround=4.0, courseOverGround=5.0°, timeOfDay=6000ms, horizontalDilution=1.3, fixQuality=2", f.toString ());
+	}
+	
+	/**
+	 * Verify that missing speed and course are reported as null values.
+	 */
+	public void testCase02 () {
+		PositionFix f = new PositionFix (null, Double.NaN, Double.NaN, -1, 7, Double.NaN, -1);
+		
+		assertTrue (Double.isNaN (f.getSpeedOverGround ()));
+		assertNull (f.getSpeedOverGroundValue ());
+		assertTrue (Double.isNaN (f.getCourseOverGround ()));
+		assertNull (f.getCourseOverGroundValue ());
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * @(#) GpsPositionPredictor.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.gps;
+
+import java.util.Properties;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+import at.uni_salzburg.cs.ckgroup.course.IGeodeticSystem;
+import at.uni_salzburg.cs.ckgroup.course.IPositionFixProvider;
+import at.uni_salzburg.cs.ckgroup.course.PolarCoordinate;
+import at.uni_salzburg.cs.ckgroup.course.PositionFix;
+import at.uni_salzburg.cs.ckgroup.util.ObjectFactory;
+
+/**
+ * This class extrapolates the fixes of a <code>GpsPositionProvider</code> to
+ * the current time. GPS receivers deliver fixes at 1 to 10 Hz, but
+ * controllers running at a higher rate need the position of now. The
+ * prediction moves the received position along the course over ground by the
+ * distance travelled at the received speed since the fix was taken.
+ * <p>
+ * The age of a fix is the time since its reception plus the latency of the
+ * GPS receiver. The latency consists of a configured constant part and a
+ * variable part, which is estimated from the UTC time of the fix. The
+ * smallest observed offset between receive time and UTC fix time is taken as
+ * reference, and fixes arriving later than this reference are considered
+ * delayed by the difference. The extrapolated distance is limited to the
+ * distance travelled within a configurable maximum age, so that a stale fix
+ * does not run away. The reported prediction age is not limited, which lets
+ * the consumers recognize stale fixes.
+ * 
+ * @author Clemens Krainer
+ */
+public class GpsPositionPredictor implements IPositionFixProvider
+{
+	/**
+	 * The prefix of the properties of the underlying position provider. The
+	 * provider must implement <code>IPositionFixProvider</code>.
+	 */
+	public static final String PROP_PROVIDER_PREFIX = "prediction.provider.";
+	
+	/**
+	 * The property key for the maximum age in milliseconds a fix is
+	 * extrapolated by.
+	 */
+	public static final String PROP_MAXIMUM_AGE = "prediction.maximum.age";
+	
+	/**
+	 * The property key for the constant latency of the GPS receiver in milliseconds.
+	 */
+	public static final String PROP_LATENCY = "prediction.latency";
+	
+	/**
+	 * The default maximum age in milliseconds a fix is extrapolated by.
+	 */
+	public static final long DEFAULT_MAXIMUM_AGE = 1000;
+	
+	/**
+	 * The number of milliseconds of a day.
+	 */
+	private static final long MILLIS_PER_DAY = 86400000;
+	
+	/**
+	 * The relative drift between the local clock and the GPS time the offset
+	 * reference follows.
+	 */
+	private static final double CLOCK_DRIFT = 1E-4;
+	
+	/**
+	 * This constant converts Kilometers per Hour (km/h) to Meters per Second (m/s).
+	 */
+	private static final double MPS_PER_KMH = 1 / 3.6;
+	
+	/**
+	 * The underlying position provider.
+	 */
+	private IPositionFixProvider provider;
+	
+	/**
+	 * The maximum age in milliseconds a fix is extrapolated by.
+	 */
+	private double maximumAge;
+	
+	/**
+	 * The constant latency of the GPS receiver in milliseconds.
+	 */
+	private double latency;
+	
+	/**
+	 * The last received fix evaluated for the latency estimation.
+	 */
+	private PositionFix lastFix = null;
+	
+	/**
+	 * The variable latency of the last received fix in milliseconds.
+	 */
+	private double lastDelay = 0;
+	
+	/**
+	 * The smallest observed offset between receive time and UTC fix time in
+	 * milliseconds or <code>Double.NaN</code> if not yet known.
+	 */
+	private double referenceOffset = Double.NaN;
+	
+	/**
+	 * Construct a <code>GpsPositionPredictor</code>.
+	 * 
+	 * @param props the properties.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 */
+	public GpsPositionPredictor (Properties props) throws ConfigurationException
+	{
+		Object p = ObjectFactory.getInstance ().instantiateObject (PROP_PROVIDER_PREFIX, IPositionFixProvider.class, props);
+		if (!(p instanceof IPositionFixProvider))
+			throw new ConfigurationException ("Class " + p.getClass ().getName () + " at " + PROP_PROVIDER_PREFIX +
+				" is no derivative of " + IPositionFixProvider.class.getName ());
+		
+		provider = (IPositionFixProvider) p;
+		maximumAge = Double.parseDouble (props.getProperty (PROP_MAXIMUM_AGE, Long.toString (DEFAULT_MAXIMUM_AGE)));
+		latency = Double.parseDouble (props.getProperty (PROP_LATENCY, "0"));
+	}
+	
+	/**
+	 * Construct a <code>GpsPositionPredictor</code>.
+	 * 
+	 * @param provider the underlying position provider delivering the speed
+	 *        over ground in km/h, e.g. a <code>GpsPositionProvider</code>.
+	 * @param maximumAge the maximum age in milliseconds a fix is extrapolated by.
+	 * @param latency the constant latency of the GPS receiver in milliseconds.
+	 */
+	public GpsPositionPredictor (IPositionFixProvider provider, double maximumAge, double latency)
+	{
+		this.provider = provider;
+		this.maximumAge = maximumAge;
+		this.latency = latency;
+	}
+	
+	/**
+	 * Extrapolate the latest fix of the underlying position provider.
+	 * 
+	 * @param now the value of <code>System.nanoTime()</code> to extrapolate to.
+	 * @return the predicted fix or null if no position is available.
+	 */
+	public PredictedPositionFix predict (long now)
+	{
+		PositionFix fix = provider.getPositionFix ();
+		if (fix == null || fix.getPosition () == null)
+			return null;
+		
+		double age = (now - fix.getReceiveTime ()) * 1E-6 + latency + estimateDelay (fix);
+		double horizon = age > maximumAge ? maximumAge : age;
+		
+		PolarCoordinate position = fix.getPosition ();
+		double speed = fix.getSpeedOverGround ();
+		double course = fix.getCourseOverGround ();
+		if (horizon > 0 && !Double.isNaN (speed) && !Double.isNaN (course))
+		{
+			double distance = speed * MPS_PER_KMH * horizon * 1E-3;
+			double c = Math.toRadians (course);
+			position = getGeodeticSystem ().walk (position, -distance * Math.cos (c), distance * Math.sin (c), 0);
+		}
+		
+		int timeOfDay = fix.getTimeOfDay ();
+		if (timeOfDay >= 0)
+			timeOfDay = (int) ((timeOfDay + Math.round (age)) % MILLIS_PER_DAY);
+		
+		return new PredictedPositionFix (position, timeOfDay, now, age, fix);
+	}
+	
+	/**
+	 * Estimate the variable latency of a fix from its UTC time. The estimation
+	 * is done once per fix.
+	 * 
+	 * @param fix the received fix.
+	 * @return the variable latency in milliseconds.
+	 */
+	private synchronized double estimateDelay (PositionFix fix)
+	{
+		if (fix == lastFix)
+			return lastDelay;
+		
+		if (fix.getTimeOfDay () < 0)
+		{
+			lastFix = fix;
+			lastDelay = 0;
+			return 0;
+		}
+		
+		double receiveTime = fix.getReceiveTime () * 1E-6;
+		double offset = (receiveTime - fix.getTimeOfDay ()) % MILLIS_PER_DAY;
+		
+		if (Double.isNaN (referenceOffset))
+			referenceOffset = offset;
+		else
+			referenceOffset += CLOCK_DRIFT * (receiveTime - lastFix.getReceiveTime () * 1E-6);
+		
+		double delay = offset - referenceOffset;
+		if (delay > MILLIS_PER_DAY / 2)
+			delay -= MILLIS_PER_DAY;
+		else if (delay < -MILLIS_PER_DAY / 2)
+			delay += MILLIS_PER_DAY;
+		
+		if (delay < 0)
+		{
+			referenceOffset = offset;
+			delay = 0;
+		}
+		
+		lastFix = fix;
+		lastDelay = delay;
+		return delay;
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.course.IPositionFixProvider#getPositionFix()
+	 */
+	public PositionFix getPositionFix ()
+	{
+		return predict (System.nanoTime ());
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.course.IPositionProvider#getCurrentPosition()
+	 */
+	public PolarCoordinate getCurrentPosition ()
+	{
+		PositionFix fix = predict (System.nanoTime ());
+		return fix == null ? null : fix.getPosition ();
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.course.IPositionProvider#getSpeedOverGround()
+	 */
+	public Double getSpeedOverGround ()
+	{
+		return provider.getSpeedOverGround ();
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.course.IPositionProvider#getCourseOverGround()
+	 */
+	public Double getCourseOverGround ()
+	{
+		return provider.getCourseOverGround ();
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.course.IPositionProvider#getGeodeticSystem()
+	 */
+	public IGeodeticSystem getGeodeticSystem ()
+	{
+		return provider.getGeodeticSystem ();
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.course.IPositionProvider#close()
+	 */
+	public void close ()
+	{
+		provider.close ();
+	}
+}
@@ -21,22 +21,28 @@
 package at.uni_salzburg.cs.ckgroup.gps;
 
 import at.uni_salzburg.cs.ckgroup.course.IGeodeticSystem;
-import at.uni_salzburg.cs.ckgroup.course.IPositionProvider;
+import at.uni_salzburg.cs.ckgroup.course.IPositionFixProvider;
 import at.uni_salzburg.cs.ckgroup.course.PolarCoordinate;
+import at.uni_salzburg.cs.ckgroup.course.PositionFix;
 import at.uni_salzburg.cs.ckgroup.course.WGS84;
 import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Message;
 import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MessageListener;
-import at.uni_salzburg.cs.ckgroup.util.StringUtils;
+import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Parser;
 
 /**
  * This class receives NMEA 0183 GGA messages from a
  * <code>Nmea0183MessageProvider</code> and converts the received positions to
  * <code>PolarCoordinate</code> objects. Via the <code>IPositionProvider</code>
  * interface this class offers the position to others.
+ * <p>
+ * The received values are kept in primitive variables. After every message
+ * this class publishes an immutable <code>PositionFix</code> combining the
+ * latest position, speed and course. Readers in other threads get the
+ * snapshot by <code>getPositionFix()</code> without locking or allocation.
  * 
  * @author Clemens Krainer
  */
-public class GpsPositionProvider implements IPositionProvider, Nmea0183MessageListener
+public class GpsPositionProvider implements IPositionFixProvider, Nmea0183MessageListener
 {
 	/**
 	 * This constant converts Knots (kn) to Kilometers per Hour (km/h). 
@@ -50,14 +56,20 @@ public class GpsPositionProvider implements IPositionProvider, Nmea0183MessageLi
 	static final int MAX_MISSING_DATA_COUNTER = 8;
 	
 	/**
-	 * This variable contains the coordinates of the last NMEA 0138 message from above.
+	 * The latest published position fix.
+	 */
+	private volatile PositionFix fix = null;
+	
+	/**
+	 * This variable contains the coordinates of the last NMEA 0138 message
+	 * from above. It is never modified after publication.
 	 */
 	private PolarCoordinate coordinate = null;
 	
 	/**
-	 * The current course over ground.
+	 * The current course over ground or <code>Double.NaN</code> if not available.
 	 */
-	private Double courseOverGround = null;
+	private double courseOverGround = Double.NaN;
 	
 	/**
 	 * This variable counts invalid course data. Every time the
@@ -65,14 +77,14 @@ public class GpsPositionProvider implements IPositionProvider, Nmea0183MessageLi
 	 * course it increases this counter. If the counter is greater than the
 	 * <code>MAX_MISSING_DATA_COUNTER</code> constant, the
 	 * <code>receive()</code> method resets the <code>courseOverGround</code>
-	 * to <code>null>/code>.
+	 * to <code>Double.NaN</code>.
 	 */
 	private int courseOverGroundCounter = 0;
 	
 	/**
-	 * The current speed over ground.
+	 * The current speed over ground in km/h or <code>Double.NaN</code> if not available.
 	 */
-	private Double speedOverGround = null;
+	private double speedOverGround = Double.NaN;
 	
 	/**
 	 * This variable counts invalid speed data. Every time the
@@ -80,21 +92,56 @@ public class GpsPositionProvider implements IPositionProvider, Nmea0183MessageLi
 	 * velocity it increases this counter. If the counter is greater than the
 	 * <code>MAX_MISSING_DATA_COUNTER</code> constant, the
 	 * <code>receive()</code> method resets the <code>speedOverGround</code>
-	 * to <code>null>/code>.
+	 * to <code>Double.NaN</code>.
 	 */
 	private int speedOverGroundCounter = 0;
 	
+	/**
+	 * The UTC time of the current position in milliseconds since midnight or -1.
+	 */
+	private int timeOfDay = -1;
+	
+	/**
+	 * The value of <code>System.nanoTime()</code> at the reception of the
+	 * current position.
+	 */
+	private long receiveTime = 0;
+	
+	/**
+	 * The horizontal dilution of precision of the last GGA message.
+	 */
+	private double horizontalDilution = Double.NaN;
+	
+	/**
+	 * The fix quality of the last GGA message.
+	 */
+	private int fixQuality = -1;
+	
 	/**
 	 * The currently used geodetic system.
 	 */
 	private IGeodeticSystem geodeticSystem = new WGS84();
 	
+	/**
+	 * The parser for the received messages, reused for all messages.
+	 */
+	private Nmea0183Parser parser = new Nmea0183Parser ();
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.course.IPositionFixProvider#getPositionFix()
+	 */
+	public PositionFix getPositionFix ()
+	{
+		return fix;
+	}
+	
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.course.IPositionProvider#getCurrentPosition()
 	 */
 	public PolarCoordinate getCurrentPosition ()
 	{
-		return coordinate;
+		PositionFix f = fix;
+		return f == null ? null : f.getPosition ();
 	}
 	
 	/* (non-Javadoc)
@@ -102,7 +149,8 @@ public class GpsPositionProvider implements IPositionProvider, Nmea0183MessageLi
 	 */
 	public Double getCourseOverGround ()
 	{
-		return courseOverGround;
+		PositionFix f = fix;
+		return f == null ? null : f.getCourseOverGroundValue ();
 	}
 
 	/* (non-Javadoc)
@@ -110,106 +158,115 @@ public class GpsPositionProvider implements IPositionProvider, Nmea0183MessageLi
 	 */
 	public Double getSpeedOverGround ()
 	{
-		return speedOverGround;
+		PositionFix f = fix;
+		return f == null ? null : f.getSpeedOverGroundValue ();
 	}
 
 	/* (non-Javadoc)
 	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MessageListener#receive(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Message)
 	 */
-	public void receive (Nmea0183Message newMessage)
+	public synchronized void receive (Nmea0183Message newMessage)
 	{
 		if (newMessage == null)
 		{
 			coordinate = null;
+			publish ();
 			return;
 		}
 
-		if (newMessage.isAValidGgaMessage ())
+		if (!parser.parse (newMessage.getBytes ()))
+			return;
+
+		if (parser.isValidGga ())
 		{
 			// $GPGGA,134320.00,4759.42607290,N,01256.20326407,E,2,06,1.3,435.49942,M,46.59873,M,2.2,0240*43
-			String m = new String (newMessage.getBytes ());
-//			String[] x = m.split (",");
-			String[] x = StringUtils.splitOnCharAndTrim(',',m);
-			double latitude  = x[3].equals ("N") ? angleStringToValue (x[2]) : -angleStringToValue (x[2]);
-			double longitude = x[5].equals ("E") ? angleStringToValue (x[4]) : -angleStringToValue (x[4]);
-			double altitude  = Double.parseDouble (x[9]);
-			
-			if (Double.isNaN(latitude) || Double.isNaN(longitude) || Double.isNaN(altitude)) {
-				System.out.print ('n');
-			}
+			double latitude  = parser.getLatitude ();
+			double longitude = parser.getLongitude ();
+			double altitude  = parser.getAltitude ();
 			
-			coordinate = new PolarCoordinate (latitude, longitude, altitude);
+			horizontalDilution = parser.getHorizontalDilution ();
+			fixQuality = parser.getFixQuality ();
+			setPosition (latitude, longitude, altitude);
 			return;
 		}
 		
-		if (newMessage.isAValidRmcMessage ())
+		if (parser.isValidRmc ())
 		{
 			// $GPRMC,215136.00,A,4759.43142,N,01256.20407,E,0.586,345.60,150407,,,A*6A
-			String m = new String (newMessage.getBytes ());
-//			String[] x = m.split (",");
-			String[] x = StringUtils.splitOnCharAndTrim(',',m);
-			handleCourseAndSpeed (x[8], x[7]);
+			handleCourseAndSpeed (parser.getCourseOverGround (), parser.getSpeedKnots ());
 			
-			double latitude  = x[4].equals ("N") ? angleStringToValue (x[3]) : -angleStringToValue (x[3]);
-			double longitude = x[6].equals ("E") ? angleStringToValue (x[5]) : -angleStringToValue (x[5]);
+			double latitude  = parser.getLatitude ();
+			double longitude = parser.getLongitude ();
 			double altitude  = coordinate != null ? coordinate.altitude : 0;
 			
-			if (Double.isNaN(latitude) || Double.isNaN(longitude) || Double.isNaN(altitude)) {
-				System.out.print ('n');
-			}
-			
-			coordinate = new PolarCoordinate (latitude, longitude, altitude);
+			setPosition (latitude, longitude, altitude);
 			return;
 		}
 		
-		if (newMessage.isAValidVtgMessage ())
+		if (parser.isValidVtg ())
 		{
 			// $GPVTG,316.66,T,,M,0.797,N,1.478,K,A*3A
-			String m = new String (newMessage.getBytes ());
-//			String[] x = m.split (",");
-			String[] x = StringUtils.splitOnCharAndTrim(',',m);
-			handleCourseAndSpeed (x[1], x[5]);			
+			handleCourseAndSpeed (parser.getCourseOverGround (), parser.getSpeedKnots ());
+			publish ();
 			return;
 		}
 	}
 	
 	/**
-	 * Convert the strings of the course and the speed to <code>Double</code>
-	 * values and take care of invalid values.
+	 * Take over the position of the current message and publish a new
+	 * position fix.
+	 * 
+	 * @param latitude the latitude in degrees.
+	 * @param longitude the longitude in degrees.
+	 * @param altitude the altitude in meters.
+	 */
+	private void setPosition (double latitude, double longitude, double altitude)
+	{
+		coordinate = new PolarCoordinate (latitude, longitude, altitude);
+		timeOfDay = parser.getTimeOfDay (1);
+		receiveTime = System.nanoTime ();
+		publish ();
+	}
+	
+	/**
+	 * Publish the current values as a new position fix.
+	 */
+	private void publish ()
+	{
+		fix = new PositionFix (coordinate, speedOverGround, courseOverGround, timeOfDay,
+				receiveTime, horizontalDilution, fixQuality);
+	}
+	
+	/**
+	 * Take over the course and the speed and take care of missing values.
 	 * 
-	 * @param courseString
-	 *            the course in degrees as a <code>String</code>
-	 * @param speedString
-	 *            the speed in knots as a <code>String</code>
+	 * @param course
+	 *            the course in degrees or <code>Double.NaN</code> if missing
+	 * @param speed
+	 *            the speed in knots or <code>Double.NaN</code> if missing
 	 */
-	private void handleCourseAndSpeed (String courseString, String speedString)
+	private void handleCourseAndSpeed (double course, double speed)
 	{
-		if (speedString.equals(""))
+		if (Double.isNaN (speed))
 		{
 			if (++speedOverGroundCounter > MAX_MISSING_DATA_COUNTER)
-				speedOverGround = null;
+				speedOverGround = Double.NaN;
 		}
 		else
 		{
-			speedOverGround = new Double (Double.parseDouble(speedString) * KMH_PER_KNOTS);
+			speedOverGround = speed * KMH_PER_KNOTS;
 			speedOverGroundCounter = 0;
-			if (speedOverGround.isNaN()) {
-				System.out.print ('s');
-			}
 		}
 			
-		if (courseString.equals(""))
+		if (Double.isNaN (course))
 		{
 			if (++courseOverGroundCounter > MAX_MISSING_DATA_COUNTER)
-				courseOverGround = null;
+				courseOverGround = Double.NaN;
 		}
 		else
 		{
-			courseOverGround = Double.valueOf(courseString);
+			courseOverGround = course;
 			courseOverGroundCounter = 0;
-			if (courseOverGround.isNaN()) {
-				System.out.print ('c');
-			}
 		}
 	}
 	
@@ -224,11 +281,7 @@ public class GpsPositionProvider implements IPositionProvider, Nmea0183MessageLi
 	 */
 	static double angleStringToValue (String angleString)
 	{
-		double value = Double.parseDouble (angleString);
-		double degrees = (int)(value/100);
-		double seconds = value/100 - degrees;
-		double angle = degrees + seconds / 0.6;
-		return angle;
+		return Nmea0183Parser.toDegrees (Double.parseDouble (angleString));
 	}
 
 	/* (non-Javadoc)
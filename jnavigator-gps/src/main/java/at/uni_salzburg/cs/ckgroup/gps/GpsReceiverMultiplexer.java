@@ -0,0 +1,445 @@
+/*
+ * @(#) GpsReceiverMultiplexer.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.gps;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.Vector;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+import at.uni_salzburg.cs.ckgroup.io.IConnection;
+import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MalformedMessageException;
+import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Message;
+import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MessageListener;
+import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MessageProvider;
+import at.uni_salzburg.cs.ckgroup.util.ObjectFactory;
+
+/**
+ * This class reads NMEA 0183 messages from several GPS receivers, e.g. a
+ * rover, a base and a heading antenna, within a single thread. Each received
+ * message is tagged with the name of its receiver, see
+ * <code>Nmea0183Message.getSource()</code>, and delivered to the registered
+ * listeners.
+ * <p>
+ * The connections are serial lines or sockets that offer blocking streams
+ * only, so the thread polls the number of available bytes of each receiver
+ * and reads all of them at once into the buffer of the receiver. The lines
+ * are split in place. If none of the receivers has data available, the thread
+ * pauses for the configured poll interval.
+ * <p>
+ * Sockets and pipes report zero available bytes at the end of the stream, so
+ * polling alone never notices a receiver that has gone away. If a receiver
+ * timeout is configured, a receiver that delivers no data for that time is
+ * considered stale and removed. The detection is disabled by default, because
+ * a removed receiver is not reopened and a GPS receiver may legitimately stay
+ * silent, e.g. while it is searching for satellites.
+ *
+ * @author  Clemens Krainer
+ */
+public class GpsReceiverMultiplexer extends Thread implements Nmea0183MessageProvider
+{
+	/**
+	 * The property key for the comma separated list of GPS receiver names.
+	 * The connection of each receiver is configured by the properties
+	 * prefixed with its name, e.g. <code>rover.className</code>.
+	 */
+	public static final String PROP_GPS_RECEIVERS = "gps.receivers";
+	
+	/**
+	 * The property key for the poll interval in milliseconds.
+	 */
+	public static final String PROP_POLL_INTERVAL = "gps.poll.interval";
+	
+	/**
+	 * The default poll interval in milliseconds.
+	 */
+	public static final long DEFAULT_POLL_INTERVAL = 5;
+	
+	/**
+	 * The property key for the receiver timeout in milliseconds. A value of
+	 * zero disables the detection of stale receivers.
+	 */
+	public static final String PROP_RECEIVER_TIMEOUT = "gps.receiver.timeout";
+	
+	/**
+	 * The default receiver timeout in milliseconds, i.e. stale receivers are
+	 * kept.
+	 */
+	public static final long DEFAULT_RECEIVER_TIMEOUT = 0;
+	
+	/**
+	 * The size of the read buffer of each receiver, i.e. the maximum length of
+	 * a line.
+	 */
+	public static final int BUFFER_SIZE = 4096;
+	
+	/**
+	 * This variable contains all NMEA message listeners. 
+	 */
+	private Vector<Nmea0183MessageListener> nmeaMessageListeners = new Vector<>();
+	
+	/**
+	 * The currently serviced GPS receivers.
+	 */
+	private volatile Receiver[] receivers = new Receiver[0];
+	
+	/**
+	 * The poll interval in milliseconds.
+	 */
+	private long pollInterval = DEFAULT_POLL_INTERVAL;
+	
+	/**
+	 * The receiver timeout in milliseconds.
+	 */
+	private volatile long receiverTimeout = DEFAULT_RECEIVER_TIMEOUT;
+	
+	/**
+	 * The running indicator of this thread.
+	 */
+	private volatile boolean running = false;
+	
+	/**
+	 * Construct an empty <code>GpsReceiverMultiplexer</code>. Use
+	 * <code>addReceiver()</code> to add GPS receivers.
+	 */
+	public GpsReceiverMultiplexer () {
+		super ("GpsReceiverMultiplexer");
+	}
+	
+	/**
+	 * Construct a <code>GpsReceiverMultiplexer</code> and open the GPS
+	 * receivers configured in the properties.
+	 * 
+	 * @param props the properties.
+	 * @throws ConfigurationException thrown in case of configuration errors.
+	 * @throws IOException thrown in case of I/O errors.
+	 */
+	public GpsReceiverMultiplexer (Properties props) throws ConfigurationException, IOException {
+		this ();
+		pollInterval = Long.parseLong (props.getProperty (PROP_POLL_INTERVAL, Long.toString (DEFAULT_POLL_INTERVAL)));
+		receiverTimeout = Long.parseLong (props.getProperty (PROP_RECEIVER_TIMEOUT, Long.toString (DEFAULT_RECEIVER_TIMEOUT)));
+		
+		String names = props.getProperty (PROP_GPS_RECEIVERS);
+		if (names == null || names.trim ().equals (""))
+			throw new ConfigurationException ("Missing property " + PROP_GPS_RECEIVERS);
+		
+		String[] list = names.trim ().split ("\\s*,\\s*");
+		for (int k=0; k < list.length; k++) {
+			String className = props.getProperty (list[k] + ".className");
+			if (className == null || className.equals (""))
+				throw new ConfigurationException ("Missing property " + list[k] + ".className");
+			
+			addReceiver (list[k], ObjectFactory.getInstance ().instantiateIConnection (list[k] + ".", props));
+		}
+	}
+	
+	/**
+	 * Add a GPS receiver. This method may be called while the thread is
+	 * running.
+	 * 
+	 * @param name the name the messages of this receiver are tagged with.
+	 * @param connection the already open connection to the receiver.
+	 * @throws IOException thrown if the input stream of the connection is not
+	 *         accessible.
+	 */
+	public synchronized void addReceiver (String name, IConnection connection) throws IOException {
+		Receiver[] r = new Receiver[receivers.length + 1];
+		System.arraycopy (receivers, 0, r, 0, receivers.length);
+		r[receivers.length] = new Receiver (name, connection);
+		receivers = r;
+	}
+	
+	/**
+	 * Remove a GPS receiver and close its connection.
+	 * 
+	 * @param name the name of the receiver.
+	 */
+	public synchronized void removeReceiver (String name) {
+		Receiver[] r = receivers;
+		for (int k=0; k < r.length; k++) {
+			if (!r[k].name.equals (name))
+				continue;
+			
+			Receiver[] n = new Receiver[r.length - 1];
+			System.arraycopy (r, 0, n, 0, k);
+			System.arraycopy (r, k+1, n, k, r.length - k - 1);
+			receivers = n;
+			r[k].close ();
+			return;
+		}
+	}
+	
+	/**
+	 * @return the names of the currently serviced GPS receivers.
+	 */
+	public String[] getReceiverNames () {
+		Receiver[] r = receivers;
+		String[] names = new String[r.length];
+		for (int k=0; k < r.length; k++)
+			names[k] = r[k].name;
+		return names;
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MessageProvider#addNmea0183MessageListener(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MessageListener)
+	 */
+	public void addNmea0183MessageListener (Nmea0183MessageListener listener) {
+		nmeaMessageListeners.add (listener);
+	}
+
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MessageProvider#removeNmea0183MessageListener(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MessageListener)
+	 */
+	public void removeNmea0183MessageListener (Nmea0183MessageListener listener) {
+		while (nmeaMessageListeners.remove (listener))
+			continue;
+	}
+	
+	/**
+	 * @param receiverTimeout the time in milliseconds after which a silent
+	 *        receiver is removed, or zero to keep silent receivers.
+	 */
+	public void setReceiverTimeout (long receiverTimeout) {
+		this.receiverTimeout = receiverTimeout;
+	}
+	
+	/**
+	 * @param name the name of a GPS receiver.
+	 * @return the number of well formed messages read from the receiver.
+	 */
+	public int getNumberOfWellFormedMessages (String name) {
+		Receiver r = findReceiver (name);
+		return r == null ? 0 : r.wellFormedMessages;
+	}
+	
+	/**
+	 * @param name the name of a GPS receiver.
+	 * @return the number of malformed messages read from the receiver.
+	 */
+	public int getNumberOfMalformedMessages (String name) {
+		Receiver r = findReceiver (name);
+		return r == null ? 0 : r.malformedMessages;
+	}
+	
+	/**
+	 * @param name the name of a GPS receiver.
+	 * @return the receiver or null if there is no receiver of this name.
+	 */
+	private Receiver findReceiver (String name) {
+		Receiver[] r = receivers;
+		for (int k=0; k < r.length; k++)
+			if (r[k].name.equals (name))
+				return r[k];
+		return null;
+	}
+
+	/**
+	 * Deliver a received message to all listeners
+	 * 
+	 * @param message the message to be delivered
+	 */
+	protected void fireNewMessage (Nmea0183Message message) {
+		for (int i = 0; i < nmeaMessageListeners.size (); i++)
+			nmeaMessageListeners.get (i).receive (message);
+	}
+	
+	/**
+	 * Service all GPS receivers until <code>terminate()</code> is called. A
+	 * receiver reaching the end of its stream, failing or staying silent for
+	 * longer than the receiver timeout is removed.
+	 * 
+	 * @see java.lang.Thread#run()
+	 */
+	public void run () {
+		running = true;
+		
+		while (running) {
+			Receiver[] r = receivers;
+			int received = 0;
+			long now = System.currentTimeMillis ();
+			
+			for (int k=0; k < r.length; k++) {
+				try {
+					int n = r[k].poll (now);
+					if (n < 0) {
+						System.err.println ("GpsReceiverMultiplexer: end of stream of receiver " + r[k].name);
+						removeReceiver (r[k].name);
+					} else
+						received += n;
+				} catch (IOException e) {
+					System.err.println ("GpsReceiverMultiplexer: can not read from receiver " + r[k].name + ": " + e.getMessage ());
+					removeReceiver (r[k].name);
+				}
+			}
+			
+			if (received == 0)
+				try { Thread.sleep (pollInterval); } catch (InterruptedException e) { }
+		}
+		
+		Receiver[] r = receivers;
+		for (int k=0; k < r.length; k++)
+			removeReceiver (r[k].name);
+	}
+	
+	/**
+	 * Terminate this thread and close the connections to all receivers.
+	 */
+	public void terminate () {
+		running = false;
+	}
+	
+	/**
+	 * @return true if this thread is running, false otherwise.
+	 */
+	public boolean isRunning () {
+		return running;
+	}
+	
+	/**
+	 * This class holds the connection and the read buffer of a GPS receiver.
+	 */
+	private class Receiver {
+		
+		/**
+		 * The name of the receiver.
+		 */
+		final String name;
+		
+		/**
+		 * The connection to the receiver.
+		 */
+		private IConnection connection;
+		
+		/**
+		 * The input stream of the connection.
+		 */
+		private InputStream input;
+		
+		/**
+		 * The read buffer.
+		 */
+		private byte[] buffer = new byte[BUFFER_SIZE];
+		
+		/**
+		 * The number of bytes in the read buffer.
+		 */
+		private int length = 0;
+		
+		/**
+		 * The time in milliseconds the last bytes have been received.
+		 */
+		private long lastReception = System.currentTimeMillis ();
+		
+		/**
+		 * The number of well formed messages received.
+		 */
+		volatile int wellFormedMessages = 0;
+		
+		/**
+		 * The number of malformed messages received.
+		 */
+		volatile int malformedMessages = 0;
+		
+		/**
+		 * Construct a <code>Receiver</code>.
+		 * 
+		 * @param name the name of the receiver.
+		 * @param connection the connection to the receiver.
+		 * @throws IOException thrown if the input stream is not accessible.
+		 */
+		Receiver (String name, IConnection connection) throws IOException {
+			this.name = name;
+			this.connection = connection;
+			this.input = connection.getInputStream ();
+		}
+		
+		/**
+		 * Read the available bytes and deliver the complete lines.
+		 * 
+		 * @param now the current time in milliseconds.
+		 * @return the number of bytes read or -1 at the end of the stream.
+		 * @throws IOException thrown in case of I/O errors or if the receiver
+		 *         has been silent for longer than the receiver timeout.
+		 */
+		int poll (long now) throws IOException {
+			int available = input.available ();
+			if (available <= 0) {
+				long timeout = receiverTimeout;
+				if (timeout > 0 && now - lastReception > timeout)
+					throw new IOException ("No data received for " + (now - lastReception) + " ms");
+				return 0;
+			}
+			
+			int n = input.read (buffer, length, Math.min (available, buffer.length - length));
+			if (n <= 0)
+				return n;
+			
+			lastReception = now;
+			
+			int start = 0;
+			for (int k = length, end = length + n; k < end; k++) {
+				if (buffer[k] != '\n')
+					continue;
+				
+				deliver (start, k + 1 - start);
+				start = k + 1;
+			}
+			
+			length += n;
+			if (start > 0) {
+				length -= start;
+				System.arraycopy (buffer, start, buffer, 0, length);
+			} else if (length == buffer.length) {
+				++malformedMessages;
+				length = 0;
+			}
+			return n;
+		}
+		
+		/**
+		 * Deliver one line as a tagged message.
+		 * 
+		 * @param ofs the offset of the line in the buffer.
+		 * @param len the length of the line including the line terminator.
+		 */
+		private void deliver (int ofs, int len) {
+			try {
+				Nmea0183Message m = new Nmea0183Message (buffer, ofs, len, name);
+				++wellFormedMessages;
+				fireNewMessage (m);
+			} catch (Nmea0183MalformedMessageException e) {
+				++malformedMessages;
+			}
+		}
+		
+		/**
+		 * Close the connection.
+		 */
+		void close () {
+			try {
+				connection.close ();
+			} catch (IOException e) {
+				System.err.println ("GpsReceiverMultiplexer: can not close receiver " + name + ": " + e.getMessage ());
+			}
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * @(#) PredictedPositionFix.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.gps;
+
+import at.uni_salzburg.cs.ckgroup.course.PolarCoordinate;
+import at.uni_salzburg.cs.ckgroup.course.PositionFix;
+
+/**
+ * This class is a <code>PositionFix</code> extrapolated from a received fix
+ * to a later point in time by a <code>GpsPositionPredictor</code>. The
+ * receive time of a predicted fix is the time the prediction applies to.
+ * 
+ * @author Clemens Krainer
+ */
+public class PredictedPositionFix extends PositionFix
+{
+	/**
+	 * The age of the received fix in milliseconds.
+	 */
+	private final double predictionAge;
+	
+	/**
+	 * The received fix the prediction is based on.
+	 */
+	private final PositionFix receivedFix;
+	
+	/**
+	 * Construct a <code>PredictedPositionFix</code>.
+	 * 
+	 * @param position the extrapolated position.
+	 * @param timeOfDay the UTC time of the prediction in milliseconds since midnight or -1.
+	 * @param predictionTime the value of <code>System.nanoTime()</code> the prediction applies to.
+	 * @param predictionAge the age of the received fix in milliseconds.
+	 * @param receivedFix the received fix the prediction is based on.
+	 */
+	public PredictedPositionFix (PolarCoordinate position, int timeOfDay, long predictionTime,
+			double predictionAge, PositionFix receivedFix)
+	{
+		super (position, receivedFix.getSpeedOverGround (), receivedFix.getCourseOverGround (), timeOfDay,
+				predictionTime, receivedFix.getHorizontalDilution (), receivedFix.getFixQuality ());
+		this.predictionAge = predictionAge;
+		this.receivedFix = receivedFix;
+	}
+	
+	/**
+	 * @return the age of the received fix in milliseconds, including the
+	 *         estimated latency of the GPS receiver. The age is not limited
+	 *         by the maximum age the position is extrapolated by, so a value
+	 *         beyond that maximum indicates a stale fix.
+	 */
+	public double getPredictionAge ()
+	{
+		return predictionAge;
+	}
+	
+	/**
+	 * @return the received fix the prediction is based on.
+	 */
+	public PositionFix getReceivedFix ()
+	{
+		return receivedFix;
+	}
+}
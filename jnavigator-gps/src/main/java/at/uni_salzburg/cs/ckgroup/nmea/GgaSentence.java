@@ -0,0 +1,145 @@
+/*
+ * @(#) GgaSentence.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class holds a decoded GGA sentence, i.e. the GPS fix data.
+ * <p>
+ * <code>$GPGGA,134320.00,4759.42607290,N,01256.20326407,E,2,06,1.3,435.49942,M,46.59873,M,2.2,0240*43</code>
+ * 
+ * @author Clemens Krainer
+ */
+public class GgaSentence extends Nmea0183Sentence
+{
+	private int timeOfDay;
+	private double latitude;
+	private double longitude;
+	private int fixQuality;
+	private int numberOfSatellites;
+	private double horizontalDilution;
+	private double altitude;
+	private double geoidSeparation;
+	private double dgpsAge;
+	private int dgpsStation;
+	private boolean valid;
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#getFormatter()
+	 */
+	public String getFormatter () {
+		return "GGA";
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#decodeFields(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Parser)
+	 */
+	protected void decodeFields (Nmea0183Parser parser) {
+		timeOfDay = parser.getTimeOfDay (1);
+		latitude = parser.getAngle (2, 'S');
+		longitude = parser.getAngle (4, 'W');
+		fixQuality = parser.getInt (6, -1);
+		numberOfSatellites = parser.getInt (7, -1);
+		horizontalDilution = parser.getDouble (8);
+		altitude = parser.getDouble (9);
+		geoidSeparation = parser.getDouble (11);
+		dgpsAge = parser.getDouble (13);
+		dgpsStation = parser.getInt (14, -1);
+		valid = parser.isValidGga ();
+	}
+	
+	/**
+	 * @return the UTC time of the fix in milliseconds since midnight or -1.
+	 */
+	public int getTimeOfDay () {
+		return timeOfDay;
+	}
+	
+	/**
+	 * @return the latitude in degrees, negative for the southern hemisphere.
+	 */
+	public double getLatitude () {
+		return latitude;
+	}
+	
+	/**
+	 * @return the longitude in degrees, negative for the western hemisphere.
+	 */
+	public double getLongitude () {
+		return longitude;
+	}
+	
+	/**
+	 * @return the fix quality, i.e. 0 for no fix, 1 for GPS, 2 for DGPS, 4 for
+	 *         RTK fixed and 5 for RTK float.
+	 */
+	public int getFixQuality () {
+		return fixQuality;
+	}
+	
+	/**
+	 * @return the number of satellites in use.
+	 */
+	public int getNumberOfSatellites () {
+		return numberOfSatellites;
+	}
+	
+	/**
+	 * @return the horizontal dilution of precision.
+	 */
+	public double getHorizontalDilution () {
+		return horizontalDilution;
+	}
+	
+	/**
+	 * @return the altitude above mean sea level in meters.
+	 */
+	public double getAltitude () {
+		return altitude;
+	}
+	
+	/**
+	 * @return the height of the geoid above the WGS84 ellipsoid in meters.
+	 */
+	public double getGeoidSeparation () {
+		return geoidSeparation;
+	}
+	
+	/**
+	 * @return the age of the differential corrections in seconds.
+	 */
+	public double getDgpsAge () {
+		return dgpsAge;
+	}
+	
+	/**
+	 * @return the identification of the differential reference station.
+	 */
+	public int getDgpsStation () {
+		return dgpsStation;
+	}
+	
+	/**
+	 * @return true if the sentence contains a position.
+	 */
+	public boolean isValid () {
+		return valid;
+	}
+}
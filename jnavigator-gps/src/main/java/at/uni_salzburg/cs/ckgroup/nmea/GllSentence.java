@@ -0,0 +1,88 @@
+/*
+ * @(#) GllSentence.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class holds a decoded GLL sentence, i.e. the geographic position.
+ * <p>
+ * <code>$GPGLL,4759.43165,N,01256.21184,E,145202.00,A,A*6D</code>
+ * 
+ * @author Clemens Krainer
+ */
+public class GllSentence extends Nmea0183Sentence
+{
+	private double latitude;
+	private double longitude;
+	private int timeOfDay;
+	private char status;
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#getFormatter()
+	 */
+	public String getFormatter () {
+		return "GLL";
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#decodeFields(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Parser)
+	 */
+	protected void decodeFields (Nmea0183Parser parser) {
+		latitude = parser.getAngle (1, 'S');
+		longitude = parser.getAngle (3, 'W');
+		timeOfDay = parser.getTimeOfDay (5);
+		status = parser.getChar (6);
+	}
+	
+	/**
+	 * @return the latitude in degrees, negative for the southern hemisphere.
+	 */
+	public double getLatitude () {
+		return latitude;
+	}
+	
+	/**
+	 * @return the longitude in degrees, negative for the western hemisphere.
+	 */
+	public double getLongitude () {
+		return longitude;
+	}
+	
+	/**
+	 * @return the UTC time of the position in milliseconds since midnight or -1.
+	 */
+	public int getTimeOfDay () {
+		return timeOfDay;
+	}
+	
+	/**
+	 * @return the status, i.e. 'A' for valid data and 'V' for a warning.
+	 */
+	public char getStatus () {
+		return status;
+	}
+	
+	/**
+	 * @return true if the status is 'A' and the sentence contains a position.
+	 */
+	public boolean isValid () {
+		return status == 'A' && !Double.isNaN (latitude) && !Double.isNaN (longitude);
+	}
+}
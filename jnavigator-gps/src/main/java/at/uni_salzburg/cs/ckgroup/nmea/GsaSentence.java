@@ -0,0 +1,122 @@
+/*
+ * @(#) GsaSentence.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class holds a decoded GSA sentence, i.e. the dilution of precision and
+ * the active satellites.
+ * <p>
+ * <code>$GPGSA,A,2,13,27,04,,,,,,,,,,4.08,3.95,1.00*02</code>
+ * 
+ * @author Clemens Krainer
+ */
+public class GsaSentence extends Nmea0183Sentence
+{
+	/**
+	 * The maximum number of satellites reported in a GSA sentence.
+	 */
+	public static final int MAXIMUM_NUMBER_OF_SATELLITES = 12;
+	
+	private char selectionMode;
+	private int fixType;
+	private int[] satellites = new int[MAXIMUM_NUMBER_OF_SATELLITES];
+	private int numberOfSatellites;
+	private double positionDilution;
+	private double horizontalDilution;
+	private double verticalDilution;
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#getFormatter()
+	 */
+	public String getFormatter () {
+		return "GSA";
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#decodeFields(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Parser)
+	 */
+	protected void decodeFields (Nmea0183Parser parser) {
+		selectionMode = parser.getChar (1);
+		fixType = parser.getInt (2, -1);
+		numberOfSatellites = 0;
+		for (int k=0; k < MAXIMUM_NUMBER_OF_SATELLITES; k++) {
+			int prn = parser.getInt (3 + k, -1);
+			if (prn >= 0)
+				satellites[numberOfSatellites++] = prn;
+		}
+		positionDilution = parser.getDouble (15);
+		horizontalDilution = parser.getDouble (16);
+		verticalDilution = parser.getDouble (17);
+	}
+	
+	/**
+	 * @return the selection mode, i.e. 'M' for manual and 'A' for automatic.
+	 */
+	public char getSelectionMode () {
+		return selectionMode;
+	}
+	
+	/**
+	 * @return the fix type, i.e. 1 for no fix, 2 for 2D and 3 for 3D.
+	 */
+	public int getFixType () {
+		return fixType;
+	}
+	
+	/**
+	 * @return the number of satellites used for the fix.
+	 */
+	public int getNumberOfSatellites () {
+		return numberOfSatellites;
+	}
+	
+	/**
+	 * @param index the index of the satellite, i.e. 0 to
+	 *        <code>getNumberOfSatellites()</code> - 1.
+	 * @return the PRN number of the satellite.
+	 */
+	public int getSatellite (int index) {
+		if (index < 0 || index >= numberOfSatellites)
+			throw new IndexOutOfBoundsException ("Invalid satellite index " + index);
+		return satellites[index];
+	}
+	
+	/**
+	 * @return the position dilution of precision.
+	 */
+	public double getPositionDilution () {
+		return positionDilution;
+	}
+	
+	/**
+	 * @return the horizontal dilution of precision.
+	 */
+	public double getHorizontalDilution () {
+		return horizontalDilution;
+	}
+	
+	/**
+	 * @return the vertical dilution of precision.
+	 */
+	public double getVerticalDilution () {
+		return verticalDilution;
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * @(#) GstSentence.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class holds a decoded GST sentence, i.e. the pseudorange error
+ * statistics.
+ * <p>
+ * <code>$GPGST,172814.0,0.006,0.023,0.020,273.6,0.023,0.020,0.031*6A</code>
+ * 
+ * @author Clemens Krainer
+ */
+public class GstSentence extends Nmea0183Sentence
+{
+	private int timeOfDay;
+	private double rangeRms;
+	private double semiMajorError;
+	private double semiMinorError;
+	private double errorOrientation;
+	private double latitudeError;
+	private double longitudeError;
+	private double altitudeError;
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#getFormatter()
+	 */
+	public String getFormatter () {
+		return "GST";
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#decodeFields(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Parser)
+	 */
+	protected void decodeFields (Nmea0183Parser parser) {
+		timeOfDay = parser.getTimeOfDay (1);
+		rangeRms = parser.getDouble (2);
+		semiMajorError = parser.getDouble (3);
+		semiMinorError = parser.getDouble (4);
+		errorOrientation = parser.getDouble (5);
+		latitudeError = parser.getDouble (6);
+		longitudeError = parser.getDouble (7);
+		altitudeError = parser.getDouble (8);
+	}
+	
+	/**
+	 * @return the UTC time in milliseconds since midnight or -1.
+	 */
+	public int getTimeOfDay () {
+		return timeOfDay;
+	}
+	
+	/**
+	 * @return the RMS value of the pseudorange residuals in meters.
+	 */
+	public double getRangeRms () {
+		return rangeRms;
+	}
+	
+	/**
+	 * @return the standard deviation of the semi-major axis of the error
+	 *         ellipse in meters.
+	 */
+	public double getSemiMajorError () {
+		return semiMajorError;
+	}
+	
+	/**
+	 * @return the standard deviation of the semi-minor axis of the error
+	 *         ellipse in meters.
+	 */
+	public double getSemiMinorError () {
+		return semiMinorError;
+	}
+	
+	/**
+	 * @return the orientation of the semi-major axis of the error ellipse in
+	 *         degrees from true north.
+	 */
+	public double getErrorOrientation () {
+		return errorOrientation;
+	}
+	
+	/**
+	 * @return the standard deviation of the latitude error in meters.
+	 */
+	public double getLatitudeError () {
+		return latitudeError;
+	}
+	
+	/**
+	 * @return the standard deviation of the longitude error in meters.
+	 */
+	public double getLongitudeError () {
+		return longitudeError;
+	}
+	
+	/**
+	 * @return the standard deviation of the altitude error in meters.
+	 */
+	public double getAltitudeError () {
+		return altitudeError;
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * @(#) GsvSentence.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class holds a decoded GSV sentence, i.e. up to four of the satellites
+ * in view. A receiver reports all satellites in view by a sequence of GSV
+ * sentences.
+ * <p>
+ * <code>$GPGSV,2,1,07,01,08,151,42,03,66,168,47,14,24,124,39,16,04,185,41*7C</code>
+ * 
+ * @author Clemens Krainer
+ */
+public class GsvSentence extends Nmea0183Sentence
+{
+	/**
+	 * The maximum number of satellites reported in a GSV sentence.
+	 */
+	public static final int MAXIMUM_NUMBER_OF_SATELLITES = 4;
+	
+	private int numberOfSentences;
+	private int sentenceNumber;
+	private int satellitesInView;
+	private int numberOfSatellites;
+	private int[] prn = new int[MAXIMUM_NUMBER_OF_SATELLITES];
+	private int[] elevation = new int[MAXIMUM_NUMBER_OF_SATELLITES];
+	private int[] azimuth = new int[MAXIMUM_NUMBER_OF_SATELLITES];
+	private int[] signalToNoiseRatio = new int[MAXIMUM_NUMBER_OF_SATELLITES];
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#getFormatter()
+	 */
+	public String getFormatter () {
+		return "GSV";
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#decodeFields(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Parser)
+	 */
+	protected void decodeFields (Nmea0183Parser parser) {
+		numberOfSentences = parser.getInt (1, -1);
+		sentenceNumber = parser.getInt (2, -1);
+		satellitesInView = parser.getInt (3, -1);
+		numberOfSatellites = 0;
+		for (int k=0; k < MAXIMUM_NUMBER_OF_SATELLITES; k++) {
+			int field = 4 + 4 * k;
+			int p = parser.getInt (field, -1);
+			if (p < 0)
+				continue;
+			prn[numberOfSatellites] = p;
+			elevation[numberOfSatellites] = parser.getInt (field + 1, -1);
+			azimuth[numberOfSatellites] = parser.getInt (field + 2, -1);
+			signalToNoiseRatio[numberOfSatellites] = parser.getInt (field + 3, -1);
+			++numberOfSatellites;
+		}
+	}
+	
+	/**
+	 * @return the total number of GSV sentences of the sequence.
+	 */
+	public int getNumberOfSentences () {
+		return numberOfSentences;
+	}
+	
+	/**
+	 * @return the number of this sentence in the sequence, starting with 1.
+	 */
+	public int getSentenceNumber () {
+		return sentenceNumber;
+	}
+	
+	/**
+	 * @return the total number of satellites in view.
+	 */
+	public int getSatellitesInView () {
+		return satellitesInView;
+	}
+	
+	/**
+	 * @return the number of satellites reported in this sentence.
+	 */
+	public int getNumberOfSatellites () {
+		return numberOfSatellites;
+	}
+	
+	/**
+	 * @param index the index of the satellite in this sentence.
+	 * @return the PRN number of the satellite.
+	 */
+	public int getPrn (int index) {
+		return prn[checkIndex (index)];
+	}
+	
+	/**
+	 * @param index the index of the satellite in this sentence.
+	 * @return the elevation of the satellite in degrees or -1.
+	 */
+	public int getElevation (int index) {
+		return elevation[checkIndex (index)];
+	}
+	
+	/**
+	 * @param index the index of the satellite in this sentence.
+	 * @return the azimuth of the satellite in degrees or -1.
+	 */
+	public int getAzimuth (int index) {
+		return azimuth[checkIndex (index)];
+	}
+	
+	/**
+	 * @param index the index of the satellite in this sentence.
+	 * @return the signal to noise ratio in dB-Hz or -1 if the satellite is
+	 *         not tracked.
+	 */
+	public int getSignalToNoiseRatio (int index) {
+		return signalToNoiseRatio[checkIndex (index)];
+	}
+	
+	/**
+	 * @param index the index of a satellite in this sentence.
+	 * @return the index.
+	 */
+	private int checkIndex (int index) {
+		if (index < 0 || index >= numberOfSatellites)
+			throw new IndexOutOfBoundsException ("Invalid satellite index " + index);
+		return index;
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * @(#) HdtSentence.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class holds a decoded HDT sentence, i.e. the true heading, e.g. of a
+ * dual antenna GPS receiver.
+ * <p>
+ * <code>$GPHDT,274.07,T*03</code>
+ * 
+ * @author Clemens Krainer
+ */
+public class HdtSentence extends Nmea0183Sentence
+{
+	private double heading;
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#getFormatter()
+	 */
+	public String getFormatter () {
+		return "HDT";
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#decodeFields(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Parser)
+	 */
+	protected void decodeFields (Nmea0183Parser parser) {
+		heading = parser.equals (2, 'T') ? parser.getDouble (1) : Double.NaN;
+	}
+	
+	/**
+	 * @return the true heading in degrees or <code>Double.NaN</code> if not
+	 *         available.
+	 */
+	public double getHeading () {
+		return heading;
+	}
+}
@@ -20,8 +20,6 @@
  */
 package at.uni_salzburg.cs.ckgroup.nmea;
 
-import at.uni_salzburg.cs.ckgroup.util.StringUtils;
-
 /**
  * This class implements manipulation functionality for NMEA 0183 messages.
  * 
@@ -33,6 +31,22 @@ public class Nmea0183Message
 	 * The NMEA 0183 message as a byte array.
 	 */
 	private byte[] message;
+	
+	/**
+	 * The parser of the current thread. Each thread reuses its parser for all
+	 * messages it checks, so that checking a message does not allocate.
+	 */
+	private static final ThreadLocal<Nmea0183Parser> parser = new ThreadLocal<Nmea0183Parser> () {
+		protected Nmea0183Parser initialValue () {
+			return new Nmea0183Parser ();
+		}
+	};
+	
+	/**
+	 * The tag of the GPS receiver this message originates from, or null if
+	 * the message has not been tagged.
+	 */
+	private String source;
 
 	/**
 	 * The NMEA 0183 message prefix.
@@ -44,6 +58,21 @@ public class Nmea0183Message
 	 */
 	public final static byte[] MESSAGE_POSTFIX = "\r\n".getBytes ();
 	
+	/**
+	 * The prefix of GGA messages.
+	 */
+	private final static byte[] GGA_PREFIX = "$GPGGA,".getBytes ();
+	
+	/**
+	 * The prefix of RMC messages.
+	 */
+	private final static byte[] RMC_PREFIX = "$GPRMC,".getBytes ();
+	
+	/**
+	 * The prefix of VTG messages.
+	 */
+	private final static byte[] VTG_PREFIX = "$GPVTG,".getBytes ();
+	
 	/**
 	 * Construct a NMEA 0183 message.
 	 * 
@@ -67,14 +96,27 @@ public class Nmea0183Message
 	 */
 	public Nmea0183Message (byte[] message, int ofs, int len) throws Nmea0183MalformedMessageException {
 		byte[] b = new byte[len];
-		
-		for (int k=0; k < len; k++)
-			b[k] = message[ofs+k];
-		
+		System.arraycopy (message, ofs, b, 0, len);
 		this.message = b;
 		verify ();
 	}
 	
+	/**
+	 * Construct a NMEA 0183 message tagged with the GPS receiver it
+	 * originates from.
+	 * 
+	 * @param message the NMEA 0183 message as a byte array
+	 * @param ofs the offset in the byte array
+	 * @param len the length of the message
+	 * @param source the tag of the GPS receiver, e.g. "rover" or "base"
+	 * @throws Nmea0183MalformedMessageException thrown if the message is no
+	 *         valid NMEA 0183 message
+	 */
+	public Nmea0183Message (byte[] message, int ofs, int len, String source) throws Nmea0183MalformedMessageException {
+		this (message, ofs, len);
+		this.source = source;
+	}
+	
 	/**
 	 * Verify the NMEA 0184 message.
 	 * 
@@ -149,7 +191,7 @@ public class Nmea0183Message
 	 * @return true if the message starts with "$GPGGA,", false otherwise.
 	 */
 	public boolean isAGgaMessage () {
-		return startsWith("$GPGGA,".getBytes ());
+		return startsWith(GGA_PREFIX);
 	}
 	
 	/**
@@ -158,28 +200,7 @@ public class Nmea0183Message
 	 * @return true if the message starts with "$GPGGA," and has valid content, false otherwise.
 	 */
 	public boolean isAValidGgaMessage () {
-
-		if (!isAGgaMessage ())
-			return false;
-		
-//		String[] fields = (new String (message)).split (",");
-		String[] fields = StringUtils.splitOnCharAndTrim(',',new String (message));
-		
-		// LEA-4H:
-		// $GPGGA,003514.00,4759.42998,N,01256.21471,E,1,08,1.17,447.1,M,46.6,M,,*52
-		// $GPGGA,193912.00,          , ,           , ,0,00,99.99,    , ,    , ,,*67
-		// AsteRx1:
-		// $GPGGA,         ,          , ,           , ,0,00,     ,    ,M,    ,M,,*66
-		
-		if (fields[ 2].equals ("")
-		 || fields[ 3].equals ("")
-		 || fields[ 4].equals ("")
-		 || fields[ 5].equals ("")
-		 || fields[ 9].equals ("")
-		 || fields[11].equals ("")
-		 ) return false;
-		
-		return true;
+		return isAGgaMessage () && getParser ().isValidGga ();
 	}
 
 	/**
@@ -188,7 +209,7 @@ public class Nmea0183Message
 	 * @return true if the message starts with "$GPRMC,", false otherwise.
 	 */
 	public boolean isARmcMessage () {
-		return startsWith("$GPRMC,".getBytes ());
+		return startsWith(RMC_PREFIX);
 	}
 	
 	/**
@@ -197,28 +218,7 @@ public class Nmea0183Message
 	 * @return true if the message starts with "$GPRMC," and has valid content, false otherwise.
 	 */
 	public boolean isAValidRmcMessage () {
-
-		if (!isARmcMessage ())
-			return false;
-		
-//		String[] fields = (new String (message)).split (",");
-		String[] fields = StringUtils.splitOnCharAndTrim(',',new String (message));
-		
-		/* LEA-4H:
-		 * $GPRMC,215136.00,A,4759.43142,N,01256.20407,E,0.586,345.60,150407,,,A*6A
-		 * $GPRMC,174646.00,V,,,,,,,061007,,,N*7B
-		 *
-		 * AsteRx1:
-		 * $GPRMC,133736.00,A,4759.42641081,N,01256.20282520,E,0.1,15.1,161207,,,D*61
-		 * $GPRMC,,V,,,,,,,,,,N*53
-		 */
-		
-		if (fields[ 2].equals ("V")
-		 || fields[ 1].equals ("")
-		 || fields[ 3].equals ("")
-		 ) return false;
-		
-		return true;
+		return isARmcMessage () && getParser ().isValidRmc ();
 	}
 	
 	/**
@@ -227,7 +227,7 @@ public class Nmea0183Message
 	 * @return true if the message starts with "$GPVTG,", false otherwise.
 	 */
 	public boolean isAVtgMessage () {
-		return startsWith("$GPVTG,".getBytes ());
+		return startsWith(VTG_PREFIX);
 	}
 	
 	/**
@@ -236,28 +236,20 @@ public class Nmea0183Message
 	 * @return true if the message starts with "$GPVTG," and has valid content, false otherwise.
 	 */
 	public boolean isAValidVtgMessage () {
-
-		if (!isAVtgMessage ())
-			return false;
-		
-//		String[] fields = (new String (message)).split (",");
-		String[] fields = StringUtils.splitOnCharAndTrim(',',new String (message));
-		
-		/* LEA-4H:
-		 * $GPVTG,316.66,T,,M,0.797,N,1.478,K,A*3A
-		 * $GPVTG,,,,,,,,,N*30
-		 *
-		 * AsteRx1:
-		 * $GPVTG,353.68,T,,M,0.366,N,0.678,K,A*3C
-		 * $GPVTG,,,,,,,,,N*30
-		 */
-		
-		if (!fields[ 2].equals ("T")
-		 || !fields[ 4].equals ("M")
-		 || !fields[ 6].equals ("N")
-		 ) return false;
-		
-		return true;
+		return isAVtgMessage () && getParser ().isValidVtg ();
+	}
+	
+	/**
+	 * Parse this message with the parser of the current thread and return the
+	 * parser. The parser is reused for the next message the current thread
+	 * parses, so its field offsets are valid only until then.
+	 * 
+	 * @return the parser holding the field offsets of this message.
+	 */
+	public Nmea0183Parser getParser () {
+		Nmea0183Parser p = parser.get ();
+		p.parse (message);
+		return p;
 	}
 	
 	/**
@@ -269,6 +261,15 @@ public class Nmea0183Message
 		return message;
 	}
 	
+	/**
+	 * Return the tag of the GPS receiver this message originates from.
+	 * 
+	 * @return the tag or null if the message has not been tagged.
+	 */
+	public String getSource () {
+		return source;
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
@@ -0,0 +1,589 @@
+/*
+ * @(#) Nmea0183Parser.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class implements a streaming parser for NMEA 0183 sentences. It scans
+ * a sentence once, verifies the checksum and records the offsets of the
+ * fields. The typed accessors convert the fields directly from the bytes of
+ * the sentence, so that neither <code>String</code> objects nor arrays are
+ * created per sentence. A parser instance may be reused for any number of
+ * sentences, but it is not thread safe.
+ * <p>
+ * The field numbering follows the NMEA 0183 sentence, i.e. field 0 is the
+ * address field, e.g. <code>GPGGA</code>, field 1 is the first data field,
+ * and so on. Leading and trailing blanks of the fields are ignored.
+ * 
+ * @author Clemens Krainer
+ */
+public class Nmea0183Parser
+{
+	/**
+	 * The maximum number of fields of a sentence. Further fields are ignored.
+	 */
+	public static final int MAXIMUM_NUMBER_OF_FIELDS = 64;
+	
+	/**
+	 * The sentence types known to the typed accessors.
+	 */
+	public static final int SENTENCE_UNKNOWN = 0;
+	public static final int SENTENCE_GGA = 1;
+	public static final int SENTENCE_RMC = 2;
+	public static final int SENTENCE_VTG = 3;
+	
+	/**
+	 * Powers of ten that are exactly representable as double values.
+	 */
+	private static final double[] POWERS_OF_TEN = {
+		1E0, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11,
+		1E12, 1E13, 1E14, 1E15, 1E16, 1E17, 1E18, 1E19, 1E20, 1E21, 1E22 };
+	
+	/**
+	 * The largest digits of a time of the format <code>hhmmss</code>.
+	 */
+	private static final int[] TIME_DIGIT_LIMITS = { 2, 9, 5, 9, 5, 9 };
+	
+	/**
+	 * The largest mantissa a double value holds without rounding.
+	 */
+	private static final long MAXIMUM_EXACT_MANTISSA = 1L << 53;
+	
+	/**
+	 * The buffer containing the current sentence.
+	 */
+	private byte[] buffer;
+	
+	/**
+	 * The offsets of the first character of the fields in the buffer.
+	 */
+	private int[] fieldStart = new int[MAXIMUM_NUMBER_OF_FIELDS];
+	
+	/**
+	 * The offsets after the last character of the fields in the buffer.
+	 */
+	private int[] fieldEnd = new int[MAXIMUM_NUMBER_OF_FIELDS];
+	
+	/**
+	 * The number of fields of the current sentence.
+	 */
+	private int numberOfFields = 0;
+	
+	/**
+	 * The type of the current sentence.
+	 */
+	private int sentence = SENTENCE_UNKNOWN;
+	
+	/**
+	 * Parse a NMEA 0183 sentence.
+	 * 
+	 * @param message the sentence as a byte array.
+	 * @return true if the sentence is well formed, false otherwise.
+	 */
+	public boolean parse (byte[] message) {
+		return parse (message, 0, message.length);
+	}
+	
+	/**
+	 * Parse a NMEA 0183 sentence. The sentence starts with a '$' and ends
+	 * with a '*' followed by two hexadecimal checksum digits. Trailing
+	 * characters, e.g. "\r\n", are ignored. The parser keeps a reference to
+	 * the buffer, so the buffer must not be modified while accessing the
+	 * fields.
+	 * 
+	 * @param message the byte array containing the sentence.
+	 * @param ofs the offset of the sentence in the byte array.
+	 * @param len the length of the sentence.
+	 * @return true if the sentence is well formed, false otherwise.
+	 */
+	public boolean parse (byte[] message, int ofs, int len) {
+		buffer = message;
+		numberOfFields = 0;
+		sentence = SENTENCE_UNKNOWN;
+		
+		int end = ofs + len;
+		if (len < 4 || message[ofs] != '$')
+			return false;
+		
+		int checkSum = 0;
+		int start = ofs + 1;
+		int k = start;
+		for (; k < end; k++) {
+			byte ch = message[k];
+			if (ch == '*')
+				break;
+			checkSum ^= ch;
+			if (ch == ',') {
+				addField (start, k);
+				start = k + 1;
+			}
+		}
+		
+		if (k + 2 >= end || hexValue (message[k+1]) * 16 + hexValue (message[k+2]) != checkSum) {
+			numberOfFields = 0;
+			return false;
+		}
+		
+		addField (start, k);
+		sentence = sentenceType ();
+		return true;
+	}
+	
+	/**
+	 * Record a field, excluding leading and trailing blanks.
+	 * 
+	 * @param start the offset of the first character of the field.
+	 * @param end the offset after the last character of the field.
+	 */
+	private void addField (int start, int end) {
+		if (numberOfFields >= MAXIMUM_NUMBER_OF_FIELDS)
+			return;
+		
+		while (start < end && buffer[start] == ' ')
+			++start;
+		while (end > start && buffer[end-1] == ' ')
+			--end;
+		
+		fieldStart[numberOfFields] = start;
+		fieldEnd[numberOfFields] = end;
+		++numberOfFields;
+	}
+	
+	/**
+	 * @param ch a character.
+	 * @return the value of the hexadecimal digit or a negative value large
+	 *         enough to spoil the checksum if the character is no hexadecimal
+	 *         digit.
+	 */
+	private static int hexValue (byte ch) {
+		if (ch >= '0' && ch <= '9')
+			return ch - '0';
+		if (ch >= 'A' && ch <= 'F')
+			return ch - 'A' + 10;
+		if (ch >= 'a' && ch <= 'f')
+			return ch - 'a' + 10;
+		return -256;
+	}
+	
+	/**
+	 * @return the type of the current sentence, derived from the last three
+	 *         characters of the address field.
+	 */
+	private int sentenceType () {
+		if (getFieldLength (0) != 5)
+			return SENTENCE_UNKNOWN;
+		
+		int k = fieldStart[0] + 2;
+		if (buffer[k] == 'G' && buffer[k+1] == 'G' && buffer[k+2] == 'A')
+			return SENTENCE_GGA;
+		if (buffer[k] == 'R' && buffer[k+1] == 'M' && buffer[k+2] == 'C')
+			return SENTENCE_RMC;
+		if (buffer[k] == 'V' && buffer[k+1] == 'T' && buffer[k+2] == 'G')
+			return SENTENCE_VTG;
+		return SENTENCE_UNKNOWN;
+	}
+	
+	/**
+	 * The number of possible sentence formatters, i.e. three upper case
+	 * letters.
+	 */
+	public static final int NUMBER_OF_FORMATTERS = 26 * 26 * 26;
+	
+	/**
+	 * Convert a sentence formatter, e.g. "GGA", to an index suitable for
+	 * table lookups.
+	 * 
+	 * @param formatter the sentence formatter.
+	 * @return the index or -1 if the formatter does not consist of three upper
+	 *         case letters.
+	 */
+	public static int formatterIndex (String formatter) {
+		if (formatter.length () != 3)
+			return -1;
+		return formatterIndex ((byte) formatter.charAt (0), (byte) formatter.charAt (1), (byte) formatter.charAt (2));
+	}
+	
+	/**
+	 * @param a the first letter of the sentence formatter.
+	 * @param b the second letter of the sentence formatter.
+	 * @param c the third letter of the sentence formatter.
+	 * @return the index or -1 if the letters are no upper case letters.
+	 */
+	private static int formatterIndex (byte a, byte b, byte c) {
+		if (a < 'A' || a > 'Z' || b < 'A' || b > 'Z' || c < 'A' || c > 'Z')
+			return -1;
+		return ((a - 'A') * 26 + (b - 'A')) * 26 + (c - 'A');
+	}
+	
+	/**
+	 * @return the index of the sentence formatter of the current sentence,
+	 *         i.e. the last three characters of the address field, or -1 if
+	 *         there is no valid formatter.
+	 */
+	public int getFormatterIndex () {
+		if (getFieldLength (0) != 5)
+			return -1;
+		int k = fieldStart[0] + 2;
+		return formatterIndex (buffer[k], buffer[k+1], buffer[k+2]);
+	}
+	
+	/**
+	 * @return the type of the current sentence, e.g. <code>SENTENCE_GGA</code>.
+	 */
+	public int getSentence () {
+		return sentence;
+	}
+	
+	/**
+	 * @return the number of fields of the current sentence, including the
+	 *         address field.
+	 */
+	public int getNumberOfFields () {
+		return numberOfFields;
+	}
+	
+	/**
+	 * @param field the field number.
+	 * @return the number of characters of the field or zero if the field does
+	 *         not exist.
+	 */
+	public int getFieldLength (int field) {
+		return field < 0 || field >= numberOfFields ? 0 : fieldEnd[field] - fieldStart[field];
+	}
+	
+	/**
+	 * @param field the field number.
+	 * @return true if the field is empty or does not exist.
+	 */
+	public boolean isEmpty (int field) {
+		return getFieldLength (field) == 0;
+	}
+	
+	/**
+	 * @param field the field number.
+	 * @return the first character of the field or zero if the field is empty.
+	 */
+	public char getChar (int field) {
+		return isEmpty (field) ? 0 : (char) buffer[fieldStart[field]];
+	}
+	
+	/**
+	 * @param field the field number.
+	 * @param ch the character to compare with.
+	 * @return true if the field consists of exactly the given character.
+	 */
+	public boolean equals (int field, char ch) {
+		return getFieldLength (field) == 1 && buffer[fieldStart[field]] == ch;
+	}
+	
+	/**
+	 * @param field the field number.
+	 * @return the field as a <code>String</code>. This method allocates and
+	 *         is intended for fields without a typed accessor only.
+	 */
+	public String getString (int field) {
+		return isEmpty (field) ? "" : new String (buffer, fieldStart[field], getFieldLength (field));
+	}
+	
+	/**
+	 * Convert a field to an integer value.
+	 * 
+	 * @param field the field number.
+	 * @param defaultValue the value to return for empty or malformed fields.
+	 * @return the value of the field.
+	 */
+	public int getInt (int field, int defaultValue) {
+		int length = getFieldLength (field);
+		if (length == 0 || length > 9)
+			return defaultValue;
+		
+		int k = fieldStart[field];
+		int end = fieldEnd[field];
+		boolean negative = buffer[k] == '-';
+		if (negative || buffer[k] == '+')
+			if (++k == end)
+				return defaultValue;
+		
+		int value = 0;
+		for (; k < end; k++) {
+			int digit = buffer[k] - '0';
+			if (digit < 0 || digit > 9)
+				return defaultValue;
+			value = 10 * value + digit;
+		}
+		return negative ? -value : value;
+	}
+	
+	/**
+	 * Convert a field to a double value.
+	 * 
+	 * @param field the field number.
+	 * @return the value of the field or <code>Double.NaN</code> for empty or
+	 *         malformed fields.
+	 */
+	public double getDouble (int field) {
+		if (isEmpty (field))
+			return Double.NaN;
+		
+		int k = fieldStart[field];
+		int end = fieldEnd[field];
+		boolean negative = buffer[k] == '-';
+		if (negative || buffer[k] == '+')
+			++k;
+		
+		long mantissa = 0;
+		int digits = 0;
+		int decimals = 0;
+		boolean point = false;
+		for (; k < end; k++) {
+			byte ch = buffer[k];
+			if (ch >= '0' && ch <= '9') {
+				mantissa = 10 * mantissa + (ch - '0');
+				if (mantissa > MAXIMUM_EXACT_MANTISSA)
+					return parseDoubleSlowly (field);
+				++digits;
+				if (point)
+					++decimals;
+			} else if (ch == '.' && !point)
+				point = true;
+			else
+				return Double.NaN;
+		}
+		
+		if (digits == 0)
+			return Double.NaN;
+		
+		if (decimals >= POWERS_OF_TEN.length)
+			return parseDoubleSlowly (field);
+		
+		double value = mantissa / POWERS_OF_TEN[decimals];
+		return negative ? -value : value;
+	}
+	
+	/**
+	 * Convert a field to a double value by means of
+	 * <code>Double.parseDouble()</code>. This is the fall back for numbers
+	 * having more significant digits than a double value holds.
+	 * 
+	 * @param field the field number.
+	 * @return the value of the field or <code>Double.NaN</code> for malformed
+	 *         fields.
+	 */
+	private double parseDoubleSlowly (int field) {
+		try {
+			return Double.parseDouble (getString (field));
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+	
+	/**
+	 * Convert a UTC time field of the format <code>hhmmss.sss</code> to
+	 * milliseconds since midnight. The fraction of seconds is optional and may
+	 * have any number of digits.
+	 * 
+	 * @param field the field number.
+	 * @return the time of day in milliseconds or -1 if the field is empty or
+	 *         malformed.
+	 */
+	public int getTimeOfDay (int field) {
+		int length = getFieldLength (field);
+		if (length < 6 || (length > 6 && buffer[fieldStart[field] + 6] != '.'))
+			return -1;
+		
+		int k = fieldStart[field];
+		int end = fieldEnd[field];
+		int value = 0;
+		for (int j=0; j < 6; j++) {
+			int digit = buffer[k+j] - '0';
+			if (digit < 0 || digit > TIME_DIGIT_LIMITS[j])
+				return -1;
+			value = 10 * value + digit;
+		}
+		
+		int hours = value / 10000;
+		int minutes = (value / 100) % 100;
+		int seconds = value % 100;
+		if (hours > 23)
+			return -1;
+		
+		int millis = 0;
+		int scale = 100;
+		for (k += 7; k < end; k++) {
+			int digit = buffer[k] - '0';
+			if (digit < 0 || digit > 9)
+				return -1;
+			millis += scale * digit;
+			scale /= 10;
+		}
+		
+		return ((hours * 60 + minutes) * 60 + seconds) * 1000 + millis;
+	}
+	
+	/**
+	 * Convert a NMEA 0183 angle to degrees. A value of e.g. 4712.1387 is an
+	 * angle of 47 degrees and 12.1387 minutes and will be converted to
+	 * 47.20231167 degrees.
+	 * 
+	 * @param value the NMEA 0183 angle.
+	 * @return the angle in degrees.
+	 */
+	public static double toDegrees (double value) {
+		double degrees = (int)(value/100);
+		double seconds = value/100 - degrees;
+		return degrees + seconds / 0.6;
+	}
+	
+	/**
+	 * Convert an angle and its hemisphere field to degrees.
+	 * 
+	 * @param field the field number of the angle.
+	 * @param negativeHemisphere the hemisphere character resulting in a
+	 *        negative angle, i.e. 'S' or 'W'.
+	 * @return the angle in degrees or <code>Double.NaN</code> if the field is
+	 *         empty or malformed.
+	 */
+	public double getAngle (int field, char negativeHemisphere) {
+		double angle = toDegrees (getDouble (field));
+		return equals (field+1, negativeHemisphere) ? -angle : angle;
+	}
+	
+	/**
+	 * @return the latitude in degrees of a GGA or RMC sentence, negative for
+	 *         the southern hemisphere, or <code>Double.NaN</code> if not
+	 *         available.
+	 */
+	public double getLatitude () {
+		switch (sentence) {
+			case SENTENCE_GGA: return getAngle (2, 'S');
+			case SENTENCE_RMC: return getAngle (3, 'S');
+			default: return Double.NaN;
+		}
+	}
+	
+	/**
+	 * @return the longitude in degrees of a GGA or RMC sentence, negative for
+	 *         the western hemisphere, or <code>Double.NaN</code> if not
+	 *         available.
+	 */
+	public double getLongitude () {
+		switch (sentence) {
+			case SENTENCE_GGA: return getAngle (4, 'W');
+			case SENTENCE_RMC: return getAngle (5, 'W');
+			default: return Double.NaN;
+		}
+	}
+	
+	/**
+	 * @return the altitude above mean sea level in meters of a GGA sentence
+	 *         or <code>Double.NaN</code> if not available.
+	 */
+	public double getAltitude () {
+		return sentence == SENTENCE_GGA ? getDouble (9) : Double.NaN;
+	}
+	
+	/**
+	 * @return the fix quality of a GGA sentence, e.g. 1 for GPS and 2 for
+	 *         DGPS, or -1 if not available.
+	 */
+	public int getFixQuality () {
+		return sentence == SENTENCE_GGA ? getInt (6, -1) : -1;
+	}
+	
+	/**
+	 * @return the number of satellites in use of a GGA sentence or -1 if not
+	 *         available.
+	 */
+	public int getNumberOfSatellites () {
+		return sentence == SENTENCE_GGA ? getInt (7, -1) : -1;
+	}
+	
+	/**
+	 * @return the horizontal dilution of precision of a GGA sentence or
+	 *         <code>Double.NaN</code> if not available.
+	 */
+	public double getHorizontalDilution () {
+		return sentence == SENTENCE_GGA ? getDouble (8) : Double.NaN;
+	}
+	
+	/**
+	 * @return the speed over ground in knots of a RMC or VTG sentence or
+	 *         <code>Double.NaN</code> if not available.
+	 */
+	public double getSpeedKnots () {
+		switch (sentence) {
+			case SENTENCE_RMC: return getDouble (7);
+			case SENTENCE_VTG: return getDouble (5);
+			default: return Double.NaN;
+		}
+	}
+	
+	/**
+	 * @return the true course over ground in degrees of a RMC or VTG sentence
+	 *         or <code>Double.NaN</code> if not available.
+	 */
+	public double getCourseOverGround () {
+		switch (sentence) {
+			case SENTENCE_RMC: return getDouble (8);
+			case SENTENCE_VTG: return getDouble (1);
+			default: return Double.NaN;
+		}
+	}
+	
+	/**
+	 * Check if the current sentence is a GGA sentence containing a position.
+	 * 
+	 * @return true if the position and altitude fields are not empty.
+	 */
+	public boolean isValidGga () {
+		// LEA-4H:
+		// $GPGGA,003514.00,4759.42998,N,01256.21471,E,1,08,1.17,447.1,M,46.6,M,,*52
+		// $GPGGA,193912.00,          , ,           , ,0,00,99.99,    , ,    , ,,*67
+		// AsteRx1:
+		// $GPGGA,         ,          , ,           , ,0,00,     ,    ,M,    ,M,,*66
+		return sentence == SENTENCE_GGA
+			&& !isEmpty (2) && !isEmpty (3) && !isEmpty (4) && !isEmpty (5) && !isEmpty (9) && !isEmpty (11);
+	}
+	
+	/**
+	 * Check if the current sentence is a RMC sentence containing valid data.
+	 * 
+	 * @return true if the status is not 'V' and the time and latitude fields
+	 *         are not empty.
+	 */
+	public boolean isValidRmc () {
+		// LEA-4H:
+		// $GPRMC,215136.00,A,4759.43142,N,01256.20407,E,0.586,345.60,150407,,,A*6A
+		// $GPRMC,174646.00,V,,,,,,,061007,,,N*7B
+		return sentence == SENTENCE_RMC && !equals (2, 'V') && !isEmpty (1) && !isEmpty (3);
+	}
+	
+	/**
+	 * Check if the current sentence is a VTG sentence containing valid data.
+	 * 
+	 * @return true if the unit fields contain 'T', 'M' and 'N'.
+	 */
+	public boolean isValidVtg () {
+		// LEA-4H:
+		// $GPVTG,316.66,T,,M,0.797,N,1.478,K,A*3A
+		// $GPVTG,,,,,,,,,N*30
+		return sentence == SENTENCE_VTG && equals (2, 'T') && equals (4, 'M') && equals (6, 'N');
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * @(#) Nmea0183Sentence.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class is the base of the typed NMEA 0183 sentences. A sentence object
+ * is decoded from a <code>Nmea0183Parser</code> and holds the decoded values
+ * in primitive fields. Sentence objects are reused for subsequent sentences
+ * of the same type, so listeners must copy the values they want to keep.
+ * Missing numeric values are reported as <code>Double.NaN</code> or -1,
+ * respectively.
+ * 
+ * @author Clemens Krainer
+ */
+public abstract class Nmea0183Sentence
+{
+	/**
+	 * The tag of the GPS receiver the sentence originates from.
+	 */
+	private String source;
+	
+	/**
+	 * @return the sentence formatter, e.g. "GGA".
+	 */
+	public abstract String getFormatter ();
+	
+	/**
+	 * Decode the fields of the current sentence of the parser.
+	 * 
+	 * @param parser the parser holding a sentence of this type.
+	 */
+	protected abstract void decodeFields (Nmea0183Parser parser);
+	
+	/**
+	 * Decode the current sentence of the parser.
+	 * 
+	 * @param parser the parser holding a sentence of this type.
+	 * @param source the tag of the GPS receiver the sentence originates from
+	 *        or null.
+	 */
+	public final void decode (Nmea0183Parser parser, String source) {
+		this.source = source;
+		decodeFields (parser);
+	}
+	
+	/**
+	 * @return the tag of the GPS receiver the sentence originates from or
+	 *         null if the sentence has not been tagged.
+	 */
+	public String getSource () {
+		return source;
+	}
+}
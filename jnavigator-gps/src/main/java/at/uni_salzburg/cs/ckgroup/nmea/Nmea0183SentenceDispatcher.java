@@ -0,0 +1,165 @@
+/*
+ * @(#) Nmea0183SentenceDispatcher.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class parses received NMEA 0183 messages once and dispatches them as
+ * typed sentences to the registered <code>Nmea0183SentenceListener</code>
+ * objects. The sentence types are looked up by their formatter in a table
+ * that is built at construction time, so dispatching a message requires
+ * neither string comparisons nor object allocations. A sentence is decoded
+ * only if there are listeners for its type.
+ * 
+ * @author Clemens Krainer
+ */
+public class Nmea0183SentenceDispatcher implements Nmea0183MessageListener
+{
+	/**
+	 * An entry of the dispatch table, i.e. the reused sentence object and the
+	 * listeners of a sentence type.
+	 */
+	private static class Entry
+	{
+		private Nmea0183Sentence sentence;
+		private Nmea0183SentenceListener<Nmea0183Sentence>[] listeners = newListenerArray (0);
+		
+		private Entry (Nmea0183Sentence sentence) {
+			this.sentence = sentence;
+		}
+	}
+	
+	/**
+	 * The dispatch table, indexed by <code>Nmea0183Parser.formatterIndex()</code>.
+	 */
+	private Entry[] table = new Entry[Nmea0183Parser.NUMBER_OF_FORMATTERS];
+	
+	/**
+	 * The entries of the dispatch table, one per known sentence type.
+	 */
+	private Entry[] entries = {
+		new Entry (new GgaSentence ()), new Entry (new GllSentence ()),
+		new Entry (new GsaSentence ()), new Entry (new GstSentence ()),
+		new Entry (new GsvSentence ()), new Entry (new HdtSentence ()),
+		new Entry (new RmcSentence ()), new Entry (new VtgSentence ()),
+		new Entry (new ZdaSentence ())
+	};
+	
+	/**
+	 * The parser for the received messages, reused for all messages.
+	 */
+	private Nmea0183Parser parser = new Nmea0183Parser ();
+	
+	/**
+	 * Construct a <code>Nmea0183SentenceDispatcher</code>.
+	 */
+	public Nmea0183SentenceDispatcher () {
+		for (int k=0; k < entries.length; k++)
+			table[Nmea0183Parser.formatterIndex (entries[k].sentence.getFormatter ())] = entries[k];
+	}
+	
+	/**
+	 * Add a listener for a sentence type.
+	 * 
+	 * @param sentenceType the class of the sentence type, e.g. <code>GgaSentence.class</code>.
+	 * @param listener the listener to be added.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T extends Nmea0183Sentence> void addSentenceListener (Class<T> sentenceType, Nmea0183SentenceListener<? super T> listener) {
+		Entry entry = getEntry (sentenceType);
+		Nmea0183SentenceListener<Nmea0183Sentence>[] l = newListenerArray (entry.listeners.length + 1);
+		System.arraycopy (entry.listeners, 0, l, 0, entry.listeners.length);
+		l[entry.listeners.length] = (Nmea0183SentenceListener<Nmea0183Sentence>) listener;
+		entry.listeners = l;
+	}
+	
+	/**
+	 * Remove a listener for a sentence type.
+	 * 
+	 * @param sentenceType the class of the sentence type, e.g. <code>GgaSentence.class</code>.
+	 * @param listener the listener to be removed.
+	 */
+	public synchronized <T extends Nmea0183Sentence> void removeSentenceListener (Class<T> sentenceType, Nmea0183SentenceListener<? super T> listener) {
+		Entry entry = getEntry (sentenceType);
+		for (int k=0; k < entry.listeners.length; k++) {
+			if (entry.listeners[k] != listener)
+				continue;
+			Nmea0183SentenceListener<Nmea0183Sentence>[] l = newListenerArray (entry.listeners.length - 1);
+			System.arraycopy (entry.listeners, 0, l, 0, k);
+			System.arraycopy (entry.listeners, k + 1, l, k, l.length - k);
+			entry.listeners = l;
+			return;
+		}
+	}
+	
+	/**
+	 * @param sentenceType the class of the sentence type.
+	 * @return the entry of the dispatch table.
+	 */
+	private Entry getEntry (Class<?> sentenceType) {
+		for (int k=0; k < entries.length; k++)
+			if (entries[k].sentence.getClass () == sentenceType)
+				return entries[k];
+		throw new IllegalArgumentException ("Unknown sentence type " + sentenceType.getName ());
+	}
+	
+	/**
+	 * @param length the length of the array.
+	 * @return a new array of listeners.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Nmea0183SentenceListener<Nmea0183Sentence>[] newListenerArray (int length) {
+		return new Nmea0183SentenceListener[length];
+	}
+	
+	/**
+	 * Parse a NMEA 0183 message and dispatch it to the listeners of its
+	 * sentence type.
+	 * 
+	 * @param message the message to be dispatched.
+	 * @return true if the message is well formed and of a known sentence type.
+	 */
+	public synchronized boolean dispatch (Nmea0183Message message) {
+		if (!parser.parse (message.getBytes ()))
+			return false;
+		
+		int index = parser.getFormatterIndex ();
+		Entry entry = index < 0 ? null : table[index];
+		if (entry == null)
+			return false;
+		
+		Nmea0183SentenceListener<Nmea0183Sentence>[] l = entry.listeners;
+		if (l.length == 0)
+			return true;
+		
+		entry.sentence.decode (parser, message.getSource ());
+		for (int k=0; k < l.length; k++)
+			l[k].receive (entry.sentence);
+		
+		return true;
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MessageListener#receive(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Message)
+	 */
+	public void receive (Nmea0183Message message) {
+		dispatch (message);
+	}
+}
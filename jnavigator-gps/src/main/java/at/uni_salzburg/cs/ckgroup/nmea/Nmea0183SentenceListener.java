@@ -0,0 +1,38 @@
+/*
+ * @(#) Nmea0183SentenceListener.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * The listener interface for receiving decoded NMEA 0183 sentences from a
+ * <code>Nmea0183SentenceDispatcher</code>.
+ * 
+ * @author Clemens Krainer
+ */
+public interface Nmea0183SentenceListener<T extends Nmea0183Sentence>
+{
+	/**
+	 * Receive a decoded NMEA 0183 sentence. The sentence object is reused by
+	 * the dispatcher, so it is valid only for the duration of this call.
+	 * 
+	 * @param sentence the decoded sentence.
+	 */
+	public void receive (T sentence);
+}
@@ -0,0 +1,151 @@
+/*
+ * @(#) RmcSentence.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class holds a decoded RMC sentence, i.e. the recommended minimum
+ * specific GNSS data.
+ * <p>
+ * <code>$GPRMC,215136.00,A,4759.43142,N,01256.20407,E,0.586,345.60,150407,,,A*6A</code>
+ * 
+ * @author Clemens Krainer
+ */
+public class RmcSentence extends Nmea0183Sentence
+{
+	private int timeOfDay;
+	private char status;
+	private double latitude;
+	private double longitude;
+	private double speedKnots;
+	private double courseOverGround;
+	private int day;
+	private int month;
+	private int year;
+	private double magneticVariation;
+	private boolean valid;
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#getFormatter()
+	 */
+	public String getFormatter () {
+		return "RMC";
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#decodeFields(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Parser)
+	 */
+	protected void decodeFields (Nmea0183Parser parser) {
+		timeOfDay = parser.getTimeOfDay (1);
+		status = parser.getChar (2);
+		latitude = parser.getAngle (3, 'S');
+		longitude = parser.getAngle (5, 'W');
+		speedKnots = parser.getDouble (7);
+		courseOverGround = parser.getDouble (8);
+		
+		int date = parser.getFieldLength (9) == 6 ? parser.getInt (9, -1) : -1;
+		day = date < 0 ? -1 : date / 10000;
+		month = date < 0 ? -1 : (date / 100) % 100;
+		year = date < 0 ? -1 : 2000 + date % 100;
+		
+		magneticVariation = parser.getDouble (10);
+		if (parser.equals (11, 'W'))
+			magneticVariation = -magneticVariation;
+		valid = parser.isValidRmc ();
+	}
+	
+	/**
+	 * @return the UTC time of the fix in milliseconds since midnight or -1.
+	 */
+	public int getTimeOfDay () {
+		return timeOfDay;
+	}
+	
+	/**
+	 * @return the status, i.e. 'A' for valid data and 'V' for a warning.
+	 */
+	public char getStatus () {
+		return status;
+	}
+	
+	/**
+	 * @return the latitude in degrees, negative for the southern hemisphere.
+	 */
+	public double getLatitude () {
+		return latitude;
+	}
+	
+	/**
+	 * @return the longitude in degrees, negative for the western hemisphere.
+	 */
+	public double getLongitude () {
+		return longitude;
+	}
+	
+	/**
+	 * @return the speed over ground in knots.
+	 */
+	public double getSpeedKnots () {
+		return speedKnots;
+	}
+	
+	/**
+	 * @return the true course over ground in degrees.
+	 */
+	public double getCourseOverGround () {
+		return courseOverGround;
+	}
+	
+	/**
+	 * @return the UTC day of month or -1.
+	 */
+	public int getDay () {
+		return day;
+	}
+	
+	/**
+	 * @return the UTC month, i.e. 1 to 12, or -1.
+	 */
+	public int getMonth () {
+		return month;
+	}
+	
+	/**
+	 * @return the UTC year or -1.
+	 */
+	public int getYear () {
+		return year;
+	}
+	
+	/**
+	 * @return the magnetic variation in degrees, negative for west.
+	 */
+	public double getMagneticVariation () {
+		return magneticVariation;
+	}
+	
+	/**
+	 * @return true if the status is not 'V' and the sentence contains a time
+	 *         and a position.
+	 */
+	public boolean isValid () {
+		return valid;
+	}
+}
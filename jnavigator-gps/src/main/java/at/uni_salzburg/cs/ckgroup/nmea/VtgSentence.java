@@ -0,0 +1,101 @@
+/*
+ * @(#) VtgSentence.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class holds a decoded VTG sentence, i.e. the course and speed over
+ * ground.
+ * <p>
+ * <code>$GPVTG,316.66,T,,M,0.797,N,1.478,K,A*3A</code>
+ * 
+ * @author Clemens Krainer
+ */
+public class VtgSentence extends Nmea0183Sentence
+{
+	private double courseOverGround;
+	private double magneticCourseOverGround;
+	private double speedKnots;
+	private double speedKmh;
+	private char mode;
+	private boolean valid;
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#getFormatter()
+	 */
+	public String getFormatter () {
+		return "VTG";
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#decodeFields(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Parser)
+	 */
+	protected void decodeFields (Nmea0183Parser parser) {
+		courseOverGround = parser.getDouble (1);
+		magneticCourseOverGround = parser.getDouble (3);
+		speedKnots = parser.getDouble (5);
+		speedKmh = parser.getDouble (7);
+		mode = parser.getChar (9);
+		valid = parser.isValidVtg ();
+	}
+	
+	/**
+	 * @return the true course over ground in degrees.
+	 */
+	public double getCourseOverGround () {
+		return courseOverGround;
+	}
+	
+	/**
+	 * @return the magnetic course over ground in degrees.
+	 */
+	public double getMagneticCourseOverGround () {
+		return magneticCourseOverGround;
+	}
+	
+	/**
+	 * @return the speed over ground in knots.
+	 */
+	public double getSpeedKnots () {
+		return speedKnots;
+	}
+	
+	/**
+	 * @return the speed over ground in kilometers per hour.
+	 */
+	public double getSpeedKmh () {
+		return speedKmh;
+	}
+	
+	/**
+	 * @return the mode indicator, e.g. 'A' for autonomous or 'D' for
+	 *         differential, or zero if not available.
+	 */
+	public char getMode () {
+		return mode;
+	}
+	
+	/**
+	 * @return true if the unit fields are set properly.
+	 */
+	public boolean isValid () {
+		return valid;
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * @(#) ZdaSentence.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+/**
+ * This class holds a decoded ZDA sentence, i.e. the UTC date and time.
+ * <p>
+ * <code>$GPZDA,163908.068,15,02,2008,00,00*51</code>
+ * 
+ * @author Clemens Krainer
+ */
+public class ZdaSentence extends Nmea0183Sentence
+{
+	private int timeOfDay;
+	private int day;
+	private int month;
+	private int year;
+	private int localZoneHours;
+	private int localZoneMinutes;
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#getFormatter()
+	 */
+	public String getFormatter () {
+		return "ZDA";
+	}
+	
+	/* (non-Javadoc)
+	 * @see at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence#decodeFields(at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Parser)
+	 */
+	protected void decodeFields (Nmea0183Parser parser) {
+		timeOfDay = parser.getTimeOfDay (1);
+		day = parser.getInt (2, -1);
+		month = parser.getInt (3, -1);
+		year = parser.getInt (4, -1);
+		localZoneHours = parser.getInt (5, 0);
+		localZoneMinutes = parser.getInt (6, 0);
+	}
+	
+	/**
+	 * @return the UTC time in milliseconds since midnight or -1.
+	 */
+	public int getTimeOfDay () {
+		return timeOfDay;
+	}
+	
+	/**
+	 * @return the UTC day of month or -1.
+	 */
+	public int getDay () {
+		return day;
+	}
+	
+	/**
+	 * @return the UTC month, i.e. 1 to 12, or -1.
+	 */
+	public int getMonth () {
+		return month;
+	}
+	
+	/**
+	 * @return the UTC year or -1.
+	 */
+	public int getYear () {
+		return year;
+	}
+	
+	/**
+	 * @return the hours of the local time zone offset.
+	 */
+	public int getLocalZoneHours () {
+		return localZoneHours;
+	}
+	
+	/**
+	 * @return the minutes of the local time zone offset.
+	 */
+	public int getLocalZoneMinutes () {
+		return localZoneMinutes;
+	}
+	
+	/**
+	 * @return true if the sentence contains a valid date.
+	 */
+	public boolean isValid () {
+		return day >= 1 && day <= 31 && month >= 1 && month <= 12 && year >= 0;
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * @(#) GpsPositionPredictorTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.gps;
+
+import junit.framework.TestCase;
+import at.uni_salzburg.cs.ckgroup.course.IGeodeticSystem;
+import at.uni_salzburg.cs.ckgroup.course.IPositionFixProvider;
+import at.uni_salzburg.cs.ckgroup.course.PolarCoordinate;
+import at.uni_salzburg.cs.ckgroup.course.PositionFix;
+import at.uni_salzburg.cs.ckgroup.course.WGS84;
+
+/**
+ * This class verifies the implementation of the GpsPositionPredictor class.
+ * 
+ * @author Clemens Krainer
+ */
+public class GpsPositionPredictorTestCase extends TestCase
+{
+	private static final long MILLIS = 1000000;
+	
+	private FixProvider provider;
+	private GpsPositionPredictor predictor;
+	
+	public void setUp () {
+		provider = new FixProvider ();
+		predictor = new GpsPositionPredictor (provider, 1000, 0);
+	}
+	
+	/**
+	 * Verify the extrapolation along the course over ground and the limitation
+	 * of the extrapolated distance for stale fixes, which still report their
+	 * real age.
+	 */
+	public void testCase01 () {
+		assertNull (predictor.predict (0));
+		
+		long t = 5000 * MILLIS;
+		PolarCoordinate start = new PolarCoordinate (47.8, 13.0, 440);
+		provider.fix = new PositionFix (start, 36, 90, 3600000, t, 1.3, 2);
+		
+		PredictedPositionFix p = predictor.predict (t + 500 * MILLIS);
+		PolarCoordinate expected = provider.getGeodeticSystem ().walk (start, 0, 5, 0);
+		assertEquals (500, p.getPredictionAge (), 1E-9);
+		assertEquals (expected.latitude, p.getPosition ().latitude, 1E-9);
+		assertEquals (expected.longitude, p.getPosition ().longitude, 1E-9);
+		assertEquals (440, p.getPosition ().altitude, 1E-9);
+		assertEquals (3600500, p.getTimeOfDay ());
+		assertEquals (t + 500 * MILLIS, p.getReceiveTime ());
+		assertEquals (36, p.getSpeedOverGround (), 1E-9);
+		assertEquals (1.3, p.getHorizontalDilution (), 1E-9);
+		assertSame (provider.fix, p.getReceivedFix ());
+		
+		p = predictor.predict (t + 5000 * MILLIS);
+		expected = provider.getGeodeticSystem ().walk (start, 0, 10, 0);
+		assertEquals (5000, p.getPredictionAge (), 1E-9);
+		assertEquals (expected.latitude, p.getPosition ().latitude, 1E-9);
+		assertEquals (expected.longitude, p.getPosition ().longitude, 1E-9);
+		assertEquals (3605000, p.getTimeOfDay ());
+		assertEquals (t + 5000 * MILLIS, p.getReceiveTime ());
+		
+		provider.fix = new PositionFix (start, 36, Double.NaN, 3600000, t, 1.3, 2);
+		p = predictor.predict (t + 500 * MILLIS);
+		assertSame (start, p.getPosition ());
+		
+		provider.fix = new PositionFix (null, 36, 90, 3600000, t, 1.3, 2);
+		assertNull (predictor.getCurrentPosition ());
+	}
+	
+	/**
+	 * Verify the estimation of the receiver latency from the UTC time of the
+	 * fixes, including the wrap around at midnight.
+	 */
+	public void testCase02 () {
+		long t = 5000 * MILLIS;
+		PolarCoordinate start = new PolarCoordinate (47.8, 13.0, 440);
+		
+		provider.fix = new PositionFix (start, 0, 0, 86399500, t, 1.3, 2);
+		assertEquals (100, predictor.predict (t + 100 * MILLIS).getPredictionAge (), 1E-9);
+		
+		provider.fix = new PositionFix (start, 0, 0, 300, t + 1000 * MILLIS, 1.3, 2);
+		PredictedPositionFix p = predictor.predict (t + 1100 * MILLIS);
+		assertEquals (100 + 200, p.getPredictionAge (), 0.2);
+		assertEquals (600, p.getTimeOfDay (), 1);
+		
+		provider.fix = new PositionFix (start, 0, 0, 1500, t + 2000 * MILLIS, 1.3, 2);
+		assertEquals (100, predictor.predict (t + 2100 * MILLIS).getPredictionAge (), 1E-9);
+		
+		provider.fix = new PositionFix (start, 0, 0, 2500, t + 3050 * MILLIS, 1.3, 2);
+		assertEquals (50 + 50, predictor.predict (t + 3100 * MILLIS).getPredictionAge (), 0.2);
+	}
+	
+	/**
+	 * A position provider delivering a given fix.
+	 */
+	private static class FixProvider implements IPositionFixProvider
+	{
+		private PositionFix fix;
+		private IGeodeticSystem geodeticSystem = new WGS84 ();
+		
+		public PositionFix getPositionFix () {
+			return fix;
+		}
+		
+		public PolarCoordinate getCurrentPosition () {
+			return fix == null ? null : fix.getPosition ();
+		}
+		
+		public Double getSpeedOverGround () {
+			return null;
+		}
+		
+		public Double getCourseOverGround () {
+			return null;
+		}
+		
+		public IGeodeticSystem getGeodeticSystem () {
+			return geodeticSystem;
+		}
+		
+		public void close () {
+		}
+	}
+}
@@ -21,6 +21,7 @@
 package at.uni_salzburg.cs.ckgroup.gps;
 
 import at.uni_salzburg.cs.ckgroup.course.PolarCoordinate;
+import at.uni_salzburg.cs.ckgroup.course.PositionFix;
 import at.uni_salzburg.cs.ckgroup.gps.GpsPositionProvider;
 import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MalformedMessageException;
 import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Message;
@@ -547,4 +548,54 @@ public class GpsPositionProviderTestCase extends TestCase
 			fail ();
 		}
 	}
+	
+	/**
+	 * This test case verifies that the <code>getPositionFix()</code> method
+	 * returns snapshots combining the position of GGA messages with the
+	 * course and speed of VTG messages.
+	 */
+	public void testCase11 ()
+	{
+		GpsPositionProvider p = new GpsPositionProvider ();
+		assertNull (p.getPositionFix ());
+		String msg;
+		
+		try
+		{
+			msg = "$GPGGA,134320.00,4759.42607290,N,01256.20326407,E,2,06,1.3,435.49942,M,46.59873,M,2.2,0240*43\r\n";
+			long before = System.nanoTime ();
+			p.receive (new Nmea0183Message (msg.getBytes ()));
+			PositionFix gga = p.getPositionFix ();
+			assertNotNull (gga);
+			assertSame (gga.getPosition (), p.getCurrentPosition ());
+			assertEquals (47.99043454833333, gga.getPosition ().latitude, 1E-9);
+			assertEquals (((13 * 60 + 43) * 60 + 20) * 1000, gga.getTimeOfDay ());
+			assertTrue (gga.getReceiveTime () - before >= 0);
+			assertEquals (1.3, gga.getHorizontalDilution (), 1E-9);
+			assertEquals (2, gga.getFixQuality ());
+			assertTrue (Double.isNaN (gga.getSpeedOverGround ()));
+			assertTrue (Double.isNaN (gga.getCourseOverGround ()));
+			
+			msg = "$GPVTG,316.66,T,,M,0.797,N,1.478,K,A*3A\r\n";
+			p.receive (new Nmea0183Message (msg.getBytes ()));
+			PositionFix vtg = p.getPositionFix ();
+			assertNotSame (gga, vtg);
+			assertTrue (Double.isNaN (gga.getSpeedOverGround ()));
+			assertSame (gga.getPosition (), vtg.getPosition ());
+			assertEquals (gga.getTimeOfDay (), vtg.getTimeOfDay ());
+			assertEquals (gga.getReceiveTime (), vtg.getReceiveTime ());
+			assertEquals (0.797*1.852, vtg.getSpeedOverGround (), 1E-9);
+			assertEquals (316.66, vtg.getCourseOverGround (), 1E-9);
+			assertEquals (316.66, p.getCourseOverGround ().doubleValue (), 1E-9);
+			
+			p.receive (null);
+			assertNull (p.getPositionFix ().getPosition ());
+			assertEquals (316.66, p.getPositionFix ().getCourseOverGround (), 1E-9);
+		}
+		catch (Nmea0183MalformedMessageException e)
+		{
+			e.printStackTrace ();
+			fail ();
+		}
+	}
 }
@@ -0,0 +1,249 @@
+/*
+ * @(#) GpsReceiverMultiplexerTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.gps;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Properties;
+import java.util.Vector;
+
+import at.uni_salzburg.cs.ckgroup.ConfigurationException;
+import at.uni_salzburg.cs.ckgroup.io.IConnection;
+import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Message;
+import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MessageListener;
+import junit.framework.TestCase;
+
+/**
+ * This class verifies the implementation of the GpsReceiverMultiplexer class.
+ * 
+ * @author Clemens Krainer
+ */
+public class GpsReceiverMultiplexerTestCase extends TestCase
+{
+	private static final String GGA = "$GPGGA,180827.00,4759.42796281,N,01256.20523945,E,1,06,2.6,443.17562,M,46.59871,M,0.0,,*68\r\n";
+	private static final String GSV = "$GPGSV,2,2,07,19,73,289,48,22,60,073,47,32,71,153,48*40\r\n";
+	
+	private Vector<Nmea0183Message> messages = new Vector<Nmea0183Message> ();
+	
+	/**
+	 * Feed two receivers with messages split at arbitrary positions and
+	 * verify that the messages arrive complete and tagged with the name of
+	 * the receiver.
+	 */
+	public void testCase01 () throws Exception {
+		PipeConnection rover = new PipeConnection ();
+		PipeConnection base = new PipeConnection ();
+		
+		Listener listener = new Listener ();
+		GpsReceiverMultiplexer mux = new GpsReceiverMultiplexer ();
+		mux.addReceiver ("rover", rover);
+		mux.addReceiver ("base", base);
+		mux.addNmea0183MessageListener (listener);
+		mux.start ();
+		
+		rover.write (GGA.substring (0, 20));
+		base.write (GSV + GGA.substring (0, 50));
+		assertTrue (listener.waitFor (1, 2000));
+		assertEquals (1, messages.size ());
+		
+		rover.write (GGA.substring (20) + "\r\n" + GSV);
+		base.write (GGA.substring (50));
+		
+		assertTrue (listener.waitFor (4, 2000));
+		assertEquals (4, messages.size ());
+		assertEquals (2, mux.getNumberOfWellFormedMessages ("rover"));
+		assertEquals (1, mux.getNumberOfMalformedMessages ("rover"));
+		assertEquals (2, mux.getNumberOfWellFormedMessages ("base"));
+		assertEquals (0, mux.getNumberOfMalformedMessages ("base"));
+		
+		int fromRover = 0;
+		for (int k=0; k < messages.size (); k++) {
+			Nmea0183Message m = messages.get (k);
+			if ("rover".equals (m.getSource ()))
+				++fromRover;
+			else
+				assertEquals ("base", m.getSource ());
+			assertTrue (GGA.equals (m.toString ()) || GSV.equals (m.toString ()));
+		}
+		assertEquals (2, fromRover);
+		
+		mux.removeReceiver ("base");
+		assertTrue (base.closed);
+		assertEquals (1, mux.getReceiverNames ().length);
+		assertEquals ("rover", mux.getReceiverNames ()[0]);
+		
+		mux.terminate ();
+		mux.join (1000);
+		assertFalse (mux.isAlive ());
+		assertTrue (rover.closed);
+	}
+	
+	/**
+	 * Verify that missing properties cause exceptions.
+	 */
+	public void testCase02 () throws Exception {
+		Properties props = new Properties ();
+		try {
+			new GpsReceiverMultiplexer (props);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Missing property gps.receivers", e.getMessage ());
+		}
+		
+		props.setProperty (GpsReceiverMultiplexer.PROP_GPS_RECEIVERS, "rover, base");
+		try {
+			new GpsReceiverMultiplexer (props);
+			fail ();
+		} catch (ConfigurationException e) {
+			assertEquals ("Missing property rover.className", e.getMessage ());
+		}
+	}
+	
+	/**
+	 * Verify that a receiver is removed if its stream ends, although a pipe
+	 * reports no available bytes at the end of the stream.
+	 */
+	public void testCase03 () throws Exception {
+		PipeConnection rover = new PipeConnection ();
+		
+		GpsReceiverMultiplexer mux = new GpsReceiverMultiplexer ();
+		mux.setReceiverTimeout (200);
+		mux.addReceiver ("rover", rover);
+		mux.addNmea0183MessageListener (new Listener ());
+		mux.start ();
+		
+		rover.write (GGA);
+		rover.out.close ();
+		
+		assertTrue (rover.waitClosed (2000));
+		assertEquals (0, mux.getReceiverNames ().length);
+		assertTrue (rover.closed);
+		assertEquals (1, messages.size ());
+		
+		mux.terminate ();
+		mux.join (1000);
+		assertFalse (mux.isAlive ());
+	}
+	
+	/**
+	 * Verify that a receiver delivering data regularly is kept, i.e. it is
+	 * not closed between two messages.
+	 */
+	public void testCase04 () throws Exception {
+		PipeConnection rover = new PipeConnection ();
+		
+		Listener listener = new Listener ();
+		GpsReceiverMultiplexer mux = new GpsReceiverMultiplexer ();
+		mux.setReceiverTimeout (300);
+		mux.addReceiver ("rover", rover);
+		mux.addNmea0183MessageListener (listener);
+		mux.start ();
+		
+		for (int k=0; k < 10; k++) {
+			rover.write (GGA);
+			assertTrue (listener.waitFor (k + 1, 2000));
+			assertFalse (rover.waitClosed (100));
+		}
+		
+		assertEquals (1, mux.getReceiverNames ().length);
+		assertEquals (10, mux.getNumberOfWellFormedMessages ("rover"));
+		assertFalse (rover.closed);
+		
+		mux.terminate ();
+		mux.join (1000);
+		assertFalse (mux.isAlive ());
+	}
+	
+	/**
+	 * Verify that stale receivers are kept by default.
+	 */
+	public void testCase05 () throws Exception {
+		PipeConnection rover = new PipeConnection ();
+		
+		Listener listener = new Listener ();
+		GpsReceiverMultiplexer mux = new GpsReceiverMultiplexer ();
+		mux.addReceiver ("rover", rover);
+		mux.addNmea0183MessageListener (listener);
+		mux.start ();
+		
+		rover.write (GGA);
+		assertTrue (listener.waitFor (1, 2000));
+		assertFalse (rover.waitClosed (300));
+		assertEquals (1, mux.getReceiverNames ().length);
+		
+		mux.terminate ();
+		mux.join (1000);
+		assertFalse (mux.isAlive ());
+		assertTrue (rover.closed);
+	}
+	
+	private class Listener implements Nmea0183MessageListener {
+		public synchronized void receive (Nmea0183Message message) {
+			messages.add (message);
+			notifyAll ();
+		}
+		
+		public synchronized boolean waitFor (int count, long timeout) throws InterruptedException {
+			long end = System.currentTimeMillis () + timeout;
+			for (long t = timeout; messages.size () < count && t > 0; t = end - System.currentTimeMillis ())
+				wait (t);
+			return messages.size () >= count;
+		}
+	}
+	
+	private static class PipeConnection implements IConnection {
+		private PipedOutputStream out = new PipedOutputStream ();
+		private PipedInputStream in;
+		volatile boolean closed = false;
+		
+		public PipeConnection () throws IOException {
+			in = new PipedInputStream (out, 1024);
+		}
+		
+		public void write (String s) throws IOException {
+			out.write (s.getBytes ());
+			out.flush ();
+		}
+		
+		public InputStream getInputStream () throws IOException {
+			return in;
+		}
+		
+		public OutputStream getOutputStream () throws IOException {
+			return out;
+		}
+		
+		public synchronized void close () throws IOException {
+			closed = true;
+			notifyAll ();
+		}
+		
+		public synchronized boolean waitClosed (long timeout) throws InterruptedException {
+			long end = System.currentTimeMillis () + timeout;
+			for (long t = timeout; !closed && t > 0; t = end - System.currentTimeMillis ())
+				wait (t);
+			return closed;
+		}
+	}
+}
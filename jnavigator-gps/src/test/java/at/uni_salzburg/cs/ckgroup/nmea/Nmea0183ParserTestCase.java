@@ -0,0 +1,136 @@
+/*
+ * @(#) Nmea0183ParserTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+import junit.framework.TestCase;
+
+/**
+ * This class verifies the implementation of the Nmea0183Parser class.
+ * 
+ * @author Clemens Krainer
+ */
+public class Nmea0183ParserTestCase extends TestCase
+{
+	/**
+	 * Verify the field index and the typed accessors of a GGA sentence.
+	 */
+	public void testCase01 () {
+		byte[] msg = "xx$GPGGA,134320.00,4759.42607290,N,01256.20326407,W,2,06,1.3,435.49942,M,46.59873,M,2.2,0240*51\r\n".getBytes ();
+		Nmea0183Parser p = new Nmea0183Parser ();
+		assertTrue (p.parse (msg, 2, msg.length - 2));
+		assertEquals (Nmea0183Parser.SENTENCE_GGA, p.getSentence ());
+		assertEquals (15, p.getNumberOfFields ());
+		assertEquals ("GPGGA", p.getString (0));
+		assertEquals ("0240", p.getString (14));
+		assertTrue (p.isValidGga ());
+		assertFalse (p.isValidRmc ());
+		
+		assertEquals (47.99043454833333, p.getLatitude (), 1E-12);
+		assertEquals (-12.936721067833334, p.getLongitude (), 1E-12);
+		assertEquals (435.49942, p.getAltitude (), 0);
+		assertEquals (2, p.getFixQuality ());
+		assertEquals (6, p.getNumberOfSatellites ());
+		assertEquals (1.3, p.getHorizontalDilution (), 0);
+		assertTrue (Double.isNaN (p.getSpeedKnots ()));
+		assertEquals (134320.0, p.getDouble (1), 0);
+		assertEquals (240, p.getInt (14, -1));
+	}
+	
+	/**
+	 * Verify RMC and VTG sentences with and without content.
+	 */
+	public void testCase02 () {
+		Nmea0183Parser p = new Nmea0183Parser ();
+		assertTrue (p.parse ("$GPRMC,215136.00,A,4759.43142,S,01256.20407,E,0.586,345.60,150407,,,A*77\r\n".getBytes ()));
+		assertTrue (p.isValidRmc ());
+		assertEquals (-47.990523666666666, p.getLatitude (), 1E-12);
+		assertEquals (12.936734500, p.getLongitude (), 1E-12);
+		assertEquals (0.586, p.getSpeedKnots (), 0);
+		assertEquals (345.6, p.getCourseOverGround (), 0);
+		assertTrue (Double.isNaN (p.getAltitude ()));
+		
+		assertTrue (p.parse ("$GPRMC,174646.00,V,,,,,,,061007,,,N*7B\r\n".getBytes ()));
+		assertFalse (p.isValidRmc ());
+		assertTrue (Double.isNaN (p.getLatitude ()));
+		
+		assertTrue (p.parse ("$GPVTG,316.66,T,,M,0.797,N,1.478,K,A*3A\r\n".getBytes ()));
+		assertTrue (p.isValidVtg ());
+		assertEquals (316.66, p.getCourseOverGround (), 0);
+		assertEquals (0.797, p.getSpeedKnots (), 0);
+		
+		assertTrue (p.parse ("$GPVTG,,,,,,,,,N*30\r\n".getBytes ()));
+		assertFalse (p.isValidVtg ());
+		assertTrue (Double.isNaN (p.getSpeedKnots ()));
+	}
+	
+	/**
+	 * Verify that blank fields are empty and that malformed sentences are
+	 * refused.
+	 */
+	public void testCase03 () {
+		Nmea0183Parser p = new Nmea0183Parser ();
+		assertTrue (p.parse ("$GPGGA,193912.00,          , ,           , ,0,00,99.99,    , ,    , ,,*47\r\n".getBytes ()));
+		assertTrue (p.isEmpty (2));
+		assertTrue (p.isEmpty (3));
+		assertFalse (p.isValidGga ());
+		assertEquals (0, p.getFixQuality ());
+		
+		assertFalse (p.parse ("$GPGGA*18\r\n".getBytes ()));
+		assertEquals (0, p.getNumberOfFields ());
+		assertFalse (p.parse ("$GPVTG,304.33,T,,M,0.635,N,1.176,K,A 3B\r\n".getBytes ()));
+		assertFalse (p.parse ("GPVTG,304.33*3B".getBytes ()));
+		assertFalse (p.parse ("$GPVTG*G0".getBytes ()));
+		assertFalse (p.isValidVtg ());
+	}
+	
+	/**
+	 * Verify the conversion of numbers, including malformed numbers and
+	 * numbers exceeding the precision of the fast path.
+	 */
+	public void testCase04 () {
+		Nmea0183Parser p = new Nmea0183Parser ();
+		assertTrue (p.parse ("$GPXXX,-12.5,+7,1.2.3,abc,.5,-,12345678901234567890.5,0.00000000000000000000000001*04\r\n".getBytes ()));
+		assertEquals (Nmea0183Parser.SENTENCE_UNKNOWN, p.getSentence ());
+		assertEquals (-12.5, p.getDouble (1), 0);
+		assertEquals (7.0, p.getDouble (2), 0);
+		assertEquals (7, p.getInt (2, -1));
+		assertTrue (Double.isNaN (p.getDouble (3)));
+		assertTrue (Double.isNaN (p.getDouble (4)));
+		assertEquals (-1, p.getInt (4, -1));
+		assertEquals (0.5, p.getDouble (5), 0);
+		assertTrue (Double.isNaN (p.getDouble (6)));
+		assertEquals (-1, p.getInt (6, -1));
+		assertEquals (12345678901234567890.5, p.getDouble (7), 0);
+		assertEquals (1E-26, p.getDouble (8), 0);
+		assertTrue (Double.isNaN (p.getDouble (9)));
+		
+		String[] values = { "4759.42607290", "01256.20326407", "435.49942", "0.586", "99.99" };
+		for (int k=0; k < values.length; k++) {
+			String m = "GPXXX," + values[k];
+			int checkSum = 0;
+			for (int j=0; j < m.length (); j++)
+				checkSum ^= m.charAt (j);
+			m = "$" + m + "*" + Integer.toHexString (0x100 | checkSum).substring (1).toUpperCase ();
+			assertTrue (m, p.parse (m.getBytes ()));
+			assertEquals (m, Double.parseDouble (values[k]), p.getDouble (1), 0);
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * @(#) Nmea0183SentenceDispatcherTestCase.java
+ *
+ * This code is part of the JAviator project: javiator.cs.uni-salzburg.at
+ * Copyright (c) 2012  Clemens Krainer
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package at.uni_salzburg.cs.ckgroup.nmea;
+
+import java.util.Vector;
+
+import junit.framework.TestCase;
+
+/**
+ * This class verifies the implementation of the Nmea0183SentenceDispatcher
+ * class and the typed sentences.
+ * 
+ * @author Clemens Krainer
+ */
+public class Nmea0183SentenceDispatcherTestCase extends TestCase
+{
+	/**
+	 * Verify the dispatching of known and unknown messages.
+	 * 
+	 * @throws Nmea0183MalformedMessageException
+	 */
+	public void testCase01 () throws Nmea0183MalformedMessageException {
+		final Vector<String> received = new Vector<String> ();
+		Nmea0183SentenceListener<Nmea0183Sentence> listener = new Nmea0183SentenceListener<Nmea0183Sentence> () {
+			public void receive (Nmea0183Sentence sentence) {
+				received.add (sentence.getFormatter () + " " + sentence.getSource ());
+			}
+		};
+		
+		Nmea0183SentenceDispatcher dispatcher = new Nmea0183SentenceDispatcher ();
+		dispatcher.addSentenceListener (GgaSentence.class, listener);
+		dispatcher.addSentenceListener (HdtSentence.class, listener);
+		
+		byte[] gga = "$GPGGA,134320.00,4759.42607290,N,01256.20326407,W,2,06,1.3,435.49942,M,46.59873,M,2.2,0240*51\r\n".getBytes ();
+		assertTrue (dispatcher.dispatch (new Nmea0183Message (gga, 0, gga.length, "rx1")));
+		assertTrue (dispatcher.dispatch (new Nmea0183Message ("$GPHDT,274.07,T*03\r\n".getBytes ())));
+		assertTrue (dispatcher.dispatch (new Nmea0183Message ("$GPGSA,A,2,13,27,04,,,,,,,,,,4.08,3.95,1.00*02\r\n".getBytes ())));
+		assertFalse (dispatcher.dispatch (new Nmea0183Message ("$GPRMD,145202.00,A,4759.43165,N,01256.21184,E,0.007,,220407,,,A*77\r\n".getBytes ())));
+		
+		assertEquals (2, received.size ());
+		assertEquals ("GGA rx1", received.get (0));
+		assertEquals ("HDT null", received.get (1));
+		
+		dispatcher.removeSentenceListener (GgaSentence.class, listener);
+		dispatcher.receive (new Nmea0183Message (gga));
+		assertEquals (2, received.size ());
+		
+		try {
+			dispatcher.addSentenceListener (Nmea0183Sentence.class, listener);
+			fail ();
+		} catch (IllegalArgumentException e) {
+			assertEquals ("Unknown sentence type at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Sentence", e.getMessage ());
+		}
+	}
+	
+	/**
+	 * Verify the decoding of GGA, RMC, VTG, ZDA and HDT sentences.
+	 * 
+	 * @throws Nmea0183MalformedMessageException
+	 */
+	public void testCase02 () throws Nmea0183MalformedMessageException {
+		Nmea0183Parser p = new Nmea0183Parser ();
+		
+		GgaSentence gga = new GgaSentence ();
+		assertTrue (p.parse ("$GPGGA,134320.00,4759.42607290,N,01256.20326407,W,2,06,1.3,435.49942,M,46.59873,M,2.2,0240*51\r\n".getBytes ()));
+		gga.decode (p, null);
+		assertTrue (gga.isValid ());
+		assertEquals (((13 * 60 + 43) * 60 + 20) * 1000, gga.getTimeOfDay ());
+		assertEquals (47.99043454833333, gga.getLatitude (), 1E-12);
+		assertEquals (-12.936721067833334, gga.getLongitude (), 1E-12);
+		assertEquals (2, gga.getFixQuality ());
+		assertEquals (6, gga.getNumberOfSatellites ());
+		assertEquals (435.49942, gga.getAltitude (), 0);
+		assertEquals (46.59873, gga.getGeoidSeparation (), 0);
+		assertEquals (2.2, gga.getDgpsAge (), 0);
+		assertEquals (240, gga.getDgpsStation ());
+		
+		RmcSentence rmc = new RmcSentence ();
+		assertTrue (p.parse ("$GPRMC,215136.00,A,4759.43142,S,01256.20407,E,0.586,345.60,150407,,,A*77\r\n".getBytes ()));
+		rmc.decode (p, null);
+		assertTrue (rmc.isValid ());
+		assertEquals ('A', rmc.getStatus ());
+		assertEquals (-47.990523666666666, rmc.getLatitude (), 1E-12);
+		assertEquals (345.6, rmc.getCourseOverGround (), 0);
+		assertEquals (15, rmc.getDay ());
+		assertEquals (4, rmc.getMonth ());
+		assertEquals (2007, rmc.getYear ());
+		assertTrue (Double.isNaN (rmc.getMagneticVariation ()));
+		
+		VtgSentence vtg = new VtgSentence ();
+		assertTrue (p.parse ("$GPVTG,258.75,T,,M,0.93,N,1.73,K,A*3F\r\n".getBytes ()));
+		vtg.decode (p, null);
+		assertTrue (vtg.isValid ());
+		assertEquals (258.75, vtg.getCourseOverGround (), 0);
+		assertTrue (Double.isNaN (vtg.getMagneticCourseOverGround ()));
+		assertEquals (0.93, vtg.getSpeedKnots (), 0);
+		assertEquals (1.73, vtg.getSpeedKmh (), 0);
+		assertEquals ('A', vtg.getMode ());
+		
+		ZdaSentence zda = new ZdaSentence ();
+		assertTrue (p.parse ("$GPZDA,163908.068,15,02,2008,01,30*53\r\n".getBytes ()));
+		zda.decode (p, null);
+		assertTrue (zda.isValid ());
+		assertEquals (((16 * 60 + 39) * 60 + 8) * 1000 + 68, zda.getTimeOfDay ());
+		assertEquals (15, zda.getDay ());
+		assertEquals (2, zda.getMonth ());
+		assertEquals (2008, zda.getYear ());
+		assertEquals (1, zda.getLocalZoneHours ());
+		assertEquals (30, zda.getLocalZoneMinutes ());
+		
+		HdtSentence hdt = new HdtSentence ();
+		assertTrue (p.parse ("$GPHDT,274.07,T*03\r\n".getBytes ()));
+		hdt.decode (p, null);
+		assertEquals (274.07, hdt.getHeading (), 0);
+	}
+	
+	/**
+	 * Verify the decoding of GSA, GSV, GST and GLL sentences.
+	 * 
+	 * @throws Nmea0183MalformedMessageException
+	 */
+	public void testCase03 () throws Nmea0183MalformedMessageException {
+		Nmea0183Parser p = new Nmea0183Parser ();
+		
+		GsaSentence gsa = new GsaSentence ();
+		assertTrue (p.parse ("$GPGSA,A,2,13,27,04,,,,,,,,,,4.08,3.95,1.00*02\r\n".getBytes ()));
+		gsa.decode (p, null);
+		assertEquals ('A', gsa.getSelectionMode ());
+		assertEquals (2, gsa.getFixType ());
+		assertEquals (3, gsa.getNumberOfSatellites ());
+		assertEquals (13, gsa.getSatellite (0));
+		assertEquals (4, gsa.getSatellite (2));
+		assertEquals (4.08, gsa.getPositionDilution (), 0);
+		assertEquals (3.95, gsa.getHorizontalDilution (), 0);
+		assertEquals (1.00, gsa.getVerticalDilution (), 0);
+		try {
+			gsa.getSatellite (3);
+			fail ();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals ("Invalid satellite index 3", e.getMessage ());
+		}
+		
+		GsvSentence gsv = new GsvSentence ();
+		assertTrue (p.parse ("$GPGSV,3,1,11,16,13,039,,20,04,128,,06,00,338,,13,66,052,46*70\r\n".getBytes ()));
+		gsv.decode (p, null);
+		assertEquals (3, gsv.getNumberOfSentences ());
+		assertEquals (1, gsv.getSentenceNumber ());
+		assertEquals (11, gsv.getSatellitesInView ());
+		assertEquals (4, gsv.getNumberOfSatellites ());
+		assertEquals (16, gsv.getPrn (0));
+		assertEquals (13, gsv.getElevation (0));
+		assertEquals (39, gsv.getAzimuth (0));
+		assertEquals (-1, gsv.getSignalToNoiseRatio (0));
+		assertEquals (13, gsv.getPrn (3));
+		assertEquals (46, gsv.getSignalToNoiseRatio (3));
+		
+		GstSentence gst = new GstSentence ();
+		assertTrue (p.parse ("$GPGST,172814.0,0.006,0.023,0.020,273.6,0.023,0.020,0.031*6A\r\n".getBytes ()));
+		gst.decode (p, null);
+		assertEquals (((17 * 60 + 28) * 60 + 14) * 1000, gst.getTimeOfDay ());
+		assertEquals (0.006, gst.getRangeRms (), 0);
+		assertEquals (0.023, gst.getSemiMajorError (), 0);
+		assertEquals (0.020, gst.getSemiMinorError (), 0);
+		assertEquals (273.6, gst.getErrorOrientation (), 0);
+		assertEquals (0.023, gst.getLatitudeError (), 0);
+		assertEquals (0.020, gst.getLongitudeError (), 0);
+		assertEquals (0.031, gst.getAltitudeError (), 0);
+		
+		GllSentence gll = new GllSentence ();
+		assertTrue (p.parse ("$GPGLL,4759.43165,N,01256.21184,E,145202.00,A,A*6D\r\n".getBytes ()));
+		gll.decode (p, null);
+		assertTrue (gll.isValid ());
+		assertEquals (47.99052750, gll.getLatitude (), 1E-9);
+		assertEquals (12.93686400, gll.getLongitude (), 1E-9);
+		assertEquals (((14 * 60 + 52) * 60 + 2) * 1000, gll.getTimeOfDay ());
+	}
+}
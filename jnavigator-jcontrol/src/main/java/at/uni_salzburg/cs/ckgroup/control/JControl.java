@@ -79,13 +79,19 @@ public class JControl extends TimerTask implements ISender, IDataTransferObjectL
 	
 	public static final String PROP_SET_COURSE_FOLDER = "set.course.folder";
 	
-	private MotorSignals actuatorData = new MotorSignals ((short)0,(short)0,(short)0,(short)0,(short)0);
+	/**
+	 * The latest motor signals. The timer thread sends them periodically, so
+	 * a new object is assigned for each update instead of modifying it.
+	 */
+	private volatile MotorSignals actuatorData = new MotorSignals ((short)0,(short)0,(short)0,(short)0,(short)0);
 	
 	private MotorOffsets motorOffsets = new MotorOffsets((short)0,(short)0,(short)0,(short)0);
 	
-	private double oldX = 0;
-	private double oldY = 0;
-	private double oldZ = 0;
+	/**
+	 * The raw position values of the previous <code>JaviatorData</code>
+	 * object, indexed by the <code>SensorData</code> field indices.
+	 */
+	private short[] oldPosition = new short[SensorData.NUMBER_OF_FIELDS];
 	
 	/**
 	 * The associated <code>Dispatcher</code>
@@ -233,6 +239,21 @@ public class JControl extends TimerTask implements ISender, IDataTransferObjectL
 //		}
 	}
 	
+	/**
+	 * Set a velocity field of a <code>SensorData</code> object to the
+	 * difference of the position field to its previous value. The calculation
+	 * is done on the raw values to avoid converting them back and forth.
+	 * 
+	 * @param sensorData the <code>SensorData</code> object to be updated.
+	 * @param position the index of the position field.
+	 * @param velocity the index of the velocity field.
+	 */
+	private void updateVelocity (SensorData sensorData, int position, int velocity) {
+		short current = sensorData.getRaw (position);
+		sensorData.setRaw (velocity, (short)(current - oldPosition[position]));
+		oldPosition[position] = current;
+	}
+	
 	private void handleDto (IDataTransferObject dto) throws IOException {
 
 		if (dto instanceof SensorData) {
@@ -273,12 +294,9 @@ public class JControl extends TimerTask implements ISender, IDataTransferObjectL
 			
 			JaviatorData jd = (JaviatorData)dto;
 			SensorData sensorData = new SensorData(jd);
-			sensorData.setDx(sensorData.getX() - oldX);
-			oldX = sensorData.getX();
-			sensorData.setDy(sensorData.getY() - oldY);
-			oldY = sensorData.getY();
-			sensorData.setDz(sensorData.getZ() - oldZ);
-			oldZ = sensorData.getZ();
+			updateVelocity (sensorData, SensorData.X, SensorData.DX);
+			updateVelocity (sensorData, SensorData.Y, SensorData.DY);
+			updateVelocity (sensorData, SensorData.Z, SensorData.DZ);
 			actuatorData = algorithm.apply (sensorData, navigationData);
 			GroundReport gr = new GroundReport();
 			gr.setSensorData(sensorData);
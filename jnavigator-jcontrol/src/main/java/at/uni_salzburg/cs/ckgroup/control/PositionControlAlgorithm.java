@@ -159,6 +159,12 @@ public class PositionControlAlgorithm implements IControlAlgorithm {
 	 */
 	private int id = 0;
 	
+	/**
+	 * The scaled values of the current <code>SensorData</code>, indexed by
+	 * the <code>SensorData</code> field indices.
+	 */
+	private double[] sensorValues = new double[SensorData.NUMBER_OF_FIELDS];
+	
 	/**
 	 * Construct a <code>PositionControlAlgorithm</code> object.
 	 * 
@@ -189,14 +195,15 @@ public class PositionControlAlgorithm implements IControlAlgorithm {
 		double rollCtrl = navigationData.getRoll();
 		double pitchCtrl = navigationData.getPitch();
 			
+		sensorData.toDoubleArray (sensorValues);
 		double desiredZ = navigationData.getHeightOverGround();
-		double currentZ = sensorData.getZ();
-		double currentDZ = sensorData.getDz();
+		double currentZ = sensorValues[SensorData.Z];
+		double currentDZ = sensorValues[SensorData.DZ];
 		double deltaZ = desiredZ - currentZ;
 
-		double b = yawController.apply (yawTrimValue + navigationData.getYaw() - sensorData.getYaw(), sensorData.getDYaw());
-		double p = pitchController.apply (pitchTrimValue + pitchCtrl - sensorData.getPitch(), sensorData.getDPitch());
-		double r = rollController.apply (rollTrimValue + rollCtrl - sensorData.getRoll(), sensorData.getDRoll());
+		double b = yawController.apply (yawTrimValue + navigationData.getYaw() - sensorValues[SensorData.YAW], sensorValues[SensorData.DYAW]);
+		double p = pitchController.apply (pitchTrimValue + pitchCtrl - sensorValues[SensorData.PITCH], sensorValues[SensorData.DPITCH]);
+		double r = rollController.apply (rollTrimValue + rollCtrl - sensorValues[SensorData.ROLL], sensorValues[SensorData.DROLL]);
 		double m = altitudeController.apply (deltaZ, currentDZ);
 		m += motorLiftOffRpm;
 		
@@ -255,18 +262,19 @@ public class PositionControlAlgorithm implements IControlAlgorithm {
 //		double rollCtrl = yController.apply (deltaY);
 //		double pitchCtrl = xController.apply (deltaX);
 			
+		sensorData.toDoubleArray (sensorValues);
 		double desiredZ = setCourseData.position.altitude;
-		double currentZ = sensorData.getZ();
-		double currentDZ = sensorData.getDz();
+		double currentZ = sensorValues[SensorData.Z];
+		double currentDZ = sensorValues[SensorData.DZ];
 		double deltaZ = desiredZ - currentZ;
 		
 		double desiredYaw = setCourseData.orientation;
 		if (desiredYaw >= 180)
 			desiredYaw -= 360;
 				
-		double b = yawController.apply (yawTrimValue + desiredYaw - sensorData.getYaw(), sensorData.getDYaw());
-		double p = pitchController.apply (pitchTrimValue + pitchCtrl - sensorData.getPitch(), sensorData.getDPitch());
-		double r = rollController.apply (rollTrimValue + rollCtrl - sensorData.getRoll(), sensorData.getDRoll());
+		double b = yawController.apply (yawTrimValue + desiredYaw - sensorValues[SensorData.YAW], sensorValues[SensorData.DYAW]);
+		double p = pitchController.apply (pitchTrimValue + pitchCtrl - sensorValues[SensorData.PITCH], sensorValues[SensorData.DPITCH]);
+		double r = rollController.apply (rollTrimValue + rollCtrl - sensorValues[SensorData.ROLL], sensorValues[SensorData.DROLL]);
 		double m = altitudeController.apply (deltaZ, currentDZ);
 
 		m += motorLiftOffRpm;
@@ -336,15 +344,15 @@ public class PositionControlAlgorithm implements IControlAlgorithm {
 				setCourseData.position.longitude + "\t" +
 				setCourseData.position.latitude + "\t" +
 				setCourseData.position.altitude + "\t" +
-				sensorData.getRoll() + "\t" +
+				sensorValues[SensorData.ROLL] + "\t" +
 				rollCtrl + "\t" +
-				(sensorData.getRoll() - rollCtrl) + "\t" +
-				sensorData.getPitch() + "\t" +
+				(sensorValues[SensorData.ROLL] - rollCtrl) + "\t" +
+				sensorValues[SensorData.PITCH] + "\t" +
 				pitchCtrl + "\t" +
-				(sensorData.getPitch() - pitchCtrl) + "\t" +
-				sensorData.getYaw() + "\t" +
+				(sensorValues[SensorData.PITCH] - pitchCtrl) + "\t" +
+				sensorValues[SensorData.YAW] + "\t" +
 				desiredYaw + "\t" +
-				(sensorData.getYaw() - desiredYaw) + "\t" +
+				(sensorValues[SensorData.YAW] - desiredYaw) + "\t" +
 				0 + "\t" +	// x reference
 				currentX + "\t" +
 				desiredX + "\t" +
@@ -46,9 +46,11 @@ import at.uni_salzburg.cs.ckgroup.communication.data.SwitchState;
 import at.uni_salzburg.cs.ckgroup.communication.data.YawControllerParameters;
 import at.uni_salzburg.cs.ckgroup.control.IController;
 import at.uni_salzburg.cs.ckgroup.course.CartesianCoordinate;
+import at.uni_salzburg.cs.ckgroup.course.IPositionFixProvider;
 import at.uni_salzburg.cs.ckgroup.course.IPositionProvider;
 import at.uni_salzburg.cs.ckgroup.course.ISetCourseSupplier;
 import at.uni_salzburg.cs.ckgroup.course.PolarCoordinate;
+import at.uni_salzburg.cs.ckgroup.course.PositionFix;
 import at.uni_salzburg.cs.ckgroup.course.VehicleStatus;
 import at.uni_salzburg.cs.ckgroup.util.IClock;
 import at.uni_salzburg.cs.ckgroup.util.InstantiationException;
@@ -288,9 +290,20 @@ public class AutoPilot implements IDataTransferObjectListener, ISender, IAutoPil
 			altitudeOverGround = sensorData.getZ();
 			
 			if (dtoProvider != null && positionProvider != null && autoPilotFlight) {
-				PolarCoordinate position = positionProvider.getCurrentPosition();
-				Double courseOverGround = positionProvider.getCourseOverGround();
-				Double speedOverGround = positionProvider.getSpeedOverGround();
+				PolarCoordinate position;
+				Double courseOverGround;
+				Double speedOverGround;
+				if (positionProvider instanceof IPositionFixProvider) {
+					// Take all values from one fix to avoid mixing values of different updates.
+					PositionFix fix = ((IPositionFixProvider) positionProvider).getPositionFix();
+					position = fix == null ? null : fix.getPosition();
+					courseOverGround = fix == null ? null : fix.getCourseOverGroundValue();
+					speedOverGround = fix == null ? null : fix.getSpeedOverGroundValue();
+				} else {
+					position = positionProvider.getCurrentPosition();
+					courseOverGround = positionProvider.getCourseOverGround();
+					speedOverGround = positionProvider.getSpeedOverGround();
+				}
 				long now = clock.currentTimeMillis();
 				long flyingTime = now - autoPilotStartTime;
 				VehicleStatus vehicleStatus = setCourseSupplier.getSetCoursePosition (flyingTime);
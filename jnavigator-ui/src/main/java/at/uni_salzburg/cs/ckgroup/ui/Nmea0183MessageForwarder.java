@@ -27,13 +27,20 @@ import java.util.SimpleTimeZone;
 import java.util.Vector;
 
 import at.uni_salzburg.cs.ckgroup.course.PolarCoordinate;
+import at.uni_salzburg.cs.ckgroup.nmea.GgaSentence;
 import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183Message;
 import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183MessageListener;
+import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183SentenceDispatcher;
+import at.uni_salzburg.cs.ckgroup.nmea.Nmea0183SentenceListener;
+import at.uni_salzburg.cs.ckgroup.nmea.RmcSentence;
+import at.uni_salzburg.cs.ckgroup.nmea.VtgSentence;
+import at.uni_salzburg.cs.ckgroup.nmea.ZdaSentence;
 
 /**
  * This class implements a <code>Nmea0183MessageForwarder</code> to forward
  * NMEA 0183 messages from the GPS receiver to arbitrary views providing the
- * interface <code>INavigatorView</code>.
+ * interface <code>INavigatorView</code>. The messages are decoded by a
+ * <code>Nmea0183SentenceDispatcher</code>.
  * 
  * @author Clemens Krainer
  */
@@ -49,6 +56,38 @@ public class Nmea0183MessageForwarder implements Nmea0183MessageListener
 	private Calendar calendar;
 	private Date currentDate;
 	
+	/**
+	 * The dispatcher decoding the received messages.
+	 */
+	private Nmea0183SentenceDispatcher dispatcher = new Nmea0183SentenceDispatcher ();
+	
+	/**
+	 * Construct a <code>Nmea0183MessageForwarder</code>.
+	 */
+	public Nmea0183MessageForwarder ()
+	{
+		dispatcher.addSentenceListener (GgaSentence.class, new Nmea0183SentenceListener<GgaSentence>() {
+			public void receive (GgaSentence sentence) {
+				forwardGga (sentence);
+			}
+		});
+		dispatcher.addSentenceListener (RmcSentence.class, new Nmea0183SentenceListener<RmcSentence>() {
+			public void receive (RmcSentence sentence) {
+				forwardRmc (sentence);
+			}
+		});
+		dispatcher.addSentenceListener (VtgSentence.class, new Nmea0183SentenceListener<VtgSentence>() {
+			public void receive (VtgSentence sentence) {
+				forwardVtg (sentence);
+			}
+		});
+		dispatcher.addSentenceListener (ZdaSentence.class, new Nmea0183SentenceListener<ZdaSentence>() {
+			public void receive (ZdaSentence sentence) {
+				forwardZda (sentence);
+			}
+		});
+	}
+	
 	/**
 	 * Add some new views to be refreshed.
 	 * 
@@ -91,71 +130,29 @@ public class Nmea0183MessageForwarder implements Nmea0183MessageListener
 	 */
 	public void receive (Nmea0183Message message)
 	{
-		String x = new String (message.getBytes ());
-		String[] parts = x.split ("[,*]");
-		
-		if (parts[0].equals ("$GPGGA"))
-			parseNmea0183MessageGPGGA (parts);
-		
-		else if (parts[0].equals ("$GPGLL"))
-			parseNmea0183MessageGPGLL (parts);
-		
-		else if (parts[0].equals ("$GPGSA"))
-			parseNmea0183MessageGPGSA (parts);
-		
-		else if (parts[0].equals ("$GPGSV"))
-			parseNmea0183MessageGPGSV (parts);
-		
-		else if (parts[0].equals ("$GPRMC"))
-			parseNmea0183MessageGPRMC (parts);
-		
-		else if (parts[0].equals ("$GPVTG"))
-			parseNmea0183MessageGPVTG (parts);
-		
-		else if (parts[0].equals ("$GPZDA"))
-			parseNmea0183MessageGPZDA (parts);
-		
-		else 
+		if (!dispatcher.dispatch (message))
 			System.err.println ("Unknown message. Input String was: '" + message + "'");
 	}
 
-	
 	/**
-	 * Parse a $GPGGA NMEA 0183 message.
+	 * Forward a GGA sentence to the time, coordinate and altitude views.
 	 * 
-	 * @param message the message in pieces.
+	 * @param sentence the decoded sentence.
 	 */
-	public void parseNmea0183MessageGPGGA (String[] message)
+	private void forwardGga (GgaSentence sentence)
 	{
-		parseTime (message[1]);
+		setTime (sentence.getTimeOfDay ());
 		
 		for (int k=0; k < timeViews.size (); k++)
 			((ITimeView)timeViews.get (k)).setDateTime (currentDate);
 		
-		if (message[2].equals (""))
+		double latitude = sentence.getLatitude ();
+		double longitude = sentence.getLongitude ();
+		double altitude = sentence.getAltitude ();
+		if (Double.isNaN (latitude) || Double.isNaN (longitude) || Double.isNaN (altitude))
 			return;
 		
-		PolarCoordinate coordinate = null;
-		double altitude = 0;
-		try {
-			// $GPGGA,173648.640,4800.00024840,N,1300.00033156,E,1,07,1.0,439.45593,M,46.5987,M,1.9,0120*75
-			double latitude = message[3].equals ("N") ? parseAngle (message[2]) : -parseAngle (message[2]);
-			double longitude = message[5].equals ("E") ? parseAngle (message[4]) : -parseAngle (message[4]);
-			altitude = Double.parseDouble (message[9]);
-			coordinate = new PolarCoordinate (latitude, longitude, altitude);
-		} catch (NumberFormatException e) {
-			e.printStackTrace();
-			System.err.println ("Input String was: '" + message + "'");
-			return;
-		} catch (ArrayIndexOutOfBoundsException e2) {
-			e2.printStackTrace();
-			System.err.println ("Input String was: '" + message + "'");
-			return;
-		} catch (StringIndexOutOfBoundsException e3) {
-			e3.printStackTrace();
-			System.err.println ("Input String was: '" + message + "'");
-			return;
-		}
+		PolarCoordinate coordinate = new PolarCoordinate (latitude, longitude, altitude);
 		
 		for (int k=0; k < coordinateViews.size (); k++)
 			((ICoordinateView)coordinateViews.get (k)).setCoordinate (currentDate, coordinate);
@@ -165,74 +162,31 @@ public class Nmea0183MessageForwarder implements Nmea0183MessageListener
 	}
 
 	/**
-	 * Parse a $GPGLL NMEA 0183 message.
-	 * 
-	 * @param message the message in pieces.
-	 */
-	public void parseNmea0183MessageGPGLL (String[] message)
-	{
-//		System.out.println ("Not implemented: Nmea0183MessageForwarder.parseNmea0183MessageGPGLL");
-	}
-
-	/**
-	 * Parse a $GPGSA NMEA 0183 message.
+	 * Forward a RMC sentence to the time views.
 	 * 
-	 * @param message the message in pieces.
+	 * @param sentence the decoded sentence.
 	 */
-	public void parseNmea0183MessageGPGSA (String[] message)
+	private void forwardRmc (RmcSentence sentence)
 	{
-//		System.out.println ("Not implemented: Nmea0183MessageForwarder.parseNmea0183MessageGPGSA");
-	}
-
-	/**
-	 * Parse a $GPGSV NMEA 0183 message.
-	 * 
-	 * @param message the message in pieces.
-	 */
-	public void parseNmea0183MessageGPGSV (String[] message)
-	{
-//		System.out.println ("Not implemented: Nmea0183MessageForwarder.parseNmea0183MessageGPGSV");
-	}
-
-	/**
-	 * Parse a $GPRMC NMEA 0183 message.
-	 * 
-	 * @param message the message in pieces.
-	 */
-	public void parseNmea0183MessageGPRMC (String[] message)
-	{
-		parseTime (message[1]);
+		setTime (sentence.getTimeOfDay ());
 		
 		for (int k=0; k < timeViews.size (); k++)
 			((ITimeView)timeViews.get (k)).setDateTime (currentDate);
 	}
 	
 	/**
-	 * Parse a $GPVTG NMEA 0183 message.
+	 * Forward a VTG sentence to the course and speed views.
 	 * 
-	 * @param message the message in pieces.
+	 * @param sentence the decoded sentence.
 	 */
-	public void parseNmea0183MessageGPVTG (String[] message)
+	private void forwardVtg (VtgSentence sentence)
 	{
-		if (message[1].equals (""))
+		// $GPVTG,258.75,T,,M,0.93,N,1.73,K,A*3F
+		double course = sentence.getCourseOverGround ();
+		double speed = sentence.getSpeedKmh ();
+		if (Double.isNaN (course) || Double.isNaN (speed))
 			return;
 		
-		double course = 0;
-		double speed = 0;
-		try {
-			// $GPVTG,258.75,T,,M,0.93,N,1.73,K,A*3F
-			course = Double.parseDouble (message[1]);
-			speed = Double.parseDouble (message[7]);
-		} catch (NumberFormatException e) {
-			e.printStackTrace();
-			System.err.println ("Input String was: '" + message + "'");
-			return;
-		} catch (ArrayIndexOutOfBoundsException e2) {
-			e2.printStackTrace();
-			System.err.println ("Input String was: '" + message + "'");
-			return;
-		}
-		
 		for (int k=0; k < courseViews.size (); k++)
 			((ICourseView)courseViews.get (k)).setCourse (currentDate, course);
 
@@ -241,84 +195,39 @@ public class Nmea0183MessageForwarder implements Nmea0183MessageListener
 	}
 
 	/**
-	 * Parse a $GPZDA NMEA 0183 message.
+	 * Forward a ZDA sentence to the time views.
 	 * 
-	 * @param message the message in pieces.
+	 * @param sentence the decoded sentence.
 	 */
-	public void parseNmea0183MessageGPZDA (String[] message)
+	private void forwardZda (ZdaSentence sentence)
 	{
+		// $GPZDA,163908.068,15,02,2008,00,00*51
+		if (!sentence.isValid ())
+			return;
+		
 		if (calendar == null)
 			calendar = new GregorianCalendar(new SimpleTimeZone(0,"UTC"));
 
-		try {
-			// $GPZDA,163908.068,15,02,2008,00,00*51
-			int year = Integer.parseInt (message[4]);
-			int month = Integer.parseInt (message[3]);
-			int date = Integer.parseInt (message[2]);
-			
-			calendar.set (Calendar.YEAR, year);
-			calendar.set (Calendar.MONTH, month-1);
-			calendar.set (Calendar.DAY_OF_MONTH, date);
-		} catch (NumberFormatException e) {
-			e.printStackTrace();
-			System.err.println ("Input String was: '" + message + "'");
-			return;
-		} catch (ArrayIndexOutOfBoundsException e2) {
-			e2.printStackTrace();
-			System.err.println ("Input String was: '" + message + "'");
-			return;
-		}
+		calendar.set (Calendar.YEAR, sentence.getYear ());
+		calendar.set (Calendar.MONTH, sentence.getMonth ()-1);
+		calendar.set (Calendar.DAY_OF_MONTH, sentence.getDay ());
 		
-		parseTime (message[1]);
+		setTime (sentence.getTimeOfDay ());
 		
 		for (int k=0; k < timeViews.size (); k++)
 			((ITimeView)timeViews.get (k)).setDateTime (currentDate);
 	}
 	
 	/**
-	 * Parse an GPS NMEA 0183 angle.
-	 * 
-	 * @param a the angle to be parsed.
-	 * @return the angle as a double value.
-	 */
-	public static double parseAngle (String a)
-	{
-		double degrees = Double.parseDouble (a.substring (0, 2));
-		double minutes = Double.parseDouble (a.substring (2));
-		return degrees + minutes/60.0;
-	}
-	
-	/**
-	 * Parse the time in a NMEA 0183 message.
+	 * Set the current date to the given UTC time of day.
 	 * 
-	 * @param time the time as a <code>String</code> to be parsed.
+	 * @param timeOfDay the time in milliseconds since midnight or -1 if the
+	 *        time of the sentence is missing or malformed.
 	 */
-	public void parseTime (String time)
+	private void setTime (int timeOfDay)
 	{
-		int hourOfDay = 0;
-		int minute = 0;
-		int second = 0;
-		String fraction = "";
-		int millisecond = 0;
-		try {
-			fraction = time.substring (7);
-			hourOfDay = Integer.parseInt (time.substring (0,2));
-			minute = Integer.parseInt (time.substring (2,4));
-			second = Integer.parseInt (time.substring (4,6));
-			millisecond = Integer.parseInt (fraction);
-		} catch (NumberFormatException e) {
-			e.printStackTrace();
-			System.err.println ("Input String was: '" + time + "'");
+		if (timeOfDay < 0)
 			return;
-		} catch (ArrayIndexOutOfBoundsException e2) {
-			e2.printStackTrace();
-			System.err.println ("Input String was: '" + time + "'");
-			return;
-		}
-		switch (fraction.length ()) {
-			case 1: millisecond *= 100; break;
-			case 2: millisecond *= 10; break;
-		}
 		
 		Calendar cal;
 		if (calendar != null)
@@ -331,10 +240,10 @@ public class Nmea0183MessageForwarder implements Nmea0183MessageListener
 			cal.setTime (new Date());
 		}
 		
-		cal.set (Calendar.HOUR_OF_DAY, hourOfDay);
-		cal.set (Calendar.MINUTE, minute);
-		cal.set (Calendar.SECOND, second);
-		cal.set (Calendar.MILLISECOND, millisecond);
+		cal.set (Calendar.HOUR_OF_DAY, timeOfDay / 3600000);
+		cal.set (Calendar.MINUTE, (timeOfDay / 60000) % 60);
+		cal.set (Calendar.SECOND, (timeOfDay / 1000) % 60);
+		cal.set (Calendar.MILLISECOND, timeOfDay % 1000);
 		currentDate = cal.getTime ();
 	}
 